@@ -0,0 +1,452 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+import static com.opengamma.strata.collect.Guavate.toImmutableMap;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.calc.marketdata.BuiltScenarioMarketData;
+import com.opengamma.strata.calc.marketdata.MarketDataConfig;
+import com.opengamma.strata.calc.marketdata.MarketDataFactory;
+import com.opengamma.strata.calc.marketdata.MarketDataRequirements;
+import com.opengamma.strata.calc.marketdata.MarketDataRequirementsBuilder;
+import com.opengamma.strata.calc.marketdata.ScenarioDefinition;
+import com.opengamma.strata.calc.runner.CalculationTask;
+import com.opengamma.strata.calc.runner.CalculationTaskCell;
+import com.opengamma.strata.calc.runner.CalculationTaskRunner;
+import com.opengamma.strata.calc.runner.CalculationTasks;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.ImmutableMarketData;
+import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.MarketDataId;
+import com.opengamma.strata.data.ObservableId;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+
+/**
+ * A long-lived session that performs the same calculations repeatedly as the targets and market data change.
+ * <p>
+ * Each call to {@link CalculationRunner} starts from the targets and the supplied market data.
+ * By contrast, a session retains the state of the previous calculations, including the tasks
+ * and function of each target, the market data built from the supplied data and the results.
+ * <p>
+ * Changes are applied to the session as deltas. Targets can be added, amended and removed,
+ * and values in the supplied market data, such as quotes, can be updated.
+ * When the session is calculated, only the market data built from changed data is built again,
+ * and only the targets that have been added, amended or that require changed market data are calculated.
+ * Thus the time taken to calculate the session is proportional to the size of the change.
+ * <p>
+ * Each target is identified by a key, such as the identifier of a trade.
+ * The rows of the results are in the order in which the keys were added.
+ * The results are those of {@link CalculationRunner#calculateMultiScenario}, with scenarios
+ * defined by the {@link ScenarioDefinition} of the session.
+ * <p>
+ * This class is mutable and not thread-safe.
+ * 
+ * @param <K>  the type of the keys identifying the targets
+ */
+public final class CalculationSession<K> {
+
+  /**
+   * The runner used to perform the calculations.
+   */
+  private final CalculationTaskRunner taskRunner;
+  /**
+   * The rules defining how the calculations are performed.
+   */
+  private final CalculationRules rules;
+  /**
+   * The columns that are calculated.
+   */
+  private final ImmutableList<Column> columns;
+  /**
+   * The column headers of the results.
+   */
+  private final ImmutableList<ColumnHeader> headers;
+  /**
+   * The factory used to build market data.
+   */
+  private final MarketDataFactory marketDataFactory;
+  /**
+   * The configuration used to build market data.
+   */
+  private final MarketDataConfig marketDataConfig;
+  /**
+   * The definition of the scenarios.
+   */
+  private final ScenarioDefinition scenarioDefinition;
+  /**
+   * The reference data.
+   */
+  private final ReferenceData refData;
+
+  /**
+   * The rows of the session, keyed by target key, in the order in which the keys were added.
+   */
+  private final Map<K, Row> rows = new LinkedHashMap<>();
+  /**
+   * The market data supplied to the session.
+   */
+  private ImmutableMarketData suppliedData;
+  /**
+   * The identifiers of the supplied data that have changed since the market data was built.
+   */
+  private final Set<MarketDataId<?>> changedIds = new HashSet<>();
+  /**
+   * The market data built for the calculations, null until the first calculation.
+   */
+  private BuiltScenarioMarketData marketData;
+  /**
+   * The market data required by the calculations, null if the targets have changed.
+   */
+  private MarketDataRequirements requirements;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains a session performing calculations with a single scenario.
+   * <p>
+   * The session initially contains no targets.
+   * The runner is not closed by the session.
+   * 
+   * @param <K>  the type of the keys identifying the targets
+   * @param taskRunner  the runner used to perform the calculations
+   * @param rules  the rules defining how the calculations are performed
+   * @param columns  the columns that are calculated
+   * @param marketDataFactory  the factory used to build market data
+   * @param marketDataConfig  the configuration used to build market data
+   * @param suppliedData  the market data supplied to the session, such as quotes
+   * @param refData  the reference data
+   * @return the session
+   */
+  public static <K> CalculationSession<K> of(
+      CalculationTaskRunner taskRunner,
+      CalculationRules rules,
+      List<Column> columns,
+      MarketDataFactory marketDataFactory,
+      MarketDataConfig marketDataConfig,
+      MarketData suppliedData,
+      ReferenceData refData) {
+
+    return of(
+        taskRunner, rules, columns, marketDataFactory, marketDataConfig, suppliedData, refData,
+        ScenarioDefinition.empty());
+  }
+
+  /**
+   * Obtains a session performing calculations with multiple scenarios.
+   * <p>
+   * The session initially contains no targets.
+   * The runner is not closed by the session.
+   * <p>
+   * If the scenario definition contains perturbations, all the market data is built again
+   * whenever the supplied data changes.
+   * 
+   * @param <K>  the type of the keys identifying the targets
+   * @param taskRunner  the runner used to perform the calculations
+   * @param rules  the rules defining how the calculations are performed
+   * @param columns  the columns that are calculated
+   * @param marketDataFactory  the factory used to build market data
+   * @param marketDataConfig  the configuration used to build market data
+   * @param suppliedData  the market data supplied to the session, such as quotes
+   * @param refData  the reference data
+   * @param scenarioDefinition  the definition of the scenarios
+   * @return the session
+   */
+  public static <K> CalculationSession<K> of(
+      CalculationTaskRunner taskRunner,
+      CalculationRules rules,
+      List<Column> columns,
+      MarketDataFactory marketDataFactory,
+      MarketDataConfig marketDataConfig,
+      MarketData suppliedData,
+      ReferenceData refData,
+      ScenarioDefinition scenarioDefinition) {
+
+    return new CalculationSession<>(
+        taskRunner, rules, columns, marketDataFactory, marketDataConfig, suppliedData, refData, scenarioDefinition);
+  }
+
+  // restricted constructor
+  private CalculationSession(
+      CalculationTaskRunner taskRunner,
+      CalculationRules rules,
+      List<Column> columns,
+      MarketDataFactory marketDataFactory,
+      MarketDataConfig marketDataConfig,
+      MarketData suppliedData,
+      ReferenceData refData,
+      ScenarioDefinition scenarioDefinition) {
+
+    this.taskRunner = ArgChecker.notNull(taskRunner, "taskRunner");
+    this.rules = ArgChecker.notNull(rules, "rules");
+    this.columns = ImmutableList.copyOf(ArgChecker.notEmpty(columns, "columns"));
+    this.marketDataFactory = ArgChecker.notNull(marketDataFactory, "marketDataFactory");
+    this.marketDataConfig = ArgChecker.notNull(marketDataConfig, "marketDataConfig");
+    this.suppliedData = toImmutable(ArgChecker.notNull(suppliedData, "suppliedData"));
+    this.refData = ArgChecker.notNull(refData, "refData");
+    this.scenarioDefinition = ArgChecker.notNull(scenarioDefinition, "scenarioDefinition");
+    this.headers = this.columns.stream()
+        .map(Column::toHeader)
+        .collect(toImmutableList());
+  }
+
+  // converts the supplied data to an immutable form that can be updated efficiently
+  private static ImmutableMarketData toImmutable(MarketData marketData) {
+    if (marketData instanceof ImmutableMarketData) {
+      return (ImmutableMarketData) marketData;
+    }
+    Map<MarketDataId<?>, Object> values = new HashMap<>();
+    for (MarketDataId<?> id : marketData.getIds()) {
+      values.put(id, marketData.getValue(id));
+    }
+    return ImmutableMarketData.builder(marketData.getValuationDate())
+        .values(values)
+        .timeSeries(marketData.getTimeSeriesIds().stream()
+            .collect(toImmutableMap(id -> id, marketData::getTimeSeries)))
+        .build();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the keys of the targets, in the order of the rows of the results.
+   * 
+   * @return the keys
+   */
+  public ImmutableList<K> getKeys() {
+    return ImmutableList.copyOf(rows.keySet());
+  }
+
+  /**
+   * Gets the market data supplied to the session, including any updates.
+   * 
+   * @return the supplied market data
+   */
+  public MarketData getSuppliedData() {
+    return suppliedData;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Adds a target to the session, or amends the target with the same key.
+   * <p>
+   * The target will be calculated when the session is next calculated,
+   * unless it is equal to the target it replaces.
+   * 
+   * @param key  the key identifying the target
+   * @param target  the target
+   */
+  public void putTarget(K key, CalculationTarget target) {
+    ArgChecker.notNull(key, "key");
+    ArgChecker.notNull(target, "target");
+    Row existing = rows.get(key);
+    if (existing != null && existing.target.equals(target)) {
+      return;
+    }
+    // the function is looked up and the tasks are created once per target, with a row index of zero
+    CalculationTasks tasks = CalculationTasks.of(rules, ImmutableList.of(target), columns);
+    Row row = new Row(target, tasks.getTasks(), tasks.requirements(refData));
+    rows.put(key, row);
+    if (existing == null || !existing.requirements.equals(row.requirements)) {
+      requirements = null;
+    }
+  }
+
+  /**
+   * Removes a target from the session.
+   * <p>
+   * No target is calculated as a result of removing a target.
+   * The market data required only by the removed target is discarded when the session is next calculated.
+   * 
+   * @param key  the key identifying the target
+   * @return true if the target was removed, false if there was no target for the key
+   */
+  public boolean removeTarget(K key) {
+    ArgChecker.notNull(key, "key");
+    if (rows.remove(key) == null) {
+      return false;
+    }
+    requirements = null;
+    return true;
+  }
+
+  /**
+   * Updates values in the supplied market data, such as quotes.
+   * <p>
+   * The values replace any existing values with the same identifiers.
+   * The market data built from these values, and the targets that require them,
+   * will be calculated when the session is next calculated.
+   * 
+   * @param values  the values, keyed by identifier
+   */
+  public void updateMarketData(Map<? extends MarketDataId<?>, ?> values) {
+    ArgChecker.notNull(values, "values");
+    suppliedData = suppliedData.toBuilder().addValueMap(values).build();
+    changedIds.addAll(values.keySet());
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the results of the session.
+   * <p>
+   * The market data built from changed data is built again, then the targets that have been added or amended
+   * and the targets that require changed market data are calculated. The results of the other targets are
+   * those of the previous calculation.
+   * <p>
+   * The results contain a row for each target, in the order of {@link #getKeys()},
+   * and a column for each column of the session.
+   * 
+   * @return the results
+   */
+  public Results calculate() {
+    Set<MarketDataId<?>> changedValueIds = updateMarketData();
+
+    // find the rows that must be calculated
+    List<Row> affectedRows = new ArrayList<>();
+    for (Row row : rows.values()) {
+      if (row.results == null || row.dependsOn(changedValueIds)) {
+        affectedRows.add(row);
+      }
+    }
+    if (!affectedRows.isEmpty()) {
+      calculate(affectedRows);
+    }
+
+    // assemble the results of all rows
+    List<Result<?>> cells = new ArrayList<>(rows.size() * columns.size());
+    for (Row row : rows.values()) {
+      cells.addAll(row.results);
+    }
+    return Results.of(headers, cells);
+  }
+
+  // builds the market data, returning the identifiers of the required market data that has changed
+  private Set<MarketDataId<?>> updateMarketData() {
+    BuiltScenarioMarketData previous = marketData;
+    if (previous != null && changedIds.isEmpty() && requirements != null) {
+      return ImmutableSet.of();
+    }
+    if (requirements == null) {
+      MarketDataRequirementsBuilder builder = MarketDataRequirements.builder();
+      for (Row row : rows.values()) {
+        builder.addRequirements(row.requirements);
+      }
+      requirements = builder.build();
+    }
+    ScenarioMarketData supplied = ScenarioMarketData.of(1, suppliedData);
+    if (previous == null) {
+      marketData = marketDataFactory.createMultiScenario(
+          requirements, marketDataConfig, supplied, refData, scenarioDefinition);
+      changedIds.clear();
+      return ImmutableSet.of();
+    }
+    marketData = marketDataFactory.updateMultiScenario(
+        requirements, marketDataConfig, supplied, refData, scenarioDefinition, previous, changedIds);
+    changedIds.clear();
+
+    // compare the market data required by the calculations
+    // values that have not been built again are the same instances, thus the comparison is cheap
+    Set<MarketDataId<?>> changedValueIds = new HashSet<>();
+    for (MarketDataId<?> id : Iterables.concat(requirements.getObservables(), requirements.getNonObservables())) {
+      if (!Objects.equals(valueState(previous, id), valueState(marketData, id))) {
+        changedValueIds.add(id);
+      }
+    }
+    for (ObservableId id : requirements.getTimeSeries()) {
+      if (!Objects.equals(previous.getTimeSeries(id), marketData.getTimeSeries(id))) {
+        changedValueIds.add(id);
+      }
+    }
+    return changedValueIds;
+  }
+
+  // the value of the market data, or the failure if it could not be built
+  private static Object valueState(BuiltScenarioMarketData marketData, MarketDataId<?> id) {
+    Object value = marketData.findValue(id).orElse(null);
+    return value != null ? value : marketData.getValueFailures().get(id);
+  }
+
+  // calculates the rows, storing the results in each row
+  private void calculate(List<Row> affectedRows) {
+    List<CalculationTask> tasks = new ArrayList<>();
+    for (int rowIndex = 0; rowIndex < affectedRows.size(); rowIndex++) {
+      for (CalculationTask task : affectedRows.get(rowIndex).tasks) {
+        tasks.add(withRowIndex(task, rowIndex));
+      }
+    }
+    Results results = taskRunner.calculateMultiScenario(CalculationTasks.of(tasks, columns), marketData, refData);
+    int columnCount = columns.size();
+    for (int rowIndex = 0; rowIndex < affectedRows.size(); rowIndex++) {
+      affectedRows.get(rowIndex).results =
+          results.getCells().subList(rowIndex * columnCount, (rowIndex + 1) * columnCount);
+    }
+  }
+
+  // creates a copy of the task calculating the cells of another row
+  private static CalculationTask withRowIndex(CalculationTask task, int rowIndex) {
+    List<CalculationTaskCell> cells = task.getCells().stream()
+        .map(cell -> CalculationTaskCell.of(
+            rowIndex, cell.getColumnIndex(), cell.getMeasure(), cell.getReportingCurrency()))
+        .collect(toImmutableList());
+    return CalculationTask.of(task.getTarget(), task.getFunction(), task.getParameters(), cells);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "CalculationSession[targets=" + rows.size() + ", columns=" + columns.size() + "]";
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The state of a single target.
+   */
+  private static final class Row {
+
+    /** The target. */
+    private final CalculationTarget target;
+    /** The tasks calculating the target, with a row index of zero. */
+    private final List<CalculationTask> tasks;
+    /** The market data required to calculate the target. */
+    private final MarketDataRequirements requirements;
+    /** The results of the target, one for each column, null if not calculated. */
+    private List<Result<?>> results;
+
+    private Row(CalculationTarget target, List<CalculationTask> tasks, MarketDataRequirements requirements) {
+      this.target = target;
+      this.tasks = tasks;
+      this.requirements = requirements;
+    }
+
+    // checks if the target requires any of the market data
+    private boolean dependsOn(Set<MarketDataId<?>> ids) {
+      if (ids.isEmpty()) {
+        return false;
+      }
+      for (MarketDataId<?> id : Iterables.concat(
+          requirements.getObservables(), requirements.getNonObservables(), requirements.getTimeSeries())) {
+        if (ids.contains(id)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+}
@@ -23,6 +23,7 @@ import com.opengamma.strata.collect.tuple.Pair;
 import com.opengamma.strata.data.MarketData;
 import com.opengamma.strata.data.MarketDataId;
 import com.opengamma.strata.data.ObservableId;
+import com.opengamma.strata.data.scenario.ImmutableScenarioMarketData;
 import com.opengamma.strata.data.scenario.MarketDataBox;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
 
@@ -201,6 +202,41 @@ final class DefaultMarketDataFactory implements MarketDataFactory {
     return builtData;
   }
 
+  @Override
+  public BuiltScenarioMarketData updateMultiScenario(
+      MarketDataRequirements requirements,
+      MarketDataConfig marketDataConfig,
+      ScenarioMarketData suppliedData,
+      ReferenceData refData,
+      ScenarioDefinition scenarioDefinition,
+      BuiltScenarioMarketData previousData,
+      Set<? extends MarketDataId<?>> changedIds) {
+
+    // previous values have already been perturbed and would be perturbed again if reused
+    if (!scenarioDefinition.getMappings().isEmpty()) {
+      return createMultiScenario(requirements, marketDataConfig, suppliedData, refData, scenarioDefinition);
+    }
+    // The dependency tree is built from the supplied data alone, so its nodes extend down to the data
+    // used to build each value. Any value built from changed data, directly or indirectly, is built again.
+    // Observable data and time series are obtained again in the normal way, as they are not built
+    MarketDataNode root = MarketDataNode.buildDependencyTree(requirements, suppliedData, marketDataConfig, functions);
+    Set<MarketDataId<?>> affectedIds = root.dependents(changedIds);
+    Map<MarketDataId<?>, MarketDataBox<?>> reused = new HashMap<>();
+    for (MarketDataId<?> id : previousData.getIds()) {
+      if (!(id instanceof ObservableId) && !affectedIds.contains(id) && !suppliedData.containsValue(id)) {
+        reused.put(id, previousData.getValue(id));
+      }
+    }
+    if (reused.isEmpty()) {
+      return createMultiScenario(requirements, marketDataConfig, suppliedData, refData, scenarioDefinition);
+    }
+    ScenarioMarketData reusedData = ImmutableScenarioMarketData.builder(suppliedData.getValuationDate())
+        .addBoxMap(reused)
+        .build();
+    return createMultiScenario(
+        requirements, marketDataConfig, suppliedData.combinedWith(reusedData), refData, scenarioDefinition);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Builds items of non-observable market data using a market data function.
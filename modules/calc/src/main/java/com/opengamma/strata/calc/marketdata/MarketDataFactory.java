@@ -6,11 +6,13 @@
 package com.opengamma.strata.calc.marketdata;
 
 import java.util.List;
+import java.util.Set;
 
 import com.google.common.collect.ImmutableList;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.calc.runner.CalculationTasks;
 import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.MarketDataId;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
 
 /**
@@ -154,4 +156,42 @@ public interface MarketDataFactory {
       ReferenceData refData,
       ScenarioDefinition scenarioDefinition);
 
+  //-------------------------------------------------------------------------
+  /**
+   * Rebuilds the market data required for performing calculations for a set of scenarios
+   * after some of the supplied data has changed.
+   * <p>
+   * This is used when the same calculations are performed repeatedly as the market moves.
+   * The result is the same as that of
+   * {@link #createMultiScenario(MarketDataRequirements, MarketDataConfig, ScenarioMarketData, ReferenceData,
+   * ScenarioDefinition)}, but values in the previous market data that do not depend on the changed data
+   * may be reused rather than built again. The previous market data must have been built using the same
+   * configuration and scenario definition. Any required data not in the previous market data is built.
+   * <p>
+   * The changed identifiers must include all the data that has changed since the previous market data was built,
+   * including any observable data obtained from the {@link ObservableDataProvider}.
+   * <p>
+   * The default implementation ignores the previous market data and builds all the data.
+   * 
+   * @param requirements  the market data required for the calculations
+   * @param marketDataConfig  configuration needed to build non-observable market data, for example curves or surfaces
+   * @param suppliedData  the base market data used to derive the data for each scenario
+   * @param refData  the reference data
+   * @param scenarioDefinition  defines how the market data for each scenario is derived from the base data
+   * @param previousData  the market data previously built by this factory
+   * @param changedIds  the identifiers of the data that has changed since the previous market data was built
+   * @return the market data required by the calculations
+   */
+  public default BuiltScenarioMarketData updateMultiScenario(
+      MarketDataRequirements requirements,
+      MarketDataConfig marketDataConfig,
+      ScenarioMarketData suppliedData,
+      ReferenceData refData,
+      ScenarioDefinition scenarioDefinition,
+      BuiltScenarioMarketData previousData,
+      Set<? extends MarketDataId<?>> changedIds) {
+
+    return createMultiScenario(requirements, marketDataConfig, suppliedData, refData, scenarioDefinition);
+  }
+
 }
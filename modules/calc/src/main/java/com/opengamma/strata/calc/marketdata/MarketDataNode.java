@@ -5,10 +5,12 @@
  */
 package com.opengamma.strata.calc.marketdata;
 
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 
 import com.google.common.collect.ImmutableList;
 import com.opengamma.strata.collect.ArgChecker;
@@ -162,6 +164,33 @@ final class MarketDataNode {
     return Pair.of(node, requirements);
   }
 
+  /**
+   * Finds the market data in the tree that depends on any of the specified market data.
+   * <p>
+   * The result contains the identifiers of all nodes in the tree with a descendant having one of
+   * the specified identifiers, directly or indirectly. Specified identifiers in the tree are also included.
+   * 
+   * @param ids  the identifiers of the market data
+   * @return the identifiers of the market data depending on the specified market data
+   */
+  Set<MarketDataId<?>> dependents(Set<? extends MarketDataId<?>> ids) {
+    Set<MarketDataId<?>> dependents = new HashSet<>();
+    addDependents(ids, dependents);
+    return dependents;
+  }
+
+  // adds the identifiers of the nodes depending on the identifiers, returning true if this node depends on them
+  private boolean addDependents(Set<? extends MarketDataId<?>> ids, Set<MarketDataId<?>> dependents) {
+    boolean dependent = id != null && ids.contains(id);
+    for (MarketDataNode child : dependencies) {
+      dependent |= child.addDependents(ids, dependents);
+    }
+    if (dependent && id != null) {
+      dependents.add(id);
+    }
+    return dependent;
+  }
+
   /**
    * Returns true if this node has no children.
    *
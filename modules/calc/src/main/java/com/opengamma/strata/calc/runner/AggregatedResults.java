@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.calc.ColumnName;
+import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.result.Result;
+
+/**
+ * The results of calculations aggregated by group.
+ * <p>
+ * This contains one row of results for each group, such as a book or a counterparty.
+ * The result of a group and column is the combination of the results of all the targets in the group.
+ * These results are produced by {@link PortfolioAggregationListener}.
+ * 
+ * @param <K>  the type of the group keys
+ */
+public final class AggregatedResults<K> {
+
+  /**
+   * The group keys, in the order of the rows of the results.
+   */
+  private final ImmutableList<K> groups;
+  /**
+   * The row index of each group.
+   */
+  private final ImmutableMap<K, Integer> rowIndices;
+  /**
+   * The aggregated results, one row per group.
+   */
+  private final Results results;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance from the group keys and the aggregated results.
+   * <p>
+   * The results must contain one row for each group, in the same order as the group keys.
+   * 
+   * @param <K>  the type of the group keys
+   * @param groups  the group keys, in the order of the rows of the results
+   * @param results  the aggregated results, one row per group
+   * @return the aggregated results
+   * @throws IllegalArgumentException if the number of groups does not match the number of rows
+   */
+  public static <K> AggregatedResults<K> of(List<K> groups, Results results) {
+    return new AggregatedResults<>(groups, results);
+  }
+
+  // restricted constructor
+  private AggregatedResults(List<K> groups, Results results) {
+    ArgChecker.noNulls(groups, "groups");
+    ArgChecker.notNull(results, "results");
+    if (groups.size() != results.getRowCount()) {
+      throw new IllegalArgumentException(Messages.format(
+          "Expected {} groups but received {}", results.getRowCount(), groups.size()));
+    }
+    this.groups = ImmutableList.copyOf(groups);
+    ImmutableMap.Builder<K, Integer> builder = ImmutableMap.builder();
+    for (int i = 0; i < groups.size(); i++) {
+      builder.put(groups.get(i), i);
+    }
+    this.rowIndices = builder.build();
+    this.results = results;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the group keys, in the order of the rows of the results.
+   * 
+   * @return the group keys
+   */
+  public ImmutableList<K> getGroups() {
+    return groups;
+  }
+
+  /**
+   * Gets the aggregated results, one row per group.
+   * 
+   * @return the aggregated results
+   */
+  public Results getResults() {
+    return results;
+  }
+
+  /**
+   * Gets the aggregated result for a group and column index.
+   * 
+   * @param group  the group key
+   * @param columnIndex  the index of the column
+   * @return the aggregated result for the group and column
+   * @throws IllegalArgumentException if the group is not found
+   * @throws IndexOutOfBoundsException if the column index is invalid
+   */
+  public Result<?> get(K group, int columnIndex) {
+    return results.get(rowIndex(group), columnIndex);
+  }
+
+  /**
+   * Gets the aggregated result for a group and column name.
+   * 
+   * @param group  the group key
+   * @param columnName  the name of the column
+   * @return the aggregated result for the group and column
+   * @throws IllegalArgumentException if the group or column is not found
+   */
+  public Result<?> get(K group, ColumnName columnName) {
+    return results.get(rowIndex(group), columnName);
+  }
+
+  /**
+   * Gets the aggregated result for a group and column name, casting the result to a known type.
+   * 
+   * @param <T>  the result type
+   * @param group  the group key
+   * @param columnName  the name of the column
+   * @param type  the result type
+   * @return the aggregated result for the group and column
+   * @throws IllegalArgumentException if the group or column is not found
+   * @throws ClassCastException if the result is not of the specified type
+   */
+  public <T> Result<T> get(K group, ColumnName columnName, Class<T> type) {
+    return results.get(rowIndex(group), columnName, type);
+  }
+
+  // finds the row of a group
+  private int rowIndex(K group) {
+    Integer rowIndex = rowIndices.get(group);
+    if (rowIndex == null) {
+      throw new IllegalArgumentException("Group not found: " + group);
+    }
+    return rowIndex;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj instanceof AggregatedResults) {
+      AggregatedResults<?> other = (AggregatedResults<?>) obj;
+      return groups.equals(other.groups) && results.equals(other.results);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    return groups.hashCode() * 31 + results.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return "AggregatedResults[groups=" + groups + ", results=" + results + "]";
+  }
+
+}
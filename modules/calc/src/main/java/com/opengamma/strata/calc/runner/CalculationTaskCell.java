@@ -5,6 +5,7 @@
  */
 package com.opengamma.strata.calc.runner;
 
+import java.io.Serializable;
 import java.lang.invoke.MethodHandles;
 import java.util.Map;
 
@@ -35,7 +36,8 @@ import com.opengamma.strata.data.scenario.ScenarioFxRateProvider;
  * This class capture details of each cell.
  */
 @BeanDefinition(style = "light")
-public final class CalculationTaskCell implements ImmutableBean {
+public final class CalculationTaskCell
+    implements ImmutableBean, Serializable {
 
   /**
    * The row index of the cell in the results grid.
@@ -204,6 +206,11 @@ public final class CalculationTaskCell implements ImmutableBean {
     MetaBean.register(META_BEAN);
   }
 
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
+
   private CalculationTaskCell(
       int rowIndex,
       int columnIndex,
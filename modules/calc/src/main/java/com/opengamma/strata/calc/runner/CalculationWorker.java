@@ -0,0 +1,495 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableSet;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InvalidClassException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamClass;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+
+/**
+ * A worker that performs calculations on behalf of a {@link DistributedCalculationTaskRunner}.
+ * <p>
+ * The worker listens on a server socket. Each connection is a single request from a runner.
+ * The runner must first prove that it knows the secret shared with the worker by answering a challenge,
+ * otherwise the connection is closed before anything is deserialized. The request then consists of the
+ * serialized reference data and market data, followed by the tasks to calculate, sent in chunks.
+ * The results of each task are sent back as soon as they are calculated.
+ * The tasks are calculated using a thread for each available processor.
+ * <p>
+ * The values are exchanged using Java serialization. Only the classes of the allowed packages are
+ * deserialized, by default those of {@link #DEFAULT_ALLOWED_PACKAGES}.
+ * <p>
+ * By default, the worker only accepts connections from the local host.
+ * A worker accepting connections from other hosts must only be used on a trusted network.
+ * The connections are not encrypted, and a runner that knows the secret can run any calculation
+ * function on the class path of the worker.
+ * <p>
+ * A worker is normally started in its own JVM using the {@link #main(String[])} method.
+ * A worker may also be started within the current JVM using {@link #start(int, String)}.
+ */
+public final class CalculationWorker implements AutoCloseable {
+
+  /**
+   * The logger.
+   */
+  private static final Logger log = LoggerFactory.getLogger(CalculationWorker.class);
+  /**
+   * The prefix of the line printed to standard out when the worker has started.
+   */
+  static final String STARTED_PREFIX = "CalculationWorker listening on port ";
+  /**
+   * The argument indicating the worker must stop when standard in is closed.
+   */
+  static final String LOCAL_ARGUMENT = "local";
+  /**
+   * The packages whose classes are deserialized by default, including their subpackages.
+   */
+  public static final ImmutableSet<String> DEFAULT_ALLOWED_PACKAGES = ImmutableSet.of(
+      "com.opengamma.strata",
+      "com.google.common",
+      "org.joda.beans",
+      "java.lang",
+      "java.util",
+      "java.time",
+      "java.math");
+  /**
+   * The maximum number of pending connections.
+   */
+  private static final int BACKLOG = 50;
+  /**
+   * The timeout when reading a request.
+   */
+  private static final int REQUEST_TIMEOUT_MILLIS = 60_000;
+  /**
+   * The length of the challenge sent to the runner.
+   */
+  private static final int CHALLENGE_LENGTH = 32;
+  /**
+   * The algorithm of the response to the challenge.
+   */
+  private static final String MAC_ALGORITHM = "HmacSHA256";
+  /**
+   * The source of the challenges.
+   */
+  private static final SecureRandom RANDOM = new SecureRandom();
+
+  /**
+   * The server socket.
+   */
+  private final ServerSocket serverSocket;
+  /**
+   * The secret shared with the runners.
+   */
+  private final byte[] secret;
+  /**
+   * The packages whose classes are deserialized.
+   */
+  private final ImmutableSet<String> allowedPackages;
+  /**
+   * Executes the tasks that perform the individual calculations.
+   */
+  private final ExecutorService executor;
+  /**
+   * Handles connections, one thread for each connection.
+   */
+  private final ExecutorService connectionExecutor;
+  /**
+   * The thread accepting connections.
+   */
+  private final Thread acceptThread;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Starts a worker in a new JVM.
+   * <p>
+   * The first argument is the port to listen on, zero or absent to choose a free port.
+   * The chosen port is printed to standard out.
+   * The second argument is either 'local' or the host name of the interface to listen on.
+   * If it is 'local' or absent, the worker only accepts connections from the local host.
+   * If it is 'local', the worker also stops when standard in is closed,
+   * which happens when the process that launched it terminates.
+   * The optional third argument is a comma separated list of the packages whose classes are deserialized,
+   * in addition to {@link #DEFAULT_ALLOWED_PACKAGES}.
+   * <p>
+   * The secret shared with the runners is read from the first line of standard in,
+   * so that it is not visible in the list of processes.
+   *
+   * @param args  the arguments
+   * @throws Exception if the worker cannot be started
+   */
+  public static void main(String[] args) throws Exception {
+    int port = args.length > 0 ? Integer.parseInt(args[0]) : 0;
+    boolean local = args.length < 2 || args[1].equals(LOCAL_ARGUMENT);
+    InetAddress address = local ? InetAddress.getLoopbackAddress() : InetAddress.getByName(args[1]);
+    Set<String> allowedPackages = args.length > 2 ?
+        Arrays.stream(args[2].split(",")).map(String::trim).filter(pkg -> !pkg.isEmpty()).collect(toImmutableSet()) :
+        ImmutableSet.of();
+    BufferedReader reader = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+    String secret = reader.readLine();
+    if (secret == null || secret.isEmpty()) {
+      throw new IllegalArgumentException("The secret must be provided on the first line of standard in");
+    }
+    try (CalculationWorker worker = start(new InetSocketAddress(address, port), secret, allowedPackages)) {
+      System.out.println(STARTED_PREFIX + worker.getPort());
+      System.out.flush();
+      if (args.length > 1 && args[1].equals(LOCAL_ARGUMENT)) {
+        while (reader.read() != -1) {
+          // wait for the launching process to close standard in
+        }
+      } else {
+        worker.acceptThread.join();
+      }
+    }
+  }
+
+  /**
+   * Starts a worker in the current JVM, accepting connections from the local host.
+   * <p>
+   * The worker uses daemon threads, and must be closed when no longer required.
+   * The classes of {@link #DEFAULT_ALLOWED_PACKAGES} are deserialized.
+   *
+   * @param port  the port to listen on, zero to choose a free port
+   * @param secret  the secret shared with the runners
+   * @return the started worker
+   * @throws UncheckedIOException if the server socket cannot be opened
+   */
+  public static CalculationWorker start(int port, String secret) {
+    ArgChecker.notNegative(port, "port");
+    return start(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), secret, ImmutableSet.of());
+  }
+
+  /**
+   * Starts a worker in the current JVM, listening on the specified address.
+   * <p>
+   * The worker uses daemon threads, and must be closed when no longer required.
+   * A worker listening on an address other than the loopback address must only be used on a trusted network.
+   *
+   * @param bindAddress  the address to listen on, with a port of zero to choose a free port
+   * @param secret  the secret shared with the runners
+   * @param allowedPackages  the packages whose classes are deserialized, including their subpackages,
+   *   in addition to {@link #DEFAULT_ALLOWED_PACKAGES}
+   * @return the started worker
+   * @throws UncheckedIOException if the server socket cannot be opened
+   */
+  public static CalculationWorker start(InetSocketAddress bindAddress, String secret, Set<String> allowedPackages) {
+    ArgChecker.notNull(bindAddress, "bindAddress");
+    ArgChecker.notEmpty(secret, "secret");
+    ArgChecker.notNull(allowedPackages, "allowedPackages");
+    try {
+      ServerSocket serverSocket = new ServerSocket(bindAddress.getPort(), BACKLOG, bindAddress.getAddress());
+      return new CalculationWorker(serverSocket, secret, allowedPackages(allowedPackages));
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  // restricted constructor
+  private CalculationWorker(ServerSocket serverSocket, String secret, ImmutableSet<String> allowedPackages) {
+    this.serverSocket = serverSocket;
+    this.secret = secret.getBytes(StandardCharsets.UTF_8);
+    this.allowedPackages = allowedPackages;
+    this.executor = Executors.newFixedThreadPool(
+        Runtime.getRuntime().availableProcessors(), threadFactory("CalculationWorker-"));
+    this.connectionExecutor = Executors.newCachedThreadPool(threadFactory("CalculationWorkerConnection-"));
+    this.acceptThread = threadFactory("CalculationWorkerAccept-").newThread(this::acceptConnections);
+    this.acceptThread.start();
+  }
+
+  // create daemon threads
+  private static ThreadFactory threadFactory(String prefix) {
+    return r -> {
+      Thread t = Executors.defaultThreadFactory().newThread(r);
+      t.setName(prefix + t.getName());
+      t.setDaemon(true);
+      return t;
+    };
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the port that the worker is listening on.
+   *
+   * @return the port
+   */
+  public int getPort() {
+    return serverSocket.getLocalPort();
+  }
+
+  /**
+   * Gets the address that a runner on the same host can use to connect to the worker.
+   *
+   * @return the address
+   */
+  public InetSocketAddress getLocalAddress() {
+    return new InetSocketAddress(serverSocket.getInetAddress().isAnyLocalAddress() ?
+        "localhost" : serverSocket.getInetAddress().getHostAddress(), getPort());
+  }
+
+  //-------------------------------------------------------------------------
+  // accepts connections until the server socket is closed
+  private void acceptConnections() {
+    while (!serverSocket.isClosed()) {
+      try {
+        Socket socket = serverSocket.accept();
+        connectionExecutor.execute(() -> handleConnection(socket));
+      } catch (SocketException ex) {
+        // the server socket has been closed
+      } catch (IOException ex) {
+        log.warn("Unable to accept connection", ex);
+      }
+    }
+  }
+
+  // reads the request and sends back the results of each task as it completes
+  // the tasks of each chunk are calculated while the next chunk is received
+  private void handleConnection(Socket socket) {
+    try (Socket closeable = socket) {
+      socket.setSoTimeout(REQUEST_TIMEOUT_MILLIS);
+      DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+      DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+      if (!authenticate(in, out)) {
+        log.warn("Calculation request from {} rejected, the secret is invalid", socket.getRemoteSocketAddress());
+        return;
+      }
+      Object[] data = (Object[]) readFrame(in, allowedPackages);
+      ReferenceData refData = (ReferenceData) data[0];
+      ScenarioMarketData marketData = (ScenarioMarketData) data[1];
+
+      List<CompletableFuture<?>> futures = new ArrayList<>();
+      int chunkCount = in.readInt();
+      for (int i = 0; i < chunkCount; i++) {
+        List<?> chunk = (List<?>) readFrame(in, allowedPackages);
+        for (Object value : chunk) {
+          int index = futures.size();
+          RemoteCalculationTask task = (RemoteCalculationTask) value;
+          futures.add(CompletableFuture.runAsync(
+              () -> sendResults(out, index, task, task.execute(marketData, refData)), executor));
+        }
+      }
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[futures.size()])).join();
+
+    } catch (IOException | ClassNotFoundException | RuntimeException ex) {
+      log.warn("Calculation request failed", ex);
+    }
+  }
+
+  // sends a challenge, returning true if the response shows that the runner knows the secret
+  private boolean authenticate(DataInputStream in, DataOutputStream out) throws IOException {
+    byte[] challenge = new byte[CHALLENGE_LENGTH];
+    RANDOM.nextBytes(challenge);
+    out.write(challenge);
+    out.flush();
+    byte[] expected = respond(secret, challenge);
+    byte[] response = new byte[expected.length];
+    in.readFully(response);
+    boolean valid = MessageDigest.isEqual(response, expected);
+    out.writeBoolean(valid);
+    out.flush();
+    return valid;
+  }
+
+  // sends the results of a single task, replaced by failures if they cannot be serialized
+  private static void sendResults(
+      DataOutputStream out,
+      int index,
+      RemoteCalculationTask task,
+      CalculationResults results) {
+
+    byte[] bytes;
+    try {
+      bytes = serialize(results);
+    } catch (IOException ex) {
+      bytes = serializeUnchecked(task.failure(ex, "Unable to serialize results: {}", ex.getMessage()));
+    }
+    synchronized (out) {
+      try {
+        out.writeInt(index);
+        writeFrame(out, bytes);
+        out.flush();
+      } catch (IOException ex) {
+        throw new UncheckedIOException(ex);
+      }
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Stops the worker.
+   * <p>
+   * Calculations in progress are abandoned.
+   */
+  @Override
+  public void close() {
+    try {
+      serverSocket.close();
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    } finally {
+      connectionExecutor.shutdownNow();
+      executor.shutdownNow();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "CalculationWorker[port=" + getPort() + "]";
+  }
+
+  //-------------------------------------------------------------------------
+  // answers the challenge of the worker, throwing an exception if the worker rejects the response
+  static void answerChallenge(DataInputStream in, DataOutputStream out, byte[] secret) throws IOException {
+    byte[] challenge = new byte[CHALLENGE_LENGTH];
+    in.readFully(challenge);
+    out.write(respond(secret, challenge));
+    out.flush();
+    if (!in.readBoolean()) {
+      throw new IOException("The worker rejected the secret");
+    }
+  }
+
+  // computes the response to the challenge, proving that the secret is known without sending it
+  private static byte[] respond(byte[] secret, byte[] challenge) {
+    try {
+      Mac mac = Mac.getInstance(MAC_ALGORITHM);
+      mac.init(new SecretKeySpec(secret, MAC_ALGORITHM));
+      return mac.doFinal(challenge);
+    } catch (GeneralSecurityException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  // combines the allowed packages with the default packages
+  static ImmutableSet<String> allowedPackages(Set<String> allowedPackages) {
+    return ImmutableSet.<String>builder()
+        .addAll(DEFAULT_ALLOWED_PACKAGES)
+        .addAll(allowedPackages)
+        .build();
+  }
+
+  //-------------------------------------------------------------------------
+  // serializes an object using Java serialization
+  static byte[] serialize(Object object) throws IOException {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    try (ObjectOutputStream oos = new ObjectOutputStream(baos)) {
+      oos.writeObject(object);
+    }
+    return baos.toByteArray();
+  }
+
+  // serializes an object that is known to be serializable
+  static byte[] serializeUnchecked(Object object) {
+    try {
+      return serialize(object);
+    } catch (IOException ex) {
+      throw new UncheckedIOException(ex);
+    }
+  }
+
+  // writes a length-prefixed serialized object
+  static void writeFrame(DataOutputStream out, byte[] bytes) throws IOException {
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  // reads a length-prefixed serialized object, only deserializing the classes of the allowed packages
+  static Object readFrame(
+      DataInputStream in,
+      Set<String> allowedPackages) throws IOException, ClassNotFoundException {
+
+    int length = in.readInt();
+    if (length < 0) {
+      throw new IOException("Invalid frame length: " + length);
+    }
+    byte[] bytes = new byte[length];
+    in.readFully(bytes);
+    InputStream bytesIn = new ByteArrayInputStream(bytes);
+    try (ObjectInputStream ois = new AllowedClassesObjectInputStream(bytesIn, allowedPackages)) {
+      return ois.readObject();
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * An object input stream that only resolves the classes of the allowed packages.
+   * <p>
+   * This prevents the deserialization of classes that are not expected in a calculation request or result.
+   */
+  private static final class AllowedClassesObjectInputStream extends ObjectInputStream {
+
+    /**
+     * The prefixes of the allowed class names.
+     */
+    private final List<String> prefixes = new ArrayList<>();
+
+    private AllowedClassesObjectInputStream(InputStream in, Set<String> allowedPackages) throws IOException {
+      super(in);
+      allowedPackages.forEach(pkg -> prefixes.add(pkg + "."));
+    }
+
+    @Override
+    protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+      String name = desc.getName();
+      String className = name;
+      if (className.startsWith("[")) {
+        // the element type of an array, which is a single character for primitive types
+        className = className.substring(className.lastIndexOf('[') + 1);
+        className = className.length() == 1 ? "" : className.substring(1, className.length() - 1);
+      }
+      if (!className.isEmpty() && prefixes.stream().noneMatch(className::startsWith)) {
+        throw new InvalidClassException(name, "Class is not in the allowed packages");
+      }
+      return super.resolveClass(desc);
+    }
+
+    @Override
+    protected Class<?> resolveProxyClass(String[] interfaces) throws IOException, ClassNotFoundException {
+      throw new InvalidClassException("Proxy classes are not allowed");
+    }
+  }
+
+}
@@ -123,7 +123,7 @@ final class DefaultCalculationTaskRunner implements CalculationTaskRunner {
    * <p>
    * If this method is called with a {@code ScenarioArray} containing more than one value it throws an exception.
    */
-  private static Result<?> unwrapScenarioResult(Result<?> result) {
+  static Result<?> unwrapScenarioResult(Result<?> result) {
     if (result.isFailure()) {
       return result;
     }
@@ -210,11 +210,11 @@ final class DefaultCalculationTaskRunner implements CalculationTaskRunner {
    * containing a single value before passing the value to the delegate listener.
    * This is used by the single scenario async method.
    */
-  private static final class UnwrappingListener implements CalculationListener {
+  static final class UnwrappingListener implements CalculationListener {
 
     private final CalculationListener delegate;
 
-    private UnwrappingListener(CalculationListener delegate) {
+    UnwrappingListener(CalculationListener delegate) {
       this.delegate = delegate;
     }
 
@@ -7,6 +7,7 @@ package com.opengamma.strata.calc.runner;
 
 import static java.util.stream.Collectors.toList;
 
+import java.io.Serializable;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -32,8 +33,16 @@ import com.opengamma.strata.data.scenario.ScenarioMarketData;
  * <p>
  * Most of the logic is concerned with bookkeeping - packing and unpacking maps of measures and results before
  * passing them on or returning them.
+ * <p>
+ * The wrapper can only be serialized if the derived function and the delegate are serializable.
  */
-class DerivedCalculationFunctionWrapper<T extends CalculationTarget, R> implements CalculationFunction<T> {
+class DerivedCalculationFunctionWrapper<T extends CalculationTarget, R>
+    implements CalculationFunction<T>, Serializable {
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
 
   /**
    * The derived calculation function which calculates one measure.
@@ -81,6 +90,16 @@ class DerivedCalculationFunctionWrapper<T extends CalculationTarget, R> implemen
         delegateMeasures;
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Checks if the wrapper can be serialized, which requires the derived function and the delegate to be serializable.
+   *
+   * @return true if the wrapper can be serialized
+   */
+  boolean isSerializable() {
+    return derivedFunction instanceof Serializable && RemoteCalculationTask.isSerializable(delegate);
+  }
+
   @Override
   public Class<T> targetType() {
     return derivedFunction.targetType();
@@ -0,0 +1,434 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+import static com.opengamma.strata.collect.Guavate.toImmutableMap;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.google.common.io.ByteStreams;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.MarketDataId;
+import com.opengamma.strata.data.ObservableId;
+import com.opengamma.strata.data.scenario.ImmutableScenarioMarketData;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+
+/**
+ * A calculation task runner that distributes the calculations across worker processes.
+ * <p>
+ * Each worker is a {@link CalculationWorker}, typically running in its own JVM, possibly on another host.
+ * The tasks are partitioned across the workers in turn, so that tasks of the same kind are spread evenly.
+ * After proving that it knows the secret shared with the worker, the runner sends the reference data
+ * and market data, serialized once for all the workers, followed by the tasks of the worker in chunks.
+ * The results of each task are sent back over the socket as soon as they are calculated, and passed to the listener.
+ * <p>
+ * The targets, calculation functions, parameters, market data and reference data must be serializable,
+ * and their classes must be in the packages allowed by the runner and the workers.
+ * The standard calculation functions are serializable.
+ * If a worker cannot be reached, fails, or does not send a result for longer than ten minutes,
+ * the cells of its outstanding tasks contain failures.
+ * <p>
+ * Workers on other hosts must only be used on a trusted network, see {@link CalculationWorker}.
+ * <p>
+ * For testing on a single host, {@link #ofLocalProcesses(int)} launches workers as child processes
+ * using the class path of the current JVM. It is recommended to use try-with-resources to manage the runner.
+ */
+public final class DistributedCalculationTaskRunner implements CalculationTaskRunner {
+
+  /**
+   * The timeout when connecting to a worker.
+   */
+  private static final int CONNECT_TIMEOUT_MILLIS = 30_000;
+  /**
+   * The timeout when waiting for the next result of a worker.
+   */
+  private static final int READ_TIMEOUT_MILLIS = 600_000;
+  /**
+   * The number of tasks sent to a worker in each chunk.
+   */
+  static final int TASK_CHUNK_SIZE = 100;
+  /**
+   * The number of random bytes of the secret shared with the worker processes launched by a runner.
+   */
+  private static final int SECRET_LENGTH = 32;
+
+  /**
+   * The addresses of the workers.
+   */
+  private final ImmutableList<InetSocketAddress> workers;
+  /**
+   * The secret shared with the workers.
+   */
+  private final byte[] secret;
+  /**
+   * The packages whose classes are deserialized.
+   */
+  private final ImmutableSet<String> allowedPackages;
+  /**
+   * The worker processes launched by this runner, destroyed when the runner is closed.
+   */
+  private final ImmutableList<Process> processes;
+  /**
+   * Communicates with the workers, one thread for each worker in use.
+   */
+  private final ExecutorService executor;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates a runner that uses workers that are already running.
+   * <p>
+   * The classes of {@link CalculationWorker#DEFAULT_ALLOWED_PACKAGES} are deserialized.
+   *
+   * @param workers  the addresses of the workers
+   * @param secret  the secret shared with the workers
+   * @return the calculation task runner
+   */
+  public static DistributedCalculationTaskRunner of(List<InetSocketAddress> workers, String secret) {
+    return of(workers, secret, ImmutableSet.of());
+  }
+
+  /**
+   * Creates a runner that uses workers that are already running, deserializing the classes of the specified packages.
+   *
+   * @param workers  the addresses of the workers
+   * @param secret  the secret shared with the workers
+   * @param allowedPackages  the packages whose classes are deserialized, including their subpackages,
+   *   in addition to {@link CalculationWorker#DEFAULT_ALLOWED_PACKAGES}
+   * @return the calculation task runner
+   */
+  public static DistributedCalculationTaskRunner of(
+      List<InetSocketAddress> workers,
+      String secret,
+      Set<String> allowedPackages) {
+
+    ArgChecker.notEmpty(workers, "workers");
+    ArgChecker.notEmpty(secret, "secret");
+    ArgChecker.notNull(allowedPackages, "allowedPackages");
+    return new DistributedCalculationTaskRunner(
+        ImmutableList.copyOf(workers),
+        secret,
+        CalculationWorker.allowedPackages(allowedPackages),
+        ImmutableList.of());
+  }
+
+  /**
+   * Creates a runner that launches worker processes on the current host.
+   * <p>
+   * Each worker is started in a new JVM using the same Java installation and class path as the current JVM.
+   * The workers only accept connections from the local host, using a random secret passed on standard in.
+   * The workers are stopped when the runner is closed, or when the current JVM terminates.
+   * The classes of {@link CalculationWorker#DEFAULT_ALLOWED_PACKAGES} are deserialized.
+   *
+   * @param processCount  the number of worker processes
+   * @return the calculation task runner
+   * @throws UncheckedIOException if a worker process cannot be started
+   */
+  public static DistributedCalculationTaskRunner ofLocalProcesses(int processCount) {
+    return ofLocalProcesses(processCount, ImmutableSet.of());
+  }
+
+  /**
+   * Creates a runner that launches worker processes on the current host,
+   * deserializing the classes of the specified packages.
+   * <p>
+   * Each worker is started in a new JVM using the same Java installation and class path as the current JVM.
+   * The workers only accept connections from the local host, using a random secret passed on standard in.
+   * The workers are stopped when the runner is closed, or when the current JVM terminates.
+   *
+   * @param processCount  the number of worker processes
+   * @param allowedPackages  the packages whose classes are deserialized, including their subpackages,
+   *   in addition to {@link CalculationWorker#DEFAULT_ALLOWED_PACKAGES}
+   * @return the calculation task runner
+   * @throws UncheckedIOException if a worker process cannot be started
+   */
+  public static DistributedCalculationTaskRunner ofLocalProcesses(int processCount, Set<String> allowedPackages) {
+    ArgChecker.notNegativeOrZero(processCount, "processCount");
+    ArgChecker.notNull(allowedPackages, "allowedPackages");
+    String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+    String classPath = System.getProperty("java.class.path");
+    byte[] secretBytes = new byte[SECRET_LENGTH];
+    new SecureRandom().nextBytes(secretBytes);
+    String secret = Base64.getEncoder().encodeToString(secretBytes);
+    List<Process> processes = new ArrayList<>();
+    List<InetSocketAddress> workers = new ArrayList<>();
+    try {
+      for (int i = 0; i < processCount; i++) {
+        Process process = new ProcessBuilder(
+            java,
+            "-cp",
+            classPath,
+            CalculationWorker.class.getName(),
+            "0",
+            CalculationWorker.LOCAL_ARGUMENT,
+            String.join(",", allowedPackages))
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        processes.add(process);
+        // standard in is not closed, as the worker stops when it is closed
+        OutputStream processIn = process.getOutputStream();
+        processIn.write((secret + "\n").getBytes(StandardCharsets.UTF_8));
+        processIn.flush();
+        workers.add(new InetSocketAddress(InetAddress.getLoopbackAddress(), readPort(process)));
+      }
+    } catch (IOException ex) {
+      processes.forEach(Process::destroy);
+      throw new UncheckedIOException(ex);
+    } catch (RuntimeException ex) {
+      processes.forEach(Process::destroy);
+      throw ex;
+    }
+    return new DistributedCalculationTaskRunner(
+        ImmutableList.copyOf(workers),
+        secret,
+        CalculationWorker.allowedPackages(allowedPackages),
+        ImmutableList.copyOf(processes));
+  }
+
+  // reads the port from the first line printed by the worker, discarding any further output
+  private static int readPort(Process process) throws IOException {
+    BufferedReader reader =
+        new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+    String line = reader.readLine();
+    if (line == null || !line.startsWith(CalculationWorker.STARTED_PREFIX)) {
+      throw new IOException("Worker process failed to start: " + line);
+    }
+    Thread drain = new Thread(() -> {
+      try {
+        ByteStreams.exhaust(process.getInputStream());
+      } catch (IOException ex) {
+        // the process has terminated
+      }
+    });
+    drain.setDaemon(true);
+    drain.start();
+    return Integer.parseInt(line.substring(CalculationWorker.STARTED_PREFIX.length()).trim());
+  }
+
+  // restricted constructor
+  private DistributedCalculationTaskRunner(
+      ImmutableList<InetSocketAddress> workers,
+      String secret,
+      ImmutableSet<String> allowedPackages,
+      ImmutableList<Process> processes) {
+
+    this.workers = workers;
+    this.secret = secret.getBytes(StandardCharsets.UTF_8);
+    this.allowedPackages = allowedPackages;
+    this.processes = processes;
+    this.executor = Executors.newCachedThreadPool(r -> {
+      Thread t = Executors.defaultThreadFactory().newThread(r);
+      t.setName("DistributedCalculationTaskRunner-" + t.getName());
+      t.setDaemon(true);
+      return t;
+    });
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the addresses of the workers.
+   *
+   * @return the addresses of the workers
+   */
+  public ImmutableList<InetSocketAddress> getWorkers() {
+    return workers;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public Results calculate(
+      CalculationTasks tasks,
+      MarketData marketData,
+      ReferenceData refData) {
+
+    // perform the calculations
+    ScenarioMarketData md = ScenarioMarketData.of(1, marketData);
+    Results results = calculateMultiScenario(tasks, md, refData);
+
+    // unwrap the results
+    // since there is only one scenario it is not desirable to return scenario result containers
+    List<Result<?>> mappedResults = results.getCells().stream()
+        .map(r -> DefaultCalculationTaskRunner.unwrapScenarioResult(r))
+        .collect(toImmutableList());
+    return Results.of(results.getColumns(), mappedResults);
+  }
+
+  @Override
+  public void calculateAsync(
+      CalculationTasks tasks,
+      MarketData marketData,
+      ReferenceData refData,
+      CalculationListener listener) {
+
+    // the listener is decorated to unwrap ScenarioArrays containing a single result
+    ScenarioMarketData md = ScenarioMarketData.of(1, marketData);
+    CalculationListener unwrappingListener = new DefaultCalculationTaskRunner.UnwrappingListener(listener);
+    calculateMultiScenarioAsync(tasks, md, refData, unwrappingListener);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public Results calculateMultiScenario(
+      CalculationTasks tasks,
+      ScenarioMarketData marketData,
+      ReferenceData refData) {
+
+    ResultsListener listener = new ResultsListener();
+    calculateMultiScenarioAsync(tasks, marketData, refData, listener);
+    return listener.result();
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * @throws IllegalArgumentException if a calculation function, the market data or reference data
+   *   is not serializable
+   */
+  @Override
+  public void calculateMultiScenarioAsync(
+      CalculationTasks tasks,
+      ScenarioMarketData marketData,
+      ReferenceData refData,
+      CalculationListener listener) {
+
+    // the functions are checked before any calculation starts
+    List<CalculationTask> taskList = tasks.getTasks();
+    List<RemoteCalculationTask> remoteTasks = taskList.stream()
+        .map(RemoteCalculationTask::of)
+        .collect(toImmutableList());
+
+    // the data is serialized once, and sent as is to each worker
+    byte[] data;
+    try {
+      data = CalculationWorker.serialize(new Object[] {refData, toImmutable(marketData)});
+    } catch (IOException ex) {
+      throw new IllegalArgumentException("Market data and reference data must be serializable", ex);
+    }
+
+    // the listener is invoked via this wrapper
+    // the wrapper ensures thread-safety for the listener
+    // it also calls the listener with single CalculationResult cells, not CalculationResults
+    Consumer<CalculationResults> consumer =
+        new ListenerWrapper(listener, taskList.size(), tasks.getTargets(), tasks.getColumns());
+
+    // the tasks are assigned to each worker in turn
+    int workerCount = Math.min(workers.size(), remoteTasks.size());
+    for (int i = 0; i < workerCount; i++) {
+      List<RemoteCalculationTask> workerTasks = new ArrayList<>();
+      for (int j = i; j < remoteTasks.size(); j += workerCount) {
+        workerTasks.add(remoteTasks.get(j));
+      }
+      InetSocketAddress worker = workers.get(i);
+      executor.execute(() -> runTasks(worker, data, workerTasks, consumer));
+    }
+  }
+
+  // sends the tasks to the worker, passing each result to the consumer as it is received
+  private void runTasks(
+      InetSocketAddress worker,
+      byte[] data,
+      List<RemoteCalculationTask> tasks,
+      Consumer<CalculationResults> consumer) {
+
+    boolean[] received = new boolean[tasks.size()];
+    try (Socket socket = new Socket()) {
+      socket.connect(worker, CONNECT_TIMEOUT_MILLIS);
+      socket.setSoTimeout(READ_TIMEOUT_MILLIS);
+      DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+      DataOutputStream out = new DataOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+      CalculationWorker.answerChallenge(in, out, secret);
+      CalculationWorker.writeFrame(out, data);
+      List<List<RemoteCalculationTask>> chunks = Lists.partition(tasks, TASK_CHUNK_SIZE);
+      out.writeInt(chunks.size());
+      for (List<RemoteCalculationTask> chunk : chunks) {
+        CalculationWorker.writeFrame(out, CalculationWorker.serialize(ImmutableList.copyOf(chunk)));
+      }
+      out.flush();
+
+      for (int i = 0; i < tasks.size(); i++) {
+        int index = in.readInt();
+        if (index < 0 || index >= tasks.size() || received[index]) {
+          throw new IOException("Invalid task index received from worker: " + index);
+        }
+        Object results = CalculationWorker.readFrame(in, allowedPackages);
+        if (!(results instanceof CalculationResults)) {
+          throw new IOException("Invalid results received from worker");
+        }
+        received[index] = true;
+        consumer.accept((CalculationResults) results);
+      }
+    } catch (IOException | ClassNotFoundException | RuntimeException ex) {
+      // the listener must receive the results of every task, otherwise the caller would wait forever
+      for (int i = 0; i < tasks.size(); i++) {
+        if (!received[i]) {
+          consumer.accept(tasks.get(i).failure(ex, "Calculation failed on worker {}: {}", worker, ex.getMessage()));
+        }
+      }
+    }
+  }
+
+  // converts the market data to a form that can be serialized
+  private static ImmutableScenarioMarketData toImmutable(ScenarioMarketData marketData) {
+    if (marketData instanceof ImmutableScenarioMarketData) {
+      return (ImmutableScenarioMarketData) marketData;
+    }
+    Map<MarketDataId<?>, MarketDataBox<?>> values = marketData.getIds().stream()
+        .collect(toImmutableMap(id -> id, id -> marketData.getValue(id)));
+    Map<ObservableId, LocalDateDoubleTimeSeries> timeSeries = marketData.getTimeSeriesIds().stream()
+        .collect(toImmutableMap(id -> id, id -> marketData.getTimeSeries(id)));
+    return ImmutableScenarioMarketData.of(
+        marketData.getScenarioCount(), marketData.getValuationDate(), values, timeSeries);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Closes the runner, stopping any worker processes that it launched.
+   * <p>
+   * Workers that were already running are not stopped.
+   */
+  @Override
+  public void close() {
+    executor.shutdown();
+    processes.forEach(Process::destroy);
+  }
+
+  @Override
+  public String toString() {
+    return "DistributedCalculationTaskRunner[workers=" + workers + "]";
+  }
+
+}
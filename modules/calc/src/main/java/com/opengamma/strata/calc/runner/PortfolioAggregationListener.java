@@ -0,0 +1,447 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.ColumnHeader;
+import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.DoubleArrayMath;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.scenario.CurrencyScenarioArray;
+import com.opengamma.strata.data.scenario.DoubleScenarioArray;
+import com.opengamma.strata.data.scenario.MultiCurrencyScenarioArray;
+import com.opengamma.strata.data.scenario.ScenarioArrayAccumulator;
+
+/**
+ * Calculation listener that aggregates the results of the calculations by group.
+ * <p>
+ * Each target is assigned to a group by a grouping function, typically based on an attribute
+ * of the trade or position, such as the book or the counterparty. The results of each group
+ * and column are combined as they are received, thus the results of the individual targets
+ * are not retained and the aggregated results are available as soon as the last calculation completes.
+ * <p>
+ * The following types of value are combined by default:
+ * <ul>
+ * <li>{@link CurrencyAmount} and {@link MultiCurrencyAmount}, summed by currency
+ * <li>{@link CurrencyScenarioArray} and {@link MultiCurrencyScenarioArray}, summed by currency and scenario
+ * <li>{@link DoubleScenarioArray}, summed by scenario
+ * <li>{@link Double}, summed
+ * </ul>
+ * Other types can be combined by registering a combiner with {@link #withCombiner(Class, BinaryOperator)},
+ * for example {@code CurrencyParameterSensitivities::combinedWith} for sensitivities.
+ * When combining two values creates a new value, a {@link Collector} can be registered instead
+ * with {@link #withCombiner(Class, Collector)}, accumulating the values of each group in place.
+ * If a value cannot be combined, or if the calculation of any target of a group fails,
+ * the aggregated result of the group is a failure.
+ * <p>
+ * The results of each group and column are accumulated independently and the accumulators are thread-safe.
+ * As with any listener, an instance should not be used for multiple sets of calculations.
+ * 
+ * @param <K>  the type of the group keys
+ */
+public final class PortfolioAggregationListener<K>
+    extends AggregatingCalculationListener<AggregatedResults<K>> {
+
+  /**
+   * The function providing the group of each target, null if the target is not aggregated.
+   */
+  private final Function<? super CalculationTarget, K> groupingFunction;
+  /**
+   * The combiners of the additional types of value, in the order they were registered.
+   */
+  private final List<ValueCombiner> combiners = new ArrayList<>();
+
+  /**
+   * The columns that define what values are calculated.
+   */
+  private List<Column> columns;
+  /**
+   * The group of each row, null if the target of the row is not aggregated.
+   */
+  private List<K> rowGroups;
+  /**
+   * The accumulators of each group, one per column, in the order of the first target of each group.
+   */
+  private Map<K, List<CellAccumulator>> accumulators;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains a listener that groups the targets using the specified function.
+   * <p>
+   * The function is invoked once for each target when the calculations start.
+   * Targets for which the function returns null are not aggregated.
+   * 
+   * @param <K>  the type of the group keys
+   * @param groupingFunction  the function providing the group of each target
+   * @return the listener
+   */
+  public static <K> PortfolioAggregationListener<K> of(Function<? super CalculationTarget, K> groupingFunction) {
+    return new PortfolioAggregationListener<>(groupingFunction);
+  }
+
+  // restricted constructor
+  private PortfolioAggregationListener(Function<? super CalculationTarget, K> groupingFunction) {
+    this.groupingFunction = ArgChecker.notNull(groupingFunction, "groupingFunction");
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Registers a combiner for an additional type of value.
+   * <p>
+   * This must be invoked before the listener is passed to the calculation runner.
+   * 
+   * @param <T>  the type of the values
+   * @param type  the type of the values
+   * @param combiner  the function combining two values
+   * @return this listener, for chaining
+   */
+  public <T> PortfolioAggregationListener<K> withCombiner(Class<T> type, BinaryOperator<T> combiner) {
+    return withCombiner(type, value -> true, combiner);
+  }
+
+  /**
+   * Registers a combiner for the values of an additional type that satisfy a condition.
+   * <p>
+   * This allows values of a generic type, such as {@code ScenarioArray}, to be combined depending on their content.
+   * Values that do not satisfy the condition are treated as if the combiner was not registered.
+   * This must be invoked before the listener is passed to the calculation runner.
+   * 
+   * @param <T>  the type of the values
+   * @param type  the type of the values
+   * @param condition  the condition that the values must satisfy to be combined
+   * @param combiner  the function combining two values
+   * @return this listener, for chaining
+   */
+  public <T> PortfolioAggregationListener<K> withCombiner(
+      Class<T> type,
+      Predicate<? super T> condition,
+      BinaryOperator<T> combiner) {
+
+    ArgChecker.notNull(combiner, "combiner");
+    return withCombiner(type, condition, Collector.<T, ValueHolder<T>, T>of(
+        ValueHolder::new,
+        (holder, value) -> holder.value = holder.value == null ? value : combiner.apply(holder.value, value),
+        (holder1, holder2) -> {
+          throw new UnsupportedOperationException("Partial totals are not combined");
+        },
+        holder -> holder.value));
+  }
+
+  /**
+   * Registers a collector accumulating an additional type of value.
+   * <p>
+   * The values of each group and column are accumulated into a single container created by the collector,
+   * and the result is obtained by applying the finisher of the collector once the calculations are complete.
+   * This avoids creating a new value each time two values are combined.
+   * The combiner of the collector is not used.
+   * This must be invoked before the listener is passed to the calculation runner.
+   *
+   * @param <T>  the type of the values
+   * @param type  the type of the values
+   * @param collector  the collector accumulating the values
+   * @return this listener, for chaining
+   */
+  public <T> PortfolioAggregationListener<K> withCombiner(Class<T> type, Collector<? super T, ?, ?> collector) {
+    return withCombiner(type, value -> true, collector);
+  }
+
+  /**
+   * Registers a collector accumulating the values of an additional type that satisfy a condition.
+   * <p>
+   * This allows values of a generic type, such as {@code ScenarioArray}, to be accumulated depending on
+   * their content. The condition is tested on the first value of each group and column, the following values
+   * only need to be of the type, and the accumulator of the collector should reject any unsupported content.
+   * Values that do not satisfy the condition are treated as if the collector was not registered.
+   * The combiner of the collector is not used.
+   * This must be invoked before the listener is passed to the calculation runner.
+   *
+   * @param <T>  the type of the values
+   * @param type  the type of the values
+   * @param condition  the condition that the first value must satisfy to be accumulated
+   * @param collector  the collector accumulating the values
+   * @return this listener, for chaining
+   */
+  public <T> PortfolioAggregationListener<K> withCombiner(
+      Class<T> type,
+      Predicate<? super T> condition,
+      Collector<? super T, ?, ?> collector) {
+
+    ArgChecker.notNull(type, "type");
+    ArgChecker.notNull(condition, "condition");
+    ArgChecker.notNull(collector, "collector");
+    combiners.add(ValueCombiner.of(type, condition, collector));
+    return this;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public void calculationsStarted(List<CalculationTarget> targets, List<Column> columns) {
+    this.columns = ImmutableList.copyOf(columns);
+    this.rowGroups = new ArrayList<>(targets.size());
+    Map<K, List<CellAccumulator>> accumulators = new LinkedHashMap<>();
+    for (CalculationTarget target : targets) {
+      K group = groupingFunction.apply(target);
+      rowGroups.add(group);
+      if (group != null) {
+        accumulators.computeIfAbsent(group, k -> createAccumulators(columns.size()));
+      }
+    }
+    this.accumulators = accumulators;
+  }
+
+  // creates the accumulators of a group
+  private List<CellAccumulator> createAccumulators(int columnCount) {
+    List<CellAccumulator> groupAccumulators = new ArrayList<>(columnCount);
+    for (int i = 0; i < columnCount; i++) {
+      groupAccumulators.add(new CellAccumulator());
+    }
+    return groupAccumulators;
+  }
+
+  @Override
+  public void resultReceived(CalculationTarget target, CalculationResult result) {
+    K group = rowGroups.get(result.getRowIndex());
+    if (group != null) {
+      accumulators.get(group).get(result.getColumnIndex()).add(result.getResult());
+    }
+  }
+
+  @Override
+  protected AggregatedResults<K> createAggregateResult() {
+    List<ColumnHeader> headers = columns.stream()
+        .map(Column::toHeader)
+        .collect(toImmutableList());
+    List<Result<?>> cells = accumulators.values().stream()
+        .flatMap(List::stream)
+        .map(CellAccumulator::result)
+        .collect(toImmutableList());
+    return AggregatedResults.of(ImmutableList.copyOf(accumulators.keySet()), Results.of(headers, cells));
+  }
+
+  //-------------------------------------------------------------------------
+  // finds the combiner of a value
+  private ValueCombiner findCombiner(Object value) {
+    for (ValueCombiner combiner : combiners) {
+      if (combiner.type.isInstance(value) && combiner.condition.test(value)) {
+        return combiner;
+      }
+    }
+    return null;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * A combiner of an additional type of value, accumulating the values in a mutable container.
+   */
+  private static final class ValueCombiner {
+
+    /** The type of the values. */
+    private final Class<?> type;
+    /** The condition that the first value must satisfy. */
+    private final Predicate<Object> condition;
+    /** The function creating an empty container. */
+    private final Supplier<Object> supplier;
+    /** The function adding a value to a container. */
+    private final BiConsumer<Object, Object> accumulator;
+    /** The function creating the result from a container. */
+    private final Function<Object, Object> finisher;
+
+    // creates an instance from a collector
+    @SuppressWarnings("unchecked")
+    private static <T, A> ValueCombiner of(
+        Class<T> type,
+        Predicate<? super T> condition,
+        Collector<? super T, A, ?> collector) {
+
+      Supplier<A> supplier = collector.supplier();
+      BiConsumer<A, ? super T> accumulator = collector.accumulator();
+      Function<A, ?> finisher = collector.finisher();
+      return new ValueCombiner(
+          type,
+          value -> condition.test(type.cast(value)),
+          supplier::get,
+          (container, value) -> accumulator.accept((A) container, type.cast(value)),
+          container -> finisher.apply((A) container));
+    }
+
+    private ValueCombiner(
+        Class<?> type,
+        Predicate<Object> condition,
+        Supplier<Object> supplier,
+        BiConsumer<Object, Object> accumulator,
+        Function<Object, Object> finisher) {
+
+      this.type = type;
+      this.condition = condition;
+      this.supplier = supplier;
+      this.accumulator = accumulator;
+      this.finisher = finisher;
+    }
+  }
+
+  /**
+   * Mutable holder of the total of a combiner.
+   *
+   * @param <T>  the type of the value
+   */
+  private static final class ValueHolder<T> {
+
+    /** The total, null if no value has been received. */
+    private T value;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Accumulator of the results of a group and column.
+   * <p>
+   * Amounts are accumulated by currency, scenario arrays are accumulated in place into primitive arrays,
+   * and the additional types of value are accumulated into the container of their combiner.
+   * The failures are collected and combined once the calculations are complete.
+   */
+  private final class CellAccumulator {
+
+    /** The accumulated total, null if no value has been received. */
+    private Object total;
+    /** The combiner accumulating the total, null if the total is of a default type. */
+    private ValueCombiner combiner;
+    /** Whether all the values received are in a single currency. */
+    private boolean singleCurrency = true;
+    /** The failures, empty if there are none. */
+    private final List<Result<?>> failures = new ArrayList<>();
+
+    // adds a result to the total
+    synchronized void add(Result<?> result) {
+      if (result.isFailure()) {
+        failures.add(result);
+        total = null;
+        return;
+      }
+      if (!failures.isEmpty()) {
+        return;
+      }
+      Object value = result.getValue();
+      try {
+        total = total == null ? initialTotal(value) : combine(total, value);
+        singleCurrency &= value instanceof CurrencyAmount || value instanceof CurrencyScenarioArray;
+      } catch (RuntimeException ex) {
+        failures.add(Result.failure(
+            FailureReason.CALCULATION_FAILED, ex, "Unable to aggregate results: {}", ex.getMessage()));
+        total = null;
+      }
+    }
+
+    // creates the total from the first value
+    private Object initialTotal(Object value) {
+      if (value instanceof CurrencyAmount) {
+        return MultiCurrencyAmount.of((CurrencyAmount) value);
+      } else if (value instanceof MultiCurrencyAmount || value instanceof Double) {
+        return value;
+      } else if (value instanceof CurrencyScenarioArray) {
+        CurrencyScenarioArray array = (CurrencyScenarioArray) value;
+        return ScenarioArrayAccumulator.of(array.getScenarioCount()).add(array);
+      } else if (value instanceof MultiCurrencyScenarioArray) {
+        MultiCurrencyScenarioArray array = (MultiCurrencyScenarioArray) value;
+        return ScenarioArrayAccumulator.of(array.getScenarioCount()).add(array);
+      } else if (value instanceof DoubleScenarioArray) {
+        return ((DoubleScenarioArray) value).getValues().toArray();
+      }
+      ValueCombiner valueCombiner = findCombiner(value);
+      if (valueCombiner != null) {
+        Object container = valueCombiner.supplier.get();
+        valueCombiner.accumulator.accept(container, value);
+        combiner = valueCombiner;
+        return container;
+      }
+      throw new IllegalArgumentException("Values of type " + value.getClass().getName() + " cannot be aggregated");
+    }
+
+    // combines a value with the total
+    private Object combine(Object total, Object value) {
+      if (combiner != null) {
+        if (!combiner.type.isInstance(value)) {
+          throw new IllegalArgumentException(Messages.format(
+              "Values of type {} cannot be aggregated with values of type {}",
+              value.getClass().getName(),
+              combiner.type.getName()));
+        }
+        combiner.accumulator.accept(total, value);
+        return total;
+      } else if (total instanceof MultiCurrencyAmount && value instanceof CurrencyAmount) {
+        return ((MultiCurrencyAmount) total).plus((CurrencyAmount) value);
+      } else if (total instanceof MultiCurrencyAmount && value instanceof MultiCurrencyAmount) {
+        return ((MultiCurrencyAmount) total).plus((MultiCurrencyAmount) value);
+      } else if (total instanceof ScenarioArrayAccumulator && value instanceof CurrencyScenarioArray) {
+        return ((ScenarioArrayAccumulator) total).add((CurrencyScenarioArray) value);
+      } else if (total instanceof ScenarioArrayAccumulator && value instanceof MultiCurrencyScenarioArray) {
+        return ((ScenarioArrayAccumulator) total).add((MultiCurrencyScenarioArray) value);
+      } else if (total instanceof double[] && value instanceof DoubleScenarioArray) {
+        double[] totalValues = (double[]) total;
+        DoubleArray values = ((DoubleScenarioArray) value).getValues();
+        if (values.size() != totalValues.length) {
+          throw new IllegalArgumentException(Messages.format(
+              "Expected {} scenarios but received {}", totalValues.length, values.size()));
+        }
+        DoubleArrayMath.mutateByAddition(totalValues, values.toArrayUnsafe());
+        return totalValues;
+      } else if (total instanceof Double && value instanceof Double) {
+        return (Double) total + (Double) value;
+      }
+      throw new IllegalArgumentException(Messages.format(
+          "Values of type {} cannot be aggregated with values of type {}",
+          value.getClass().getName(),
+          total.getClass().getName()));
+    }
+
+    // returns the aggregated result
+    synchronized Result<?> result() {
+      if (!failures.isEmpty()) {
+        return failures.size() == 1 ? failures.get(0) : Result.failure(failures);
+      }
+      if (total == null) {
+        return Result.failure(FailureReason.MISSING_DATA, "No results to aggregate");
+      }
+      if (combiner != null) {
+        return Result.success(combiner.finisher.apply(total));
+      } else if (total instanceof MultiCurrencyAmount) {
+        MultiCurrencyAmount amount = (MultiCurrencyAmount) total;
+        return Result.success(singleCurrency && amount.size() == 1 ? amount.getAmounts().first() : amount);
+      } else if (total instanceof ScenarioArrayAccumulator) {
+        MultiCurrencyScenarioArray array = ((ScenarioArrayAccumulator) total).toMultiCurrencyScenarioArray();
+        if (singleCurrency && array.getCurrencies().size() == 1) {
+          Currency currency = array.getCurrencies().iterator().next();
+          return Result.success(CurrencyScenarioArray.of(currency, array.getValues(currency)));
+        }
+        return Result.success(array);
+      } else if (total instanceof double[]) {
+        return Result.success(DoubleScenarioArray.of(DoubleArray.ofUnsafe((double[]) total)));
+      }
+      return Result.success(total);
+    }
+  }
+
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.io.Serializable;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+
+/**
+ * The serialized form of a calculation task, sent to a worker process.
+ * <p>
+ * The target, function and parameters must be serializable.
+ */
+final class RemoteCalculationTask implements Serializable {
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The target for which the value will be calculated.
+   */
+  private final CalculationTarget target;
+  /**
+   * The function that performs the calculation.
+   */
+  private final CalculationFunction<?> function;
+  /**
+   * The additional parameters.
+   */
+  private final CalculationParameters parameters;
+  /**
+   * The cells to be calculated.
+   */
+  private final ImmutableList<CalculationTaskCell> cells;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance from a calculation task.
+   *
+   * @param task  the task
+   * @return the serialized form of the task
+   * @throws IllegalArgumentException if the function is not serializable
+   */
+  static RemoteCalculationTask of(CalculationTask task) {
+    CalculationFunction<?> function = task.getFunction();
+    if (!isSerializable(function)) {
+      throw new IllegalArgumentException(Messages.format(
+          "Calculation function '{}' must be serializable to be calculated by a worker",
+          function.getClass().getName()));
+    }
+    return new RemoteCalculationTask(
+        task.getTarget(), function, task.getParameters(), ImmutableList.copyOf(task.getCells()));
+  }
+
+  /**
+   * Checks if the function can be serialized.
+   * <p>
+   * A function wrapping a derived function can only be serialized if both functions are serializable.
+   *
+   * @param function  the function
+   * @return true if the function can be serialized
+   */
+  static boolean isSerializable(CalculationFunction<?> function) {
+    if (function instanceof DerivedCalculationFunctionWrapper) {
+      return ((DerivedCalculationFunctionWrapper<?, ?>) function).isSerializable();
+    }
+    return function instanceof Serializable;
+  }
+
+  // restricted constructor
+  private RemoteCalculationTask(
+      CalculationTarget target,
+      CalculationFunction<?> function,
+      CalculationParameters parameters,
+      ImmutableList<CalculationTaskCell> cells) {
+
+    this.target = target;
+    this.function = function;
+    this.parameters = parameters;
+    this.cells = cells;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Executes the task.
+   *
+   * @param marketData  the market data used in the calculation
+   * @param refData  the reference data
+   * @return results of the calculation, one for every scenario in the market data
+   */
+  CalculationResults execute(ScenarioMarketData marketData, ReferenceData refData) {
+    return CalculationTask.of(target, function, parameters, cells).execute(marketData, refData);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates results containing a failure in every cell.
+   * <p>
+   * This is used when the task could not be calculated, or its results could not be returned.
+   *
+   * @param ex  the cause of the failure
+   * @param message  the failure message, in the format of {@link Messages}
+   * @param messageArgs  the arguments of the message
+   * @return the results, each a failure
+   */
+  CalculationResults failure(Exception ex, String message, Object... messageArgs) {
+    Result<?> failure = Result.failure(FailureReason.ERROR, ex, message, messageArgs);
+    List<CalculationResult> results = cells.stream()
+        .map(cell -> CalculationResult.of(cell.getRowIndex(), cell.getColumnIndex(), failure))
+        .collect(toImmutableList());
+    return CalculationResults.of(target, results);
+  }
+
+}
@@ -0,0 +1,318 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.calc.marketdata.MarketDataConfig;
+import com.opengamma.strata.calc.marketdata.MarketDataFactory;
+import com.opengamma.strata.calc.marketdata.MarketDataFunction;
+import com.opengamma.strata.calc.marketdata.MarketDataRequirements;
+import com.opengamma.strata.calc.marketdata.ObservableDataProvider;
+import com.opengamma.strata.calc.marketdata.TestObservableId;
+import com.opengamma.strata.calc.marketdata.TimeSeriesProvider;
+import com.opengamma.strata.calc.runner.CalculationFunction;
+import com.opengamma.strata.calc.runner.CalculationFunctions;
+import com.opengamma.strata.calc.runner.CalculationParameters;
+import com.opengamma.strata.calc.runner.CalculationTaskRunner;
+import com.opengamma.strata.calc.runner.FunctionRequirements;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.ImmutableMarketData;
+import com.opengamma.strata.data.MarketDataId;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+import com.opengamma.strata.data.scenario.ScenarioArray;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+
+/**
+ * Test {@link CalculationSession}.
+ */
+@Test
+public class CalculationSessionTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final TestObservableId QUOTE1 = TestObservableId.of("1");
+  private static final TestObservableId QUOTE2 = TestObservableId.of("2");
+  private static final ImmutableMarketData SUPPLIED_DATA = ImmutableMarketData.builder(date(2017, 6, 30))
+      .addValue(QUOTE1, 1d)
+      .addValue(QUOTE2, 2d)
+      .build();
+  private static final ImmutableList<Column> COLUMNS = ImmutableList.of(Column.of(TestingMeasures.PAR_RATE));
+
+  //-------------------------------------------------------------------------
+  public void test_calculate() {
+    TestFunction function = new TestFunction();
+    DoubledFunction marketDataFunction = new DoubledFunction();
+    CalculationSession<String> test = session(function, marketDataFunction);
+    test.putTarget("A", new TestTarget("1", 10));
+    test.putTarget("B", new TestTarget("2", 20));
+    test.putTarget("C", new TestTarget("2", 30));
+    assertEquals(test.getKeys(), ImmutableList.of("A", "B", "C"));
+    assertEquals(test.toString(), "CalculationSession[targets=3, columns=1]");
+
+    Results results = test.calculate();
+    assertEquals(results.getColumns(), ImmutableList.of(COLUMNS.get(0).toHeader()));
+    assertResults(results, 20d, 80d, 120d);
+    assertEquals(function.calls, 3);
+    assertEquals(marketDataFunction.builds, 2);
+
+    // nothing has changed
+    assertEquals(test.calculate(), results);
+    assertEquals(function.calls, 3);
+    assertEquals(marketDataFunction.builds, 2);
+  }
+
+  public void test_calculate_updateMarketData() {
+    TestFunction function = new TestFunction();
+    DoubledFunction marketDataFunction = new DoubledFunction();
+    CalculationSession<String> test = session(function, marketDataFunction);
+    test.putTarget("A", new TestTarget("1", 10));
+    test.putTarget("B", new TestTarget("2", 20));
+    test.putTarget("C", new TestTarget("2", 30));
+    test.calculate();
+
+    test.updateMarketData(ImmutableMap.of(QUOTE2, 3d));
+    assertEquals(test.getSuppliedData().getValue(QUOTE2), 3d);
+    assertResults(test.calculate(), 20d, 120d, 180d);
+    assertEquals(function.calls, 5);
+    assertEquals(marketDataFunction.builds, 3);
+
+    // the quote is updated with the same value
+    test.updateMarketData(ImmutableMap.of(QUOTE1, 1d));
+    assertResults(test.calculate(), 20d, 120d, 180d);
+    assertEquals(function.calls, 5);
+    assertEquals(marketDataFunction.builds, 4);
+  }
+
+  public void test_calculate_targetChanges() {
+    TestFunction function = new TestFunction();
+    DoubledFunction marketDataFunction = new DoubledFunction();
+    CalculationSession<String> test = session(function, marketDataFunction);
+    test.putTarget("A", new TestTarget("1", 10));
+    test.putTarget("B", new TestTarget("1", 20));
+    test.calculate();
+
+    // amend, add and remove
+    test.putTarget("A", new TestTarget("1", 10));
+    test.putTarget("B", new TestTarget("1", 40));
+    test.putTarget("C", new TestTarget("2", 50));
+    assertTrue(test.removeTarget("A"));
+    assertFalse(test.removeTarget("D"));
+    assertEquals(test.getKeys(), ImmutableList.of("B", "C"));
+    assertResults(test.calculate(), 80d, 200d);
+    assertEquals(function.calls, 4);
+    assertEquals(marketDataFunction.builds, 2);
+
+    // the removed target is added at the end
+    test.putTarget("A", new TestTarget("1", 10));
+    assertResults(test.calculate(), 80d, 200d, 20d);
+    assertEquals(function.calls, 5);
+    assertEquals(marketDataFunction.builds, 2);
+  }
+
+  public void test_calculate_removeTarget() {
+    TestFunction function = new TestFunction();
+    DoubledFunction marketDataFunction = new DoubledFunction();
+    CalculationSession<String> test = session(function, marketDataFunction);
+    test.putTarget("A", new TestTarget("1", 10));
+    test.putTarget("B", new TestTarget("2", 20));
+    test.calculate();
+    assertEquals(marketDataFunction.builds, 2);
+
+    // the market data required only by the removed target is no longer built
+    assertTrue(test.removeTarget("B"));
+    assertResults(test.calculate(), 20d);
+    test.updateMarketData(ImmutableMap.of(QUOTE2, 3d));
+    assertResults(test.calculate(), 20d);
+    assertEquals(function.calls, 2);
+    assertEquals(marketDataFunction.builds, 2);
+  }
+
+  public void test_calculate_noTargets() {
+    CalculationSession<String> test = session(new TestFunction(), new DoubledFunction());
+    Results results = test.calculate();
+    assertEquals(results.getRowCount(), 0);
+    assertEquals(results.getColumnCount(), 1);
+  }
+
+  public void test_of_invalid() {
+    CalculationTaskRunner runner = CalculationTaskRunner.of(MoreExecutors.newDirectExecutorService());
+    CalculationRules rules = CalculationRules.of(CalculationFunctions.empty());
+    MarketDataFactory factory = MarketDataFactory.of(ObservableDataProvider.none(), TimeSeriesProvider.none());
+    assertThrowsIllegalArg(() -> CalculationSession.of(
+        runner, rules, ImmutableList.of(), factory, MarketDataConfig.empty(), SUPPLIED_DATA, REF_DATA));
+    assertThrowsIllegalArg(() -> CalculationSession.of(
+        null, rules, COLUMNS, factory, MarketDataConfig.empty(), SUPPLIED_DATA, REF_DATA));
+    CalculationSession<String> test =
+        CalculationSession.of(runner, rules, COLUMNS, factory, MarketDataConfig.empty(), SUPPLIED_DATA, REF_DATA);
+    assertThrowsIllegalArg(() -> test.putTarget(null, new TestTarget("1", 1)));
+    assertThrowsIllegalArg(() -> test.putTarget("A", null));
+  }
+
+  //-------------------------------------------------------------------------
+  private static CalculationSession<String> session(TestFunction function, DoubledFunction marketDataFunction) {
+    return CalculationSession.of(
+        CalculationTaskRunner.of(MoreExecutors.newDirectExecutorService()),
+        CalculationRules.of(CalculationFunctions.of(function)),
+        COLUMNS,
+        MarketDataFactory.of(ObservableDataProvider.none(), TimeSeriesProvider.none(), marketDataFunction),
+        MarketDataConfig.empty(),
+        SUPPLIED_DATA,
+        REF_DATA);
+  }
+
+  private static void assertResults(Results results, double... expected) {
+    assertEquals(results.getRowCount(), expected.length);
+    for (int i = 0; i < expected.length; i++) {
+      assertEquals(results.get(i, 0).getValue(), ScenarioArray.of(expected[i]));
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  private static final class TestTarget implements CalculationTarget {
+
+    private final String quote;
+    private final double notional;
+
+    private TestTarget(String quote, double notional) {
+      this.quote = quote;
+      this.notional = notional;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj == this) {
+        return true;
+      }
+      if (obj instanceof TestTarget) {
+        TestTarget other = (TestTarget) obj;
+        return quote.equals(other.quote) && notional == other.notional;
+      }
+      return false;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(quote, notional);
+    }
+  }
+
+  // multiplies the notional by the doubled quote
+  private static final class TestFunction implements CalculationFunction<TestTarget> {
+
+    private int calls;
+
+    @Override
+    public Class<TestTarget> targetType() {
+      return TestTarget.class;
+    }
+
+    @Override
+    public Set<Measure> supportedMeasures() {
+      return ImmutableSet.of(TestingMeasures.PAR_RATE);
+    }
+
+    @Override
+    public Currency naturalCurrency(TestTarget target, ReferenceData refData) {
+      return Currency.USD;
+    }
+
+    @Override
+    public FunctionRequirements requirements(
+        TestTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ReferenceData refData) {
+
+      return FunctionRequirements.builder().valueRequirements(new DoubledId(target.quote)).build();
+    }
+
+    @Override
+    public Map<Measure, Result<?>> calculate(
+        TestTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ScenarioMarketData marketData,
+        ReferenceData refData) {
+
+      calls++;
+      double value = target.notional * marketData.getValue(new DoubledId(target.quote)).getSingleValue();
+      Map<Measure, Result<?>> results = new HashMap<>();
+      results.put(TestingMeasures.PAR_RATE, Result.success(ScenarioArray.of(value)));
+      return results;
+    }
+  }
+
+  // identifies a quote multiplied by two
+  private static final class DoubledId implements MarketDataId<Double> {
+
+    private final String quote;
+
+    private DoubledId(String quote) {
+      this.quote = quote;
+    }
+
+    @Override
+    public Class<Double> getMarketDataType() {
+      return Double.class;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof DoubledId && quote.equals(((DoubledId) obj).quote);
+    }
+
+    @Override
+    public int hashCode() {
+      return quote.hashCode();
+    }
+  }
+
+  // builds a quote multiplied by two
+  private static final class DoubledFunction implements MarketDataFunction<Double, DoubledId> {
+
+    private int builds;
+
+    @Override
+    public MarketDataRequirements requirements(DoubledId id, MarketDataConfig marketDataConfig) {
+      return MarketDataRequirements.builder().addValues(TestObservableId.of(id.quote)).build();
+    }
+
+    @Override
+    public MarketDataBox<Double> build(
+        DoubledId id,
+        MarketDataConfig marketDataConfig,
+        ScenarioMarketData marketData,
+        ReferenceData refData) {
+
+      builds++;
+      return marketData.getValue(TestObservableId.of(id.quote)).map(value -> value * 2);
+    }
+
+    @Override
+    public Class<DoubledId> getMarketDataIdType() {
+      return DoubledId.class;
+    }
+  }
+
+}
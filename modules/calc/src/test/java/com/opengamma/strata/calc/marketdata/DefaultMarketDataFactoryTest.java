@@ -117,6 +117,70 @@ public class DefaultMarketDataFactoryTest {
     assertThat(marketData.getValue(idC)).isEqualTo(new TestMarketDataC(timeSeries));
   }
 
+  /**
+   * Tests building market data again after supplied data has changed, reusing the unaffected values.
+   */
+  public void updateMultiScenario() {
+    TestIdA idA1 = new TestIdA("1");
+    TestIdA idA2 = new TestIdA("2");
+    TestIdB idB1 = new TestIdB("1");
+    TestIdB idB2 = new TestIdB("2");
+    LocalDateDoubleTimeSeries timeSeries1 = LocalDateDoubleTimeSeries.builder()
+        .put(date(2011, 3, 8), 1)
+        .put(date(2011, 3, 9), 2)
+        .build();
+    LocalDateDoubleTimeSeries timeSeries2 = LocalDateDoubleTimeSeries.builder()
+        .put(date(2011, 3, 8), 10)
+        .put(date(2011, 3, 9), 20)
+        .build();
+    ImmutableMarketData suppliedData = ImmutableMarketData.builder(date(2011, 3, 8))
+        .addValue(idA1, 1d)
+        .addValue(idA2, 2d)
+        .addTimeSeries(idA1, timeSeries1)
+        .addTimeSeries(idA2, timeSeries2)
+        .build();
+    MarketDataFactory factory = MarketDataFactory.of(
+        ObservableDataProvider.none(),
+        TimeSeriesProvider.none(),
+        new TestMarketDataFunctionB(),
+        new TestMarketDataFunctionC());
+    MarketDataRequirements requirements = MarketDataRequirements.builder()
+        .addValues(idB1, idB2)
+        .build();
+    BuiltScenarioMarketData previous = factory.createMultiScenario(
+        requirements, MARKET_DATA_CONFIG, suppliedData, REF_DATA, ScenarioDefinition.empty());
+
+    ImmutableMarketData updatedData = suppliedData.toBuilder().addValue(idA1, 3d).build();
+    BuiltScenarioMarketData updated = factory.updateMultiScenario(
+        requirements,
+        MARKET_DATA_CONFIG,
+        ScenarioMarketData.of(1, updatedData),
+        REF_DATA,
+        ScenarioDefinition.empty(),
+        previous,
+        ImmutableSet.of(idA1));
+    assertThat(updated.getValueFailures()).isEmpty();
+    assertThat(updated.getValue(idB1))
+        .isEqualTo(MarketDataBox.ofSingleValue(new TestMarketDataB(3, new TestMarketDataC(timeSeries1))));
+    assertThat(updated.getValue(idB2)).isSameAs(previous.getValue(idB2));
+
+    // perturbed values are built again
+    ScenarioDefinition scenarioDefinition = ScenarioDefinition.ofMappings(
+        PerturbationMapping.of(new ExactIdFilter<>(idA2), new RelativeDoubleShift(0.1, 0.2)));
+    BuiltScenarioMarketData perturbed = factory.createMultiScenario(
+        requirements, MARKET_DATA_CONFIG, suppliedData, REF_DATA, scenarioDefinition);
+    BuiltScenarioMarketData updatedPerturbed = factory.updateMultiScenario(
+        requirements,
+        MARKET_DATA_CONFIG,
+        ScenarioMarketData.of(1, updatedData),
+        REF_DATA,
+        scenarioDefinition,
+        perturbed,
+        ImmutableSet.of(idA1));
+    assertThat(updatedPerturbed).isEqualTo(factory.createMultiScenario(
+        requirements, MARKET_DATA_CONFIG, updatedData, REF_DATA, scenarioDefinition));
+  }
+
   /**
    * Tests building observable market data values.
    */
@@ -15,6 +15,7 @@ import java.util.Objects;
 import org.testng.annotations.Test;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.basics.StandardId;
 import com.opengamma.strata.collect.tuple.Pair;
@@ -100,6 +101,29 @@ public class MarketDataNodeTest {
     assertThat(expectedReqs3).isEqualTo(reqs3);
   }
 
+  /**
+   * Tests finding the market data that depends on other market data.
+   */
+  public void dependents() {
+    MarketDataNode root =
+        rootNode(
+            observableNode(new TestIdA("1")),
+            valueNode(
+                new TestIdB("2"),
+                valueNode(new TestIdB("3")),
+                observableNode(new TestIdA("4")),
+                valueNode(
+                    new TestIdB("5"),
+                    observableNode(new TestIdA("6")))),
+            valueNode(new TestIdB("7")));
+
+    assertThat(root.dependents(ImmutableSet.of(new TestIdA("6"))))
+        .containsOnly(new TestIdA("6"), new TestIdB("5"), new TestIdB("2"));
+    assertThat(root.dependents(ImmutableSet.of(new TestIdA("1"), new TestIdB("3"))))
+        .containsOnly(new TestIdA("1"), new TestIdB("3"), new TestIdB("2"));
+    assertThat(root.dependents(ImmutableSet.of(new TestIdA("8")))).isEmpty();
+  }
+
   /**
    * Tests building a tree of requirements using market data functions.
    */
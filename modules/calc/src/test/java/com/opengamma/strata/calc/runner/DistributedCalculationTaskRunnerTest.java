@@ -0,0 +1,385 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.calc.ReportingCurrency.NATURAL;
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InvalidClassException;
+import java.io.Serializable;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.io.ByteStreams;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.Measure;
+import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.calc.TestingMeasures;
+import com.opengamma.strata.calc.marketdata.TestObservableId;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.ImmutableMarketData;
+import com.opengamma.strata.data.MarketData;
+import com.opengamma.strata.data.scenario.ImmutableScenarioMarketData;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+import com.opengamma.strata.data.scenario.ScenarioArray;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+
+/**
+ * Test {@link DistributedCalculationTaskRunner} and {@link CalculationWorker}.
+ */
+@Test
+public class DistributedCalculationTaskRunnerTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.minimal();
+  private static final TestObservableId QUOTE = TestObservableId.of("1");
+  private static final MarketData MARKET_DATA = ImmutableMarketData.builder(date(2017, 6, 30))
+      .addValue(QUOTE, 2d)
+      .build();
+  private static final ScenarioMarketData SCENARIO_MARKET_DATA =
+      ImmutableScenarioMarketData.builder(date(2017, 6, 30))
+          .addBox(QUOTE, MarketDataBox.ofScenarioValues(2d, 3d, 4d))
+          .build();
+  private static final CalculationTasks TASKS = tasks(5);
+  private static final String SECRET = "secret";
+
+  //-------------------------------------------------------------------------
+  public void test_of_invalid() {
+    InetSocketAddress address = new InetSocketAddress("localhost", 1);
+    assertThrowsIllegalArg(() -> DistributedCalculationTaskRunner.of(ImmutableList.of(), SECRET));
+    assertThrowsIllegalArg(() -> DistributedCalculationTaskRunner.of(ImmutableList.of(address), ""));
+    assertThrowsIllegalArg(() -> DistributedCalculationTaskRunner.ofLocalProcesses(0));
+    assertThrowsIllegalArg(() -> CalculationWorker.start(0, ""));
+  }
+
+  public void test_start_loopback() {
+    try (CalculationWorker worker = CalculationWorker.start(0, SECRET)) {
+      assertTrue(worker.getLocalAddress().getAddress().isLoopbackAddress());
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_calculate() {
+    try (CalculationWorker worker1 = CalculationWorker.start(0, SECRET);
+        CalculationWorker worker2 = CalculationWorker.start(0, SECRET);
+        DistributedCalculationTaskRunner test = DistributedCalculationTaskRunner.of(
+            ImmutableList.of(worker1.getLocalAddress(), worker2.getLocalAddress()), SECRET)) {
+
+      assertEquals(test.getWorkers(), ImmutableList.of(worker1.getLocalAddress(), worker2.getLocalAddress()));
+      CalculationTaskRunner expectedRunner = CalculationTaskRunner.of(MoreExecutors.newDirectExecutorService());
+      assertEquals(
+          test.calculate(TASKS, MARKET_DATA, REF_DATA),
+          expectedRunner.calculate(TASKS, MARKET_DATA, REF_DATA));
+      assertEquals(
+          test.calculateMultiScenario(TASKS, SCENARIO_MARKET_DATA, REF_DATA),
+          expectedRunner.calculateMultiScenario(TASKS, SCENARIO_MARKET_DATA, REF_DATA));
+      // market data that is not immutable is converted
+      assertEquals(
+          test.calculateMultiScenario(TASKS, ScenarioMarketData.of(1, MARKET_DATA), REF_DATA),
+          expectedRunner.calculateMultiScenario(TASKS, ScenarioMarketData.of(1, MARKET_DATA), REF_DATA));
+    }
+  }
+
+  public void test_calculate_moreWorkersThanTasks() {
+    try (CalculationWorker worker1 = CalculationWorker.start(0, SECRET);
+        CalculationWorker worker2 = CalculationWorker.start(0, SECRET);
+        DistributedCalculationTaskRunner test = DistributedCalculationTaskRunner.of(
+            ImmutableList.of(worker1.getLocalAddress(), worker2.getLocalAddress()), SECRET)) {
+
+      Results results = test.calculate(tasks(1), MARKET_DATA, REF_DATA);
+      assertEquals(results.get(0, 0).getValue(), 2d);
+      assertEquals(test.calculate(tasks(0), MARKET_DATA, REF_DATA).getRowCount(), 0);
+    }
+  }
+
+  public void test_calculateAsync() {
+    try (CalculationWorker worker = CalculationWorker.start(0, SECRET);
+        DistributedCalculationTaskRunner test = DistributedCalculationTaskRunner.of(
+            ImmutableList.of(worker.getLocalAddress()), SECRET)) {
+
+      ResultsListener listener = new ResultsListener();
+      test.calculateAsync(TASKS, MARKET_DATA, REF_DATA, listener);
+      Results results = listener.result();
+      for (int i = 0; i < 5; i++) {
+        assertEquals(results.get(i, 0).getValue(), 2d * (i + 1));
+        assertEquals(results.get(i, 1).getValue(), -2d * (i + 1));
+      }
+    }
+  }
+
+  public void test_calculate_serializableFunction() {
+    CalculationTaskCell cell = CalculationTaskCell.of(0, 0, TestingMeasures.PRESENT_VALUE, NATURAL);
+    CalculationTask task = CalculationTask.of(new TestTarget(3), new SerializableFunction(10), cell);
+    CalculationTasks tasks = CalculationTasks.of(ImmutableList.of(task), ImmutableList.of(column(0)));
+    try (CalculationWorker worker = CalculationWorker.start(0, SECRET);
+        DistributedCalculationTaskRunner test = DistributedCalculationTaskRunner.of(
+            ImmutableList.of(worker.getLocalAddress()), SECRET)) {
+
+      assertEquals(test.calculate(tasks, MARKET_DATA, REF_DATA).get(0, 0).getValue(), 60d);
+    }
+  }
+
+  public void test_calculate_functionNotSerializable() {
+    CalculationTaskCell cell = CalculationTaskCell.of(0, 0, TestingMeasures.PRESENT_VALUE, NATURAL);
+    CalculationTask task = CalculationTask.of(new TestTarget(3), new TestFunction(), cell);
+    CalculationTasks tasks = CalculationTasks.of(ImmutableList.of(task), ImmutableList.of(column(0)));
+    try (CalculationWorker worker = CalculationWorker.start(0, SECRET);
+        DistributedCalculationTaskRunner test = DistributedCalculationTaskRunner.of(
+            ImmutableList.of(worker.getLocalAddress()), SECRET)) {
+
+      assertThrowsIllegalArg(() -> test.calculate(tasks, MARKET_DATA, REF_DATA));
+    }
+  }
+
+  public void test_calculate_invalidSecret() {
+    try (CalculationWorker worker = CalculationWorker.start(0, SECRET);
+        DistributedCalculationTaskRunner test = DistributedCalculationTaskRunner.of(
+            ImmutableList.of(worker.getLocalAddress()), "other")) {
+
+      Results results = test.calculate(TASKS, MARKET_DATA, REF_DATA);
+      for (Result<?> result : results.getCells()) {
+        assertEquals(result.getFailure().getReason(), FailureReason.ERROR);
+      }
+    }
+  }
+
+  public void test_calculate_chunks() {
+    int taskCount = DistributedCalculationTaskRunner.TASK_CHUNK_SIZE * 2 + 1;
+    try (CalculationWorker worker = CalculationWorker.start(0, SECRET);
+        DistributedCalculationTaskRunner test = DistributedCalculationTaskRunner.of(
+            ImmutableList.of(worker.getLocalAddress()), SECRET)) {
+
+      Results results = test.calculate(tasks(taskCount), MARKET_DATA, REF_DATA);
+      for (int i = 0; i < taskCount; i++) {
+        assertEquals(results.get(i, 0).getValue(), 2d * (i + 1));
+      }
+    }
+  }
+
+  public void test_readFrame_classNotAllowed() throws Exception {
+    byte[] bytes = CalculationWorker.serialize(ImmutableList.of(new InetSocketAddress("localhost", 1)));
+    ByteArrayOutputStream frame = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(frame)) {
+      CalculationWorker.writeFrame(out, bytes);
+    }
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(frame.toByteArray()));
+    assertThrows(
+        () -> CalculationWorker.readFrame(in, CalculationWorker.DEFAULT_ALLOWED_PACKAGES),
+        InvalidClassException.class);
+  }
+
+  public void test_calculate_workerUnavailable() throws IOException {
+    int port;
+    try (ServerSocket socket = new ServerSocket(0)) {
+      port = socket.getLocalPort();
+    }
+    try (DistributedCalculationTaskRunner test = DistributedCalculationTaskRunner.of(
+        ImmutableList.of(new InetSocketAddress("localhost", port)), SECRET)) {
+
+      Results results = test.calculate(TASKS, MARKET_DATA, REF_DATA);
+      assertEquals(results.getRowCount(), 5);
+      for (Result<?> result : results.getCells()) {
+        assertEquals(result.getFailure().getReason(), FailureReason.ERROR);
+      }
+    }
+  }
+
+  public void test_calculate_invalidTaskIndex() throws IOException {
+    assertFailuresFromInvalidWorker(TASKS.getTasks().size(), "result");
+  }
+
+  public void test_calculate_invalidResults() throws IOException {
+    assertFailuresFromInvalidWorker(0, "result");
+  }
+
+  // checks that every cell fails when the worker sends an invalid response
+  private static void assertFailuresFromInvalidWorker(int index, Object results) throws IOException {
+    try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+        DistributedCalculationTaskRunner test = DistributedCalculationTaskRunner.of(
+            ImmutableList.of(new InetSocketAddress(server.getInetAddress(), server.getLocalPort())), SECRET)) {
+
+      Thread worker = new Thread(() -> respondInvalid(server, index, results));
+      worker.setDaemon(true);
+      worker.start();
+      Results calculated = test.calculate(TASKS, MARKET_DATA, REF_DATA);
+      for (Result<?> result : calculated.getCells()) {
+        assertEquals(result.getFailure().getReason(), FailureReason.ERROR);
+      }
+    }
+  }
+
+  // accepts the request of a runner, and sends back a single response
+  private static void respondInvalid(ServerSocket server, int index, Object results) {
+    try (Socket socket = server.accept()) {
+      DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()));
+      DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+      out.write(new byte[32]);
+      in.readFully(new byte[32]);
+      out.writeBoolean(true);
+      CalculationWorker.readFrame(in, CalculationWorker.DEFAULT_ALLOWED_PACKAGES);
+      int chunkCount = in.readInt();
+      for (int i = 0; i < chunkCount; i++) {
+        CalculationWorker.readFrame(in, CalculationWorker.DEFAULT_ALLOWED_PACKAGES);
+      }
+      out.writeInt(index);
+      CalculationWorker.writeFrame(out, CalculationWorker.serialize(results));
+      out.flush();
+      // wait for the runner to close the connection
+      ByteStreams.exhaust(in);
+    } catch (IOException | ClassNotFoundException ex) {
+      // the runner has closed the connection
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_ofLocalProcesses() {
+    try (DistributedCalculationTaskRunner test = DistributedCalculationTaskRunner.ofLocalProcesses(2)) {
+      assertEquals(test.getWorkers().size(), 2);
+      assertTrue(test.toString().startsWith("DistributedCalculationTaskRunner[workers="));
+      CalculationTaskRunner expectedRunner = CalculationTaskRunner.of(MoreExecutors.newDirectExecutorService());
+      assertEquals(
+          test.calculateMultiScenario(TASKS, SCENARIO_MARKET_DATA, REF_DATA),
+          expectedRunner.calculateMultiScenario(TASKS, SCENARIO_MARKET_DATA, REF_DATA));
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // one task for each target, calculating the present value and par rate
+  private static CalculationTasks tasks(int targetCount) {
+    List<CalculationTask> tasks = new ArrayList<>();
+    for (int i = 0; i < targetCount; i++) {
+      tasks.add(CalculationTask.of(
+          new TestTarget(i + 1),
+          new SerializableFunction(1),
+          CalculationTaskCell.of(i, 0, TestingMeasures.PRESENT_VALUE, NATURAL),
+          CalculationTaskCell.of(i, 1, TestingMeasures.PAR_RATE, NATURAL)));
+    }
+    return CalculationTasks.of(tasks, ImmutableList.of(column(0), column(1)));
+  }
+
+  private static Column column(int index) {
+    return Column.of(index == 0 ? TestingMeasures.PRESENT_VALUE : TestingMeasures.PAR_RATE);
+  }
+
+  //-------------------------------------------------------------------------
+  private static final class TestTarget implements CalculationTarget, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final double notional;
+
+    private TestTarget(double notional) {
+      this.notional = notional;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return obj instanceof TestTarget && notional == ((TestTarget) obj).notional;
+    }
+
+    @Override
+    public int hashCode() {
+      return Double.hashCode(notional);
+    }
+  }
+
+  // multiplies the notional by the quote, not serializable thus not sent to the workers
+  public static class TestFunction implements CalculationFunction<TestTarget> {
+
+    double multiplier() {
+      return 1;
+    }
+
+    @Override
+    public Class<TestTarget> targetType() {
+      return TestTarget.class;
+    }
+
+    @Override
+    public Set<Measure> supportedMeasures() {
+      return ImmutableSet.of(TestingMeasures.PRESENT_VALUE, TestingMeasures.PAR_RATE);
+    }
+
+    @Override
+    public Currency naturalCurrency(TestTarget target, ReferenceData refData) {
+      return Currency.USD;
+    }
+
+    @Override
+    public FunctionRequirements requirements(
+        TestTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ReferenceData refData) {
+
+      return FunctionRequirements.builder().valueRequirements(QUOTE).build();
+    }
+
+    @Override
+    public Map<Measure, Result<?>> calculate(
+        TestTarget target,
+        Set<Measure> measures,
+        CalculationParameters parameters,
+        ScenarioMarketData marketData,
+        ReferenceData refData) {
+
+      MarketDataBox<Double> quote = marketData.getValue(QUOTE);
+      int scenarioCount = marketData.getScenarioCount();
+      double amount = multiplier() * target.notional;
+      Map<Measure, Result<?>> results = new HashMap<>();
+      results.put(
+          TestingMeasures.PRESENT_VALUE,
+          Result.success(ScenarioArray.of(scenarioCount, i -> amount * quote.getValue(i))));
+      results.put(
+          TestingMeasures.PAR_RATE,
+          Result.success(ScenarioArray.of(scenarioCount, i -> -amount * quote.getValue(i))));
+      return results;
+    }
+  }
+
+  // a function that is sent to the worker by serialization
+  private static final class SerializableFunction extends TestFunction implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final double multiplier;
+
+    private SerializableFunction(double multiplier) {
+      this.multiplier = multiplier;
+    }
+
+    @Override
+    double multiplier() {
+      return multiplier;
+    }
+  }
+
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.calc.runner;
+
+import static com.opengamma.strata.basics.currency.Currency.GBP;
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.function.BinaryOperator;
+import java.util.stream.Collectors;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.ColumnName;
+import com.opengamma.strata.calc.TestingMeasures;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.scenario.CurrencyScenarioArray;
+import com.opengamma.strata.data.scenario.DoubleScenarioArray;
+import com.opengamma.strata.data.scenario.MultiCurrencyScenarioArray;
+
+/**
+ * Test {@link PortfolioAggregationListener}.
+ */
+@Test
+public class PortfolioAggregationListenerTest {
+
+  private static final TestTarget TARGET1 = new TestTarget("A");
+  private static final TestTarget TARGET2 = new TestTarget("B");
+  private static final TestTarget TARGET3 = new TestTarget("A");
+  private static final TestTarget TARGET4 = new TestTarget(null);
+  private static final List<CalculationTarget> TARGETS = ImmutableList.of(TARGET1, TARGET2, TARGET3, TARGET4);
+  private static final List<Column> COLUMNS = ImmutableList.of(
+      Column.of(TestingMeasures.PRESENT_VALUE),
+      Column.of(TestingMeasures.PAR_RATE),
+      Column.of(TestingMeasures.BUCKETED_PV01));
+
+  public void amounts() {
+    PortfolioAggregationListener<String> test = PortfolioAggregationListener.of(target -> ((TestTarget) target).book);
+    test.calculationsStarted(TARGETS, COLUMNS);
+    receive(test, 0, 0, CurrencyAmount.of(GBP, 1));
+    receive(test, 2, 0, CurrencyAmount.of(GBP, 2));
+    receive(test, 1, 0, MultiCurrencyAmount.of(CurrencyAmount.of(GBP, 3), CurrencyAmount.of(USD, 4)));
+    receive(test, 3, 0, CurrencyAmount.of(GBP, 100));
+    receive(test, 0, 1, 0.5d);
+    receive(test, 2, 1, 0.25d);
+    receive(test, 1, 1, 0.1d);
+    receive(test, 3, 1, 100d);
+    receive(test, 0, 2, CurrencyAmount.of(GBP, 1));
+    receive(test, 2, 2, CurrencyAmount.of(USD, 2));
+    receive(test, 1, 2, Result.failure(FailureReason.MISSING_DATA, "No curve"));
+    receive(test, 3, 2, CurrencyAmount.of(GBP, 100));
+    test.calculationsComplete();
+
+    AggregatedResults<String> results = test.result();
+    assertThat(results.getGroups()).containsExactly("A", "B");
+    assertThat(results.getResults().getRowCount()).isEqualTo(2);
+    assertThat(results.getResults().getColumnCount()).isEqualTo(3);
+    assertThat(results.get("A", 0)).isEqualTo(Result.success(CurrencyAmount.of(GBP, 3)));
+    assertThat(results.get("B", 0))
+        .isEqualTo(Result.success(MultiCurrencyAmount.of(CurrencyAmount.of(GBP, 3), CurrencyAmount.of(USD, 4))));
+    assertThat(results.get("A", ColumnName.of(TestingMeasures.PAR_RATE), Double.class))
+        .isEqualTo(Result.success(0.75d));
+    assertThat(results.get("B", 1)).isEqualTo(Result.success(0.1d));
+    assertThat(results.get("A", 2))
+        .isEqualTo(Result.success(MultiCurrencyAmount.of(CurrencyAmount.of(GBP, 1), CurrencyAmount.of(USD, 2))));
+    assertThat(results.get("B", 2).getFailure().getReason()).isEqualTo(FailureReason.MISSING_DATA);
+  }
+
+  public void scenarioArrays() {
+    PortfolioAggregationListener<String> test = PortfolioAggregationListener.of(target -> ((TestTarget) target).book);
+    test.calculationsStarted(TARGETS, COLUMNS);
+    receive(test, 0, 0, CurrencyScenarioArray.of(GBP, DoubleArray.of(1, 2)));
+    receive(test, 2, 0, CurrencyScenarioArray.of(GBP, DoubleArray.of(3, 4)));
+    receive(test, 1, 0, CurrencyScenarioArray.of(GBP, DoubleArray.of(5, 6)));
+    receive(test, 1, 0, CurrencyScenarioArray.of(USD, DoubleArray.of(7, 8)));
+    receive(test, 0, 1, DoubleScenarioArray.of(DoubleArray.of(0.1, 0.2)));
+    receive(test, 2, 1, DoubleScenarioArray.of(DoubleArray.of(0.3, 0.4)));
+    receive(test, 1, 1, DoubleScenarioArray.of(DoubleArray.of(0.5, 0.6)));
+    receive(test, 0, 2, CurrencyScenarioArray.of(GBP, DoubleArray.of(1, 2)));
+    receive(test, 2, 2, CurrencyScenarioArray.of(GBP, DoubleArray.of(1, 2, 3)));
+    receive(test, 1, 2, "text");
+    test.calculationsComplete();
+
+    AggregatedResults<String> results = test.result();
+    assertThat(results.get("A", 0)).isEqualTo(Result.success(CurrencyScenarioArray.of(GBP, DoubleArray.of(4, 6))));
+    MultiCurrencyScenarioArray expectedB = MultiCurrencyScenarioArray.of(
+        ImmutableMap.of(GBP, DoubleArray.of(5, 6), USD, DoubleArray.of(7, 8)));
+    assertThat(results.get("B", 0)).isEqualTo(Result.success(expectedB));
+    DoubleScenarioArray parRates = (DoubleScenarioArray) results.get("A", 1).getValue();
+    assertThat(parRates.getValues().equalWithTolerance(DoubleArray.of(0.4, 0.6), 1e-12)).isTrue();
+    assertThat(results.get("A", 2).getFailure().getReason()).isEqualTo(FailureReason.CALCULATION_FAILED);
+    assertThat(results.get("B", 2).getFailure().getReason()).isEqualTo(FailureReason.CALCULATION_FAILED);
+  }
+
+  public void combiner() {
+    BinaryOperator<String> concat = (str1, str2) -> str1 + "," + str2;
+    PortfolioAggregationListener<String> test = PortfolioAggregationListener.of(target -> ((TestTarget) target).book)
+        .withCombiner(String.class, concat);
+    test.calculationsStarted(TARGETS, COLUMNS.subList(0, 1));
+    receive(test, 0, 0, "x");
+    receive(test, 2, 0, "y");
+    receive(test, 1, 0, "z");
+    test.calculationsComplete();
+
+    AggregatedResults<String> results = test.result();
+    assertThat(results.get("A", 0)).isEqualTo(Result.success("x,y"));
+    assertThat(results.get("B", 0)).isEqualTo(Result.success("z"));
+  }
+
+  public void test_combinerWithCondition() {
+    BinaryOperator<String> concat = (str1, str2) -> str1 + "," + str2;
+    PortfolioAggregationListener<String> test = PortfolioAggregationListener.of(target -> ((TestTarget) target).book)
+        .withCombiner(String.class, str -> !str.isEmpty(), concat);
+    test.calculationsStarted(TARGETS, COLUMNS.subList(0, 1));
+    receive(test, 0, 0, "x");
+    receive(test, 2, 0, "y");
+    receive(test, 1, 0, "");
+    test.calculationsComplete();
+
+    AggregatedResults<String> results = test.result();
+    assertThat(results.get("A", 0)).isEqualTo(Result.success("x,y"));
+    assertThat(results.get("B", 0).isFailure()).isTrue();
+  }
+
+  public void test_combinerCollector() {
+    PortfolioAggregationListener<String> test = PortfolioAggregationListener.of(target -> ((TestTarget) target).book)
+        .withCombiner(String.class, str -> !str.isEmpty(), Collectors.joining(","));
+    test.calculationsStarted(TARGETS, COLUMNS.subList(0, 2));
+    receive(test, 0, 0, "x");
+    receive(test, 2, 0, "y");
+    receive(test, 1, 0, "");
+    receive(test, 0, 1, "x");
+    receive(test, 2, 1, 1d);
+    test.calculationsComplete();
+
+    AggregatedResults<String> results = test.result();
+    assertThat(results.get("A", 0)).isEqualTo(Result.success("x,y"));
+    assertThat(results.get("B", 0).isFailure()).isTrue();
+    assertThat(results.get("A", 1).getFailure().getReason()).isEqualTo(FailureReason.CALCULATION_FAILED);
+  }
+
+  public void test_failures() {
+    PortfolioAggregationListener<String> test = PortfolioAggregationListener.of(target -> ((TestTarget) target).book);
+    test.calculationsStarted(TARGETS, COLUMNS.subList(0, 1));
+    receive(test, 0, 0, Result.failure(FailureReason.MISSING_DATA, "No curve"));
+    receive(test, 2, 0, Result.failure(FailureReason.CALCULATION_FAILED, "Failed"));
+    receive(test, 1, 0, Result.failure(FailureReason.MISSING_DATA, "No curve"));
+    test.calculationsComplete();
+
+    AggregatedResults<String> results = test.result();
+    assertThat(results.get("A", 0).getFailure().getItems()).hasSize(2);
+    assertThat(results.get("A", 0).getFailure().getReason()).isEqualTo(FailureReason.MULTIPLE);
+    assertThat(results.get("B", 0).getFailure().getReason()).isEqualTo(FailureReason.MISSING_DATA);
+  }
+
+  //-------------------------------------------------------------------------
+  private static void receive(PortfolioAggregationListener<String> listener, int row, int column, Object value) {
+    Result<?> result = value instanceof Result ? (Result<?>) value : Result.success(value);
+    listener.resultReceived(TARGETS.get(row), CalculationResult.of(row, column, result));
+  }
+
+  private static final class TestTarget implements CalculationTarget {
+    private final String book;
+
+    private TestTarget(String book) {
+      this.book = book;
+    }
+  }
+
+}
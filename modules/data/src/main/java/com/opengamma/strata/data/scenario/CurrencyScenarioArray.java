@@ -28,6 +28,7 @@ import org.joda.beans.impl.direct.DirectPrivateBeanBuilder;
 import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.basics.currency.CurrencyAmount;
 import com.opengamma.strata.basics.currency.CurrencyAmountArray;
+import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.Messages;
 import com.opengamma.strata.collect.array.DoubleArray;
 
@@ -201,6 +202,38 @@ public final class CurrencyScenarioArray
   public CurrencyScenarioArray minus(CurrencyAmount amount) {
     return CurrencyScenarioArray.of(amounts.minus(amount));
   }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates a quantile of the amounts.
+   * <p>
+   * The quantile is the smallest amount such that the proportion of amounts less than or equal to it
+   * is at least the specified level. For example, the quantile at level 0.01 of 500 amounts is the
+   * fifth smallest amount.
+   * 
+   * @param level  the quantile level, between 0 and 1 inclusive
+   * @return the quantile
+   * @throws IllegalArgumentException if the level is invalid
+   */
+  public CurrencyAmount quantile(double level) {
+    return CurrencyAmount.of(getCurrency(), DoubleScenarioArray.quantile(amounts.getValues(), level));
+  }
+
+  /**
+   * Calculates the value at risk of the amounts, where the amounts are profits and losses.
+   * <p>
+   * The value at risk is the loss that is not exceeded with the specified confidence.
+   * It is the quantile of the amounts at level {@code 1 - confidenceLevel}, expressed as a loss,
+   * thus a positive value at risk represents a loss.
+   * 
+   * @param confidenceLevel  the confidence level, between 0 and 1 inclusive, such as 0.99
+   * @return the value at risk
+   * @throws IllegalArgumentException if the confidence level is invalid
+   */
+  public CurrencyAmount valueAtRisk(double confidenceLevel) {
+    ArgChecker.inRangeInclusive(confidenceLevel, 0d, 1d, "confidenceLevel");
+    return quantile(1d - confidenceLevel).negated();
+  }
   
   //------------------------- AUTOGENERATED START -------------------------
   /**
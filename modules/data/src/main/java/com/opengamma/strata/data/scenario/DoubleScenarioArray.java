@@ -6,6 +6,7 @@
 package com.opengamma.strata.data.scenario;
 
 import java.io.Serializable;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
@@ -38,6 +39,11 @@ import com.opengamma.strata.collect.array.DoubleArray;
 public final class DoubleScenarioArray
     implements ScenarioArray<Double>, ImmutableBean, Serializable {
 
+  /**
+   * The tolerance used when finding the rank of a quantile.
+   */
+  private static final double RANK_TOLERANCE = 1e-10;
+
   /**
    * The calculated values, one per scenario.
    */
@@ -96,6 +102,32 @@ public final class DoubleScenarioArray
     return values.stream().boxed();
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates a quantile of the values.
+   * <p>
+   * The quantile is the smallest value such that the proportion of values less than or equal to it
+   * is at least the specified level. For example, the quantile at level 0.01 of 500 values is the
+   * fifth smallest value.
+   * 
+   * @param level  the quantile level, between 0 and 1 inclusive
+   * @return the quantile
+   * @throws IllegalArgumentException if the level is invalid
+   */
+  public double quantile(double level) {
+    return quantile(values, level);
+  }
+
+  // calculates the quantile of the values using the nearest rank
+  // the tolerance avoids moving to the next rank when the level is the result of a subtraction, such as 1 - 0.99
+  static double quantile(DoubleArray values, double level) {
+    ArgChecker.inRangeInclusive(level, 0d, 1d, "level");
+    double[] sorted = values.toArray();
+    Arrays.sort(sorted);
+    int index = (int) Math.ceil(level * sorted.length - RANK_TOLERANCE) - 1;
+    return sorted[Math.max(index, 0)];
+  }
+
   //------------------------- AUTOGENERATED START -------------------------
   /**
    * The meta-bean for {@code DoubleScenarioArray}.
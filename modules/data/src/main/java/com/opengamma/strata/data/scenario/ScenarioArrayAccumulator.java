@@ -0,0 +1,221 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.data.scenario;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.DoubleArrayMath;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.array.DoubleArray;
+
+/**
+ * A mutable accumulator of currency amounts across scenarios.
+ * <p>
+ * This is used to aggregate the scenario values of many trades, such as the present values
+ * of a portfolio, without creating intermediate arrays or boxing each amount.
+ * The amounts are summed in place into one primitive array per currency.
+ * <p>
+ * Once all the values have been added, the total can be obtained as a {@link MultiCurrencyScenarioArray},
+ * or converted to a single currency as a {@link CurrencyScenarioArray}.
+ * The quantiles of the converted total can then be obtained using {@link CurrencyScenarioArray#quantile(double)}.
+ * <p>
+ * This class is mutable and not thread-safe. When used in a parallel reduction,
+ * each thread should use its own instance, and the instances should be merged using {@link #combine}.
+ */
+public final class ScenarioArrayAccumulator {
+
+  /**
+   * The number of scenarios.
+   */
+  private final int scenarioCount;
+  /**
+   * The total values, one array per currency, with one value for each scenario.
+   */
+  private final Map<Currency, double[]> totals = new HashMap<>();
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an empty accumulator for the specified number of scenarios.
+   * 
+   * @param scenarioCount  the number of scenarios
+   * @return the accumulator
+   * @throws IllegalArgumentException if the number of scenarios is zero or less
+   */
+  public static ScenarioArrayAccumulator of(int scenarioCount) {
+    return new ScenarioArrayAccumulator(scenarioCount);
+  }
+
+  // restricted constructor
+  private ScenarioArrayAccumulator(int scenarioCount) {
+    this.scenarioCount = ArgChecker.notNegativeOrZero(scenarioCount, "scenarioCount");
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the number of scenarios.
+   * 
+   * @return the number of scenarios
+   */
+  public int getScenarioCount() {
+    return scenarioCount;
+  }
+
+  /**
+   * Gets the currencies of the amounts added so far.
+   * 
+   * @return the currencies
+   */
+  public Set<Currency> getCurrencies() {
+    return ImmutableSet.copyOf(totals.keySet());
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Adds the amounts of a currency scenario array.
+   * <p>
+   * The amount of each scenario is added to the total of the same scenario.
+   * 
+   * @param array  the array to add
+   * @return this accumulator, for chaining
+   * @throws IllegalArgumentException if the array has a different number of scenarios
+   */
+  public ScenarioArrayAccumulator add(CurrencyScenarioArray array) {
+    addValues(array.getCurrency(), array.getAmounts().getValues());
+    return this;
+  }
+
+  /**
+   * Adds the amounts of a multi currency scenario array.
+   * <p>
+   * The amount of each scenario is added to the total of the same scenario, currency by currency.
+   * 
+   * @param array  the array to add
+   * @return this accumulator, for chaining
+   * @throws IllegalArgumentException if the array has a different number of scenarios
+   */
+  public ScenarioArrayAccumulator add(MultiCurrencyScenarioArray array) {
+    for (Entry<Currency, DoubleArray> entry : array.getAmounts().getValues().entrySet()) {
+      addValues(entry.getKey(), entry.getValue());
+    }
+    return this;
+  }
+
+  /**
+   * Adds an amount to every scenario.
+   * <p>
+   * This is used for values that do not depend on the scenario.
+   * 
+   * @param amount  the amount to add
+   * @return this accumulator, for chaining
+   */
+  public ScenarioArrayAccumulator add(CurrencyAmount amount) {
+    DoubleArrayMath.mutateByAddition(total(amount.getCurrency()), amount.getAmount());
+    return this;
+  }
+
+  /**
+   * Adds the totals of another accumulator.
+   * <p>
+   * This is used to merge the partial totals of a parallel reduction.
+   * 
+   * @param other  the other accumulator
+   * @return this accumulator, for chaining
+   * @throws IllegalArgumentException if the accumulators have a different number of scenarios
+   */
+  public ScenarioArrayAccumulator combine(ScenarioArrayAccumulator other) {
+    checkScenarioCount(other.scenarioCount);
+    for (Entry<Currency, double[]> entry : other.totals.entrySet()) {
+      DoubleArrayMath.mutateByAddition(total(entry.getKey()), entry.getValue());
+    }
+    return this;
+  }
+
+  // adds the values of a currency
+  private void addValues(Currency currency, DoubleArray values) {
+    checkScenarioCount(values.size());
+    DoubleArrayMath.mutateByAddition(total(currency), values.toArrayUnsafe());
+  }
+
+  // obtains the total of a currency, creating it if necessary
+  private double[] total(Currency currency) {
+    return totals.computeIfAbsent(currency, ccy -> new double[scenarioCount]);
+  }
+
+  // checks the number of scenarios matches
+  private void checkScenarioCount(int count) {
+    if (count != scenarioCount) {
+      throw new IllegalArgumentException(Messages.format(
+          "Expected {} scenarios but received {}", scenarioCount, count));
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns the total amounts as a multi currency scenario array.
+   * 
+   * @return the total amounts
+   */
+  public MultiCurrencyScenarioArray toMultiCurrencyScenarioArray() {
+    Map<Currency, DoubleArray> values = new HashMap<>();
+    for (Entry<Currency, double[]> entry : totals.entrySet()) {
+      values.put(entry.getKey(), DoubleArray.copyOf(entry.getValue()));
+    }
+    return MultiCurrencyScenarioArray.of(values);
+  }
+
+  /**
+   * Returns the total amounts converted to a single currency.
+   * <p>
+   * The total of each currency is converted using the FX rate of each scenario and added to the result.
+   * The FX rates are obtained once per currency and scenario, whatever the number of values added.
+   * 
+   * @param reportingCurrency  the currency to convert to
+   * @param fxRateProvider  the provider of FX rates, one set of rates for each scenario
+   * @return the total amounts in the reporting currency
+   * @throws IllegalArgumentException if the provider has a different number of scenarios
+   * @throws RuntimeException if an FX rate could not be found
+   */
+  public CurrencyScenarioArray toCurrencyScenarioArray(
+      Currency reportingCurrency,
+      ScenarioFxRateProvider fxRateProvider) {
+
+    if (fxRateProvider.getScenarioCount() != scenarioCount) {
+      throw new IllegalArgumentException(Messages.format(
+          "Expected {} FX rates but received {}", scenarioCount, fxRateProvider.getScenarioCount()));
+    }
+    double[] converted = new double[scenarioCount];
+    double[] rates = new double[scenarioCount];
+    for (Entry<Currency, double[]> entry : totals.entrySet()) {
+      Currency currency = entry.getKey();
+      double[] values = entry.getValue();
+      if (currency.equals(reportingCurrency)) {
+        DoubleArrayMath.mutateByAddition(converted, values);
+      } else {
+        for (int i = 0; i < scenarioCount; i++) {
+          rates[i] = fxRateProvider.fxRate(currency, reportingCurrency, i);
+        }
+        for (int i = 0; i < scenarioCount; i++) {
+          converted[i] += values[i] * rates[i];
+        }
+      }
+    }
+    return CurrencyScenarioArray.of(reportingCurrency, DoubleArray.ofUnsafe(converted));
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "ScenarioArrayAccumulator[scenarioCount=" + scenarioCount + ", currencies=" + totals.keySet() + "]";
+  }
+
+}
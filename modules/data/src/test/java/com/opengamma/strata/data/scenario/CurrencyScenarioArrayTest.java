@@ -169,6 +169,14 @@ public class CurrencyScenarioArrayTest {
     assertThat(minusAmountResult).isEqualTo(CurrencyScenarioArray.of(GBP, DoubleArray.of(-1, 0, 1)));
   }
   
+  //-------------------------------------------------------------------------
+  public void valueAtRisk() {
+    CurrencyScenarioArray pnl = CurrencyScenarioArray.of(GBP, DoubleArray.of(200, i -> (i * 37) % 200 - 100));
+    assertThat(pnl.quantile(0.05d)).isEqualTo(CurrencyAmount.of(GBP, -91));
+    assertThat(pnl.valueAtRisk(0.95d)).isEqualTo(CurrencyAmount.of(GBP, 91));
+    assertThat(pnl.valueAtRisk(0.99d)).isEqualTo(CurrencyAmount.of(GBP, 99));
+    assertThrowsIllegalArg(() -> pnl.valueAtRisk(-0.1d));
+  }
 
   public void coverage() {
     DoubleArray values = DoubleArray.of(1, 2, 3);
@@ -5,6 +5,7 @@
  */
 package com.opengamma.strata.data.scenario;
 
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
 import static com.opengamma.strata.collect.TestHelper.coverBeanEquals;
 import static com.opengamma.strata.collect.TestHelper.coverImmutableBean;
 import static java.util.stream.Collectors.toList;
@@ -56,6 +57,17 @@ public class DoubleScenarioArrayTest {
     assertThat(test.stream().collect(toList())).containsExactly(1d, 2d, 3d);
   }
 
+  //-------------------------------------------------------------------------
+  public void quantile() {
+    DoubleScenarioArray values = DoubleScenarioArray.of(100, i -> (i * 37) % 100 - 50);
+    assertThat(values.quantile(0d)).isEqualTo(-50d);
+    assertThat(values.quantile(0.01d)).isEqualTo(-50d);
+    assertThat(values.quantile(0.05d)).isEqualTo(-46d);
+    assertThat(values.quantile(0.5d)).isEqualTo(-1d);
+    assertThat(values.quantile(1d)).isEqualTo(49d);
+    assertThrowsIllegalArg(() -> values.quantile(1.5d));
+  }
+
   //-------------------------------------------------------------------------
   public void coverage() {
     DoubleArray values = DoubleArray.of(1, 2, 3);
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.data.scenario;
+
+import static com.opengamma.strata.basics.currency.Currency.CAD;
+import static com.opengamma.strata.basics.currency.Currency.EUR;
+import static com.opengamma.strata.basics.currency.Currency.GBP;
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.collect.array.DoubleArray;
+
+/**
+ * Test {@link ScenarioArrayAccumulator}.
+ */
+@Test
+public class ScenarioArrayAccumulatorTest {
+
+  private static final CurrencyScenarioArray GBP_ARRAY = CurrencyScenarioArray.of(GBP, DoubleArray.of(1, 2, 3));
+  private static final CurrencyScenarioArray USD_ARRAY = CurrencyScenarioArray.of(USD, DoubleArray.of(10, 20, 30));
+  private static final MultiCurrencyScenarioArray MULTI_ARRAY = MultiCurrencyScenarioArray.of(ImmutableMap.of(
+      GBP, DoubleArray.of(100, 200, 300),
+      EUR, DoubleArray.of(1000, 2000, 3000)));
+
+  public void add() {
+    ScenarioArrayAccumulator test = ScenarioArrayAccumulator.of(3)
+        .add(GBP_ARRAY)
+        .add(USD_ARRAY)
+        .add(MULTI_ARRAY)
+        .add(CurrencyAmount.of(GBP, 5));
+    assertThat(test.getScenarioCount()).isEqualTo(3);
+    assertThat(test.getCurrencies()).containsOnly(GBP, USD, EUR);
+    MultiCurrencyScenarioArray expected = MultiCurrencyScenarioArray.of(ImmutableMap.of(
+        GBP, DoubleArray.of(106, 207, 308),
+        USD, DoubleArray.of(10, 20, 30),
+        EUR, DoubleArray.of(1000, 2000, 3000)));
+    assertThat(test.toMultiCurrencyScenarioArray()).isEqualTo(expected);
+  }
+
+  public void add_matchesTotal() {
+    List<CurrencyScenarioArray> arrays = ImmutableList.of(GBP_ARRAY, USD_ARRAY, GBP_ARRAY);
+    ScenarioArrayAccumulator test = ScenarioArrayAccumulator.of(3);
+    arrays.forEach(test::add);
+    assertThat(test.toMultiCurrencyScenarioArray()).isEqualTo(MultiCurrencyScenarioArray.total(arrays));
+  }
+
+  public void add_wrongScenarioCount() {
+    ScenarioArrayAccumulator test = ScenarioArrayAccumulator.of(2);
+    assertThrowsIllegalArg(() -> test.add(GBP_ARRAY));
+    assertThrowsIllegalArg(() -> test.add(MULTI_ARRAY));
+    assertThrowsIllegalArg(() -> test.combine(ScenarioArrayAccumulator.of(3)));
+    assertThrowsIllegalArg(() -> ScenarioArrayAccumulator.of(0));
+  }
+
+  public void combine() {
+    ScenarioArrayAccumulator test = IntStream.range(0, 100).parallel()
+        .mapToObj(i -> i % 2 == 0 ? GBP_ARRAY : USD_ARRAY)
+        .collect(
+            () -> ScenarioArrayAccumulator.of(3),
+            ScenarioArrayAccumulator::add,
+            ScenarioArrayAccumulator::combine);
+    MultiCurrencyScenarioArray expected = MultiCurrencyScenarioArray.of(ImmutableMap.of(
+        GBP, DoubleArray.of(50, 100, 150),
+        USD, DoubleArray.of(500, 1000, 1500)));
+    assertThat(test.toMultiCurrencyScenarioArray()).isEqualTo(expected);
+  }
+
+  public void toCurrencyScenarioArray() {
+    FxRateScenarioArray rates1 = FxRateScenarioArray.of(GBP, CAD, DoubleArray.of(2.00, 2.01, 2.02));
+    FxRateScenarioArray rates2 = FxRateScenarioArray.of(USD, CAD, DoubleArray.of(1.30, 1.31, 1.32));
+    FxRateScenarioArray rates3 = FxRateScenarioArray.of(EUR, CAD, DoubleArray.of(1.4, 1.4, 1.4));
+    ScenarioFxRateProvider fxProvider = new TestScenarioFxRateProvider(rates1, rates2, rates3);
+    ScenarioArrayAccumulator test = ScenarioArrayAccumulator.of(3)
+        .add(GBP_ARRAY)
+        .add(USD_ARRAY)
+        .add(MULTI_ARRAY)
+        .add(CurrencyAmount.of(CAD, 1));
+    CurrencyScenarioArray converted = test.toCurrencyScenarioArray(CAD, fxProvider);
+    CurrencyScenarioArray expected = test.toMultiCurrencyScenarioArray().convertedTo(CAD, fxProvider);
+    assertThat(converted.getCurrency()).isEqualTo(CAD);
+    for (int i = 0; i < 3; i++) {
+      assertThat(converted.get(i).getAmount()).isEqualTo(expected.get(i).getAmount(), offset(1e-9));
+    }
+    assertThrowsIllegalArg(() -> ScenarioArrayAccumulator.of(2).toCurrencyScenarioArray(CAD, fxProvider));
+  }
+
+}
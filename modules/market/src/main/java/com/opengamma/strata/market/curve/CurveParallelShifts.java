@@ -86,6 +86,12 @@ public final class CurveParallelShifts
   //-------------------------------------------------------------------------
   @Override
   public MarketDataBox<Curve> applyTo(MarketDataBox<Curve> curve, ReferenceData refData) {
+    if (curve.isSingleValue()) {
+      // the shifted curves share the base curve and are only created when used
+      log.debug("Applying {} parallel shifts to curve '{}'", shiftType, curve.getSingleValue().getName());
+      return MarketDataBox.ofScenarioValue(
+          ParallelShiftedCurveScenarioArray.of(curve.getSingleValue(), shiftType, shiftAmounts));
+    }
     return curve.mapWithIndex(getScenarioCount(), this::applyShift);
   }
 
@@ -116,9 +116,28 @@ public final class CurvePointShifts
   @Override
   public MarketDataBox<Curve> applyTo(MarketDataBox<Curve> marketData, ReferenceData refData) {
     log.debug("Applying {} point shift to curve '{}'", shiftType, marketData.getValue(0).getName());
+    if (marketData.isSingleValue()) {
+      // the shifted curves share the base curve and are only created when used
+      Curve curve = marketData.getSingleValue();
+      return MarketDataBox.ofScenarioValue(PointShiftedCurveScenarioArray.of(curve, shiftType, parameterShifts(curve)));
+    }
     return marketData.mapWithIndex(shifts.rowCount(), (curve, scenarioIndex) -> applyShifts(scenarioIndex, curve));
   }
 
+  // the shifts of each scenario and parameter of the curve
+  private DoubleMatrix parameterShifts(Curve curve) {
+    int parameterCount = curve.getParameterCount();
+    int[] columns = new int[parameterCount];
+    for (int i = 0; i < parameterCount; i++) {
+      Integer nodeIndex = nodeIndex(curve.getParameterMetadata(i));
+      columns[i] = nodeIndex != null ? nodeIndex : -1;
+    }
+    return DoubleMatrix.of(
+        shifts.rowCount(),
+        parameterCount,
+        (scenarioIndex, i) -> columns[i] < 0 ? 0 : shifts.get(scenarioIndex, columns[i]));
+  }
+
   private Curve applyShifts(int scenarioIndex, Curve curve) {
     return curve.withPerturbation((index, value, meta) -> {
       Double shiftAmount = shiftForNode(scenarioIndex, meta);
@@ -132,17 +151,21 @@ public final class CurvePointShifts
   }
 
   private double shiftForNode(int scenarioIndex, ParameterMetadata meta) {
-    Integer nodeIndex = nodeIndices.get(meta.getIdentifier());
+    Integer nodeIndex = nodeIndex(meta);
 
     if (nodeIndex != null) {
       return shifts.get(scenarioIndex, nodeIndex);
     }
-    nodeIndex = nodeIndices.get(meta.getLabel());
+    return 0;
+  }
+
+  private Integer nodeIndex(ParameterMetadata meta) {
+    Integer nodeIndex = nodeIndices.get(meta.getIdentifier());
 
     if (nodeIndex != null) {
-      return shifts.get(scenarioIndex, nodeIndex);
+      return nodeIndex;
     }
-    return 0;
+    return nodeIndices.get(meta.getLabel());
   }
 
   @Override
@@ -202,6 +202,19 @@ public final class InterpolatedNodalCurve
         .collect(toImmutableList());
   }
 
+  // creates a curve differing from the base at a single node, rebinding the interpolator incrementally
+  private InterpolatedNodalCurve(InterpolatedNodalCurve base, int parameterIndex, DoubleArray yValues) {
+    this.metadata = base.metadata;
+    this.xValues = base.xValues;
+    this.yValues = yValues;
+    this.extrapolatorLeft = base.extrapolatorLeft;
+    this.interpolator = base.interpolator;
+    this.extrapolatorRight = base.extrapolatorRight;
+    this.boundInterpolator = interpolator.rebind(
+        base.boundInterpolator, parameterIndex, xValues, yValues, extrapolatorLeft, extrapolatorRight);
+    this.parameterMetadata = base.parameterMetadata;
+  }
+
   @ImmutableDefaults
   private static void applyDefaults(Builder builder) {
     builder.extrapolatorLeft = CurveExtrapolators.FLAT;
@@ -226,7 +239,7 @@ public final class InterpolatedNodalCurve
 
   @Override
   public InterpolatedNodalCurve withParameter(int parameterIndex, double newValue) {
-    return withYValues(yValues.with(parameterIndex, newValue));
+    return new InterpolatedNodalCurve(this, parameterIndex, yValues.with(parameterIndex, newValue));
   }
 
   @Override
@@ -234,6 +247,18 @@ public final class InterpolatedNodalCurve
     int size = yValues.size();
     DoubleArray perturbedValues = DoubleArray.of(
         size, i -> perturbation.perturbParameter(i, yValues.get(i), getParameterMetadata(i)));
+    // a perturbation of a single node, such as a bucketed bump, allows the interpolator to be rebound incrementally
+    int changedIndex = -1;
+    int changedCount = 0;
+    for (int i = 0; i < size; i++) {
+      if (perturbedValues.get(i) != yValues.get(i)) {
+        changedIndex = i;
+        changedCount++;
+      }
+    }
+    if (changedCount == 1) {
+      return new InterpolatedNodalCurve(this, changedIndex, perturbedValues);
+    }
     return withYValues(perturbedValues);
   }
 
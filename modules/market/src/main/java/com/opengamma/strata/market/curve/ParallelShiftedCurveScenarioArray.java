@@ -0,0 +1,382 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.market.curve;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+import org.joda.beans.Bean;
+import org.joda.beans.BeanBuilder;
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.MetaProperty;
+import org.joda.beans.gen.BeanDefinition;
+import org.joda.beans.gen.PropertyDefinition;
+import org.joda.beans.impl.direct.DirectMetaBean;
+import org.joda.beans.impl.direct.DirectMetaProperty;
+import org.joda.beans.impl.direct.DirectMetaPropertyMap;
+import org.joda.beans.impl.direct.DirectPrivateBeanBuilder;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.data.scenario.ScenarioArray;
+import com.opengamma.strata.market.ShiftType;
+
+/**
+ * A scenario array of curves, each created by applying a parallel shift to a single base curve.
+ * <p>
+ * This stores the base curve once, together with one shift amount per scenario.
+ * The {@link ParallelShiftedCurve} of a scenario is only created when it is requested,
+ * thus the memory used by the scenarios scales with the shift amounts rather than with the curves.
+ * <p>
+ * This is created by {@link CurveParallelShifts} when it is applied to a single curve.
+ */
+@BeanDefinition(builderScope = "private")
+public final class ParallelShiftedCurveScenarioArray
+    implements ScenarioArray<Curve>, ImmutableBean, Serializable {
+
+  /**
+   * The base curve.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final Curve curve;
+  /**
+   * The type of shift applied to the y-values of the curve.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final ShiftType shiftType;
+  /**
+   * The shift amounts, one for each scenario.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final DoubleArray shiftAmounts;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance from a base curve and the parallel shift of each scenario.
+   * 
+   * @param curve  the base curve
+   * @param shiftType  the type of shift applied to the y-values of the curve
+   * @param shiftAmounts  the shift amounts, one for each scenario
+   * @return the scenario array
+   */
+  public static ParallelShiftedCurveScenarioArray of(Curve curve, ShiftType shiftType, DoubleArray shiftAmounts) {
+    return new ParallelShiftedCurveScenarioArray(curve, shiftType, shiftAmounts);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public int getScenarioCount() {
+    return shiftAmounts.size();
+  }
+
+  /**
+   * Returns the shifted curve for a scenario.
+   * 
+   * @param scenarioIndex  the index of the scenario
+   * @return the shifted curve for the scenario
+   * @throws IndexOutOfBoundsException if the index is invalid
+   */
+  @Override
+  public Curve get(int scenarioIndex) {
+    return ParallelShiftedCurve.of(curve, shiftType, shiftAmounts.get(scenarioIndex));
+  }
+
+  @Override
+  public Stream<Curve> stream() {
+    return shiftAmounts.stream().mapToObj(amount -> ParallelShiftedCurve.of(curve, shiftType, amount));
+  }
+
+  //------------------------- AUTOGENERATED START -------------------------
+  /**
+   * The meta-bean for {@code ParallelShiftedCurveScenarioArray}.
+   * @return the meta-bean, not null
+   */
+  public static ParallelShiftedCurveScenarioArray.Meta meta() {
+    return ParallelShiftedCurveScenarioArray.Meta.INSTANCE;
+  }
+
+  static {
+    MetaBean.register(ParallelShiftedCurveScenarioArray.Meta.INSTANCE);
+  }
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
+
+  private ParallelShiftedCurveScenarioArray(
+      Curve curve,
+      ShiftType shiftType,
+      DoubleArray shiftAmounts) {
+    JodaBeanUtils.notNull(curve, "curve");
+    JodaBeanUtils.notNull(shiftType, "shiftType");
+    JodaBeanUtils.notNull(shiftAmounts, "shiftAmounts");
+    this.curve = curve;
+    this.shiftType = shiftType;
+    this.shiftAmounts = shiftAmounts;
+  }
+
+  @Override
+  public ParallelShiftedCurveScenarioArray.Meta metaBean() {
+    return ParallelShiftedCurveScenarioArray.Meta.INSTANCE;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the base curve.
+   * @return the value of the property, not null
+   */
+  public Curve getCurve() {
+    return curve;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the type of shift applied to the y-values of the curve.
+   * @return the value of the property, not null
+   */
+  public ShiftType getShiftType() {
+    return shiftType;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the shift amounts, one for each scenario.
+   * @return the value of the property, not null
+   */
+  public DoubleArray getShiftAmounts() {
+    return shiftAmounts;
+  }
+
+  //-----------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj != null && obj.getClass() == this.getClass()) {
+      ParallelShiftedCurveScenarioArray other = (ParallelShiftedCurveScenarioArray) obj;
+      return JodaBeanUtils.equal(curve, other.curve) &&
+          JodaBeanUtils.equal(shiftType, other.shiftType) &&
+          JodaBeanUtils.equal(shiftAmounts, other.shiftAmounts);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = getClass().hashCode();
+    hash = hash * 31 + JodaBeanUtils.hashCode(curve);
+    hash = hash * 31 + JodaBeanUtils.hashCode(shiftType);
+    hash = hash * 31 + JodaBeanUtils.hashCode(shiftAmounts);
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder buf = new StringBuilder(128);
+    buf.append("ParallelShiftedCurveScenarioArray{");
+    buf.append("curve").append('=').append(curve).append(',').append(' ');
+    buf.append("shiftType").append('=').append(shiftType).append(',').append(' ');
+    buf.append("shiftAmounts").append('=').append(JodaBeanUtils.toString(shiftAmounts));
+    buf.append('}');
+    return buf.toString();
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * The meta-bean for {@code ParallelShiftedCurveScenarioArray}.
+   */
+  public static final class Meta extends DirectMetaBean {
+    /**
+     * The singleton instance of the meta-bean.
+     */
+    static final Meta INSTANCE = new Meta();
+
+    /**
+     * The meta-property for the {@code curve} property.
+     */
+    private final MetaProperty<Curve> curve = DirectMetaProperty.ofImmutable(
+        this, "curve", ParallelShiftedCurveScenarioArray.class, Curve.class);
+    /**
+     * The meta-property for the {@code shiftType} property.
+     */
+    private final MetaProperty<ShiftType> shiftType = DirectMetaProperty.ofImmutable(
+        this, "shiftType", ParallelShiftedCurveScenarioArray.class, ShiftType.class);
+    /**
+     * The meta-property for the {@code shiftAmounts} property.
+     */
+    private final MetaProperty<DoubleArray> shiftAmounts = DirectMetaProperty.ofImmutable(
+        this, "shiftAmounts", ParallelShiftedCurveScenarioArray.class, DoubleArray.class);
+    /**
+     * The meta-properties.
+     */
+    private final Map<String, MetaProperty<?>> metaPropertyMap$ = new DirectMetaPropertyMap(
+        this, null,
+        "curve",
+        "shiftType",
+        "shiftAmounts");
+
+    /**
+     * Restricted constructor.
+     */
+    private Meta() {
+    }
+
+    @Override
+    protected MetaProperty<?> metaPropertyGet(String propertyName) {
+      switch (propertyName.hashCode()) {
+        case 95027439:  // curve
+          return curve;
+        case 893345500:  // shiftType
+          return shiftType;
+        case 2011836473:  // shiftAmounts
+          return shiftAmounts;
+      }
+      return super.metaPropertyGet(propertyName);
+    }
+
+    @Override
+    public BeanBuilder<? extends ParallelShiftedCurveScenarioArray> builder() {
+      return new ParallelShiftedCurveScenarioArray.Builder();
+    }
+
+    @Override
+    public Class<? extends ParallelShiftedCurveScenarioArray> beanType() {
+      return ParallelShiftedCurveScenarioArray.class;
+    }
+
+    @Override
+    public Map<String, MetaProperty<?>> metaPropertyMap() {
+      return metaPropertyMap$;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * The meta-property for the {@code curve} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<Curve> curve() {
+      return curve;
+    }
+
+    /**
+     * The meta-property for the {@code shiftType} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<ShiftType> shiftType() {
+      return shiftType;
+    }
+
+    /**
+     * The meta-property for the {@code shiftAmounts} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<DoubleArray> shiftAmounts() {
+      return shiftAmounts;
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    protected Object propertyGet(Bean bean, String propertyName, boolean quiet) {
+      switch (propertyName.hashCode()) {
+        case 95027439:  // curve
+          return ((ParallelShiftedCurveScenarioArray) bean).getCurve();
+        case 893345500:  // shiftType
+          return ((ParallelShiftedCurveScenarioArray) bean).getShiftType();
+        case 2011836473:  // shiftAmounts
+          return ((ParallelShiftedCurveScenarioArray) bean).getShiftAmounts();
+      }
+      return super.propertyGet(bean, propertyName, quiet);
+    }
+
+    @Override
+    protected void propertySet(Bean bean, String propertyName, Object newValue, boolean quiet) {
+      metaProperty(propertyName);
+      if (quiet) {
+        return;
+      }
+      throw new UnsupportedOperationException("Property cannot be written: " + propertyName);
+    }
+
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * The bean-builder for {@code ParallelShiftedCurveScenarioArray}.
+   */
+  private static final class Builder extends DirectPrivateBeanBuilder<ParallelShiftedCurveScenarioArray> {
+
+    private Curve curve;
+    private ShiftType shiftType;
+    private DoubleArray shiftAmounts;
+
+    /**
+     * Restricted constructor.
+     */
+    private Builder() {
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public Object get(String propertyName) {
+      switch (propertyName.hashCode()) {
+        case 95027439:  // curve
+          return curve;
+        case 893345500:  // shiftType
+          return shiftType;
+        case 2011836473:  // shiftAmounts
+          return shiftAmounts;
+        default:
+          throw new NoSuchElementException("Unknown property: " + propertyName);
+      }
+    }
+
+    @Override
+    public Builder set(String propertyName, Object newValue) {
+      switch (propertyName.hashCode()) {
+        case 95027439:  // curve
+          this.curve = (Curve) newValue;
+          break;
+        case 893345500:  // shiftType
+          this.shiftType = (ShiftType) newValue;
+          break;
+        case 2011836473:  // shiftAmounts
+          this.shiftAmounts = (DoubleArray) newValue;
+          break;
+        default:
+          throw new NoSuchElementException("Unknown property: " + propertyName);
+      }
+      return this;
+    }
+
+    @Override
+    public ParallelShiftedCurveScenarioArray build() {
+      return new ParallelShiftedCurveScenarioArray(
+          curve,
+          shiftType,
+          shiftAmounts);
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public String toString() {
+      StringBuilder buf = new StringBuilder(128);
+      buf.append("ParallelShiftedCurveScenarioArray.Builder{");
+      buf.append("curve").append('=').append(JodaBeanUtils.toString(curve)).append(',').append(' ');
+      buf.append("shiftType").append('=').append(JodaBeanUtils.toString(shiftType)).append(',').append(' ');
+      buf.append("shiftAmounts").append('=').append(JodaBeanUtils.toString(shiftAmounts));
+      buf.append('}');
+      return buf.toString();
+    }
+
+  }
+
+  //-------------------------- AUTOGENERATED END --------------------------
+}
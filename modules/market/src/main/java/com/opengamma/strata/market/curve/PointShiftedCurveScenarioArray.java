@@ -0,0 +1,428 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.market.curve;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import org.joda.beans.Bean;
+import org.joda.beans.BeanBuilder;
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.MetaProperty;
+import org.joda.beans.gen.BeanDefinition;
+import org.joda.beans.gen.ImmutableValidator;
+import org.joda.beans.gen.PropertyDefinition;
+import org.joda.beans.impl.direct.DirectMetaBean;
+import org.joda.beans.impl.direct.DirectMetaProperty;
+import org.joda.beans.impl.direct.DirectMetaPropertyMap;
+import org.joda.beans.impl.direct.DirectPrivateBeanBuilder;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.data.scenario.ScenarioArray;
+import com.opengamma.strata.market.ShiftType;
+
+/**
+ * A scenario array of curves, each created by shifting the parameters of a single base curve.
+ * <p>
+ * This stores the base curve once, together with one shift per scenario and curve parameter.
+ * The shifted curve of a scenario is only created when it is requested, and is then cached
+ * using soft references, thus the memory used by the scenarios scales with the shifts
+ * rather than with the curves.
+ * <p>
+ * This is created by {@link CurvePointShifts} when it is applied to a single curve.
+ */
+@BeanDefinition(builderScope = "private")
+public final class PointShiftedCurveScenarioArray
+    implements ScenarioArray<Curve>, ImmutableBean, Serializable {
+
+  /**
+   * The base curve.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final Curve curve;
+  /**
+   * The type of shift applied to the parameters of the curve.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final ShiftType shiftType;
+  /**
+   * The shifts, with one row for each scenario and one column for each parameter of the curve.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final DoubleMatrix shifts;
+  /**
+   * The shifted curves that have been created, keyed by scenario index.
+   */
+  private transient volatile Cache<Integer, Curve> shiftedCurves;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance from a base curve and the shifts of its parameters.
+   * 
+   * @param curve  the base curve
+   * @param shiftType  the type of shift applied to the parameters of the curve
+   * @param shifts  the shifts, with one row for each scenario and one column for each parameter of the curve
+   * @return the scenario array
+   * @throws IllegalArgumentException if the number of columns does not match the number of parameters
+   */
+  public static PointShiftedCurveScenarioArray of(Curve curve, ShiftType shiftType, DoubleMatrix shifts) {
+    return new PointShiftedCurveScenarioArray(curve, shiftType, shifts);
+  }
+
+  @ImmutableValidator
+  private void validate() {
+    if (shifts.columnCount() != curve.getParameterCount()) {
+      throw new IllegalArgumentException(Messages.format(
+          "Expected {} shifts per scenario but received {}", curve.getParameterCount(), shifts.columnCount()));
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public int getScenarioCount() {
+    return shifts.rowCount();
+  }
+
+  /**
+   * Returns the shifted curve for a scenario.
+   * <p>
+   * The shifted curve is created on first use and cached.
+   * 
+   * @param scenarioIndex  the index of the scenario
+   * @return the shifted curve for the scenario
+   * @throws IndexOutOfBoundsException if the index is invalid
+   */
+  @Override
+  public Curve get(int scenarioIndex) {
+    if (scenarioIndex < 0 || scenarioIndex >= shifts.rowCount()) {
+      throw new IndexOutOfBoundsException("Invalid scenario index: " + scenarioIndex);
+    }
+    try {
+      return shiftedCurves().get(scenarioIndex, () -> shiftedCurve(scenarioIndex));
+    } catch (ExecutionException ex) {
+      throw new IllegalStateException(ex.getCause());
+    }
+  }
+
+  @Override
+  public Stream<Curve> stream() {
+    return IntStream.range(0, getScenarioCount()).mapToObj(this::get);
+  }
+
+  // creates the shifted curve for a scenario
+  private Curve shiftedCurve(int scenarioIndex) {
+    return curve.withPerturbation(
+        (index, value, meta) -> shiftType.applyShift(value, shifts.get(scenarioIndex, index)));
+  }
+
+  // obtains the cache, creating it if necessary
+  private Cache<Integer, Curve> shiftedCurves() {
+    Cache<Integer, Curve> cache = shiftedCurves;
+    if (cache == null) {
+      cache = CacheBuilder.newBuilder().softValues().build();
+      shiftedCurves = cache;
+    }
+    return cache;
+  }
+
+  //------------------------- AUTOGENERATED START -------------------------
+  /**
+   * The meta-bean for {@code PointShiftedCurveScenarioArray}.
+   * @return the meta-bean, not null
+   */
+  public static PointShiftedCurveScenarioArray.Meta meta() {
+    return PointShiftedCurveScenarioArray.Meta.INSTANCE;
+  }
+
+  static {
+    MetaBean.register(PointShiftedCurveScenarioArray.Meta.INSTANCE);
+  }
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
+
+  private PointShiftedCurveScenarioArray(
+      Curve curve,
+      ShiftType shiftType,
+      DoubleMatrix shifts) {
+    JodaBeanUtils.notNull(curve, "curve");
+    JodaBeanUtils.notNull(shiftType, "shiftType");
+    JodaBeanUtils.notNull(shifts, "shifts");
+    this.curve = curve;
+    this.shiftType = shiftType;
+    this.shifts = shifts;
+    validate();
+  }
+
+  @Override
+  public PointShiftedCurveScenarioArray.Meta metaBean() {
+    return PointShiftedCurveScenarioArray.Meta.INSTANCE;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the base curve.
+   * @return the value of the property, not null
+   */
+  public Curve getCurve() {
+    return curve;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the type of shift applied to the parameters of the curve.
+   * @return the value of the property, not null
+   */
+  public ShiftType getShiftType() {
+    return shiftType;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the shifts, with one row for each scenario and one column for each parameter of the curve.
+   * @return the value of the property, not null
+   */
+  public DoubleMatrix getShifts() {
+    return shifts;
+  }
+
+  //-----------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj != null && obj.getClass() == this.getClass()) {
+      PointShiftedCurveScenarioArray other = (PointShiftedCurveScenarioArray) obj;
+      return JodaBeanUtils.equal(curve, other.curve) &&
+          JodaBeanUtils.equal(shiftType, other.shiftType) &&
+          JodaBeanUtils.equal(shifts, other.shifts);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = getClass().hashCode();
+    hash = hash * 31 + JodaBeanUtils.hashCode(curve);
+    hash = hash * 31 + JodaBeanUtils.hashCode(shiftType);
+    hash = hash * 31 + JodaBeanUtils.hashCode(shifts);
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder buf = new StringBuilder(128);
+    buf.append("PointShiftedCurveScenarioArray{");
+    buf.append("curve").append('=').append(curve).append(',').append(' ');
+    buf.append("shiftType").append('=').append(shiftType).append(',').append(' ');
+    buf.append("shifts").append('=').append(JodaBeanUtils.toString(shifts));
+    buf.append('}');
+    return buf.toString();
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * The meta-bean for {@code PointShiftedCurveScenarioArray}.
+   */
+  public static final class Meta extends DirectMetaBean {
+    /**
+     * The singleton instance of the meta-bean.
+     */
+    static final Meta INSTANCE = new Meta();
+
+    /**
+     * The meta-property for the {@code curve} property.
+     */
+    private final MetaProperty<Curve> curve = DirectMetaProperty.ofImmutable(
+        this, "curve", PointShiftedCurveScenarioArray.class, Curve.class);
+    /**
+     * The meta-property for the {@code shiftType} property.
+     */
+    private final MetaProperty<ShiftType> shiftType = DirectMetaProperty.ofImmutable(
+        this, "shiftType", PointShiftedCurveScenarioArray.class, ShiftType.class);
+    /**
+     * The meta-property for the {@code shifts} property.
+     */
+    private final MetaProperty<DoubleMatrix> shifts = DirectMetaProperty.ofImmutable(
+        this, "shifts", PointShiftedCurveScenarioArray.class, DoubleMatrix.class);
+    /**
+     * The meta-properties.
+     */
+    private final Map<String, MetaProperty<?>> metaPropertyMap$ = new DirectMetaPropertyMap(
+        this, null,
+        "curve",
+        "shiftType",
+        "shifts");
+
+    /**
+     * Restricted constructor.
+     */
+    private Meta() {
+    }
+
+    @Override
+    protected MetaProperty<?> metaPropertyGet(String propertyName) {
+      switch (propertyName.hashCode()) {
+        case 95027439:  // curve
+          return curve;
+        case 893345500:  // shiftType
+          return shiftType;
+        case -903338959:  // shifts
+          return shifts;
+      }
+      return super.metaPropertyGet(propertyName);
+    }
+
+    @Override
+    public BeanBuilder<? extends PointShiftedCurveScenarioArray> builder() {
+      return new PointShiftedCurveScenarioArray.Builder();
+    }
+
+    @Override
+    public Class<? extends PointShiftedCurveScenarioArray> beanType() {
+      return PointShiftedCurveScenarioArray.class;
+    }
+
+    @Override
+    public Map<String, MetaProperty<?>> metaPropertyMap() {
+      return metaPropertyMap$;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * The meta-property for the {@code curve} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<Curve> curve() {
+      return curve;
+    }
+
+    /**
+     * The meta-property for the {@code shiftType} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<ShiftType> shiftType() {
+      return shiftType;
+    }
+
+    /**
+     * The meta-property for the {@code shifts} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<DoubleMatrix> shifts() {
+      return shifts;
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    protected Object propertyGet(Bean bean, String propertyName, boolean quiet) {
+      switch (propertyName.hashCode()) {
+        case 95027439:  // curve
+          return ((PointShiftedCurveScenarioArray) bean).getCurve();
+        case 893345500:  // shiftType
+          return ((PointShiftedCurveScenarioArray) bean).getShiftType();
+        case -903338959:  // shifts
+          return ((PointShiftedCurveScenarioArray) bean).getShifts();
+      }
+      return super.propertyGet(bean, propertyName, quiet);
+    }
+
+    @Override
+    protected void propertySet(Bean bean, String propertyName, Object newValue, boolean quiet) {
+      metaProperty(propertyName);
+      if (quiet) {
+        return;
+      }
+      throw new UnsupportedOperationException("Property cannot be written: " + propertyName);
+    }
+
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * The bean-builder for {@code PointShiftedCurveScenarioArray}.
+   */
+  private static final class Builder extends DirectPrivateBeanBuilder<PointShiftedCurveScenarioArray> {
+
+    private Curve curve;
+    private ShiftType shiftType;
+    private DoubleMatrix shifts;
+
+    /**
+     * Restricted constructor.
+     */
+    private Builder() {
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public Object get(String propertyName) {
+      switch (propertyName.hashCode()) {
+        case 95027439:  // curve
+          return curve;
+        case 893345500:  // shiftType
+          return shiftType;
+        case -903338959:  // shifts
+          return shifts;
+        default:
+          throw new NoSuchElementException("Unknown property: " + propertyName);
+      }
+    }
+
+    @Override
+    public Builder set(String propertyName, Object newValue) {
+      switch (propertyName.hashCode()) {
+        case 95027439:  // curve
+          this.curve = (Curve) newValue;
+          break;
+        case 893345500:  // shiftType
+          this.shiftType = (ShiftType) newValue;
+          break;
+        case -903338959:  // shifts
+          this.shifts = (DoubleMatrix) newValue;
+          break;
+        default:
+          throw new NoSuchElementException("Unknown property: " + propertyName);
+      }
+      return this;
+    }
+
+    @Override
+    public PointShiftedCurveScenarioArray build() {
+      return new PointShiftedCurveScenarioArray(
+          curve,
+          shiftType,
+          shifts);
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public String toString() {
+      StringBuilder buf = new StringBuilder(128);
+      buf.append("PointShiftedCurveScenarioArray.Builder{");
+      buf.append("curve").append('=').append(JodaBeanUtils.toString(curve)).append(',').append(' ');
+      buf.append("shiftType").append('=').append(JodaBeanUtils.toString(shiftType)).append(',').append(' ');
+      buf.append("shifts").append('=').append(JodaBeanUtils.toString(shifts));
+      buf.append('}');
+      return buf.toString();
+    }
+
+  }
+
+  //-------------------------- AUTOGENERATED END --------------------------
+}
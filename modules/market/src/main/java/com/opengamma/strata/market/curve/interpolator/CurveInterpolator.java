@@ -93,6 +93,67 @@ public interface CurveInterpolator extends Named {
     return interpolatorOnly.bind(boundLeft, boundRight);
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Binds this interpolator to a curve that differs from an existing bound curve at a single node,
+   * where no extrapolation is permitted.
+   * <p>
+   * This is used when the nodes of a curve are bumped one at a time, such as when calculating
+   * finite difference sensitivities or generating scenarios. The base must have been created by this
+   * interpolator using the same x-values, with y-values that differ only at the specified index.
+   * Implementations can use the state of the base to avoid rebuilding the whole interpolator.
+   * <p>
+   * The default implementation ignores the base and calls {@link #bind(DoubleArray, DoubleArray)}.
+   * 
+   * @param base  the bound interpolator of the curve before the node was changed
+   * @param parameterIndex  the index of the node that changed
+   * @param xValues  the x-values of the curve, must be sorted from low to high
+   * @param yValues  the y-values of the curve, including the changed node
+   * @return the bound interpolator
+   */
+  public default BoundCurveInterpolator rebind(
+      BoundCurveInterpolator base,
+      int parameterIndex,
+      DoubleArray xValues,
+      DoubleArray yValues) {
+
+    return bind(xValues, yValues);
+  }
+
+  /**
+   * Binds this interpolator to a curve that differs from an existing bound curve at a single node,
+   * specifying the extrapolators to use.
+   * <p>
+   * This is used when the nodes of a curve are bumped one at a time, such as when calculating
+   * finite difference sensitivities or generating scenarios. The base must have been created by this
+   * interpolator using the same x-values, with y-values that differ only at the specified index.
+   * <p>
+   * The extrapolators are bound to the result of
+   * {@link #rebind(BoundCurveInterpolator, int, DoubleArray, DoubleArray)}.
+   * 
+   * @param base  the bound interpolator of the curve before the node was changed
+   * @param parameterIndex  the index of the node that changed
+   * @param xValues  the x-values of the curve, must be sorted from low to high
+   * @param yValues  the y-values of the curve, including the changed node
+   * @param extrapolatorLeft  the extrapolator for x-values on the left
+   * @param extrapolatorRight  the extrapolator for x-values on the right
+   * @return the bound interpolator
+   */
+  public default BoundCurveInterpolator rebind(
+      BoundCurveInterpolator base,
+      int parameterIndex,
+      DoubleArray xValues,
+      DoubleArray yValues,
+      CurveExtrapolator extrapolatorLeft,
+      CurveExtrapolator extrapolatorRight) {
+
+    // see bind(DoubleArray, DoubleArray, CurveExtrapolator, CurveExtrapolator)
+    BoundCurveInterpolator interpolatorOnly = rebind(base, parameterIndex, xValues, yValues);
+    BoundCurveExtrapolator boundLeft = extrapolatorLeft.bind(xValues, yValues, interpolatorOnly);
+    BoundCurveExtrapolator boundRight = extrapolatorRight.bind(xValues, yValues, interpolatorOnly);
+    return interpolatorOnly.bind(boundLeft, boundRight);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Gets the name that uniquely identifies this interpolator.
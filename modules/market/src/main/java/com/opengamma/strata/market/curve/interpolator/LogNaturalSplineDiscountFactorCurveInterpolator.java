@@ -16,9 +16,6 @@ import com.opengamma.strata.math.impl.interpolation.ClampedPiecewisePolynomialIn
 import com.opengamma.strata.math.impl.interpolation.LogNaturalSplineHelper;
 import com.opengamma.strata.math.impl.interpolation.NaturalSplineInterpolator;
 import com.opengamma.strata.math.impl.interpolation.PiecewisePolynomialResult;
-import com.opengamma.strata.math.impl.interpolation.PiecewisePolynomialResultsWithSensitivity;
-import com.opengamma.strata.math.impl.matrix.MatrixAlgebra;
-import com.opengamma.strata.math.impl.matrix.OGMatrixAlgebra;
 
 /**
  * Log natural cubic spline interpolator for discount factors.
@@ -43,10 +40,6 @@ final class LogNaturalSplineDiscountFactorCurveInterpolator implements CurveInte
    * The serialization version id.
    */
   private static final long serialVersionUID = 1L;
-  /**
-   * Underlying matrix algebra.
-   */
-  private static final MatrixAlgebra MA = new OGMatrixAlgebra();
 
   /**
    * Restricted constructor.
@@ -70,6 +63,19 @@ final class LogNaturalSplineDiscountFactorCurveInterpolator implements CurveInte
     return new Bound(xValues, yValues);
   }
 
+  @Override
+  public BoundCurveInterpolator rebind(
+      BoundCurveInterpolator base,
+      int parameterIndex,
+      DoubleArray xValues,
+      DoubleArray yValues) {
+
+    if (base instanceof Bound) {
+      return new Bound((Bound) base, parameterIndex, yValues);
+    }
+    return bind(xValues, yValues);
+  }
+
   //-----------------------------------------------------------------------
   @Override
   public String toString() {
@@ -84,7 +90,7 @@ final class LogNaturalSplineDiscountFactorCurveInterpolator implements CurveInte
     private final double[] xValues;
     private final double[] yValues;
     private final PiecewisePolynomialResult poly;
-    private final Supplier<PiecewisePolynomialResultsWithSensitivity> polySens;
+    private final Supplier<PiecewisePolynomialSensitivity> polySens;
     private double[] logYValues;
 
     Bound(DoubleArray xValues, DoubleArray yValues) {
@@ -95,7 +101,8 @@ final class LogNaturalSplineDiscountFactorCurveInterpolator implements CurveInte
       ClampedPiecewisePolynomialInterpolator underlying = new ClampedPiecewisePolynomialInterpolator(
           new NaturalSplineInterpolator(), new double[] {0d}, new double[] {0d});
       this.poly = underlying.interpolate(xValues.toArray(), logYValues);
-      this.polySens = Suppliers.memoize(() -> underlying.interpolateWithSensitivity(xValues.toArray(), logYValues));
+      this.polySens = Suppliers.memoize(() -> PiecewisePolynomialSensitivity.of(
+          underlying.interpolateWithSensitivity(xValues.toArray(), logYValues)));
     }
 
     Bound(Bound base, BoundCurveExtrapolator extrapolatorLeft, BoundCurveExtrapolator extrapolatorRight) {
@@ -107,6 +114,21 @@ final class LogNaturalSplineDiscountFactorCurveInterpolator implements CurveInte
       this.polySens = base.polySens;
     }
 
+    Bound(Bound base, int parameterIndex, DoubleArray yValues) {
+      super(DoubleArray.ofUnsafe(base.xValues), yValues);
+      this.xValues = base.xValues;
+      this.yValues = yValues.toArrayUnsafe();
+      this.logYValues = base.logYValues.clone();
+      this.logYValues[parameterIndex] = Math.log(this.yValues[parameterIndex]);
+      // the spline of the log values is linear in the log values, with the clamped node first
+      this.polySens = base.polySens;
+      this.poly = NaturalSplineCurveInterpolator.shiftNode(
+          base.poly,
+          polySens.get(),
+          parameterIndex + 1,
+          logYValues[parameterIndex] - base.logYValues[parameterIndex]);
+    }
+
     //-------------------------------------------------------------------------
     private static double evaluate(
         double xValue,
@@ -138,25 +160,6 @@ final class LogNaturalSplineDiscountFactorCurveInterpolator implements CurveInte
       return evaluate(xValue, knots, coef, dimensions);
     }
 
-    private static DoubleArray nodeSensitivity(
-        double xValue,
-        DoubleArray knots,
-        DoubleMatrix coefMatrix,
-        int dimensions,
-        int interval,
-        DoubleMatrix coefficientSensitivity) {
-
-      double s = xValue - knots.get(interval);
-      int nCoefs = coefficientSensitivity.rowCount();
-
-      DoubleArray res = coefficientSensitivity.row(0);
-      for (int i = 1; i < nCoefs; i++) {
-        res = (DoubleArray) MA.scale(res, s);
-        res = (DoubleArray) MA.add(res, coefficientSensitivity.row(i));
-      }
-      return res;
-    }
-
     private static double[] getValues(double[] bareValues) {
       int nValues = bareValues.length;
       double[] res = new double[nValues];
@@ -213,14 +216,7 @@ final class LogNaturalSplineDiscountFactorCurveInterpolator implements CurveInte
 
     @Override
     protected DoubleArray doParameterSensitivity(double xValue) {
-      int interval = FunctionUtils.getLowerBoundIndex(poly.getKnots(), xValue);
-      if (interval == poly.getKnots().size() - 1) {
-        interval--; // there is 1 less interval that knots
-      }
-
-      DoubleMatrix coefficientSensitivity = polySens.get().getCoefficientSensitivity(interval);
-      double[] resSense = nodeSensitivity(
-          xValue, poly.getKnots(), poly.getCoefMatrix(), poly.getDimensions(), interval, coefficientSensitivity).toArray();
+      double[] resSense = polySens.get().nodeSensitivity(xValue).toArrayUnsafe();
       double resValue = Math.exp(evaluate(xValue, poly.getKnots(), poly.getCoefMatrix(), poly.getDimensions()));
       double[] knotValues = getValues(logYValues);
       final int knotValuesLength = knotValues.length;
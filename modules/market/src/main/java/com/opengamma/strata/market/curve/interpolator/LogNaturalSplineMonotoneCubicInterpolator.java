@@ -16,9 +16,6 @@ import com.opengamma.strata.math.impl.interpolation.LogNaturalSplineHelper;
 import com.opengamma.strata.math.impl.interpolation.MonotonicityPreservingCubicSplineInterpolator;
 import com.opengamma.strata.math.impl.interpolation.PiecewisePolynomialInterpolator;
 import com.opengamma.strata.math.impl.interpolation.PiecewisePolynomialResult;
-import com.opengamma.strata.math.impl.interpolation.PiecewisePolynomialResultsWithSensitivity;
-import com.opengamma.strata.math.impl.matrix.MatrixAlgebra;
-import com.opengamma.strata.math.impl.matrix.OGMatrixAlgebra;
 
 /**
  * Log natural cubic interpolation with monotonicity filter.
@@ -42,10 +39,6 @@ final class LogNaturalSplineMonotoneCubicInterpolator
    * The serialization version id.
    */
   private static final long serialVersionUID = 1L;
-  /**
-   * Underlying matrix algebra.
-   */
-  private static final MatrixAlgebra MA = new OGMatrixAlgebra();
 
   /**
    * Restricted constructor.
@@ -83,7 +76,7 @@ final class LogNaturalSplineMonotoneCubicInterpolator
     private final double[] xValues;
     private final double[] yValues;
     private final PiecewisePolynomialResult poly;
-    private final Supplier<PiecewisePolynomialResultsWithSensitivity> polySens;
+    private final Supplier<PiecewisePolynomialSensitivity> polySens;
     private double[] logYValues;
 
     Bound(DoubleArray xValues, DoubleArray yValues) {
@@ -94,7 +87,8 @@ final class LogNaturalSplineMonotoneCubicInterpolator
       PiecewisePolynomialInterpolator underlying =
           new MonotonicityPreservingCubicSplineInterpolator(new LogNaturalSplineHelper());
       this.poly = underlying.interpolate(xValues.toArray(), logYValues);
-      this.polySens = Suppliers.memoize(() -> underlying.interpolateWithSensitivity(xValues.toArray(), logYValues));
+      this.polySens = Suppliers.memoize(() -> PiecewisePolynomialSensitivity.of(
+          underlying.interpolateWithSensitivity(xValues.toArray(), logYValues)));
     }
 
     Bound(Bound base, BoundCurveExtrapolator extrapolatorLeft, BoundCurveExtrapolator extrapolatorRight) {
@@ -137,25 +131,6 @@ final class LogNaturalSplineMonotoneCubicInterpolator
       return evaluate(xValue, knots, coef, dimensions);
     }
 
-    private static DoubleArray nodeSensitivity(
-        double xValue,
-        DoubleArray knots,
-        DoubleMatrix coefMatrix,
-        int dimensions,
-        int interval,
-        DoubleMatrix coefficientSensitivity) {
-
-      double s = xValue - knots.get(interval);
-      int nCoefs = coefficientSensitivity.rowCount();
-
-      DoubleArray res = coefficientSensitivity.row(0);
-      for (int i = 1; i < nCoefs; i++) {
-        res = (DoubleArray) MA.scale(res, s);
-        res = (DoubleArray) MA.add(res, coefficientSensitivity.row(i));
-      }
-      return res;
-    }
-
     private static double[] getValues(double[] bareValues) {
       int nValues = bareValues.length;
       double[] res = new double[nValues];
@@ -212,14 +187,7 @@ final class LogNaturalSplineMonotoneCubicInterpolator
 
     @Override
     protected DoubleArray doParameterSensitivity(double xValue) {
-      int interval = FunctionUtils.getLowerBoundIndex(poly.getKnots(), xValue);
-      if (interval == poly.getKnots().size() - 1) {
-        interval--; // there is 1 less interval that knots
-      }
-
-      DoubleMatrix coefficientSensitivity = polySens.get().getCoefficientSensitivity(interval);
-      double[] resSense = nodeSensitivity(
-          xValue, poly.getKnots(), poly.getCoefMatrix(), poly.getDimensions(), interval, coefficientSensitivity).toArray();
+      double[] resSense = polySens.get().nodeSensitivity(xValue).toArrayUnsafe();
       double resValue = Math.exp(evaluate(xValue, poly.getKnots(), poly.getCoefMatrix(), poly.getDimensions()));
       double[] knotValues = getValues(logYValues);
       final int knotValuesLength = knotValues.length;
@@ -15,9 +15,6 @@ import com.opengamma.strata.math.impl.FunctionUtils;
 import com.opengamma.strata.math.impl.interpolation.NaturalSplineInterpolator;
 import com.opengamma.strata.math.impl.interpolation.PiecewisePolynomialInterpolator;
 import com.opengamma.strata.math.impl.interpolation.PiecewisePolynomialResult;
-import com.opengamma.strata.math.impl.interpolation.PiecewisePolynomialResultsWithSensitivity;
-import com.opengamma.strata.math.impl.matrix.MatrixAlgebra;
-import com.opengamma.strata.math.impl.matrix.OGMatrixAlgebra;
 
 /**
  * Natural spline interpolator.
@@ -38,10 +35,6 @@ final class NaturalSplineCurveInterpolator
    * The serialization version id.
    */
   private static final long serialVersionUID = 1L;
-  /**
-   * Underlying matrix algebra.
-   */
-  private static final MatrixAlgebra MA = new OGMatrixAlgebra();
 
   /**
    * Restricted constructor.
@@ -65,12 +58,55 @@ final class NaturalSplineCurveInterpolator
     return new Bound(xValues, yValues);
   }
 
+  @Override
+  public BoundCurveInterpolator rebind(
+      BoundCurveInterpolator base,
+      int parameterIndex,
+      DoubleArray xValues,
+      DoubleArray yValues) {
+
+    if (base instanceof Bound) {
+      return new Bound((Bound) base, parameterIndex, yValues);
+    }
+    return bind(xValues, yValues);
+  }
+
   //-----------------------------------------------------------------------
   @Override
   public String toString() {
     return NAME;
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Shifts the value of a single node of a natural spline.
+   * <p>
+   * The coefficients of a natural spline are linear in the node values.
+   * The shifted spline is thus obtained by adding the shift multiplied by the coefficient sensitivity
+   * to the node, without solving the spline system again.
+   * 
+   * @param poly  the spline
+   * @param polySens  the sensitivity of the coefficients to the node values
+   * @param nodeIndex  the index of the node in the sensitivity
+   * @param shift  the amount to add to the node value
+   * @return the shifted spline
+   */
+  static PiecewisePolynomialResult shiftNode(
+      PiecewisePolynomialResult poly,
+      PiecewisePolynomialSensitivity polySens,
+      int nodeIndex,
+      double shift) {
+
+    int nCoefs = poly.getOrder();
+    double[][] coefs = poly.getCoefMatrix().toArray();
+    for (int i = 0; i < coefs.length; i++) {
+      for (int j = 0; j < nCoefs; j++) {
+        coefs[i][j] += shift * polySens.get(i, j, nodeIndex);
+      }
+    }
+    return new PiecewisePolynomialResult(poly.getKnots(), DoubleMatrix.ofUnsafe(coefs), nCoefs, poly.getDimensions());
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Bound interpolator.
@@ -79,7 +115,7 @@ final class NaturalSplineCurveInterpolator
     private final double[] xValues;
     private final double[] yValues;
     private final PiecewisePolynomialResult poly;
-    private final Supplier<PiecewisePolynomialResultsWithSensitivity> polySens;
+    private final Supplier<PiecewisePolynomialSensitivity> polySens;
 
     Bound(DoubleArray xValues, DoubleArray yValues) {
       super(xValues, yValues);
@@ -87,7 +123,8 @@ final class NaturalSplineCurveInterpolator
       this.yValues = yValues.toArrayUnsafe();
       PiecewisePolynomialInterpolator underlying = new NaturalSplineInterpolator();
       this.poly = underlying.interpolate(xValues.toArray(), yValues.toArray());
-      this.polySens = Suppliers.memoize(() -> underlying.interpolateWithSensitivity(xValues.toArray(), yValues.toArray()));
+      this.polySens = Suppliers.memoize(() -> PiecewisePolynomialSensitivity.of(
+          underlying.interpolateWithSensitivity(xValues.toArray(), yValues.toArray())));
     }
 
     Bound(Bound base, BoundCurveExtrapolator extrapolatorLeft, BoundCurveExtrapolator extrapolatorRight) {
@@ -98,6 +135,16 @@ final class NaturalSplineCurveInterpolator
       this.polySens = base.polySens;
     }
 
+    Bound(Bound base, int parameterIndex, DoubleArray yValues) {
+      super(DoubleArray.ofUnsafe(base.xValues), yValues);
+      this.xValues = base.xValues;
+      this.yValues = yValues.toArrayUnsafe();
+      // the coefficient sensitivity does not depend on the node values
+      this.polySens = base.polySens;
+      this.poly = shiftNode(
+          base.poly, polySens.get(), parameterIndex, this.yValues[parameterIndex] - base.yValues[parameterIndex]);
+    }
+
     //-------------------------------------------------------------------------
     private static double evaluate(
         double xValue,
@@ -161,19 +208,7 @@ final class NaturalSplineCurveInterpolator
 
     @Override
     protected DoubleArray doParameterSensitivity(double xValue) {
-      int interval = FunctionUtils.getLowerBoundIndex(poly.getKnots(), xValue);
-      if (interval == poly.getKnots().size() - 1) {
-        interval--; // there is 1 less interval than knots
-      }
-      DoubleMatrix coefficientSensitivity = polySens.get().getCoefficientSensitivity(interval);
-      int nCoefs = coefficientSensitivity.rowCount();
-      double s = xValue - poly.getKnots().get(interval);
-      DoubleArray res = coefficientSensitivity.row(0);
-      for (int i = 1; i < nCoefs; i++) {
-        res = (DoubleArray) MA.scale(res, s);
-        res = (DoubleArray) MA.add(res, coefficientSensitivity.row(i));
-      }
-      return res;
+      return polySens.get().nodeSensitivity(xValue);
     }
 
     @Override
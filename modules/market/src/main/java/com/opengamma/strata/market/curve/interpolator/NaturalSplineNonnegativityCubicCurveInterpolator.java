@@ -16,9 +16,6 @@ import com.opengamma.strata.math.impl.interpolation.NaturalSplineInterpolator;
 import com.opengamma.strata.math.impl.interpolation.NonnegativityPreservingCubicSplineInterpolator;
 import com.opengamma.strata.math.impl.interpolation.PiecewisePolynomialInterpolator;
 import com.opengamma.strata.math.impl.interpolation.PiecewisePolynomialResult;
-import com.opengamma.strata.math.impl.interpolation.PiecewisePolynomialResultsWithSensitivity;
-import com.opengamma.strata.math.impl.matrix.MatrixAlgebra;
-import com.opengamma.strata.math.impl.matrix.OGMatrixAlgebra;
 
 /**
  * Natural spline interpolator with non-negativity filter.
@@ -39,10 +36,6 @@ final class NaturalSplineNonnegativityCubicCurveInterpolator
    * The serialization version id.
    */
   private static final long serialVersionUID = 1L;
-  /**
-   * Underlying matrix algebra.
-   */
-  private static final MatrixAlgebra MA = new OGMatrixAlgebra();
 
   /**
    * Restricted constructor.
@@ -80,7 +73,7 @@ final class NaturalSplineNonnegativityCubicCurveInterpolator
     private final double[] xValues;
     private final double[] yValues;
     private final PiecewisePolynomialResult poly;
-    private final Supplier<PiecewisePolynomialResultsWithSensitivity> polySens;
+    private final Supplier<PiecewisePolynomialSensitivity> polySens;
 
     Bound(DoubleArray xValues, DoubleArray yValues) {
       super(xValues, yValues);
@@ -89,7 +82,8 @@ final class NaturalSplineNonnegativityCubicCurveInterpolator
       PiecewisePolynomialInterpolator underlying =
           new NonnegativityPreservingCubicSplineInterpolator(new NaturalSplineInterpolator());
       this.poly = underlying.interpolate(xValues.toArray(), yValues.toArray());
-      this.polySens = Suppliers.memoize(() -> underlying.interpolateWithSensitivity(xValues.toArray(), yValues.toArray()));
+      this.polySens = Suppliers.memoize(() -> PiecewisePolynomialSensitivity.of(
+          underlying.interpolateWithSensitivity(xValues.toArray(), yValues.toArray())));
     }
 
     Bound(Bound base, BoundCurveExtrapolator extrapolatorLeft, BoundCurveExtrapolator extrapolatorRight) {
@@ -163,19 +157,7 @@ final class NaturalSplineNonnegativityCubicCurveInterpolator
 
     @Override
     protected DoubleArray doParameterSensitivity(double xValue) {
-      int interval = FunctionUtils.getLowerBoundIndex(poly.getKnots(), xValue);
-      if (interval == poly.getKnots().size() - 1) {
-        interval--; // there is 1 less interval than knots
-      }
-      DoubleMatrix coefficientSensitivity = polySens.get().getCoefficientSensitivity(interval);
-      int nCoefs = coefficientSensitivity.rowCount();
-      double s = xValue - poly.getKnots().get(interval);
-      DoubleArray res = coefficientSensitivity.row(0);
-      for (int i = 1; i < nCoefs; i++) {
-        res = (DoubleArray) MA.scale(res, s);
-        res = (DoubleArray) MA.add(res, coefficientSensitivity.row(i));
-      }
-      return res;
+      return polySens.get().nodeSensitivity(xValue);
     }
 
     @Override
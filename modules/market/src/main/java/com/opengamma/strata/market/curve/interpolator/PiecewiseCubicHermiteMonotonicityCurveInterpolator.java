@@ -6,6 +6,7 @@
 package com.opengamma.strata.market.curve.interpolator;
 
 import java.io.Serializable;
+import java.util.Arrays;
 
 import com.google.common.base.Supplier;
 import com.google.common.base.Suppliers;
@@ -15,8 +16,6 @@ import com.opengamma.strata.math.impl.FunctionUtils;
 import com.opengamma.strata.math.impl.interpolation.PiecewiseCubicHermiteSplineInterpolatorWithSensitivity;
 import com.opengamma.strata.math.impl.interpolation.PiecewisePolynomialInterpolator;
 import com.opengamma.strata.math.impl.interpolation.PiecewisePolynomialResult;
-import com.opengamma.strata.math.impl.matrix.MatrixAlgebra;
-import com.opengamma.strata.math.impl.matrix.OGMatrixAlgebra;
 
 /**
  * Cubic Hermite interpolation preserving monotonicity.
@@ -41,10 +40,6 @@ final class PiecewiseCubicHermiteMonotonicityCurveInterpolator
    * The serialization version id.
    */
   private static final long serialVersionUID = 1L;
-  /**
-   * Underlying matrix algebra.
-   */
-  private static final MatrixAlgebra MA = new OGMatrixAlgebra();
 
   /**
    * Restricted constructor.
@@ -68,6 +63,19 @@ final class PiecewiseCubicHermiteMonotonicityCurveInterpolator
     return new Bound(xValues, yValues);
   }
 
+  @Override
+  public BoundCurveInterpolator rebind(
+      BoundCurveInterpolator base,
+      int parameterIndex,
+      DoubleArray xValues,
+      DoubleArray yValues) {
+
+    if (base instanceof Bound && xValues.size() > 2) {
+      return new Bound((Bound) base, parameterIndex, yValues);
+    }
+    return bind(xValues, yValues);
+  }
+
   //-----------------------------------------------------------------------
   @Override
   public String toString() {
@@ -83,7 +91,7 @@ final class PiecewiseCubicHermiteMonotonicityCurveInterpolator
     private final double[] yValues;
     private final DoubleArray knots;
     private final DoubleMatrix coefMatrix;
-    private final Supplier<DoubleMatrix[]> coefMatrixSensi;
+    private final Supplier<PiecewisePolynomialSensitivity> coefMatrixSensi;
 
     Bound(DoubleArray xValues, DoubleArray yValues) {
       super(xValues, yValues);
@@ -93,8 +101,8 @@ final class PiecewiseCubicHermiteMonotonicityCurveInterpolator
       PiecewisePolynomialResult poly = underlying.interpolate(xValues.toArray(), yValues.toArray());
       this.knots = poly.getKnots();
       this.coefMatrix = poly.getCoefMatrix();
-      this.coefMatrixSensi = Suppliers.memoize(
-          () -> underlying.interpolateWithSensitivity(xValues.toArray(), yValues.toArray()).getCoefficientSensitivityAll());
+      this.coefMatrixSensi = Suppliers.memoize(() -> PiecewisePolynomialSensitivity.of(
+          underlying.interpolateWithSensitivity(xValues.toArray(), yValues.toArray())));
     }
 
     Bound(Bound base, BoundCurveExtrapolator extrapolatorLeft, BoundCurveExtrapolator extrapolatorRight) {
@@ -106,6 +114,34 @@ final class PiecewiseCubicHermiteMonotonicityCurveInterpolator
       this.coefMatrixSensi = base.coefMatrixSensi;
     }
 
+    Bound(Bound base, int parameterIndex, DoubleArray yValues) {
+      super(DoubleArray.ofUnsafe(base.xValues), yValues);
+      this.xValues = base.xValues;
+      this.yValues = yValues.toArrayUnsafe();
+      this.knots = base.knots;
+      // the slope at a node depends on the adjacent nodes, or the two nearest nodes at either end
+      // thus only the polynomials of the intervals within two nodes of the changed node are affected
+      // these are recomputed by interpolating the nodes within three nodes of the changed node
+      int size = this.xValues.length;
+      int windowStart = Math.max(parameterIndex - 3, 0);
+      int windowEnd = Math.min(parameterIndex + 3, size - 1);
+      PiecewisePolynomialInterpolator underlying = new PiecewiseCubicHermiteSplineInterpolatorWithSensitivity();
+      DoubleMatrix windowCoefMatrix = underlying.interpolate(
+          Arrays.copyOfRange(this.xValues, windowStart, windowEnd + 1),
+          Arrays.copyOfRange(this.yValues, windowStart, windowEnd + 1)).getCoefMatrix();
+      double[][] coefs = base.coefMatrix.toArray();
+      int firstInterval = Math.max(parameterIndex - 2, 0);
+      int lastInterval = Math.min(parameterIndex + 1, size - 2);
+      for (int i = firstInterval; i <= lastInterval; i++) {
+        coefs[i] = windowCoefMatrix.rowArray(i - windowStart);
+      }
+      this.coefMatrix = DoubleMatrix.ofUnsafe(coefs);
+      double[] x = this.xValues;
+      double[] y = this.yValues;
+      this.coefMatrixSensi = Suppliers.memoize(
+          () -> PiecewisePolynomialSensitivity.of(underlying.interpolateWithSensitivity(x.clone(), y.clone())));
+    }
+
     //-------------------------------------------------------------------------
     private static double evaluate(
         double xValue,
@@ -180,16 +216,7 @@ final class PiecewiseCubicHermiteMonotonicityCurveInterpolator
 
     @Override
     protected DoubleArray doParameterSensitivity(double xValue) {
-      int indicator = getIndicator(xValue, knots);
-      DoubleMatrix coefficientSensitivity = coefMatrixSensi.get()[indicator];
-      int nCoefs = coefficientSensitivity.rowCount();
-      double s = xValue - knots.get(indicator);
-      DoubleArray res = coefficientSensitivity.row(0);
-      for (int i = 1; i < nCoefs; i++) {
-        res = (DoubleArray) MA.scale(res, s);
-        res = (DoubleArray) MA.add(res, coefficientSensitivity.row(i));
-      }
-      return res;
+      return coefMatrixSensi.get().nodeSensitivity(xValue);
     }
 
     @Override
@@ -0,0 +1,108 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.market.curve.interpolator;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.math.impl.FunctionUtils;
+import com.opengamma.strata.math.impl.interpolation.PiecewisePolynomialResultsWithSensitivity;
+
+/**
+ * The sensitivity of the coefficients of a piecewise polynomial to the node values.
+ * <p>
+ * The sensitivity of every coefficient of every interval is held in a single tensor of primitive arrays.
+ * A bound interpolator creates an instance once, thus the node sensitivity at an x-value
+ * is obtained by evaluating the polynomial of one interval with Horner's method,
+ * without creating intermediate arrays for each coefficient.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+final class PiecewisePolynomialSensitivity {
+
+  /**
+   * The knots of the polynomial.
+   */
+  private final DoubleArray knots;
+  /**
+   * The sensitivity of the coefficients, indexed by interval, coefficient and node.
+   * The coefficients are ordered from the highest power.
+   */
+  private final double[][][] sensitivity;
+
+  /**
+   * Creates an instance from a piecewise polynomial with sensitivity.
+   * <p>
+   * The polynomial must be one dimensional.
+   * 
+   * @param poly  the piecewise polynomial
+   * @return the sensitivity
+   */
+  static PiecewisePolynomialSensitivity of(PiecewisePolynomialResultsWithSensitivity poly) {
+    return of(poly.getKnots(), poly.getCoefficientSensitivityAll());
+  }
+
+  /**
+   * Creates an instance from the coefficient sensitivity of each interval.
+   * <p>
+   * Each matrix has one row for each coefficient, from the highest power, and one column for each node.
+   * 
+   * @param knots  the knots
+   * @param coefficientSensitivity  the coefficient sensitivity of each interval
+   * @return the sensitivity
+   */
+  static PiecewisePolynomialSensitivity of(DoubleArray knots, DoubleMatrix[] coefficientSensitivity) {
+    double[][][] sensitivity = new double[coefficientSensitivity.length][][];
+    for (int i = 0; i < sensitivity.length; i++) {
+      sensitivity[i] = coefficientSensitivity[i].toArray();
+    }
+    return new PiecewisePolynomialSensitivity(knots, sensitivity);
+  }
+
+  // restricted constructor
+  private PiecewisePolynomialSensitivity(DoubleArray knots, double[][][] sensitivity) {
+    this.knots = knots;
+    this.sensitivity = sensitivity;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the sensitivity of a coefficient of an interval to a node value.
+   * 
+   * @param interval  the index of the interval
+   * @param coefficient  the index of the coefficient, from the highest power
+   * @param node  the index of the node
+   * @return the sensitivity
+   */
+  double get(int interval, int coefficient, int node) {
+    return sensitivity[interval][coefficient][node];
+  }
+
+  /**
+   * Calculates the sensitivity of the value of the polynomial at the x-value to the node values.
+   * 
+   * @param xValue  the x-value
+   * @return the sensitivity to each node
+   */
+  DoubleArray nodeSensitivity(double xValue) {
+    // check for 1 less interval than knots
+    int interval = FunctionUtils.getLowerBoundIndex(knots, xValue);
+    if (interval == knots.size() - 1) {
+      interval--;
+    }
+    double s = xValue - knots.get(interval);
+    double[][] coefs = sensitivity[interval];
+    int nNodes = coefs[0].length;
+    double[] res = coefs[0].clone();
+    for (int i = 1; i < coefs.length; i++) {
+      double[] row = coefs[i];
+      for (int j = 0; j < nNodes; j++) {
+        res[j] = res[j] * s + row[j];
+      }
+    }
+    return DoubleArray.ofUnsafe(res);
+  }
+
+}
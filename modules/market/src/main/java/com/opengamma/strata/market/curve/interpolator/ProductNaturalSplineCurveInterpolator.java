@@ -15,7 +15,6 @@ import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.math.impl.function.PiecewisePolynomialWithSensitivityFunction1D;
 import com.opengamma.strata.math.impl.interpolation.NaturalSplineInterpolator;
 import com.opengamma.strata.math.impl.interpolation.PiecewisePolynomialResult;
-import com.opengamma.strata.math.impl.interpolation.PiecewisePolynomialResultsWithSensitivity;
 
 /**
  * Product natural cubic spline interpolation.
@@ -89,7 +88,7 @@ final class ProductNaturalSplineCurveInterpolator
     private final double[] xValues;
     private final double[] yValues;
     private final PiecewisePolynomialResult poly;
-    private final Supplier<PiecewisePolynomialResultsWithSensitivity> polySens;
+    private final Supplier<PiecewisePolynomialSensitivity> polySens;
 
     Bound(DoubleArray xValues, DoubleArray yValues) {
       super(xValues, yValues);
@@ -98,8 +97,8 @@ final class ProductNaturalSplineCurveInterpolator
       this.yValues = yValues.toArrayUnsafe();
       NaturalSplineInterpolator underlying = new NaturalSplineInterpolator();
       this.poly = underlying.interpolate(xValues.toArray(), getProduct(this.xValues, this.yValues));
-      this.polySens = Suppliers.memoize(
-          () -> underlying.interpolateWithSensitivity(xValues.toArray(), getProduct(this.xValues, this.yValues)));
+      this.polySens = Suppliers.memoize(() -> PiecewisePolynomialSensitivity.of(
+          underlying.interpolateWithSensitivity(xValues.toArray(), getProduct(this.xValues, this.yValues))));
     }
 
     Bound(Bound base, BoundCurveExtrapolator extrapolatorLeft, BoundCurveExtrapolator extrapolatorRight) {
@@ -138,7 +137,7 @@ final class ProductNaturalSplineCurveInterpolator
     @Override
     protected DoubleArray doParameterSensitivity(double xValue) {
       ArgChecker.isTrue(Math.abs(xValue) > SMALL, "magnitude of xValue must not be small");
-      DoubleArray resSense = FUNCTION.nodeSensitivity(polySens.get(), xValue);
+      DoubleArray resSense = polySens.get().nodeSensitivity(xValue);
       return resSense.multipliedBy(DoubleArray.of(resSense.size(), i -> xValues[i] / xValue));
     }
 
@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.market.param;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.tuple.Pair;
+import com.opengamma.strata.data.MarketDataName;
+import com.opengamma.strata.market.param.CurrencyParameterSensitivitiesBuilder.SensitivityBuffer;
+
+/**
+ * Mutable builder for building instances of {@link CurrencyParameterSensitivities} that can be shared between threads.
+ * <p>
+ * This is created via {@link CurrencyParameterSensitivities#concurrentBuilder()}.
+ * <p>
+ * This is the thread-safe variant of {@link CurrencyParameterSensitivitiesBuilder}.
+ * The sensitivities are held in a concurrent hash map keyed by market data name and currency,
+ * with the values of each entry accumulated in place in a {@code double[]}.
+ * Additions to the same entry are serialized, while additions to different entries can proceed in parallel.
+ * <p>
+ * Where each thread can be given its own builder, it is more efficient to use
+ * {@link CurrencyParameterSensitivitiesBuilder} in each thread and merge the builders at the end.
+ * <p>
+ * This builder is thread-safe.
+ */
+public final class ConcurrentCurrencyParameterSensitivitiesBuilder {
+
+  /**
+   * The accumulated sensitivities, keyed by market data name and currency.
+   * Each buffer is locked while it is updated or read.
+   */
+  private final ConcurrentMap<Pair<MarketDataName<?>, Currency>, SensitivityBuffer> buffers = new ConcurrentHashMap<>();
+
+  //-------------------------------------------------------------------------
+  /**
+   * Restricted constructor used by {@code CurrencyParameterSensitivities.concurrentBuilder}.
+   */
+  ConcurrentCurrencyParameterSensitivitiesBuilder() {
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Adds a sensitivity to the builder.
+   * <p>
+   * If a sensitivity with the same market data name and currency has already been added,
+   * the values are added to the existing values.
+   * 
+   * @param sensitivity  the sensitivity to add
+   * @return this builder
+   * @throws IllegalArgumentException if the size of the sensitivity does not match the existing entry
+   */
+  public ConcurrentCurrencyParameterSensitivitiesBuilder add(CurrencyParameterSensitivity sensitivity) {
+    ArgChecker.notNull(sensitivity, "sensitivity");
+    SensitivityBuffer buffer = buffer(sensitivity);
+    synchronized (buffer) {
+      buffer.add(sensitivity.getSensitivity());
+    }
+    return this;
+  }
+
+  /**
+   * Adds the sensitivities to the builder.
+   * 
+   * @param sensitivities  the sensitivities to add
+   * @return this builder
+   * @throws IllegalArgumentException if the size of a sensitivity does not match the existing entry
+   */
+  public ConcurrentCurrencyParameterSensitivitiesBuilder add(CurrencyParameterSensitivities sensitivities) {
+    ArgChecker.notNull(sensitivities, "sensitivities");
+    for (CurrencyParameterSensitivity sensitivity : sensitivities.getSensitivities()) {
+      add(sensitivity);
+    }
+    return this;
+  }
+
+  /**
+   * Adds the sensitivities accumulated in a thread-confined builder to this builder.
+   * <p>
+   * This is used to merge the builders populated by each thread into a single total.
+   * The other builder is unaffected, but must not be modified while this method runs.
+   * 
+   * @param other  the builder to add
+   * @return this builder
+   * @throws IllegalArgumentException if the size of a sensitivity does not match the existing entry
+   */
+  public ConcurrentCurrencyParameterSensitivitiesBuilder add(CurrencyParameterSensitivitiesBuilder other) {
+    ArgChecker.notNull(other, "other");
+    for (SensitivityBuffer otherBuffer : other.buffers()) {
+      SensitivityBuffer buffer = buffer(otherBuffer.template);
+      synchronized (buffer) {
+        buffer.add(otherBuffer.values);
+      }
+    }
+    return this;
+  }
+
+  // finds or creates the buffer for the sensitivity
+  private SensitivityBuffer buffer(CurrencyParameterSensitivity sensitivity) {
+    return buffers.computeIfAbsent(
+        Pair.of(sensitivity.getMarketDataName(), sensitivity.getCurrency()),
+        key -> new SensitivityBuffer(sensitivity));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Builds the sensitivities from the builder.
+   * <p>
+   * Each entry is consistent, but additions made by other threads while this method runs
+   * may or may not be included. The builder can continue to be used after this method is called.
+   * 
+   * @return the sensitivities
+   */
+  public CurrencyParameterSensitivities build() {
+    List<CurrencyParameterSensitivity> sensitivities = new ArrayList<>();
+    for (SensitivityBuffer buffer : buffers.values()) {
+      synchronized (buffer) {
+        sensitivities.add(buffer.build());
+      }
+    }
+    return CurrencyParameterSensitivities.of(sensitivities);
+  }
+
+}
@@ -93,6 +93,31 @@ public final class CurrencyParameterSensitivities
     return EMPTY;
   }
 
+  /**
+   * Returns a builder that can be used to create an instance of {@code CurrencyParameterSensitivities}.
+   * <p>
+   * The builder accumulates sensitivities in place, which is more efficient than repeated calls to
+   * {@link #combinedWith(CurrencyParameterSensitivities)} when combining many sensitivities.
+   * The builder is not thread-safe.
+   * 
+   * @return the builder
+   */
+  public static CurrencyParameterSensitivitiesBuilder builder() {
+    return new CurrencyParameterSensitivitiesBuilder();
+  }
+
+  /**
+   * Returns a builder that can be used to create an instance of {@code CurrencyParameterSensitivities}
+   * and can be shared between threads.
+   * <p>
+   * This is the thread-safe variant of {@link #builder()}, suitable for parallel reduction.
+   * 
+   * @return the thread-safe builder
+   */
+  public static ConcurrentCurrencyParameterSensitivitiesBuilder concurrentBuilder() {
+    return new ConcurrentCurrencyParameterSensitivitiesBuilder();
+  }
+
   /**
    * Obtains an instance from a single sensitivity entry.
    * 
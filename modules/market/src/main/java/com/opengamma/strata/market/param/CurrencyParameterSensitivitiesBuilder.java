@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.market.param;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.tuple.Pair;
+import com.opengamma.strata.data.MarketDataName;
+
+/**
+ * Mutable builder for building instances of {@link CurrencyParameterSensitivities}.
+ * <p>
+ * This is created via {@link CurrencyParameterSensitivities#builder()}.
+ * <p>
+ * The sensitivities are held in a hash map keyed by market data name and currency.
+ * The values of each entry are accumulated in place in a {@code double[]}, thus adding a sensitivity
+ * does not rebuild the list of sensitivities, as {@link CurrencyParameterSensitivities#combinedWith} does.
+ * This makes the builder suitable for summing a large number of sensitivities, such as the bucketed PV01
+ * of each trade in a portfolio.
+ * <p>
+ * This builder is not thread-safe and is intended to be used by a single thread.
+ * For parallel reduction, each thread can use its own builder, with the builders then merged using
+ * {@link #add(CurrencyParameterSensitivitiesBuilder)}.
+ * Alternatively, {@link ConcurrentCurrencyParameterSensitivitiesBuilder} can be shared between threads.
+ */
+public final class CurrencyParameterSensitivitiesBuilder {
+
+  /**
+   * The accumulated sensitivities, keyed by market data name and currency.
+   */
+  private final Map<Pair<MarketDataName<?>, Currency>, SensitivityBuffer> buffers = new HashMap<>();
+
+  //-------------------------------------------------------------------------
+  /**
+   * Restricted constructor used by {@code CurrencyParameterSensitivities.builder}.
+   */
+  CurrencyParameterSensitivitiesBuilder() {
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Adds a sensitivity to the builder.
+   * <p>
+   * If a sensitivity with the same market data name and currency has already been added,
+   * the values are added to the existing values.
+   * 
+   * @param sensitivity  the sensitivity to add
+   * @return this builder
+   * @throws IllegalArgumentException if the size of the sensitivity does not match the existing entry
+   */
+  public CurrencyParameterSensitivitiesBuilder add(CurrencyParameterSensitivity sensitivity) {
+    ArgChecker.notNull(sensitivity, "sensitivity");
+    buffer(sensitivity).add(sensitivity.getSensitivity());
+    return this;
+  }
+
+  /**
+   * Adds a sensitivity to the builder, multiplied by the specified factor.
+   * <p>
+   * If a sensitivity with the same market data name and currency has already been added,
+   * the values are added to the existing values.
+   * 
+   * @param sensitivity  the sensitivity to add
+   * @param factor  the factor to multiply the sensitivity by
+   * @return this builder
+   * @throws IllegalArgumentException if the size of the sensitivity does not match the existing entry
+   */
+  public CurrencyParameterSensitivitiesBuilder add(CurrencyParameterSensitivity sensitivity, double factor) {
+    ArgChecker.notNull(sensitivity, "sensitivity");
+    buffer(sensitivity).add(sensitivity.getSensitivity(), factor);
+    return this;
+  }
+
+  /**
+   * Adds the sensitivities to the builder.
+   * 
+   * @param sensitivities  the sensitivities to add
+   * @return this builder
+   * @throws IllegalArgumentException if the size of a sensitivity does not match the existing entry
+   */
+  public CurrencyParameterSensitivitiesBuilder add(CurrencyParameterSensitivities sensitivities) {
+    ArgChecker.notNull(sensitivities, "sensitivities");
+    for (CurrencyParameterSensitivity sensitivity : sensitivities.getSensitivities()) {
+      add(sensitivity);
+    }
+    return this;
+  }
+
+  /**
+   * Adds the sensitivities accumulated in another builder to this builder.
+   * <p>
+   * This is used to merge builders that have been populated by different threads.
+   * The other builder is unaffected.
+   * 
+   * @param other  the builder to add
+   * @return this builder
+   * @throws IllegalArgumentException if the size of a sensitivity does not match the existing entry
+   */
+  public CurrencyParameterSensitivitiesBuilder add(CurrencyParameterSensitivitiesBuilder other) {
+    ArgChecker.notNull(other, "other");
+    for (SensitivityBuffer otherBuffer : other.buffers()) {
+      buffer(otherBuffer.template).add(otherBuffer.values);
+    }
+    return this;
+  }
+
+  // the buffers of the builder
+  Collection<SensitivityBuffer> buffers() {
+    return buffers.values();
+  }
+
+  // finds or creates the buffer for the sensitivity
+  private SensitivityBuffer buffer(CurrencyParameterSensitivity sensitivity) {
+    return buffers.computeIfAbsent(
+        Pair.of(sensitivity.getMarketDataName(), sensitivity.getCurrency()),
+        key -> new SensitivityBuffer(sensitivity));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Builds the sensitivities from the builder.
+   * <p>
+   * The builder can continue to be used after this method is called.
+   * 
+   * @return the sensitivities
+   */
+  public CurrencyParameterSensitivities build() {
+    List<CurrencyParameterSensitivity> sensitivities = new ArrayList<>(buffers.size());
+    for (SensitivityBuffer buffer : buffers.values()) {
+      sensitivities.add(buffer.build());
+    }
+    return CurrencyParameterSensitivities.of(sensitivities);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The accumulated values of a single market data name and currency.
+   */
+  static final class SensitivityBuffer {
+
+    /**
+     * The first sensitivity added, providing the name, metadata and currency of the result.
+     */
+    final CurrencyParameterSensitivity template;
+    /**
+     * The accumulated values.
+     */
+    final double[] values;
+
+    SensitivityBuffer(CurrencyParameterSensitivity template) {
+      this.template = template;
+      this.values = new double[template.getParameterCount()];
+    }
+
+    // adds the values
+    void add(DoubleArray other) {
+      add(other, 1d);
+    }
+
+    // adds the values multiplied by the factor
+    void add(DoubleArray other, double factor) {
+      checkSize(other.size());
+      for (int i = 0; i < values.length; i++) {
+        values[i] += other.get(i) * factor;
+      }
+    }
+
+    // adds the values of another buffer
+    void add(double[] other) {
+      checkSize(other.length);
+      for (int i = 0; i < values.length; i++) {
+        values[i] += other[i];
+      }
+    }
+
+    // checks the size matches
+    private void checkSize(int size) {
+      if (size != values.length) {
+        throw new IllegalArgumentException(Messages.format(
+            "Sensitivity array size {} must match size {} for {} in {}",
+            size, values.length, template.getMarketDataName(), template.getCurrency()));
+      }
+    }
+
+    // builds the sensitivity
+    CurrencyParameterSensitivity build() {
+      return template.withSensitivity(DoubleArray.copyOf(values));
+    }
+  }
+
+}
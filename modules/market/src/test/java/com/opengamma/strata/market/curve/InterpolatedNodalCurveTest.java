@@ -12,12 +12,14 @@ import static com.opengamma.strata.collect.TestHelper.coverBeanEquals;
 import static com.opengamma.strata.collect.TestHelper.coverImmutableBean;
 import static com.opengamma.strata.collect.TestHelper.date;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
 
 import java.util.ArrayList;
 import java.util.List;
 
 import org.testng.annotations.Test;
 
+import com.google.common.collect.ImmutableList;
 import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.market.ValueType;
@@ -152,6 +154,36 @@ public class InterpolatedNodalCurveTest {
     assertThat(test.getYValues()).isEqualTo(YVALUES_BUMPED);
   }
 
+  public void test_withParameter_spline() {
+    DoubleArray xValues = DoubleArray.of(0.5d, 1d, 2d, 3d, 5d, 7d, 10d);
+    DoubleArray yValues = DoubleArray.of(0.01d, 0.012d, 0.011d, 0.015d, 0.02d, 0.018d, 0.021d);
+    List<CurveInterpolator> interpolators = ImmutableList.of(
+        CurveInterpolators.NATURAL_SPLINE,
+        CurveInterpolators.PCHIP,
+        CurveInterpolators.LOG_NATURAL_SPLINE_DISCOUNT_FACTOR);
+    for (CurveInterpolator interpolator : interpolators) {
+      InterpolatedNodalCurve base = InterpolatedNodalCurve.of(METADATA, xValues, yValues, interpolator);
+      for (int i = 0; i < xValues.size(); i++) {
+        DoubleArray bumped = yValues.with(i, yValues.get(i) + 1e-4);
+        InterpolatedNodalCurve expected = base.withYValues(bumped);
+        int bumpIndex = i;
+        InterpolatedNodalCurve test1 = base.withParameter(i, bumped.get(i));
+        InterpolatedNodalCurve test2 =
+            base.withPerturbation((idx, value, meta) -> idx == bumpIndex ? value + 1e-4 : value);
+        assertThat(test1).isEqualTo(expected);
+        assertThat(test2).isEqualTo(expected);
+        for (int j = 0; j < 24; j++) {
+          double x = 0.5 * j;
+          assertThat(test1.yValue(x)).isCloseTo(expected.yValue(x), offset(1e-14));
+          assertThat(test2.yValue(x)).isCloseTo(expected.yValue(x), offset(1e-14));
+          assertThat(test1.firstDerivative(x)).isCloseTo(expected.firstDerivative(x), offset(1e-12));
+          assertThat(test1.yValueParameterSensitivity(x).getSensitivity().equalWithTolerance(
+              expected.yValueParameterSensitivity(x).getSensitivity(), 1e-12)).isTrue();
+        }
+      }
+    }
+  }
+
   public void test_withValues_badSize() {
     InterpolatedNodalCurve base = InterpolatedNodalCurve.of(METADATA, XVALUES, YVALUES, INTERPOLATOR);
     assertThrowsIllegalArg(() -> base.withYValues(DoubleArray.EMPTY));
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.market.curve;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.coverBeanEquals;
+import static com.opengamma.strata.collect.TestHelper.coverImmutableBean;
+import static java.util.stream.Collectors.toList;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.date.DayCounts;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+import com.opengamma.strata.market.ShiftType;
+import com.opengamma.strata.market.curve.interpolator.CurveInterpolators;
+import com.opengamma.strata.market.param.LabelParameterMetadata;
+
+/**
+ * Test {@link PointShiftedCurveScenarioArray}.
+ */
+@Test
+public class PointShiftedCurveScenarioArrayTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final Curve CURVE = InterpolatedNodalCurve.of(
+      Curves.zeroRates("curve", DayCounts.ACT_365F).withParameterMetadata(ImmutableList.of(
+          LabelParameterMetadata.of("1Y"), LabelParameterMetadata.of("2Y"), LabelParameterMetadata.of("3Y"))),
+      DoubleArray.of(1, 2, 3),
+      DoubleArray.of(5, 6, 7),
+      CurveInterpolators.LINEAR);
+  private static final DoubleMatrix SHIFTS = DoubleMatrix.of(2, 3, 0.1, 0.2, 0.3, 0.4, 0.5, 0.6);
+
+  public void test_of() {
+    PointShiftedCurveScenarioArray test = PointShiftedCurveScenarioArray.of(CURVE, ShiftType.ABSOLUTE, SHIFTS);
+    assertEquals(test.getCurve(), CURVE);
+    assertEquals(test.getShiftType(), ShiftType.ABSOLUTE);
+    assertEquals(test.getShifts(), SHIFTS);
+    assertEquals(test.getScenarioCount(), 2);
+    Curve expected0 = CURVE.withPerturbation((i, value, meta) -> value + SHIFTS.get(0, i));
+    Curve expected1 = CURVE.withPerturbation((i, value, meta) -> value + SHIFTS.get(1, i));
+    assertEquals(test.get(0), expected0);
+    assertEquals(test.get(1), expected1);
+    assertSame(test.get(1), test.get(1));
+    assertEquals(test.stream().collect(toList()), ImmutableList.of(expected0, expected1));
+  }
+
+  public void test_of_wrongParameterCount() {
+    DoubleMatrix shifts = DoubleMatrix.of(1, 2, 1d, 2d);
+    assertThrowsIllegalArg(() -> PointShiftedCurveScenarioArray.of(CURVE, ShiftType.ABSOLUTE, shifts));
+  }
+
+  public void test_curvePointShifts() {
+    CurvePointShifts shifts = CurvePointShifts.builder(ShiftType.RELATIVE)
+        .addShift(0, "1Y", 0.1)
+        .addShift(0, "3Y", 0.2)
+        .addShift(1, "2Y", 0.3)
+        .build();
+    MarketDataBox<Curve> box = shifts.applyTo(MarketDataBox.ofSingleValue(CURVE), REF_DATA);
+    assertTrue(box.getScenarioValue() instanceof PointShiftedCurveScenarioArray);
+    assertEquals(box.getScenarioCount(), 2);
+    assertEquals(box.getValue(0).yValue(1), 5 * 1.1, 1e-12);
+    assertEquals(box.getValue(0).yValue(2), 6, 1e-12);
+    assertEquals(box.getValue(0).yValue(3), 7 * 1.2, 1e-12);
+    assertEquals(box.getValue(1).yValue(1), 5, 1e-12);
+    assertEquals(box.getValue(1).yValue(2), 6 * 1.3, 1e-12);
+  }
+
+  public void test_curveParallelShifts() {
+    CurveParallelShifts shifts = CurveParallelShifts.absolute(1d, 2d);
+    MarketDataBox<Curve> box = shifts.applyTo(MarketDataBox.ofSingleValue(CURVE), REF_DATA);
+    assertTrue(box.getScenarioValue() instanceof ParallelShiftedCurveScenarioArray);
+    assertEquals(box.getValue(1), ParallelShiftedCurve.absolute(CURVE, 2d));
+    assertEquals(box.stream().collect(toList()), ImmutableList.of(
+        ParallelShiftedCurve.absolute(CURVE, 1d), ParallelShiftedCurve.absolute(CURVE, 2d)));
+  }
+
+  //-------------------------------------------------------------------------
+  public void coverage() {
+    PointShiftedCurveScenarioArray test = PointShiftedCurveScenarioArray.of(CURVE, ShiftType.ABSOLUTE, SHIFTS);
+    coverImmutableBean(test);
+    PointShiftedCurveScenarioArray test2 =
+        PointShiftedCurveScenarioArray.of(CURVE, ShiftType.RELATIVE, DoubleMatrix.of(1, 3, 1d, 2d, 3d));
+    coverBeanEquals(test, test2);
+    ParallelShiftedCurveScenarioArray parallel =
+        ParallelShiftedCurveScenarioArray.of(CURVE, ShiftType.ABSOLUTE, DoubleArray.of(1d, 2d));
+    coverImmutableBean(parallel);
+    coverBeanEquals(parallel, ParallelShiftedCurveScenarioArray.of(CURVE, ShiftType.RELATIVE, DoubleArray.of(3d)));
+  }
+
+}
@@ -7,6 +7,7 @@ package com.opengamma.strata.market.curve.interpolator;
 
 import static com.opengamma.strata.collect.TestHelper.assertSerialization;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 import org.testng.annotations.Test;
 
@@ -74,6 +75,24 @@ public class NaturalSplineCurveInterpolatorTest {
     assertEquals(bci.parameterSensitivity(5.0).get(X_DATA.size() - 1), 1d, TOL);
   }
 
+  public void test_rebind() {
+    BoundCurveInterpolator base =
+        NATURAL_SPLINE_INTERPOLATOR.bind(X_DATA, Y_DATA, FLAT_EXTRAPOLATOR, FLAT_EXTRAPOLATOR);
+    for (int i = 0; i < X_DATA.size(); i++) {
+      DoubleArray bumped = Y_DATA.with(i, Y_DATA.get(i) + 0.1);
+      BoundCurveInterpolator test =
+          NATURAL_SPLINE_INTERPOLATOR.rebind(base, i, X_DATA, bumped, FLAT_EXTRAPOLATOR, FLAT_EXTRAPOLATOR);
+      BoundCurveInterpolator expected =
+          NATURAL_SPLINE_INTERPOLATOR.bind(X_DATA, bumped, FLAT_EXTRAPOLATOR, FLAT_EXTRAPOLATOR);
+      for (int j = 0; j < 60; j++) {
+        double x = -0.5 + 0.1 * j;
+        assertEquals(test.interpolate(x), expected.interpolate(x), TOL);
+        assertEquals(test.firstDerivative(x), expected.firstDerivative(x), TOL);
+        assertTrue(test.parameterSensitivity(x).equalWithTolerance(expected.parameterSensitivity(x), TOL));
+      }
+    }
+  }
+
   //-------------------------------------------------------------------------
   public void test_serialization() {
     assertSerialization(NATURAL_SPLINE_INTERPOLATOR);
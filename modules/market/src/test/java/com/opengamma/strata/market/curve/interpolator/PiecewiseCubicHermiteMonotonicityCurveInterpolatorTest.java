@@ -89,6 +89,27 @@ public class PiecewiseCubicHermiteMonotonicityCurveInterpolatorTest {
     }
   }
 
+  public void rebindTest() {
+    int nExamples = Y.length;
+    int n = XX.length;
+    for (int example = 0; example < nExamples; example++) {
+      DoubleArray yValues = DoubleArray.ofUnsafe(Y[example]);
+      BoundCurveInterpolator base = PCHIP.bind(DoubleArray.ofUnsafe(X), yValues, INTERPOLATOR, INTERPOLATOR);
+      for (int k = 0; k < X.length; k++) {
+        DoubleArray bumped = yValues.with(k, yValues.get(k) + 0.05);
+        BoundCurveInterpolator test =
+            PCHIP.rebind(base, k, DoubleArray.ofUnsafe(X), bumped, INTERPOLATOR, INTERPOLATOR);
+        BoundCurveInterpolator expected = PCHIP.bind(DoubleArray.ofUnsafe(X), bumped, INTERPOLATOR, INTERPOLATOR);
+        for (int i = 0; i < n; i++) {
+          assertEquals(test.interpolate(XX[i]), expected.interpolate(XX[i]), TOL);
+          assertEquals(test.firstDerivative(XX[i]), expected.firstDerivative(XX[i]), TOL);
+          assertTrue(DoubleArrayMath.fuzzyEquals(
+              test.parameterSensitivity(XX[i]).toArray(), expected.parameterSensitivity(XX[i]).toArray(), TOL));
+        }
+      }
+    }
+  }
+
   //-------------------------------------------------------------------------
   public void test_serialization() {
     assertSerialization(PCHIP);
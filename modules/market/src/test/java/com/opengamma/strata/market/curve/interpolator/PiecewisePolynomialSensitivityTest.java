@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.market.curve.interpolator;
+
+import static org.testng.Assert.assertEquals;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.math.impl.function.PiecewisePolynomialWithSensitivityFunction1D;
+import com.opengamma.strata.math.impl.interpolation.PiecewiseCubicHermiteSplineInterpolatorWithSensitivity;
+import com.opengamma.strata.math.impl.interpolation.PiecewisePolynomialResultsWithSensitivity;
+
+/**
+ * Test {@link PiecewisePolynomialSensitivity}.
+ */
+@Test
+public class PiecewisePolynomialSensitivityTest {
+
+  private static final PiecewisePolynomialWithSensitivityFunction1D FUNCTION =
+      new PiecewisePolynomialWithSensitivityFunction1D();
+  private static final double[] X_DATA = new double[] {0.0, 0.4, 1.0, 1.8, 2.8, 5.0};
+  private static final double[] Y_DATA = new double[] {3.0, 4.0, 3.1, 2.0, 7.0, 2.0};
+  private static final PiecewisePolynomialResultsWithSensitivity POLY =
+      new PiecewiseCubicHermiteSplineInterpolatorWithSensitivity().interpolateWithSensitivity(X_DATA, Y_DATA);
+
+  public void test_nodeSensitivity() {
+    PiecewisePolynomialSensitivity test = PiecewisePolynomialSensitivity.of(POLY);
+    for (int i = 0; i <= 50; i++) {
+      double x = 0.1 * i;
+      assertEquals(test.nodeSensitivity(x), FUNCTION.nodeSensitivity(POLY, x));
+    }
+  }
+
+  public void test_get() {
+    PiecewisePolynomialSensitivity test =
+        PiecewisePolynomialSensitivity.of(POLY.getKnots(), POLY.getCoefficientSensitivityAll());
+    for (int i = 0; i < X_DATA.length - 1; i++) {
+      for (int j = 0; j < 4; j++) {
+        DoubleArray expected = POLY.getCoefficientSensitivity(i).row(j);
+        for (int k = 0; k < X_DATA.length; k++) {
+          assertEquals(test.get(i, j, k), expected.get(k));
+        }
+      }
+    }
+  }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.market.param;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.Assert.assertEquals;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.data.MarketDataName;
+import com.opengamma.strata.market.curve.CurveName;
+
+/**
+ * Test {@link CurrencyParameterSensitivitiesBuilder} and {@link ConcurrentCurrencyParameterSensitivitiesBuilder}.
+ */
+@Test
+public class CurrencyParameterSensitivitiesBuilderTest {
+
+  private static final Currency USD = Currency.USD;
+  private static final Currency EUR = Currency.EUR;
+  private static final MarketDataName<?> NAME1 = CurveName.of("NAME-1");
+  private static final MarketDataName<?> NAME2 = CurveName.of("NAME-2");
+  private static final List<ParameterMetadata> METADATA1 = ParameterMetadata.listOfEmpty(3);
+  private static final List<ParameterMetadata> METADATA2 = ParameterMetadata.listOfEmpty(2);
+
+  private static final CurrencyParameterSensitivity ENTRY_USD1 =
+      CurrencyParameterSensitivity.of(NAME1, METADATA1, USD, DoubleArray.of(1, 2, 3));
+  private static final CurrencyParameterSensitivity ENTRY_USD2 =
+      CurrencyParameterSensitivity.of(NAME1, METADATA1, USD, DoubleArray.of(10, 20, 30));
+  private static final CurrencyParameterSensitivity ENTRY_EUR =
+      CurrencyParameterSensitivity.of(NAME1, METADATA1, EUR, DoubleArray.of(4, 5, 6));
+  private static final CurrencyParameterSensitivity ENTRY_NAME2 =
+      CurrencyParameterSensitivity.of(NAME2, METADATA2, USD, DoubleArray.of(7, 8));
+  private static final CurrencyParameterSensitivity ENTRY_SMALL =
+      CurrencyParameterSensitivity.of(NAME1, ParameterMetadata.listOfEmpty(1), USD, DoubleArray.of(1));
+
+  //-------------------------------------------------------------------------
+  public void test_builder() {
+    CurrencyParameterSensitivitiesBuilder test = CurrencyParameterSensitivities.builder();
+    assertEquals(test.build(), CurrencyParameterSensitivities.empty());
+    test.add(ENTRY_USD1)
+        .add(CurrencyParameterSensitivities.of(ENTRY_EUR, ENTRY_NAME2))
+        .add(ENTRY_USD2);
+    CurrencyParameterSensitivities expected = CurrencyParameterSensitivities.of(ENTRY_USD1)
+        .combinedWith(CurrencyParameterSensitivities.of(ENTRY_EUR, ENTRY_NAME2))
+        .combinedWith(ENTRY_USD2);
+    assertEquals(test.build(), expected);
+    // builder can continue to be used
+    test.add(ENTRY_USD1);
+    assertEquals(test.build(), expected.combinedWith(ENTRY_USD1));
+  }
+
+  public void test_builder_multiplied() {
+    CurrencyParameterSensitivitiesBuilder test = CurrencyParameterSensitivities.builder();
+    test.add(ENTRY_USD1, 2d).add(ENTRY_USD2, -1d);
+    CurrencyParameterSensitivity expected = ENTRY_USD1.withSensitivity(DoubleArray.of(-8, -16, -24));
+    assertEquals(test.build(), CurrencyParameterSensitivities.of(expected));
+  }
+
+  public void test_builder_merge() {
+    CurrencyParameterSensitivitiesBuilder base = CurrencyParameterSensitivities.builder().add(ENTRY_USD1);
+    CurrencyParameterSensitivitiesBuilder other = CurrencyParameterSensitivities.builder()
+        .add(ENTRY_USD2)
+        .add(ENTRY_EUR);
+    base.add(other);
+    assertEquals(base.build(), CurrencyParameterSensitivities.of(ENTRY_USD1, ENTRY_USD2, ENTRY_EUR));
+    assertEquals(other.build(), CurrencyParameterSensitivities.of(ENTRY_USD2, ENTRY_EUR));
+  }
+
+  public void test_builder_sizeMismatch() {
+    CurrencyParameterSensitivitiesBuilder test = CurrencyParameterSensitivities.builder().add(ENTRY_USD1);
+    assertThrowsIllegalArg(() -> test.add(ENTRY_SMALL));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_concurrentBuilder() {
+    ConcurrentCurrencyParameterSensitivitiesBuilder test = CurrencyParameterSensitivities.concurrentBuilder();
+    assertEquals(test.build(), CurrencyParameterSensitivities.empty());
+    test.add(ENTRY_USD1)
+        .add(CurrencyParameterSensitivities.of(ENTRY_EUR, ENTRY_NAME2))
+        .add(CurrencyParameterSensitivities.builder().add(ENTRY_USD2));
+    assertEquals(test.build(), CurrencyParameterSensitivities.of(ENTRY_USD1, ENTRY_USD2, ENTRY_EUR, ENTRY_NAME2));
+    assertThrowsIllegalArg(() -> test.add(ENTRY_SMALL));
+  }
+
+  public void test_concurrentBuilder_parallel() throws Exception {
+    ConcurrentCurrencyParameterSensitivitiesBuilder test = CurrencyParameterSensitivities.concurrentBuilder();
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      for (int i = 0; i < 1000; i++) {
+        executor.execute(() -> test.add(ENTRY_USD1).add(ENTRY_NAME2));
+      }
+    } finally {
+      executor.shutdown();
+      executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+    CurrencyParameterSensitivities expected = CurrencyParameterSensitivities.of(
+        ENTRY_USD1.multipliedBy(1000), ENTRY_NAME2.multipliedBy(1000));
+    assertEquals(test.build(), expected);
+  }
+
+}
@@ -0,0 +1,185 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ * 
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.random;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+
+/**
+ * Brownian bridge construction of Brownian motion paths.
+ * <p>
+ * The path is built from a vector of independent standard normal numbers.
+ * The first number determines the value at the last time, the following numbers determine the values
+ * at the mid-points of the intervals already built, conditionally to their end points.
+ * The first numbers thus drive most of the variance of the path.
+ * <p>
+ * This is typically used with low-discrepancy sequences, whose first dimensions have the best uniformity properties.
+ * The distribution of the path is the same as with the standard incremental construction.
+ * <p>
+ * Reference: Jaeckel, P. "Monte Carlo methods in finance", Wiley, 2002.
+ */
+public final class BrownianBridge {
+
+  /**
+   * The times, in increasing order.
+   */
+  private final double[] times;
+  /**
+   * The standard deviations of the time increments.
+   */
+  private final double[] sqrtTimeSteps;
+  /**
+   * The index of the point built at each step.
+   */
+  private final int[] bridgeIndex;
+  /**
+   * The index of the left end point at each step, shifted by one, 0 representing the origin.
+   */
+  private final int[] leftIndex;
+  /**
+   * The index of the right end point at each step.
+   */
+  private final int[] rightIndex;
+  /**
+   * The weight of the left end point at each step.
+   */
+  private final double[] leftWeight;
+  /**
+   * The weight of the right end point at each step.
+   */
+  private final double[] rightWeight;
+  /**
+   * The conditional standard deviation at each step.
+   */
+  private final double[] stdDev;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance for regularly spaced times {@code 1, 2, ..., size}.
+   * 
+   * @param size  the number of points of the path
+   * @return the Brownian bridge
+   */
+  public static BrownianBridge ofSize(int size) {
+    ArgChecker.notNegativeOrZero(size, "size");
+    return new BrownianBridge(DoubleArray.of(size, i -> i + 1d).toArrayUnsafe());
+  }
+
+  /**
+   * Obtains an instance for the specified times.
+   * <p>
+   * The path starts from zero at time zero.
+   * 
+   * @param times  the times, positive and in increasing order
+   * @return the Brownian bridge
+   */
+  public static BrownianBridge of(DoubleArray times) {
+    ArgChecker.isTrue(times.size() > 0, "times must not be empty");
+    ArgChecker.isTrue(times.get(0) > 0d, "times must be positive");
+    for (int i = 1; i < times.size(); i++) {
+      ArgChecker.isTrue(times.get(i) > times.get(i - 1), "times must be increasing");
+    }
+    return new BrownianBridge(times.toArray());
+  }
+
+  // creates the construction schedule
+  private BrownianBridge(double[] times) {
+    int size = times.length;
+    this.times = times;
+    this.sqrtTimeSteps = new double[size];
+    this.bridgeIndex = new int[size];
+    this.leftIndex = new int[size];
+    this.rightIndex = new int[size];
+    this.leftWeight = new double[size];
+    this.rightWeight = new double[size];
+    this.stdDev = new double[size];
+    for (int i = 0; i < size; i++) {
+      sqrtTimeSteps[i] = Math.sqrt(times[i] - (i == 0 ? 0d : times[i - 1]));
+    }
+    // map[i] is the step at which the point i is built, plus one; zero if not built yet
+    int[] map = new int[size];
+    map[size - 1] = 1;
+    bridgeIndex[0] = size - 1;
+    stdDev[0] = Math.sqrt(times[size - 1]);
+    int j = 0;
+    for (int step = 1; step < size; step++) {
+      while (map[j] != 0) {
+        j++;
+      }
+      int k = j;
+      while (map[k] == 0) {
+        k++;
+      }
+      // the points j to k-1 are not built yet, k is built; build the mid-point
+      int l = j + ((k - 1 - j) >> 1);
+      map[l] = step + 1;
+      bridgeIndex[step] = l;
+      leftIndex[step] = j;
+      rightIndex[step] = k;
+      double leftTime = j == 0 ? 0d : times[j - 1];
+      leftWeight[step] = (times[k] - times[l]) / (times[k] - leftTime);
+      rightWeight[step] = (times[l] - leftTime) / (times[k] - leftTime);
+      stdDev[step] = Math.sqrt((times[l] - leftTime) * (times[k] - times[l]) / (times[k] - leftTime));
+      j = k + 1;
+      if (j >= size) {
+        j = 0;
+      }
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the number of points of the path.
+   * 
+   * @return the size
+   */
+  public int size() {
+    return times.length;
+  }
+
+  /**
+   * Builds the values of the path at the times.
+   * 
+   * @param normals  the independent standard normal numbers, of the same size as the bridge
+   * @param path  the array to be populated with the path values
+   */
+  public void buildPath(double[] normals, double[] path) {
+    ArgChecker.isTrue(normals.length == times.length, "normals must have the size of the bridge");
+    ArgChecker.isTrue(path.length == times.length, "path must have the size of the bridge");
+    path[times.length - 1] = stdDev[0] * normals[0];
+    for (int step = 1; step < times.length; step++) {
+      int j = leftIndex[step];
+      int k = rightIndex[step];
+      int l = bridgeIndex[step];
+      if (j != 0) {
+        path[l] = leftWeight[step] * path[j - 1] + rightWeight[step] * path[k] + stdDev[step] * normals[step];
+      } else {
+        path[l] = rightWeight[step] * path[k] + stdDev[step] * normals[step];
+      }
+    }
+  }
+
+  /**
+   * Builds the standardized increments of the path.
+   * <p>
+   * The increments between consecutive times are divided by their standard deviation.
+   * The result is thus a vector of independent standard normal numbers, whose variance is concentrated
+   * on the first input numbers as for the path.
+   * This can be used in place of the input normal numbers by code generating paths incrementally.
+   * 
+   * @param normals  the independent standard normal numbers, of the same size as the bridge
+   * @param increments  the array to be populated with the standardized increments, distinct from the normals array
+   */
+  public void buildIncrements(double[] normals, double[] increments) {
+    ArgChecker.isFalse(normals == increments, "increments must not be the normals array");
+    buildPath(normals, increments);
+    for (int i = times.length - 1; i > 0; i--) {
+      increments[i] = (increments[i] - increments[i - 1]) / sqrtTimeSteps[i];
+    }
+    increments[0] /= sqrtTimeSteps[0];
+  }
+
+}
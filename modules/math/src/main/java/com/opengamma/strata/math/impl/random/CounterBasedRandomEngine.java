@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ * 
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.random;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.math.impl.cern.RandomEngine;
+
+/**
+ * Counter-based uniform random number engine with independent streams.
+ * <p>
+ * The {@code n}-th 64 bit output of a stream is obtained by applying a bijective mixing function
+ * to a key, derived from the seed and the stream index, plus {@code n} times a fixed odd constant.
+ * The mixing function is the finalizer of the SplitMix64 algorithm, also used by {@link java.util.SplittableRandom}.
+ * <p>
+ * As the output depends only on the key and the counter, the engine can jump to any position in constant time
+ * and can provide any number of streams from a single seed, for example one stream per thread or per batch
+ * of Monte Carlo paths. The results of a parallel computation are then independent of the scheduling of
+ * the tasks, and hence reproducible.
+ * <p>
+ * Each instance is mutable and not thread-safe, a separate instance should be used for each stream.
+ */
+public final class CounterBasedRandomEngine extends RandomEngine {
+
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The increment of the counter, the odd integer closest to 2^64 divided by the golden ratio.
+   */
+  private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+  /**
+   * 2^-53, the spacing of the doubles produced.
+   */
+  private static final double DOUBLE_UNIT = 0x1.0p-53;
+
+  /**
+   * The seed.
+   */
+  private final long seed;
+  /**
+   * The stream index.
+   */
+  private final long stream;
+  /**
+   * The key of the stream.
+   */
+  private final long key;
+  /**
+   * The position in the stream, i.e., the number of 64 bit values already generated.
+   */
+  private long position;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an engine for the first stream of the seed.
+   * 
+   * @param seed  the seed
+   * @return the engine
+   */
+  public static CounterBasedRandomEngine of(long seed) {
+    return new CounterBasedRandomEngine(seed, 0L);
+  }
+
+  /**
+   * Obtains an engine for a stream of the seed.
+   * <p>
+   * Engines created with the same seed and different stream indices produce independent sequences.
+   * 
+   * @param seed  the seed
+   * @param stream  the stream index
+   * @return the engine
+   */
+  public static CounterBasedRandomEngine of(long seed, long stream) {
+    return new CounterBasedRandomEngine(seed, stream);
+  }
+
+  // restricted constructor
+  private CounterBasedRandomEngine(long seed, long stream) {
+    this.seed = seed;
+    this.stream = stream;
+    this.key = mix64(mix64(seed) + mix64(stream ^ GOLDEN_GAMMA) * GOLDEN_GAMMA);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the seed.
+   * 
+   * @return the seed
+   */
+  public long getSeed() {
+    return seed;
+  }
+
+  /**
+   * Gets the stream index.
+   * 
+   * @return the stream index
+   */
+  public long getStream() {
+    return stream;
+  }
+
+  /**
+   * Gets the position in the stream.
+   * <p>
+   * This is the number of 64 bit values generated since the start of the stream.
+   * Each {@code int}, {@code long} or {@code double} consumes one value.
+   * 
+   * @return the position
+   */
+  public long getPosition() {
+    return position;
+  }
+
+  /**
+   * Obtains an engine for another stream with the same seed, positioned at the start of the stream.
+   * 
+   * @param stream  the stream index
+   * @return the engine
+   */
+  public CounterBasedRandomEngine withStream(long stream) {
+    return new CounterBasedRandomEngine(seed, stream);
+  }
+
+  /**
+   * Moves the engine to a position in the stream.
+   * <p>
+   * This is a constant time operation.
+   * 
+   * @param position  the position, not negative
+   */
+  public void jumpTo(long position) {
+    this.position = ArgChecker.notNegative(position, "position");
+  }
+
+  /**
+   * Moves the engine forward in the stream.
+   * <p>
+   * This is a constant time operation, equivalent to generating and discarding the specified number of values.
+   * 
+   * @param count  the number of values to skip, not negative
+   */
+  public void skip(long count) {
+    jumpTo(position + ArgChecker.notNegative(count, "count"));
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public long nextLong() {
+    return mix64(key + (++position) * GOLDEN_GAMMA);
+  }
+
+  @Override
+  public int nextInt() {
+    return (int) (nextLong() >>> 32);
+  }
+
+  /**
+   * Returns a 53 bit uniformly distributed random number in the open unit interval {@code (0.0,1.0)}.
+   * 
+   * @return the random number
+   */
+  @Override
+  public double nextDouble() {
+    return ((nextLong() >>> 11) + 0.5d) * DOUBLE_UNIT;
+  }
+
+  /**
+   * Returns a 53 bit uniformly distributed random number in the open unit interval {@code (0.0,1.0)}.
+   * 
+   * @return the random number
+   */
+  @Override
+  public double raw() {
+    return nextDouble();
+  }
+
+  /**
+   * Fills an array with uniformly distributed random numbers in the open unit interval {@code (0.0,1.0)}.
+   * 
+   * @param array  the array to fill
+   */
+  public void nextDoubles(double[] array) {
+    for (int i = 0; i < array.length; i++) {
+      array[i] = nextDouble();
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // the SplitMix64 finalizer, a bijection of the 64 bit integers with good avalanche properties
+  private static long mix64(long value) {
+    long z = (value ^ (value >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  @Override
+  public String toString() {
+    return "CounterBasedRandomEngine[seed=" + seed + ", stream=" + stream + ", position=" + position + "]";
+  }
+
+}
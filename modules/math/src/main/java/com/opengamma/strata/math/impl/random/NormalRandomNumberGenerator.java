@@ -75,4 +75,11 @@ public class NormalRandomNumberGenerator
     return result;
   }
 
+  @Override
+  public void fillVector(double[] array) {
+    for (int i = 0; i < array.length; i++) {
+      array[i] = normal.nextRandom();
+    }
+  }
+
 }
@@ -29,4 +29,32 @@ public interface RandomNumberGenerator {
    */
   List<double[]> getVectors(int arraySize, int listSize);
 
+  /**
+   * Fills an array with random numbers.
+   * <p>
+   * This is equivalent to {@link #getVector(int)} with the size of the array, but allows the caller
+   * to reuse the same array for successive calls.
+   * The default implementation copies the result of {@link #getVector(int)}.
+   * 
+   * @param array  the array to fill
+   */
+  default void fillVector(double[] array) {
+    double[] vector = getVector(array.length);
+    System.arraycopy(vector, 0, array, 0, array.length);
+  }
+
+  /**
+   * Fills each of the arrays with random numbers.
+   * <p>
+   * This is equivalent to {@link #getVectors(int, int)} with the size of the arrays and the number of arrays,
+   * but allows the caller to reuse the same arrays for successive calls.
+   * 
+   * @param arrays  the arrays to fill
+   */
+  default void fillVectors(double[][] arrays) {
+    for (double[] array : arrays) {
+      fillVector(array);
+    }
+  }
+
 }
@@ -0,0 +1,273 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ * 
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.random;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.math.impl.cern.Probability;
+
+/**
+ * Generator of standard normal numbers based on the Sobol low-discrepancy sequence.
+ * <p>
+ * Each vector is obtained from the next point of a Sobol sequence of fixed dimension, mapped to standard normal
+ * numbers by the inverse cumulative distribution function. The points are generated in Gray code order,
+ * using the direction numbers of Joe and Kuo (new-joe-kuo-6.21201) for up to {@value #MAX_DIMENSION} dimensions.
+ * The first point of the sequence, the origin, is skipped.
+ * <p>
+ * Optionally, the vectors are transformed by a {@link BrownianBridge} so that the first dimensions of the
+ * sequence, which have the best uniformity properties, drive the largest part of the variance of the path.
+ * The transformed vectors are the standardized increments of the path, and can thus be used in place of
+ * independent standard normal increments.
+ * <p>
+ * The generator can be positioned at any index of the sequence, which allows disjoint parts of the sequence
+ * to be generated by different threads.
+ * <p>
+ * Each instance is mutable and not thread-safe.
+ * <p>
+ * Reference: Joe, S. and Kuo, F. Y. "Constructing Sobol sequences with better two-dimensional projections",
+ * SIAM J. Sci. Comput. 30, 2635-2654, 2008.
+ */
+public final class SobolRandomNumberGenerator implements RandomNumberGenerator {
+
+  /**
+   * The maximal dimension.
+   */
+  public static final int MAX_DIMENSION = 40;
+  /**
+   * The number of bits of the points.
+   */
+  private static final int BITS = 32;
+  /**
+   * 2^-32, the spacing of the points.
+   */
+  private static final double SCALE = 0x1.0p-32;
+  /**
+   * The primitive polynomials and initial direction numbers for the dimensions 2 and above.
+   * Each row contains the degree {@code s}, the coefficients {@code a} and the initial numbers {@code m_1..m_s}.
+   */
+  private static final int[][] JOE_KUO = {
+      {1, 0, 1},
+      {2, 1, 1, 3},
+      {3, 1, 1, 3, 1},
+      {3, 2, 1, 1, 1},
+      {4, 1, 1, 1, 3, 3},
+      {4, 4, 1, 3, 5, 13},
+      {5, 2, 1, 1, 5, 5, 17},
+      {5, 4, 1, 1, 5, 5, 5},
+      {5, 7, 1, 1, 7, 11, 19},
+      {5, 11, 1, 1, 5, 1, 1},
+      {5, 13, 1, 1, 1, 3, 11},
+      {5, 14, 1, 3, 5, 5, 31},
+      {6, 1, 1, 3, 3, 9, 7, 49},
+      {6, 13, 1, 1, 1, 15, 21, 21},
+      {6, 16, 1, 3, 1, 13, 27, 49},
+      {6, 19, 1, 1, 1, 15, 7, 5},
+      {6, 22, 1, 3, 1, 15, 13, 25},
+      {6, 25, 1, 1, 5, 5, 19, 61},
+      {7, 1, 1, 3, 7, 11, 23, 15, 103},
+      {7, 4, 1, 3, 7, 13, 13, 15, 69},
+      {7, 7, 1, 1, 3, 13, 7, 35, 63},
+      {7, 8, 1, 3, 5, 9, 1, 25, 53},
+      {7, 14, 1, 3, 1, 13, 9, 35, 107},
+      {7, 19, 1, 3, 1, 5, 27, 61, 31},
+      {7, 21, 1, 1, 5, 11, 19, 41, 61},
+      {7, 28, 1, 3, 5, 3, 3, 13, 69},
+      {7, 31, 1, 1, 7, 13, 1, 19, 1},
+      {7, 32, 1, 3, 7, 5, 13, 19, 59},
+      {7, 37, 1, 1, 3, 9, 25, 29, 41},
+      {7, 41, 1, 3, 5, 13, 23, 1, 55},
+      {7, 42, 1, 3, 7, 3, 13, 59, 17},
+      {7, 50, 1, 3, 1, 3, 5, 53, 69},
+      {7, 55, 1, 1, 5, 5, 23, 33, 13},
+      {7, 56, 1, 1, 7, 7, 1, 61, 123},
+      {7, 59, 1, 1, 7, 9, 13, 61, 49},
+      {7, 62, 1, 3, 3, 5, 3, 55, 33},
+      {8, 14, 1, 3, 1, 15, 31, 13, 49, 245},
+      {8, 21, 1, 3, 5, 15, 31, 59, 63, 97},
+      {8, 22, 1, 3, 1, 11, 11, 11, 77, 249}};
+  /**
+   * The direction numbers, indexed by dimension and bit.
+   */
+  private static final int[][] DIRECTIONS = directions();
+
+  /**
+   * The dimension.
+   */
+  private final int dimension;
+  /**
+   * The Brownian bridge, null if not used.
+   */
+  private final BrownianBridge bridge;
+  /**
+   * The current point, as integers to be multiplied by 2^-32.
+   */
+  private final int[] point;
+  /**
+   * The work array of the Brownian bridge, null if not used.
+   */
+  private final double[] normals;
+  /**
+   * The index of the current point.
+   */
+  private long index;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains a generator of the specified dimension.
+   * <p>
+   * The generator is positioned at the start of the sequence.
+   * 
+   * @param dimension  the dimension, which is the size of the vectors generated
+   * @return the generator
+   */
+  public static SobolRandomNumberGenerator of(int dimension) {
+    return new SobolRandomNumberGenerator(dimension, false);
+  }
+
+  /**
+   * Obtains a generator of the specified dimension, whose vectors are transformed by a Brownian bridge.
+   * <p>
+   * The generator is positioned at the start of the sequence.
+   * The Brownian bridge is built on regularly spaced times, see {@link BrownianBridge#ofSize(int)}.
+   * 
+   * @param dimension  the dimension, which is the size of the vectors generated
+   * @return the generator
+   */
+  public static SobolRandomNumberGenerator ofBrownianBridge(int dimension) {
+    return new SobolRandomNumberGenerator(dimension, true);
+  }
+
+  // restricted constructor
+  private SobolRandomNumberGenerator(int dimension, boolean brownianBridge) {
+    ArgChecker.inRangeInclusive(dimension, 1, MAX_DIMENSION, "dimension");
+    this.dimension = dimension;
+    this.bridge = brownianBridge ? BrownianBridge.ofSize(dimension) : null;
+    this.normals = brownianBridge ? new double[dimension] : null;
+    this.point = new int[dimension];
+  }
+
+  // computes the direction numbers
+  private static int[][] directions() {
+    int[][] directions = new int[MAX_DIMENSION][BITS];
+    for (int k = 0; k < BITS; k++) {
+      directions[0][k] = 1 << (BITS - 1 - k);
+    }
+    for (int d = 1; d < MAX_DIMENSION; d++) {
+      int[] row = JOE_KUO[d - 1];
+      int s = row[0];
+      int a = row[1];
+      int[] v = directions[d];
+      for (int k = 0; k < s; k++) {
+        v[k] = row[k + 2] << (BITS - 1 - k);
+      }
+      for (int k = s; k < BITS; k++) {
+        v[k] = v[k - s] ^ (v[k - s] >>> s);
+        for (int i = 1; i < s; i++) {
+          if (((a >>> (s - 1 - i)) & 1) != 0) {
+            v[k] ^= v[k - i];
+          }
+        }
+      }
+    }
+    return directions;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the dimension.
+   * 
+   * @return the dimension
+   */
+  public int getDimension() {
+    return dimension;
+  }
+
+  /**
+   * Gets the index of the next point of the sequence to be used.
+   * 
+   * @return the index
+   */
+  public long getIndex() {
+    return index + 1;
+  }
+
+  /**
+   * Returns a generator with the same dimension and transformation, positioned at the specified index.
+   * <p>
+   * The next vector generated is obtained from the point at the index, the index 0 being the origin
+   * which is skipped. This is a constant time operation.
+   * 
+   * @param index  the index of the next point, between 1 and 2^32 - 1
+   * @return the generator
+   */
+  public SobolRandomNumberGenerator startingAt(long index) {
+    ArgChecker.isTrue(
+        index >= 1 && index < (1L << BITS), "Index must be between 1 and 2^32 - 1 but was {}", index);
+    SobolRandomNumberGenerator generator = new SobolRandomNumberGenerator(dimension, bridge != null);
+    long current = index - 1;
+    long gray = current ^ (current >>> 1);
+    for (int k = 0; gray != 0; k++, gray >>>= 1) {
+      if ((gray & 1) != 0) {
+        for (int d = 0; d < dimension; d++) {
+          generator.point[d] ^= DIRECTIONS[d][k];
+        }
+      }
+    }
+    generator.index = current;
+    return generator;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Fills an array with the next point of the sequence, as uniform numbers in the open interval {@code (0,1)}.
+   * <p>
+   * The Brownian bridge, if any, is not applied.
+   * 
+   * @param array  the array to fill, of size equal to the dimension
+   */
+  public void fillUniform(double[] array) {
+    ArgChecker.isTrue(array.length == dimension, "Array size must be {} but was {}", dimension, array.length);
+    ArgChecker.isTrue(index < (1L << BITS) - 1, "Sobol sequence exhausted");
+    index++;
+    int bit = Long.numberOfTrailingZeros(index);
+    for (int d = 0; d < dimension; d++) {
+      point[d] ^= DIRECTIONS[d][bit];
+      array[d] = (point[d] & 0xFFFFFFFFL) * SCALE;
+    }
+  }
+
+  @Override
+  public void fillVector(double[] array) {
+    double[] target = bridge == null ? array : normals;
+    fillUniform(target);
+    for (int d = 0; d < dimension; d++) {
+      target[d] = Probability.normalInverse(target[d]);
+    }
+    if (bridge != null) {
+      bridge.buildIncrements(normals, array);
+    }
+  }
+
+  @Override
+  public double[] getVector(int size) {
+    double[] result = new double[size];
+    fillVector(result);
+    return result;
+  }
+
+  @Override
+  public List<double[]> getVectors(int arraySize, int listSize) {
+    ArgChecker.notNegative(listSize, "listSize");
+    List<double[]> result = new ArrayList<>(listSize);
+    for (int i = 0; i < listSize; i++) {
+      result.add(getVector(arraySize));
+    }
+    return result;
+  }
+
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.random;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.Assert.assertEquals;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+
+/**
+ * Test {@link BrownianBridge}.
+ */
+@Test
+public class BrownianBridgeTest {
+
+  private static final double TOL = 1.0e-14;
+  private static final DoubleArray TIMES = DoubleArray.of(0.25, 0.5, 1.0, 2.0, 3.0, 5.0, 7.5);
+
+  public void test_single() {
+    BrownianBridge test = BrownianBridge.of(DoubleArray.of(4d));
+    assertEquals(test.size(), 1);
+    double[] path = new double[1];
+    test.buildPath(new double[] {0.5}, path);
+    assertEquals(path[0], 1d, TOL);
+  }
+
+  public void test_first() {
+    // the first normal number determines the terminal value, the path is linearly interpolated
+    BrownianBridge test = BrownianBridge.of(TIMES);
+    double[] normals = new double[TIMES.size()];
+    normals[0] = 1d;
+    double[] path = new double[TIMES.size()];
+    test.buildPath(normals, path);
+    double last = TIMES.get(TIMES.size() - 1);
+    for (int i = 0; i < TIMES.size(); i++) {
+      assertEquals(path[i], Math.sqrt(last) * TIMES.get(i) / last, TOL);
+    }
+  }
+
+  public void test_covariance() {
+    // the path is linear in the normal numbers, its covariance must be min(t_i, t_j)
+    BrownianBridge test = BrownianBridge.of(TIMES);
+    int size = TIMES.size();
+    double[][] columns = new double[size][size];
+    for (int k = 0; k < size; k++) {
+      double[] normals = new double[size];
+      normals[k] = 1d;
+      test.buildPath(normals, columns[k]);
+    }
+    for (int i = 0; i < size; i++) {
+      for (int j = 0; j < size; j++) {
+        double covariance = 0d;
+        for (int k = 0; k < size; k++) {
+          covariance += columns[k][i] * columns[k][j];
+        }
+        assertEquals(covariance, Math.min(TIMES.get(i), TIMES.get(j)), TOL);
+      }
+    }
+  }
+
+  public void test_increments() {
+    // the standardized increments are an orthogonal transformation of the normal numbers
+    BrownianBridge test = BrownianBridge.ofSize(9);
+    double[][] columns = new double[9][9];
+    for (int k = 0; k < 9; k++) {
+      double[] normals = new double[9];
+      normals[k] = 1d;
+      test.buildIncrements(normals, columns[k]);
+    }
+    for (int i = 0; i < 9; i++) {
+      for (int j = 0; j < 9; j++) {
+        double product = 0d;
+        for (int k = 0; k < 9; k++) {
+          product += columns[k][i] * columns[k][j];
+        }
+        assertEquals(product, i == j ? 1d : 0d, TOL);
+      }
+    }
+  }
+
+  public void test_invalid() {
+    assertThrowsIllegalArg(() -> BrownianBridge.ofSize(0));
+    assertThrowsIllegalArg(() -> BrownianBridge.of(DoubleArray.EMPTY));
+    assertThrowsIllegalArg(() -> BrownianBridge.of(DoubleArray.of(0d, 1d)));
+    assertThrowsIllegalArg(() -> BrownianBridge.of(DoubleArray.of(2d, 1d)));
+    double[] array = new double[3];
+    assertThrowsIllegalArg(() -> BrownianBridge.ofSize(3).buildIncrements(array, array));
+    assertThrowsIllegalArg(() -> BrownianBridge.ofSize(3).buildPath(new double[2], array));
+  }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.random;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import org.testng.annotations.Test;
+
+/**
+ * Test {@link CounterBasedRandomEngine}.
+ */
+@Test
+public class CounterBasedRandomEngineTest {
+
+  private static final long SEED = 20170101L;
+
+  public void test_of() {
+    CounterBasedRandomEngine test = CounterBasedRandomEngine.of(SEED, 3L);
+    assertEquals(test.getSeed(), SEED);
+    assertEquals(test.getStream(), 3L);
+    assertEquals(test.getPosition(), 0L);
+    test.nextDouble();
+    test.nextInt();
+    assertEquals(test.getPosition(), 2L);
+    assertEquals(CounterBasedRandomEngine.of(SEED).getStream(), 0L);
+  }
+
+  public void test_reproducible() {
+    CounterBasedRandomEngine first = CounterBasedRandomEngine.of(SEED, 5L);
+    CounterBasedRandomEngine second = CounterBasedRandomEngine.of(SEED).withStream(5L);
+    for (int i = 0; i < 100; i++) {
+      assertEquals(first.nextLong(), second.nextLong());
+    }
+  }
+
+  public void test_jump() {
+    CounterBasedRandomEngine base = CounterBasedRandomEngine.of(SEED);
+    double[] values = new double[100];
+    base.nextDoubles(values);
+    CounterBasedRandomEngine jumped = CounterBasedRandomEngine.of(SEED);
+    jumped.jumpTo(60L);
+    assertEquals(jumped.nextDouble(), values[60]);
+    CounterBasedRandomEngine skipped = CounterBasedRandomEngine.of(SEED);
+    skipped.nextDouble();
+    skipped.skip(20L);
+    assertEquals(skipped.nextDouble(), values[21]);
+    assertThrowsIllegalArg(() -> skipped.jumpTo(-1L));
+    assertThrowsIllegalArg(() -> skipped.skip(-1L));
+  }
+
+  public void test_streams() {
+    CounterBasedRandomEngine stream0 = CounterBasedRandomEngine.of(SEED, 0L);
+    CounterBasedRandomEngine stream1 = CounterBasedRandomEngine.of(SEED, 1L);
+    int nbEqual = 0;
+    for (int i = 0; i < 1000; i++) {
+      nbEqual += stream0.nextLong() == stream1.nextLong() ? 1 : 0;
+    }
+    assertEquals(nbEqual, 0);
+  }
+
+  public void test_uniform() {
+    CounterBasedRandomEngine test = CounterBasedRandomEngine.of(SEED);
+    int nbSamples = 100_000;
+    double sum = 0d;
+    for (int i = 0; i < nbSamples; i++) {
+      double value = test.nextDouble();
+      assertTrue(value > 0d && value < 1d);
+      sum += value;
+    }
+    assertEquals(sum / nbSamples, 0.5d, 0.005d);
+    assertFalse(test.toString().isEmpty());
+  }
+
+}
@@ -7,6 +7,7 @@ package com.opengamma.strata.math.impl.random;
 
 import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
 import static org.testng.AssertJUnit.assertEquals;
+import static org.testng.internal.junit.ArrayAsserts.assertArrayEquals;
 
 import java.util.List;
 
@@ -35,6 +36,17 @@ public class NormalRandomNumberGeneratorTest {
     }
   }
 
+  public void test_fill() {
+    NormalRandomNumberGenerator first = new NormalRandomNumberGenerator(0, 1, new MersenneTwister64(1));
+    NormalRandomNumberGenerator second = new NormalRandomNumberGenerator(0, 1, new MersenneTwister64(1));
+    List<double[]> expected = first.getVectors(5, 3);
+    double[][] result = new double[3][5];
+    second.fillVectors(result);
+    for (int i = 0; i < 3; i++) {
+      assertArrayEquals(expected.get(i), result[i], 0d);
+    }
+  }
+
   public void test_invalid() {
     assertThrowsIllegalArg(() -> new NormalRandomNumberGenerator(0, -1));
     assertThrowsIllegalArg(() -> new NormalRandomNumberGenerator(0, -1, new MersenneTwister64()));
@@ -0,0 +1,107 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.math.impl.random;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.Assert.assertEquals;
+import static org.testng.internal.junit.ArrayAsserts.assertArrayEquals;
+
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.math.impl.cern.Probability;
+
+/**
+ * Test {@link SobolRandomNumberGenerator}.
+ */
+@Test
+public class SobolRandomNumberGeneratorTest {
+
+  private static final double[][] EXPECTED = {
+      {0.5, 0.5, 0.5},
+      {0.75, 0.25, 0.25},
+      {0.25, 0.75, 0.75},
+      {0.375, 0.375, 0.625},
+      {0.875, 0.875, 0.125},
+      {0.625, 0.125, 0.875},
+      {0.125, 0.625, 0.375},
+      {0.1875, 0.3125, 0.9375},
+      {0.6875, 0.8125, 0.4375}};
+
+  public void test_uniform() {
+    SobolRandomNumberGenerator test = SobolRandomNumberGenerator.of(3);
+    assertEquals(test.getDimension(), 3);
+    double[] point = new double[3];
+    for (int i = 0; i < EXPECTED.length; i++) {
+      assertEquals(test.getIndex(), i + 1L);
+      test.fillUniform(point);
+      assertArrayEquals(EXPECTED[i], point, 0d);
+    }
+  }
+
+  public void test_normal() {
+    SobolRandomNumberGenerator test = SobolRandomNumberGenerator.of(3);
+    List<double[]> vectors = test.getVectors(3, EXPECTED.length);
+    for (int i = 0; i < EXPECTED.length; i++) {
+      for (int j = 0; j < 3; j++) {
+        assertEquals(vectors.get(i)[j], Probability.normalInverse(EXPECTED[i][j]), 1.0e-15);
+      }
+    }
+  }
+
+  public void test_stratification() {
+    // each block of 2^k points of any one-dimensional projection has one point in each interval of size 2^-k
+    SobolRandomNumberGenerator test = SobolRandomNumberGenerator.of(SobolRandomNumberGenerator.MAX_DIMENSION);
+    int nbPoints = 1024;
+    double[][] points = new double[nbPoints - 1][SobolRandomNumberGenerator.MAX_DIMENSION];
+    for (double[] point : points) {
+      test.fillUniform(point);
+    }
+    for (int d = 0; d < SobolRandomNumberGenerator.MAX_DIMENSION; d++) {
+      boolean[] found = new boolean[nbPoints];
+      found[0] = true;  // the origin
+      for (double[] point : points) {
+        int bucket = (int) (point[d] * nbPoints);
+        assertEquals(found[bucket], false);
+        found[bucket] = true;
+      }
+    }
+  }
+
+  public void test_startingAt() {
+    SobolRandomNumberGenerator base = SobolRandomNumberGenerator.ofBrownianBridge(7);
+    List<double[]> vectors = base.getVectors(7, 200);
+    SobolRandomNumberGenerator test = base.startingAt(123L);
+    assertEquals(test.getIndex(), 123L);
+    double[] vector = new double[7];
+    test.fillVector(vector);
+    assertArrayEquals(vectors.get(122), vector, 0d);
+    test.fillVector(vector);
+    assertArrayEquals(vectors.get(123), vector, 0d);
+  }
+
+  public void test_brownianBridge() {
+    SobolRandomNumberGenerator plain = SobolRandomNumberGenerator.of(4);
+    SobolRandomNumberGenerator bridged = SobolRandomNumberGenerator.ofBrownianBridge(4);
+    BrownianBridge bridge = BrownianBridge.ofSize(4);
+    for (int i = 0; i < 10; i++) {
+      double[] normals = plain.getVector(4);
+      double[] expected = new double[4];
+      bridge.buildIncrements(normals, expected);
+      assertArrayEquals(expected, bridged.getVector(4), 0d);
+    }
+  }
+
+  public void test_invalid() {
+    assertThrowsIllegalArg(() -> SobolRandomNumberGenerator.of(0));
+    assertThrowsIllegalArg(() -> SobolRandomNumberGenerator.of(SobolRandomNumberGenerator.MAX_DIMENSION + 1));
+    assertThrowsIllegalArg(() -> SobolRandomNumberGenerator.of(2).getVector(3));
+    assertThrowsIllegalArg(() -> SobolRandomNumberGenerator.of(2).startingAt(0L));
+    assertThrowsIllegalArg(() -> SobolRandomNumberGenerator.of(2).startingAt(1L << 32));
+  }
+
+}
@@ -0,0 +1,212 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure;
+
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
+import com.opengamma.strata.market.sensitivity.PointSensitivities;
+
+/**
+ * The sensitivities of a single trade in each scenario, computed once and shared between measures.
+ * <p>
+ * Several measures, such as calibrated and market quote PV01, are derived from the same point sensitivity
+ * and parameter sensitivity of the trade. When these measures are requested together, a calculation
+ * function creates one instance of this class for the trade and passes it to each measure,
+ * thus the sensitivities of each scenario are only computed once.
+ * <p>
+ * The point sensitivity, parameter sensitivity and market quote sensitivity of a scenario
+ * are computed on first use and then retained. The provider of a scenario is not retained,
+ * it is obtained each time a sensitivity of the scenario is computed and released afterwards.
+ * The measures are typically derived from these sensitivities by {@link SensitivityMeasureCalculations}.
+ * <p>
+ * This class is mutable and not thread-safe.
+ * It is intended to be used within a single call to a calculation function and then discarded.
+ *
+ * @param <P>  the type of the provider of market data for a single scenario
+ */
+public final class ScenarioSensitivityCache<P> {
+
+  /**
+   * The function providing the provider of each scenario.
+   */
+  private final IntFunction<P> providerFn;
+  /**
+   * The function computing the point sensitivity of the trade.
+   */
+  private final Function<? super P, PointSensitivities> pointSensitivityFn;
+  /**
+   * The function converting the point sensitivity to a parameter sensitivity.
+   */
+  private final BiFunction<? super P, PointSensitivities, CurrencyParameterSensitivities> parameterSensitivityFn;
+  /**
+   * The function converting the parameter sensitivity to a market quote sensitivity, null if not supported.
+   */
+  private final BiFunction<CurrencyParameterSensitivities, ? super P, CurrencyParameterSensitivities> marketQuoteFn;
+  /**
+   * The point sensitivities, by scenario index.
+   */
+  private final PointSensitivities[] pointSensitivities;
+  /**
+   * The parameter sensitivities, by scenario index.
+   */
+  private final CurrencyParameterSensitivities[] parameterSensitivities;
+  /**
+   * The market quote sensitivities, by scenario index.
+   */
+  private final CurrencyParameterSensitivities[] marketQuoteSensitivities;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance that computes point and parameter sensitivities.
+   *
+   * @param <P>  the type of the provider
+   * @param scenarioCount  the number of scenarios
+   * @param providerFn  the function providing the provider of each scenario
+   * @param pointSensitivityFn  the function computing the point sensitivity of the trade
+   * @param parameterSensitivityFn  the function converting the point sensitivity to a parameter sensitivity
+   * @return the cache
+   */
+  public static <P> ScenarioSensitivityCache<P> of(
+      int scenarioCount,
+      IntFunction<P> providerFn,
+      Function<? super P, PointSensitivities> pointSensitivityFn,
+      BiFunction<? super P, PointSensitivities, CurrencyParameterSensitivities> parameterSensitivityFn) {
+
+    return new ScenarioSensitivityCache<>(scenarioCount, providerFn, pointSensitivityFn, parameterSensitivityFn, null);
+  }
+
+  /**
+   * Obtains an instance that computes point, parameter and market quote sensitivities.
+   *
+   * @param <P>  the type of the provider
+   * @param scenarioCount  the number of scenarios
+   * @param providerFn  the function providing the provider of each scenario
+   * @param pointSensitivityFn  the function computing the point sensitivity of the trade
+   * @param parameterSensitivityFn  the function converting the point sensitivity to a parameter sensitivity
+   * @param marketQuoteFn  the function converting the parameter sensitivity to a market quote sensitivity
+   * @return the cache
+   */
+  public static <P> ScenarioSensitivityCache<P> of(
+      int scenarioCount,
+      IntFunction<P> providerFn,
+      Function<? super P, PointSensitivities> pointSensitivityFn,
+      BiFunction<? super P, PointSensitivities, CurrencyParameterSensitivities> parameterSensitivityFn,
+      BiFunction<CurrencyParameterSensitivities, ? super P, CurrencyParameterSensitivities> marketQuoteFn) {
+
+    ArgChecker.notNull(marketQuoteFn, "marketQuoteFn");
+    return new ScenarioSensitivityCache<>(
+        scenarioCount, providerFn, pointSensitivityFn, parameterSensitivityFn, marketQuoteFn);
+  }
+
+  // restricted constructor
+  private ScenarioSensitivityCache(
+      int scenarioCount,
+      IntFunction<P> providerFn,
+      Function<? super P, PointSensitivities> pointSensitivityFn,
+      BiFunction<? super P, PointSensitivities, CurrencyParameterSensitivities> parameterSensitivityFn,
+      BiFunction<CurrencyParameterSensitivities, ? super P, CurrencyParameterSensitivities> marketQuoteFn) {
+
+    ArgChecker.notNegative(scenarioCount, "scenarioCount");
+    this.providerFn = ArgChecker.notNull(providerFn, "providerFn");
+    this.pointSensitivityFn = ArgChecker.notNull(pointSensitivityFn, "pointSensitivityFn");
+    this.parameterSensitivityFn = ArgChecker.notNull(parameterSensitivityFn, "parameterSensitivityFn");
+    this.marketQuoteFn = marketQuoteFn;
+    this.pointSensitivities = new PointSensitivities[scenarioCount];
+    this.parameterSensitivities = new CurrencyParameterSensitivities[scenarioCount];
+    this.marketQuoteSensitivities = new CurrencyParameterSensitivities[scenarioCount];
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the number of scenarios.
+   *
+   * @return the number of scenarios
+   */
+  public int getScenarioCount() {
+    return pointSensitivities.length;
+  }
+
+  /**
+   * Checks if market quote sensitivity is supported.
+   *
+   * @return true if the market quote sensitivity can be computed
+   */
+  public boolean isMarketQuoteSupported() {
+    return marketQuoteFn != null;
+  }
+
+  /**
+   * Gets the point sensitivity of the trade in a scenario.
+   *
+   * @param scenarioIndex  the index of the scenario
+   * @return the point sensitivity
+   * @throws IndexOutOfBoundsException if the index is invalid
+   */
+  public PointSensitivities pointSensitivity(int scenarioIndex) {
+    PointSensitivities sensitivity = pointSensitivities[scenarioIndex];
+    return sensitivity != null ? sensitivity : pointSensitivity(scenarioIndex, providerFn.apply(scenarioIndex));
+  }
+
+  // gets the point sensitivity, computing it with the provider if necessary
+  private PointSensitivities pointSensitivity(int scenarioIndex, P provider) {
+    PointSensitivities sensitivity = pointSensitivities[scenarioIndex];
+    if (sensitivity == null) {
+      sensitivity = pointSensitivityFn.apply(provider);
+      pointSensitivities[scenarioIndex] = sensitivity;
+    }
+    return sensitivity;
+  }
+
+  /**
+   * Gets the parameter sensitivity of the trade in a scenario.
+   *
+   * @param scenarioIndex  the index of the scenario
+   * @return the parameter sensitivity
+   * @throws IndexOutOfBoundsException if the index is invalid
+   */
+  public CurrencyParameterSensitivities parameterSensitivity(int scenarioIndex) {
+    CurrencyParameterSensitivities sensitivity = parameterSensitivities[scenarioIndex];
+    return sensitivity != null ? sensitivity : parameterSensitivity(scenarioIndex, providerFn.apply(scenarioIndex));
+  }
+
+  // gets the parameter sensitivity, computing it with the provider if necessary
+  private CurrencyParameterSensitivities parameterSensitivity(int scenarioIndex, P provider) {
+    CurrencyParameterSensitivities sensitivity = parameterSensitivities[scenarioIndex];
+    if (sensitivity == null) {
+      sensitivity = parameterSensitivityFn.apply(provider, pointSensitivity(scenarioIndex, provider));
+      parameterSensitivities[scenarioIndex] = sensitivity;
+    }
+    return sensitivity;
+  }
+
+  /**
+   * Gets the market quote sensitivity of the trade in a scenario.
+   * <p>
+   * This must only be invoked if {@link #isMarketQuoteSupported()} returns true.
+   *
+   * @param scenarioIndex  the index of the scenario
+   * @return the market quote sensitivity
+   * @throws IndexOutOfBoundsException if the index is invalid
+   * @throws IllegalStateException if market quote sensitivity is not supported
+   */
+  public CurrencyParameterSensitivities marketQuoteSensitivity(int scenarioIndex) {
+    CurrencyParameterSensitivities sensitivity = marketQuoteSensitivities[scenarioIndex];
+    if (sensitivity == null) {
+      if (marketQuoteFn == null) {
+        throw new IllegalStateException("Market quote sensitivity is not supported");
+      }
+      P provider = providerFn.apply(scenarioIndex);
+      sensitivity = marketQuoteFn.apply(parameterSensitivity(scenarioIndex, provider), provider);
+      marketQuoteSensitivities[scenarioIndex] = sensitivity;
+    }
+    return sensitivity;
+  }
+
+}
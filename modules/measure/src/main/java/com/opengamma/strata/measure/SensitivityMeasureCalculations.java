@@ -0,0 +1,149 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure;
+
+import java.util.function.Function;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.calc.Measure;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+
+/**
+ * The calculations of the measures that are derived from the sensitivities of a trade.
+ * <p>
+ * Measures such as calibrated and market quote PV01 are derived from the same sensitivities of the trade.
+ * A calculation function creates one {@link ScenarioSensitivityCache} for the trade and calculates each
+ * of these measures from it, thus when several of these measures are requested,
+ * the sensitivities are only computed once.
+ * <p>
+ * The measures derived from the market quote sensitivity are registered separately.
+ * If the cache does not support market quote sensitivity, the result of these measures is a failure.
+ * <p>
+ * This class is immutable and thread-safe.
+ *
+ * @param <P>  the type of the provider of market data for a single scenario
+ */
+public final class SensitivityMeasureCalculations<P> {
+
+  /**
+   * The calculations by measure.
+   */
+  private final ImmutableMap<Measure, Function<ScenarioSensitivityCache<P>, ?>> calculations;
+  /**
+   * The measures derived from the market quote sensitivity.
+   */
+  private final ImmutableSet<Measure> marketQuoteMeasures;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains a builder of the calculations.
+   *
+   * @param <P>  the type of the provider
+   * @return the builder
+   */
+  public static <P> Builder<P> builder() {
+    return new Builder<>();
+  }
+
+  // restricted constructor
+  private SensitivityMeasureCalculations(
+      ImmutableMap<Measure, Function<ScenarioSensitivityCache<P>, ?>> calculations,
+      ImmutableSet<Measure> marketQuoteMeasures) {
+
+    this.calculations = calculations;
+    this.marketQuoteMeasures = marketQuoteMeasures;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the measures that can be calculated.
+   *
+   * @return the measures
+   */
+  public ImmutableSet<Measure> getMeasures() {
+    return calculations.keySet();
+  }
+
+  /**
+   * Calculates a measure from the sensitivities of the trade.
+   * <p>
+   * Any exception thrown by the calculation is converted to a failure.
+   *
+   * @param measure  the measure
+   * @param sensitivities  the sensitivities of the trade in each scenario
+   * @return the result of the measure
+   */
+  public Result<?> calculate(Measure measure, ScenarioSensitivityCache<P> sensitivities) {
+    Function<ScenarioSensitivityCache<P>, ?> calculation = calculations.get(measure);
+    if (calculation == null) {
+      return Result.failure(FailureReason.UNSUPPORTED, "Unsupported sensitivity measure: {}", measure);
+    }
+    if (marketQuoteMeasures.contains(measure) && !sensitivities.isMarketQuoteSupported()) {
+      return Result.failure(
+          FailureReason.UNSUPPORTED, "Market quote sensitivity is not supported for measure: {}", measure);
+    }
+    return Result.of(() -> calculation.apply(sensitivities));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Builder of the calculations.
+   *
+   * @param <P>  the type of the provider of market data for a single scenario
+   */
+  public static final class Builder<P> {
+
+    /** The calculations by measure. */
+    private final ImmutableMap.Builder<Measure, Function<ScenarioSensitivityCache<P>, ?>> calculations =
+        ImmutableMap.builder();
+    /** The measures derived from the market quote sensitivity. */
+    private final ImmutableSet.Builder<Measure> marketQuoteMeasures = ImmutableSet.builder();
+
+    // restricted constructor
+    private Builder() {
+    }
+
+    /**
+     * Adds the calculation of a measure derived from the point or parameter sensitivity.
+     *
+     * @param measure  the measure
+     * @param calculation  the calculation of the measure in all scenarios
+     * @return this builder
+     */
+    public Builder<P> put(Measure measure, Function<ScenarioSensitivityCache<P>, ?> calculation) {
+      ArgChecker.notNull(measure, "measure");
+      ArgChecker.notNull(calculation, "calculation");
+      calculations.put(measure, calculation);
+      return this;
+    }
+
+    /**
+     * Adds the calculation of a measure derived from the market quote sensitivity.
+     *
+     * @param measure  the measure
+     * @param calculation  the calculation of the measure in all scenarios
+     * @return this builder
+     */
+    public Builder<P> putMarketQuote(Measure measure, Function<ScenarioSensitivityCache<P>, ?> calculation) {
+      put(measure, calculation);
+      marketQuoteMeasures.add(measure);
+      return this;
+    }
+
+    /**
+     * Builds the calculations.
+     *
+     * @return the calculations
+     */
+    public SensitivityMeasureCalculations<P> build() {
+      return new SensitivityMeasureCalculations<>(calculations.build(), marketQuoteMeasures.build());
+    }
+  }
+
+}
@@ -29,6 +29,7 @@ import com.opengamma.strata.measure.fx.FxNdfTradeCalculationFunction;
 import com.opengamma.strata.measure.fx.FxRateMarketDataFunction;
 import com.opengamma.strata.measure.fx.FxSingleTradeCalculationFunction;
 import com.opengamma.strata.measure.fx.FxSwapTradeCalculationFunction;
+import com.opengamma.strata.measure.fxopt.FxOptionLocalVolatilityMarketDataFunction;
 import com.opengamma.strata.measure.fxopt.FxOptionVolatilitiesMarketDataFunction;
 import com.opengamma.strata.measure.fxopt.FxSingleBarrierOptionTradeCalculationFunction;
 import com.opengamma.strata.measure.fxopt.FxVanillaOptionTradeCalculationFunction;
@@ -149,6 +150,7 @@ public final class StandardComponents {
    *  <li>Discount factors and index rates from curves
    *  <li>FX rates from quotes
    *  <li>FX option volatilities from quotes
+   *  <li>FX option local volatility from FX option volatilities
    * </ul>
    *
    * @return the standard market data functions
@@ -159,7 +161,8 @@ public final class StandardComponents {
         new CurveGroupMarketDataFunction(),
         new CurveInputsMarketDataFunction(),
         new FxRateMarketDataFunction(),
-        new FxOptionVolatilitiesMarketDataFunction());
+        new FxOptionVolatilitiesMarketDataFunction(),
+        new FxOptionLocalVolatilityMarketDataFunction());
   }
 
   /**
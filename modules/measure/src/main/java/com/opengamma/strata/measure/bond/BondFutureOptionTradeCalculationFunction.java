@@ -5,6 +5,7 @@
  */
 package com.opengamma.strata.measure.bond;
 
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -51,7 +52,12 @@ import com.opengamma.strata.product.bond.ResolvedBondFutureOptionTrade;
  * This is coherent with the pricing of {@link BondFuture}.
  */
 public class BondFutureOptionTradeCalculationFunction
-    implements CalculationFunction<BondFutureOptionTrade> {
+    implements CalculationFunction<BondFutureOptionTrade>, Serializable {
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
 
   /**
    * The calculations by measure.
@@ -5,6 +5,7 @@
  */
 package com.opengamma.strata.measure.bond;
 
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -52,7 +53,12 @@ import com.opengamma.strata.product.bond.ResolvedBondFutureTrade;
  * for an amount computed from the bond future price, a conversion factor and the accrued interest.
  */
 public class BondFutureTradeCalculationFunction
-    implements CalculationFunction<BondFutureTrade> {
+    implements CalculationFunction<BondFutureTrade>, Serializable {
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
 
   /**
    * The calculations by measure.
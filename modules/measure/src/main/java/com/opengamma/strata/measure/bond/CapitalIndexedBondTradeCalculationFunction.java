@@ -5,6 +5,7 @@
  */
 package com.opengamma.strata.measure.bond;
 
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -50,7 +51,12 @@ import com.opengamma.strata.product.bond.ResolvedCapitalIndexedBondTrade;
  * For example, a price of 99.32% is represented in Strata by 0.9932.
  */
 public class CapitalIndexedBondTradeCalculationFunction
-    implements CalculationFunction<CapitalIndexedBondTrade> {
+    implements CalculationFunction<CapitalIndexedBondTrade>, Serializable {
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
 
   /**
    * The calculations by measure.
@@ -13,6 +13,7 @@ import com.opengamma.strata.data.scenario.MultiCurrencyScenarioArray;
 import com.opengamma.strata.data.scenario.ScenarioArray;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
 import com.opengamma.strata.market.sensitivity.PointSensitivities;
+import com.opengamma.strata.measure.ScenarioSensitivityCache;
 import com.opengamma.strata.pricer.bond.DiscountingFixedCouponBondTradePricer;
 import com.opengamma.strata.pricer.bond.LegalEntityDiscountingProvider;
 import com.opengamma.strata.product.bond.ResolvedFixedCouponBondTrade;
@@ -68,15 +69,35 @@ final class FixedCouponBondMeasureCalculations {
     return tradePricer.presentValue(trade, discountingProvider);
   }
 
+  //-------------------------------------------------------------------------
+  // creates the cache of the sensitivities of the trade in each scenario
+  ScenarioSensitivityCache<LegalEntityDiscountingProvider> sensitivityCache(
+      ResolvedFixedCouponBondTrade trade,
+      LegalEntityDiscountingScenarioMarketData marketData) {
+
+    return ScenarioSensitivityCache.of(
+        marketData.getScenarioCount(),
+        i -> marketData.scenario(i).discountingProvider(),
+        provider -> tradePricer.presentValueSensitivity(trade, provider),
+        LegalEntityDiscountingProvider::parameterSensitivity);
+  }
+
   //-------------------------------------------------------------------------
   // calculates calibrated sum PV01 for all scenarios
   MultiCurrencyScenarioArray pv01CalibratedSum(
       ResolvedFixedCouponBondTrade trade,
       LegalEntityDiscountingScenarioMarketData marketData) {
 
+    return pv01CalibratedSum(sensitivityCache(trade, marketData));
+  }
+
+  // calculates calibrated sum PV01 for all scenarios, using the shared sensitivities of the trade
+  MultiCurrencyScenarioArray pv01CalibratedSum(
+      ScenarioSensitivityCache<LegalEntityDiscountingProvider> sensitivities) {
+
     return MultiCurrencyScenarioArray.of(
-        marketData.getScenarioCount(),
-        i -> pv01CalibratedSum(trade, marketData.scenario(i).discountingProvider()));
+        sensitivities.getScenarioCount(),
+        i -> sensitivities.parameterSensitivity(i).total().multipliedBy(ONE_BASIS_POINT));
   }
 
   // calibrated sum PV01 for one scenario
@@ -94,9 +115,16 @@ final class FixedCouponBondMeasureCalculations {
       ResolvedFixedCouponBondTrade trade,
       LegalEntityDiscountingScenarioMarketData marketData) {
 
+    return pv01CalibratedBucketed(sensitivityCache(trade, marketData));
+  }
+
+  // calculates calibrated bucketed PV01 for all scenarios, using the shared sensitivities of the trade
+  ScenarioArray<CurrencyParameterSensitivities> pv01CalibratedBucketed(
+      ScenarioSensitivityCache<LegalEntityDiscountingProvider> sensitivities) {
+
     return ScenarioArray.of(
-        marketData.getScenarioCount(),
-        i -> pv01CalibratedBucketed(trade, marketData.scenario(i).discountingProvider()));
+        sensitivities.getScenarioCount(),
+        i -> sensitivities.parameterSensitivity(i).multipliedBy(ONE_BASIS_POINT));
   }
 
   // calibrated bucketed PV01 for one scenario
@@ -5,6 +5,7 @@
  */
 package com.opengamma.strata.measure.bond;
 
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -22,6 +23,9 @@ import com.opengamma.strata.collect.result.FailureReason;
 import com.opengamma.strata.collect.result.Result;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
 import com.opengamma.strata.measure.Measures;
+import com.opengamma.strata.measure.ScenarioSensitivityCache;
+import com.opengamma.strata.measure.SensitivityMeasureCalculations;
+import com.opengamma.strata.pricer.bond.LegalEntityDiscountingProvider;
 import com.opengamma.strata.product.bond.FixedCouponBond;
 import com.opengamma.strata.product.bond.FixedCouponBondTrade;
 import com.opengamma.strata.product.bond.ResolvedFixedCouponBondTrade;
@@ -46,7 +50,12 @@ import com.opengamma.strata.product.bond.ResolvedFixedCouponBondTrade;
  * For example, a price of 99.32% is represented in Strata by 0.9932.
  */
 public class FixedCouponBondTradeCalculationFunction
-    implements CalculationFunction<FixedCouponBondTrade> {
+    implements CalculationFunction<FixedCouponBondTrade>, Serializable {
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
 
   /**
    * The calculations by measure.
@@ -54,14 +63,24 @@ public class FixedCouponBondTradeCalculationFunction
   private static final ImmutableMap<Measure, SingleMeasureCalculation> CALCULATORS =
       ImmutableMap.<Measure, SingleMeasureCalculation>builder()
           .put(Measures.PRESENT_VALUE, FixedCouponBondMeasureCalculations.DEFAULT::presentValue)
-          .put(Measures.PV01_CALIBRATED_SUM, FixedCouponBondMeasureCalculations.DEFAULT::pv01CalibratedSum)
-          .put(Measures.PV01_CALIBRATED_BUCKETED, FixedCouponBondMeasureCalculations.DEFAULT::pv01CalibratedBucketed)
           .put(Measures.CURRENCY_EXPOSURE, FixedCouponBondMeasureCalculations.DEFAULT::currencyExposure)
           .put(Measures.CURRENT_CASH, FixedCouponBondMeasureCalculations.DEFAULT::currentCash)
           .put(Measures.RESOLVED_TARGET, (rt, smd) -> rt)
           .build();
 
-  private static final ImmutableSet<Measure> MEASURES = CALCULATORS.keySet();
+  /**
+   * The calculations by measure that are derived from the sensitivities of the trade.
+   */
+  private static final SensitivityMeasureCalculations<LegalEntityDiscountingProvider> SENSITIVITY_CALCULATORS =
+      SensitivityMeasureCalculations.<LegalEntityDiscountingProvider>builder()
+          .put(Measures.PV01_CALIBRATED_SUM, FixedCouponBondMeasureCalculations.DEFAULT::pv01CalibratedSum)
+          .put(Measures.PV01_CALIBRATED_BUCKETED, FixedCouponBondMeasureCalculations.DEFAULT::pv01CalibratedBucketed)
+          .build();
+
+  private static final ImmutableSet<Measure> MEASURES = ImmutableSet.<Measure>builder()
+      .addAll(CALCULATORS.keySet())
+      .addAll(SENSITIVITY_CALCULATORS.getMeasures())
+      .build();
 
   /**
    * Creates an instance.
@@ -122,10 +141,14 @@ public class FixedCouponBondTradeCalculationFunction
     LegalEntityDiscountingMarketDataLookup bondLookup = parameters.getParameter(LegalEntityDiscountingMarketDataLookup.class);
     LegalEntityDiscountingScenarioMarketData marketData = bondLookup.marketDataView(scenarioMarketData);
 
+    // share the sensitivities of the trade between the measures that need them
+    ScenarioSensitivityCache<LegalEntityDiscountingProvider> sensitivities =
+        FixedCouponBondMeasureCalculations.DEFAULT.sensitivityCache(resolved, marketData);
+
     // loop around measures, calculating all scenarios for one measure
     Map<Measure, Result<?>> results = new HashMap<>();
     for (Measure measure : measures) {
-      results.put(measure, calculate(measure, resolved, marketData));
+      results.put(measure, calculate(measure, resolved, marketData, sensitivities));
     }
     return results;
   }
@@ -134,8 +157,12 @@ public class FixedCouponBondTradeCalculationFunction
   private Result<?> calculate(
       Measure measure,
       ResolvedFixedCouponBondTrade trade,
-      LegalEntityDiscountingScenarioMarketData marketData) {
+      LegalEntityDiscountingScenarioMarketData marketData,
+      ScenarioSensitivityCache<LegalEntityDiscountingProvider> sensitivities) {
 
+    if (SENSITIVITY_CALCULATORS.getMeasures().contains(measure)) {
+      return SENSITIVITY_CALCULATORS.calculate(measure, sensitivities);
+    }
     SingleMeasureCalculation calculator = CALCULATORS.get(measure);
     if (calculator == null) {
       return Result.failure(FailureReason.UNSUPPORTED, "Unsupported measure for FixedCouponBondTrade: {}", measure);
@@ -5,6 +5,7 @@
  */
 package com.opengamma.strata.measure.capfloor;
 
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -51,7 +52,12 @@ import com.opengamma.strata.product.capfloor.ResolvedIborCapFloorTrade;
  * The "natural" currency is determined from the cap/floor leg.
  */
 public class IborCapFloorTradeCalculationFunction
-    implements CalculationFunction<IborCapFloorTrade> {
+    implements CalculationFunction<IborCapFloorTrade>, Serializable {
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
 
   /**
    * The calculations by measure.
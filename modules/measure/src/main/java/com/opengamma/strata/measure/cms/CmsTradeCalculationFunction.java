@@ -5,6 +5,7 @@
  */
 package com.opengamma.strata.measure.cms;
 
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -53,7 +54,12 @@ import com.opengamma.strata.product.cms.ResolvedCmsTrade;
  * The "natural" currency is determined from the CMS leg.
  */
 public class CmsTradeCalculationFunction
-    implements CalculationFunction<CmsTrade> {
+    implements CalculationFunction<CmsTrade>, Serializable {
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
 
   /**
    * The calculations by measure.
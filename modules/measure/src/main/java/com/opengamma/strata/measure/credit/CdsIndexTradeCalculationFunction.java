@@ -5,6 +5,7 @@
  */
 package com.opengamma.strata.measure.credit;
 
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -54,7 +55,12 @@ import com.opengamma.strata.product.credit.ResolvedCdsIndexTrade;
  * The "natural" currency is the currency of the CDS index, which is limited to be single-currency.
  */
 public class CdsIndexTradeCalculationFunction
-    implements CalculationFunction<CdsIndexTrade> {
+    implements CalculationFunction<CdsIndexTrade>, Serializable {
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
 
   /**
    * The calculations by measure.
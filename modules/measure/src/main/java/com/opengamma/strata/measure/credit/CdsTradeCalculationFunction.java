@@ -5,6 +5,7 @@
  */
 package com.opengamma.strata.measure.credit;
 
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -55,7 +56,12 @@ import com.opengamma.strata.product.credit.ResolvedCdsTrade;
  * The "natural" currency is the currency of the CDS, which is limited to be single-currency.
  */
 public class CdsTradeCalculationFunction
-    implements CalculationFunction<CdsTrade> {
+    implements CalculationFunction<CdsTrade>, Serializable {
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
 
   /**
    * The calculations by measure.
@@ -5,6 +5,7 @@
  */
 package com.opengamma.strata.measure.deposit;
 
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -48,7 +49,12 @@ import com.opengamma.strata.product.deposit.TermDepositTrade;
  * </ul>
  */
 public class TermDepositTradeCalculationFunction
-    implements CalculationFunction<TermDepositTrade> {
+    implements CalculationFunction<TermDepositTrade>, Serializable {
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
 
   /**
    * The calculations by measure.
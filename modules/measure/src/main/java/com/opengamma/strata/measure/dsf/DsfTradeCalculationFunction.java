@@ -5,6 +5,7 @@
  */
 package com.opengamma.strata.measure.dsf;
 
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -61,7 +62,12 @@ import com.opengamma.strata.product.dsf.ResolvedDsfTrade;
  * Thus the market price of 100.182 is represented in Strata by 1.00182.
  */
 public class DsfTradeCalculationFunction
-    implements CalculationFunction<DsfTrade> {
+    implements CalculationFunction<DsfTrade>, Serializable {
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
 
   /**
    * The calculations by measure.
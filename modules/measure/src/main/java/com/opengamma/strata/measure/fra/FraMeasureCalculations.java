@@ -32,6 +32,7 @@ import com.opengamma.strata.market.param.CrossGammaParameterSensitivities;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivity;
 import com.opengamma.strata.market.sensitivity.PointSensitivities;
+import com.opengamma.strata.measure.ScenarioSensitivityCache;
 import com.opengamma.strata.measure.rate.RatesMarketData;
 import com.opengamma.strata.measure.rate.RatesScenarioMarketData;
 import com.opengamma.strata.pricer.fra.DiscountingFraTradePricer;
@@ -118,15 +119,36 @@ final class FraMeasureCalculations {
     return tradePricer.explainPresentValue(trade, ratesProvider);
   }
 
+  //-------------------------------------------------------------------------
+  // creates the cache of the sensitivities of the trade in each scenario
+  ScenarioSensitivityCache<RatesProvider> sensitivityCache(
+      ResolvedFraTrade trade,
+      RatesScenarioMarketData marketData) {
+
+    return ScenarioSensitivityCache.of(
+        marketData.getScenarioCount(),
+        i -> marketData.scenario(i).ratesProvider(),
+        provider -> tradePricer.presentValueSensitivity(trade, provider),
+        RatesProvider::parameterSensitivity,
+        MARKET_QUOTE_SENS::sensitivity);
+  }
+
   //-------------------------------------------------------------------------
   // calculates calibrated sum PV01 for all scenarios
   MultiCurrencyScenarioArray pv01CalibratedSum(
       ResolvedFraTrade trade,
       RatesScenarioMarketData marketData) {
 
+    return pv01CalibratedSum(sensitivityCache(trade, marketData));
+  }
+
+  // calculates calibrated sum PV01 for all scenarios, using the shared sensitivities of the trade
+  MultiCurrencyScenarioArray pv01CalibratedSum(
+      ScenarioSensitivityCache<RatesProvider> sensitivities) {
+
     return MultiCurrencyScenarioArray.of(
-        marketData.getScenarioCount(),
-        i -> pv01CalibratedSum(trade, marketData.scenario(i).ratesProvider()));
+        sensitivities.getScenarioCount(),
+        i -> sensitivities.parameterSensitivity(i).total().multipliedBy(ONE_BASIS_POINT));
   }
 
   // calibrated sum PV01 for one scenario
@@ -144,9 +166,16 @@ final class FraMeasureCalculations {
       ResolvedFraTrade trade,
       RatesScenarioMarketData marketData) {
 
+    return pv01CalibratedBucketed(sensitivityCache(trade, marketData));
+  }
+
+  // calculates calibrated bucketed PV01 for all scenarios, using the shared sensitivities of the trade
+  ScenarioArray<CurrencyParameterSensitivities> pv01CalibratedBucketed(
+      ScenarioSensitivityCache<RatesProvider> sensitivities) {
+
     return ScenarioArray.of(
-        marketData.getScenarioCount(),
-        i -> pv01CalibratedBucketed(trade, marketData.scenario(i).ratesProvider()));
+        sensitivities.getScenarioCount(),
+        i -> sensitivities.parameterSensitivity(i).multipliedBy(ONE_BASIS_POINT));
   }
 
   // calibrated bucketed PV01 for one scenario
@@ -164,9 +193,16 @@ final class FraMeasureCalculations {
       ResolvedFraTrade trade,
       RatesScenarioMarketData marketData) {
 
+    return pv01MarketQuoteSum(sensitivityCache(trade, marketData));
+  }
+
+  // calculates market quote sum PV01 for all scenarios, using the shared sensitivities of the trade
+  MultiCurrencyScenarioArray pv01MarketQuoteSum(
+      ScenarioSensitivityCache<RatesProvider> sensitivities) {
+
     return MultiCurrencyScenarioArray.of(
-        marketData.getScenarioCount(),
-        i -> pv01MarketQuoteSum(trade, marketData.scenario(i).ratesProvider()));
+        sensitivities.getScenarioCount(),
+        i -> sensitivities.marketQuoteSensitivity(i).total().multipliedBy(ONE_BASIS_POINT));
   }
 
   // market quote sum PV01 for one scenario
@@ -185,9 +221,16 @@ final class FraMeasureCalculations {
       ResolvedFraTrade trade,
       RatesScenarioMarketData marketData) {
 
+    return pv01MarketQuoteBucketed(sensitivityCache(trade, marketData));
+  }
+
+  // calculates market quote bucketed PV01 for all scenarios, using the shared sensitivities of the trade
+  ScenarioArray<CurrencyParameterSensitivities> pv01MarketQuoteBucketed(
+      ScenarioSensitivityCache<RatesProvider> sensitivities) {
+
     return ScenarioArray.of(
-        marketData.getScenarioCount(),
-        i -> pv01MarketQuoteBucketed(trade, marketData.scenario(i).ratesProvider()));
+        sensitivities.getScenarioCount(),
+        i -> sensitivities.marketQuoteSensitivity(i).multipliedBy(ONE_BASIS_POINT));
   }
 
   // market quote bucketed PV01 for one scenario
@@ -5,6 +5,7 @@
  */
 package com.opengamma.strata.measure.fra;
 
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
@@ -25,8 +26,11 @@ import com.opengamma.strata.collect.result.Result;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
 import com.opengamma.strata.measure.AdvancedMeasures;
 import com.opengamma.strata.measure.Measures;
+import com.opengamma.strata.measure.ScenarioSensitivityCache;
+import com.opengamma.strata.measure.SensitivityMeasureCalculations;
 import com.opengamma.strata.measure.rate.RatesMarketDataLookup;
 import com.opengamma.strata.measure.rate.RatesScenarioMarketData;
+import com.opengamma.strata.pricer.rate.RatesProvider;
 import com.opengamma.strata.product.fra.Fra;
 import com.opengamma.strata.product.fra.FraTrade;
 import com.opengamma.strata.product.fra.ResolvedFraTrade;
@@ -55,7 +59,12 @@ import com.opengamma.strata.product.fra.ResolvedFraTrade;
  * </ul>
  */
 public class FraTradeCalculationFunction
-    implements CalculationFunction<FraTrade> {
+    implements CalculationFunction<FraTrade>, Serializable {
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
 
   /**
    * The calculations by measure.
@@ -64,10 +73,6 @@ public class FraTradeCalculationFunction
       ImmutableMap.<Measure, SingleMeasureCalculation>builder()
           .put(Measures.PRESENT_VALUE, FraMeasureCalculations.DEFAULT::presentValue)
           .put(Measures.EXPLAIN_PRESENT_VALUE, FraMeasureCalculations.DEFAULT::explainPresentValue)
-          .put(Measures.PV01_CALIBRATED_SUM, FraMeasureCalculations.DEFAULT::pv01CalibratedSum)
-          .put(Measures.PV01_CALIBRATED_BUCKETED, FraMeasureCalculations.DEFAULT::pv01CalibratedBucketed)
-          .put(Measures.PV01_MARKET_QUOTE_SUM, FraMeasureCalculations.DEFAULT::pv01MarketQuoteSum)
-          .put(Measures.PV01_MARKET_QUOTE_BUCKETED, FraMeasureCalculations.DEFAULT::pv01MarketQuoteBucketed)
           .put(Measures.PAR_RATE, FraMeasureCalculations.DEFAULT::parRate)
           .put(Measures.PAR_SPREAD, FraMeasureCalculations.DEFAULT::parSpread)
           .put(Measures.CASH_FLOWS, FraMeasureCalculations.DEFAULT::cashFlows)
@@ -78,7 +83,21 @@ public class FraTradeCalculationFunction
           .put(AdvancedMeasures.PV01_SINGLE_NODE_GAMMA_BUCKETED, FraMeasureCalculations.DEFAULT::pv01SingleNodeGammaBucketed)
           .build();
 
-  private static final ImmutableSet<Measure> MEASURES = CALCULATORS.keySet();
+  /**
+   * The calculations by measure that are derived from the sensitivities of the trade.
+   */
+  private static final SensitivityMeasureCalculations<RatesProvider> SENSITIVITY_CALCULATORS =
+      SensitivityMeasureCalculations.<RatesProvider>builder()
+          .put(Measures.PV01_CALIBRATED_SUM, FraMeasureCalculations.DEFAULT::pv01CalibratedSum)
+          .put(Measures.PV01_CALIBRATED_BUCKETED, FraMeasureCalculations.DEFAULT::pv01CalibratedBucketed)
+          .putMarketQuote(Measures.PV01_MARKET_QUOTE_SUM, FraMeasureCalculations.DEFAULT::pv01MarketQuoteSum)
+          .putMarketQuote(Measures.PV01_MARKET_QUOTE_BUCKETED, FraMeasureCalculations.DEFAULT::pv01MarketQuoteBucketed)
+          .build();
+
+  private static final ImmutableSet<Measure> MEASURES = ImmutableSet.<Measure>builder()
+      .addAll(CALCULATORS.keySet())
+      .addAll(SENSITIVITY_CALCULATORS.getMeasures())
+      .build();
 
   /**
    * Creates an instance.
@@ -143,10 +162,14 @@ public class FraTradeCalculationFunction
     RatesMarketDataLookup ratesLookup = parameters.getParameter(RatesMarketDataLookup.class);
     RatesScenarioMarketData marketData = ratesLookup.marketDataView(scenarioMarketData);
 
+    // share the sensitivities of the trade between the measures that need them
+    ScenarioSensitivityCache<RatesProvider> sensitivities =
+        FraMeasureCalculations.DEFAULT.sensitivityCache(resolved, marketData);
+
     // loop around measures, calculating all scenarios for one measure
     Map<Measure, Result<?>> results = new HashMap<>();
     for (Measure measure : measures) {
-      results.put(measure, calculate(measure, resolved, marketData));
+      results.put(measure, calculate(measure, resolved, marketData, sensitivities));
     }
     return results;
   }
@@ -155,8 +178,12 @@ public class FraTradeCalculationFunction
   private Result<?> calculate(
       Measure measure,
       ResolvedFraTrade trade,
-      RatesScenarioMarketData marketData) {
+      RatesScenarioMarketData marketData,
+      ScenarioSensitivityCache<RatesProvider> sensitivities) {
 
+    if (SENSITIVITY_CALCULATORS.getMeasures().contains(measure)) {
+      return SENSITIVITY_CALCULATORS.calculate(measure, sensitivities);
+    }
     SingleMeasureCalculation calculator = CALCULATORS.get(measure);
     if (calculator == null) {
       return Result.failure(FailureReason.UNSUPPORTED, "Unsupported measure for FraTrade: {}", measure);
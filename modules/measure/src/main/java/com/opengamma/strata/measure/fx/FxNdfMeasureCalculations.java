@@ -14,6 +14,7 @@ import com.opengamma.strata.data.scenario.MultiCurrencyScenarioArray;
 import com.opengamma.strata.data.scenario.ScenarioArray;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
 import com.opengamma.strata.market.sensitivity.PointSensitivities;
+import com.opengamma.strata.measure.ScenarioSensitivityCache;
 import com.opengamma.strata.measure.rate.RatesScenarioMarketData;
 import com.opengamma.strata.pricer.fx.DiscountingFxNdfTradePricer;
 import com.opengamma.strata.pricer.rate.RatesProvider;
@@ -75,15 +76,36 @@ final class FxNdfMeasureCalculations {
     return tradePricer.presentValue(trade, ratesProvider);
   }
 
+  //-------------------------------------------------------------------------
+  // creates the cache of the sensitivities of the trade in each scenario
+  ScenarioSensitivityCache<RatesProvider> sensitivityCache(
+      ResolvedFxNdfTrade trade,
+      RatesScenarioMarketData marketData) {
+
+    return ScenarioSensitivityCache.of(
+        marketData.getScenarioCount(),
+        i -> marketData.scenario(i).ratesProvider(),
+        provider -> tradePricer.presentValueSensitivity(trade, provider),
+        RatesProvider::parameterSensitivity,
+        MARKET_QUOTE_SENS::sensitivity);
+  }
+
   //-------------------------------------------------------------------------
   // calculates calibrated sum PV01 for all scenarios
   MultiCurrencyScenarioArray pv01CalibratedSum(
       ResolvedFxNdfTrade trade,
       RatesScenarioMarketData marketData) {
 
+    return pv01CalibratedSum(sensitivityCache(trade, marketData));
+  }
+
+  // calculates calibrated sum PV01 for all scenarios, using the shared sensitivities of the trade
+  MultiCurrencyScenarioArray pv01CalibratedSum(
+      ScenarioSensitivityCache<RatesProvider> sensitivities) {
+
     return MultiCurrencyScenarioArray.of(
-        marketData.getScenarioCount(),
-        i -> pv01CalibratedSum(trade, marketData.scenario(i).ratesProvider()));
+        sensitivities.getScenarioCount(),
+        i -> sensitivities.parameterSensitivity(i).total().multipliedBy(ONE_BASIS_POINT));
   }
 
   // calibrated sum PV01 for one scenario
@@ -101,9 +123,16 @@ final class FxNdfMeasureCalculations {
       ResolvedFxNdfTrade trade,
       RatesScenarioMarketData marketData) {
 
+    return pv01CalibratedBucketed(sensitivityCache(trade, marketData));
+  }
+
+  // calculates calibrated bucketed PV01 for all scenarios, using the shared sensitivities of the trade
+  ScenarioArray<CurrencyParameterSensitivities> pv01CalibratedBucketed(
+      ScenarioSensitivityCache<RatesProvider> sensitivities) {
+
     return ScenarioArray.of(
-        marketData.getScenarioCount(),
-        i -> pv01CalibratedBucketed(trade, marketData.scenario(i).ratesProvider()));
+        sensitivities.getScenarioCount(),
+        i -> sensitivities.parameterSensitivity(i).multipliedBy(ONE_BASIS_POINT));
   }
 
   // calibrated bucketed PV01 for one scenario
@@ -121,9 +150,16 @@ final class FxNdfMeasureCalculations {
       ResolvedFxNdfTrade trade,
       RatesScenarioMarketData marketData) {
 
+    return pv01MarketQuoteSum(sensitivityCache(trade, marketData));
+  }
+
+  // calculates market quote sum PV01 for all scenarios, using the shared sensitivities of the trade
+  MultiCurrencyScenarioArray pv01MarketQuoteSum(
+      ScenarioSensitivityCache<RatesProvider> sensitivities) {
+
     return MultiCurrencyScenarioArray.of(
-        marketData.getScenarioCount(),
-        i -> pv01MarketQuoteSum(trade, marketData.scenario(i).ratesProvider()));
+        sensitivities.getScenarioCount(),
+        i -> sensitivities.marketQuoteSensitivity(i).total().multipliedBy(ONE_BASIS_POINT));
   }
 
   // market quote sum PV01 for one scenario
@@ -142,9 +178,16 @@ final class FxNdfMeasureCalculations {
       ResolvedFxNdfTrade trade,
       RatesScenarioMarketData marketData) {
 
+    return pv01MarketQuoteBucketed(sensitivityCache(trade, marketData));
+  }
+
+  // calculates market quote bucketed PV01 for all scenarios, using the shared sensitivities of the trade
+  ScenarioArray<CurrencyParameterSensitivities> pv01MarketQuoteBucketed(
+      ScenarioSensitivityCache<RatesProvider> sensitivities) {
+
     return ScenarioArray.of(
-        marketData.getScenarioCount(),
-        i -> pv01MarketQuoteBucketed(trade, marketData.scenario(i).ratesProvider()));
+        sensitivities.getScenarioCount(),
+        i -> sensitivities.marketQuoteSensitivity(i).multipliedBy(ONE_BASIS_POINT));
   }
 
   // market quote bucketed PV01 for one scenario
@@ -5,6 +5,7 @@
  */
 package com.opengamma.strata.measure.fx;
 
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -22,8 +23,11 @@ import com.opengamma.strata.collect.result.FailureReason;
 import com.opengamma.strata.collect.result.Result;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
 import com.opengamma.strata.measure.Measures;
+import com.opengamma.strata.measure.ScenarioSensitivityCache;
+import com.opengamma.strata.measure.SensitivityMeasureCalculations;
 import com.opengamma.strata.measure.rate.RatesMarketDataLookup;
 import com.opengamma.strata.measure.rate.RatesScenarioMarketData;
+import com.opengamma.strata.pricer.rate.RatesProvider;
 import com.opengamma.strata.product.fx.FxNdf;
 import com.opengamma.strata.product.fx.FxNdfTrade;
 import com.opengamma.strata.product.fx.ResolvedFxNdfTrade;
@@ -49,7 +53,12 @@ import com.opengamma.strata.product.fx.ResolvedFxNdfTrade;
  * The "natural" currency is the settlement currency of the trade.
  */
 public class FxNdfTradeCalculationFunction
-    implements CalculationFunction<FxNdfTrade> {
+    implements CalculationFunction<FxNdfTrade>, Serializable {
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
 
   /**
    * The calculations by measure.
@@ -57,17 +66,28 @@ public class FxNdfTradeCalculationFunction
   private static final ImmutableMap<Measure, SingleMeasureCalculation> CALCULATORS =
       ImmutableMap.<Measure, SingleMeasureCalculation>builder()
           .put(Measures.PRESENT_VALUE, FxNdfMeasureCalculations.DEFAULT::presentValue)
-          .put(Measures.PV01_CALIBRATED_SUM, FxNdfMeasureCalculations.DEFAULT::pv01CalibratedSum)
-          .put(Measures.PV01_CALIBRATED_BUCKETED, FxNdfMeasureCalculations.DEFAULT::pv01CalibratedBucketed)
-          .put(Measures.PV01_MARKET_QUOTE_SUM, FxNdfMeasureCalculations.DEFAULT::pv01MarketQuoteSum)
-          .put(Measures.PV01_MARKET_QUOTE_BUCKETED, FxNdfMeasureCalculations.DEFAULT::pv01MarketQuoteBucketed)
           .put(Measures.CURRENCY_EXPOSURE, FxNdfMeasureCalculations.DEFAULT::currencyExposure)
           .put(Measures.CURRENT_CASH, FxNdfMeasureCalculations.DEFAULT::currentCash)
           .put(Measures.FORWARD_FX_RATE, FxNdfMeasureCalculations.DEFAULT::forwardFxRate)
           .put(Measures.RESOLVED_TARGET, (rt, smd) -> rt)
           .build();
 
-  private static final ImmutableSet<Measure> MEASURES = CALCULATORS.keySet();
+  /**
+   * The calculations by measure that are derived from the sensitivities of the trade.
+   */
+  private static final SensitivityMeasureCalculations<RatesProvider> SENSITIVITY_CALCULATORS =
+      SensitivityMeasureCalculations.<RatesProvider>builder()
+          .put(Measures.PV01_CALIBRATED_SUM, FxNdfMeasureCalculations.DEFAULT::pv01CalibratedSum)
+          .put(Measures.PV01_CALIBRATED_BUCKETED, FxNdfMeasureCalculations.DEFAULT::pv01CalibratedBucketed)
+          .putMarketQuote(Measures.PV01_MARKET_QUOTE_SUM, FxNdfMeasureCalculations.DEFAULT::pv01MarketQuoteSum)
+          .putMarketQuote(
+              Measures.PV01_MARKET_QUOTE_BUCKETED, FxNdfMeasureCalculations.DEFAULT::pv01MarketQuoteBucketed)
+          .build();
+
+  private static final ImmutableSet<Measure> MEASURES = ImmutableSet.<Measure>builder()
+      .addAll(CALCULATORS.keySet())
+      .addAll(SENSITIVITY_CALCULATORS.getMeasures())
+      .build();
 
   /**
    * Creates an instance.
@@ -131,10 +151,14 @@ public class FxNdfTradeCalculationFunction
     RatesMarketDataLookup ratesLookup = parameters.getParameter(RatesMarketDataLookup.class);
     RatesScenarioMarketData marketData = ratesLookup.marketDataView(scenarioMarketData);
 
+    // share the sensitivities of the trade between the measures that need them
+    ScenarioSensitivityCache<RatesProvider> sensitivities =
+        FxNdfMeasureCalculations.DEFAULT.sensitivityCache(resolved, marketData);
+
     // loop around measures, calculating all scenarios for one measure
     Map<Measure, Result<?>> results = new HashMap<>();
     for (Measure measure : measures) {
-      results.put(measure, calculate(measure, resolved, marketData));
+      results.put(measure, calculate(measure, resolved, marketData, sensitivities));
     }
     return results;
   }
@@ -143,8 +167,12 @@ public class FxNdfTradeCalculationFunction
   private Result<?> calculate(
       Measure measure,
       ResolvedFxNdfTrade trade,
-      RatesScenarioMarketData marketData) {
+      RatesScenarioMarketData marketData,
+      ScenarioSensitivityCache<RatesProvider> sensitivities) {
 
+    if (SENSITIVITY_CALCULATORS.getMeasures().contains(measure)) {
+      return SENSITIVITY_CALCULATORS.calculate(measure, sensitivities);
+    }
     SingleMeasureCalculation calculator = CALCULATORS.get(measure);
     if (calculator == null) {
       return Result.failure(FailureReason.UNSUPPORTED, "Unsupported measure for FxNdfTrade: {}", measure);
@@ -5,6 +5,7 @@
  */
 package com.opengamma.strata.measure.fx;
 
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -23,8 +24,11 @@ import com.opengamma.strata.collect.result.FailureReason;
 import com.opengamma.strata.collect.result.Result;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
 import com.opengamma.strata.measure.Measures;
+import com.opengamma.strata.measure.ScenarioSensitivityCache;
+import com.opengamma.strata.measure.SensitivityMeasureCalculations;
 import com.opengamma.strata.measure.rate.RatesMarketDataLookup;
 import com.opengamma.strata.measure.rate.RatesScenarioMarketData;
+import com.opengamma.strata.pricer.rate.RatesProvider;
 import com.opengamma.strata.product.fx.FxSingle;
 import com.opengamma.strata.product.fx.FxSingleTrade;
 import com.opengamma.strata.product.fx.ResolvedFxSingleTrade;
@@ -51,7 +55,12 @@ import com.opengamma.strata.product.fx.ResolvedFxSingleTrade;
  * The "natural" currency is the base currency of the market convention pair of the two trade currencies.
  */
 public class FxSingleTradeCalculationFunction
-    implements CalculationFunction<FxSingleTrade> {
+    implements CalculationFunction<FxSingleTrade>, Serializable {
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
 
   /**
    * The calculations by measure.
@@ -59,10 +68,6 @@ public class FxSingleTradeCalculationFunction
   private static final ImmutableMap<Measure, SingleMeasureCalculation> CALCULATORS =
       ImmutableMap.<Measure, SingleMeasureCalculation>builder()
           .put(Measures.PRESENT_VALUE, FxSingleMeasureCalculations.DEFAULT::presentValue)
-          .put(Measures.PV01_CALIBRATED_SUM, FxSingleMeasureCalculations.DEFAULT::pv01CalibratedSum)
-          .put(Measures.PV01_CALIBRATED_BUCKETED, FxSingleMeasureCalculations.DEFAULT::pv01CalibratedBucketed)
-          .put(Measures.PV01_MARKET_QUOTE_SUM, FxSingleMeasureCalculations.DEFAULT::pv01MarketQuoteSum)
-          .put(Measures.PV01_MARKET_QUOTE_BUCKETED, FxSingleMeasureCalculations.DEFAULT::pv01MarketQuoteBucketed)
           .put(Measures.PAR_SPREAD, FxSingleMeasureCalculations.DEFAULT::parSpread)
           .put(Measures.CURRENCY_EXPOSURE, FxSingleMeasureCalculations.DEFAULT::currencyExposure)
           .put(Measures.CURRENT_CASH, FxSingleMeasureCalculations.DEFAULT::currentCash)
@@ -70,7 +75,22 @@ public class FxSingleTradeCalculationFunction
           .put(Measures.RESOLVED_TARGET, (rt, smd) -> rt)
           .build();
 
-  private static final ImmutableSet<Measure> MEASURES = CALCULATORS.keySet();
+  /**
+   * The calculations by measure that are derived from the sensitivities of the trade.
+   */
+  private static final SensitivityMeasureCalculations<RatesProvider> SENSITIVITY_CALCULATORS =
+      SensitivityMeasureCalculations.<RatesProvider>builder()
+          .put(Measures.PV01_CALIBRATED_SUM, FxSingleMeasureCalculations.DEFAULT::pv01CalibratedSum)
+          .put(Measures.PV01_CALIBRATED_BUCKETED, FxSingleMeasureCalculations.DEFAULT::pv01CalibratedBucketed)
+          .putMarketQuote(Measures.PV01_MARKET_QUOTE_SUM, FxSingleMeasureCalculations.DEFAULT::pv01MarketQuoteSum)
+          .putMarketQuote(
+              Measures.PV01_MARKET_QUOTE_BUCKETED, FxSingleMeasureCalculations.DEFAULT::pv01MarketQuoteBucketed)
+          .build();
+
+  private static final ImmutableSet<Measure> MEASURES = ImmutableSet.<Measure>builder()
+      .addAll(CALCULATORS.keySet())
+      .addAll(SENSITIVITY_CALCULATORS.getMeasures())
+      .build();
 
   /**
    * Creates an instance.
@@ -137,10 +157,14 @@ public class FxSingleTradeCalculationFunction
     RatesMarketDataLookup ratesLookup = parameters.getParameter(RatesMarketDataLookup.class);
     RatesScenarioMarketData marketData = ratesLookup.marketDataView(scenarioMarketData);
 
+    // share the sensitivities of the trade between the measures that need them
+    ScenarioSensitivityCache<RatesProvider> sensitivities =
+        FxSingleMeasureCalculations.DEFAULT.sensitivityCache(resolved, marketData);
+
     // loop around measures, calculating all scenarios for one measure
     Map<Measure, Result<?>> results = new HashMap<>();
     for (Measure measure : measures) {
-      results.put(measure, calculate(measure, resolved, marketData));
+      results.put(measure, calculate(measure, resolved, marketData, sensitivities));
     }
     return results;
   }
@@ -149,8 +173,12 @@ public class FxSingleTradeCalculationFunction
   private Result<?> calculate(
       Measure measure,
       ResolvedFxSingleTrade trade,
-      RatesScenarioMarketData marketData) {
+      RatesScenarioMarketData marketData,
+      ScenarioSensitivityCache<RatesProvider> sensitivities) {
 
+    if (SENSITIVITY_CALCULATORS.getMeasures().contains(measure)) {
+      return SENSITIVITY_CALCULATORS.calculate(measure, sensitivities);
+    }
     SingleMeasureCalculation calculator = CALCULATORS.get(measure);
     if (calculator == null) {
       return Result.failure(FailureReason.UNSUPPORTED, "Unsupported measure for FxSingleTrade: {}", measure);
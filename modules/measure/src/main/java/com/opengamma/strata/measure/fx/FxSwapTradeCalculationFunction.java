@@ -5,6 +5,7 @@
  */
 package com.opengamma.strata.measure.fx;
 
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -23,8 +24,11 @@ import com.opengamma.strata.collect.result.FailureReason;
 import com.opengamma.strata.collect.result.Result;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
 import com.opengamma.strata.measure.Measures;
+import com.opengamma.strata.measure.ScenarioSensitivityCache;
+import com.opengamma.strata.measure.SensitivityMeasureCalculations;
 import com.opengamma.strata.measure.rate.RatesMarketDataLookup;
 import com.opengamma.strata.measure.rate.RatesScenarioMarketData;
+import com.opengamma.strata.pricer.rate.RatesProvider;
 import com.opengamma.strata.product.fx.FxSwap;
 import com.opengamma.strata.product.fx.FxSwapTrade;
 import com.opengamma.strata.product.fx.ResolvedFxSwapTrade;
@@ -51,7 +55,12 @@ import com.opengamma.strata.product.fx.ResolvedFxSwapTrade;
  * The "natural" currency is the base currency of the market convention pair of the near leg currencies.
  */
 public class FxSwapTradeCalculationFunction
-    implements CalculationFunction<FxSwapTrade> {
+    implements CalculationFunction<FxSwapTrade>, Serializable {
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
 
   /**
    * The calculations by measure.
@@ -59,17 +68,28 @@ public class FxSwapTradeCalculationFunction
   private static final ImmutableMap<Measure, SingleMeasureCalculation> CALCULATORS =
       ImmutableMap.<Measure, SingleMeasureCalculation>builder()
           .put(Measures.PRESENT_VALUE, FxSwapMeasureCalculations.DEFAULT::presentValue)
-          .put(Measures.PV01_CALIBRATED_SUM, FxSwapMeasureCalculations.DEFAULT::pv01CalibratedSum)
-          .put(Measures.PV01_CALIBRATED_BUCKETED, FxSwapMeasureCalculations.DEFAULT::pv01CalibratedBucketed)
-          .put(Measures.PV01_MARKET_QUOTE_SUM, FxSwapMeasureCalculations.DEFAULT::pv01MarketQuoteSum)
-          .put(Measures.PV01_MARKET_QUOTE_BUCKETED, FxSwapMeasureCalculations.DEFAULT::pv01MarketQuoteBucketed)
           .put(Measures.PAR_SPREAD, FxSwapMeasureCalculations.DEFAULT::parSpread)
           .put(Measures.CURRENCY_EXPOSURE, FxSwapMeasureCalculations.DEFAULT::currencyExposure)
           .put(Measures.CURRENT_CASH, FxSwapMeasureCalculations.DEFAULT::currentCash)
           .put(Measures.RESOLVED_TARGET, (rt, smd) -> rt)
           .build();
 
-  private static final ImmutableSet<Measure> MEASURES = CALCULATORS.keySet();
+  /**
+   * The calculations by measure that are derived from the sensitivities of the trade.
+   */
+  private static final SensitivityMeasureCalculations<RatesProvider> SENSITIVITY_CALCULATORS =
+      SensitivityMeasureCalculations.<RatesProvider>builder()
+          .put(Measures.PV01_CALIBRATED_SUM, FxSwapMeasureCalculations.DEFAULT::pv01CalibratedSum)
+          .put(Measures.PV01_CALIBRATED_BUCKETED, FxSwapMeasureCalculations.DEFAULT::pv01CalibratedBucketed)
+          .putMarketQuote(Measures.PV01_MARKET_QUOTE_SUM, FxSwapMeasureCalculations.DEFAULT::pv01MarketQuoteSum)
+          .putMarketQuote(
+              Measures.PV01_MARKET_QUOTE_BUCKETED, FxSwapMeasureCalculations.DEFAULT::pv01MarketQuoteBucketed)
+          .build();
+
+  private static final ImmutableSet<Measure> MEASURES = ImmutableSet.<Measure>builder()
+      .addAll(CALCULATORS.keySet())
+      .addAll(SENSITIVITY_CALCULATORS.getMeasures())
+      .build();
 
   /**
    * Creates an instance.
@@ -136,10 +156,14 @@ public class FxSwapTradeCalculationFunction
     RatesMarketDataLookup ratesLookup = parameters.getParameter(RatesMarketDataLookup.class);
     RatesScenarioMarketData marketData = ratesLookup.marketDataView(scenarioMarketData);
 
+    // share the sensitivities of the trade between the measures that need them
+    ScenarioSensitivityCache<RatesProvider> sensitivities =
+        FxSwapMeasureCalculations.DEFAULT.sensitivityCache(resolved, marketData);
+
     // loop around measures, calculating all scenarios for one measure
     Map<Measure, Result<?>> results = new HashMap<>();
     for (Measure measure : measures) {
-      results.put(measure, calculate(measure, resolved, marketData));
+      results.put(measure, calculate(measure, resolved, marketData, sensitivities));
     }
     return results;
   }
@@ -148,8 +172,12 @@ public class FxSwapTradeCalculationFunction
   private Result<?> calculate(
       Measure measure,
       ResolvedFxSwapTrade trade,
-      RatesScenarioMarketData marketData) {
+      RatesScenarioMarketData marketData,
+      ScenarioSensitivityCache<RatesProvider> sensitivities) {
 
+    if (SENSITIVITY_CALCULATORS.getMeasures().contains(measure)) {
+      return SENSITIVITY_CALCULATORS.calculate(measure, sensitivities);
+    }
     SingleMeasureCalculation calculator = CALCULATORS.get(measure);
     if (calculator == null) {
       return Result.failure(FailureReason.UNSUPPORTED, "Unsupported measure for FxSwapTrade: {}", measure);
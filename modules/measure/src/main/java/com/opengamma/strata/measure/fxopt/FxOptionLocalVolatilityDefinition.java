@@ -0,0 +1,522 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure.fxopt;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.joda.beans.Bean;
+import org.joda.beans.BeanBuilder;
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.MetaProperty;
+import org.joda.beans.gen.BeanDefinition;
+import org.joda.beans.gen.ImmutableValidator;
+import org.joda.beans.gen.PropertyDefinition;
+import org.joda.beans.impl.direct.DirectMetaBean;
+import org.joda.beans.impl.direct.DirectMetaProperty;
+import org.joda.beans.impl.direct.DirectMetaPropertyMap;
+import org.joda.beans.impl.direct.DirectPrivateBeanBuilder;
+
+import com.opengamma.strata.basics.currency.CurrencyPair;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.market.curve.CurveId;
+import com.opengamma.strata.pricer.fxopt.FxOptionVolatilitiesName;
+
+/**
+ * The definition of the local volatility surface implied by FX option volatilities.
+ * <p>
+ * This defines the market data used to calibrate the local volatility surface to the FX option volatilities
+ * of the same name, and the parameters of the implied trinomial tree used in the calibration.
+ * <p>
+ * The definition is stored in {@code MarketDataConfig} under the name of the FX option volatilities.
+ */
+@BeanDefinition(builderScope = "private")
+public final class FxOptionLocalVolatilityDefinition
+    implements ImmutableBean, Serializable {
+
+  /**
+   * The name of the FX option volatilities.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final FxOptionVolatilitiesName name;
+  /**
+   * The currency pair of the FX option volatilities.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final CurrencyPair currencyPair;
+  /**
+   * The identifier of the discount curve of the base currency.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final CurveId baseCurveId;
+  /**
+   * The identifier of the discount curve of the counter currency.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final CurveId counterCurveId;
+  /**
+   * The number of time steps of the implied trinomial tree.
+   * <p>
+   * This must be greater than 1.
+   */
+  @PropertyDefinition
+  private final int numberOfSteps;
+  /**
+   * The maximum time covered by the local volatility surface.
+   * <p>
+   * This should be at least the longest time to expiry of the options priced with the surface.
+   */
+  @PropertyDefinition(validate = "ArgChecker.notNegativeOrZero")
+  private final double maxTime;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance.
+   * 
+   * @param name  the name of the FX option volatilities
+   * @param currencyPair  the currency pair
+   * @param baseCurveId  the identifier of the discount curve of the base currency
+   * @param counterCurveId  the identifier of the discount curve of the counter currency
+   * @param numberOfSteps  the number of time steps of the implied trinomial tree
+   * @param maxTime  the maximum time covered by the local volatility surface
+   * @return the instance
+   */
+  public static FxOptionLocalVolatilityDefinition of(
+      FxOptionVolatilitiesName name,
+      CurrencyPair currencyPair,
+      CurveId baseCurveId,
+      CurveId counterCurveId,
+      int numberOfSteps,
+      double maxTime) {
+
+    return new FxOptionLocalVolatilityDefinition(
+        name, currencyPair, baseCurveId, counterCurveId, numberOfSteps, maxTime);
+  }
+
+  @ImmutableValidator
+  private void validate() {
+    ArgChecker.isTrue(numberOfSteps > 1, "the number of steps should be greater than 1");
+    ArgChecker.isFalse(currencyPair.isIdentity(), "currency pair must contain two different currencies");
+  }
+
+  //------------------------- AUTOGENERATED START -------------------------
+  /**
+   * The meta-bean for {@code FxOptionLocalVolatilityDefinition}.
+   * @return the meta-bean, not null
+   */
+  public static FxOptionLocalVolatilityDefinition.Meta meta() {
+    return FxOptionLocalVolatilityDefinition.Meta.INSTANCE;
+  }
+
+  static {
+    MetaBean.register(FxOptionLocalVolatilityDefinition.Meta.INSTANCE);
+  }
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
+
+  private FxOptionLocalVolatilityDefinition(
+      FxOptionVolatilitiesName name,
+      CurrencyPair currencyPair,
+      CurveId baseCurveId,
+      CurveId counterCurveId,
+      int numberOfSteps,
+      double maxTime) {
+    JodaBeanUtils.notNull(name, "name");
+    JodaBeanUtils.notNull(currencyPair, "currencyPair");
+    JodaBeanUtils.notNull(baseCurveId, "baseCurveId");
+    JodaBeanUtils.notNull(counterCurveId, "counterCurveId");
+    ArgChecker.notNegativeOrZero(maxTime, "maxTime");
+    this.name = name;
+    this.currencyPair = currencyPair;
+    this.baseCurveId = baseCurveId;
+    this.counterCurveId = counterCurveId;
+    this.numberOfSteps = numberOfSteps;
+    this.maxTime = maxTime;
+    validate();
+  }
+
+  @Override
+  public FxOptionLocalVolatilityDefinition.Meta metaBean() {
+    return FxOptionLocalVolatilityDefinition.Meta.INSTANCE;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the name of the FX option volatilities.
+   * @return the value of the property, not null
+   */
+  public FxOptionVolatilitiesName getName() {
+    return name;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the currency pair of the FX option volatilities.
+   * @return the value of the property, not null
+   */
+  public CurrencyPair getCurrencyPair() {
+    return currencyPair;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the identifier of the discount curve of the base currency.
+   * @return the value of the property, not null
+   */
+  public CurveId getBaseCurveId() {
+    return baseCurveId;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the identifier of the discount curve of the counter currency.
+   * @return the value of the property, not null
+   */
+  public CurveId getCounterCurveId() {
+    return counterCurveId;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the number of time steps of the implied trinomial tree.
+   * <p>
+   * This must be greater than 1.
+   * @return the value of the property
+   */
+  public int getNumberOfSteps() {
+    return numberOfSteps;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the maximum time covered by the local volatility surface.
+   * <p>
+   * This should be at least the longest time to expiry of the options priced with the surface.
+   * @return the value of the property
+   */
+  public double getMaxTime() {
+    return maxTime;
+  }
+
+  //-----------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj != null && obj.getClass() == this.getClass()) {
+      FxOptionLocalVolatilityDefinition other = (FxOptionLocalVolatilityDefinition) obj;
+      return JodaBeanUtils.equal(name, other.name) &&
+          JodaBeanUtils.equal(currencyPair, other.currencyPair) &&
+          JodaBeanUtils.equal(baseCurveId, other.baseCurveId) &&
+          JodaBeanUtils.equal(counterCurveId, other.counterCurveId) &&
+          (numberOfSteps == other.numberOfSteps) &&
+          JodaBeanUtils.equal(maxTime, other.maxTime);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = getClass().hashCode();
+    hash = hash * 31 + JodaBeanUtils.hashCode(name);
+    hash = hash * 31 + JodaBeanUtils.hashCode(currencyPair);
+    hash = hash * 31 + JodaBeanUtils.hashCode(baseCurveId);
+    hash = hash * 31 + JodaBeanUtils.hashCode(counterCurveId);
+    hash = hash * 31 + JodaBeanUtils.hashCode(numberOfSteps);
+    hash = hash * 31 + JodaBeanUtils.hashCode(maxTime);
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder buf = new StringBuilder(224);
+    buf.append("FxOptionLocalVolatilityDefinition{");
+    buf.append("name").append('=').append(name).append(',').append(' ');
+    buf.append("currencyPair").append('=').append(currencyPair).append(',').append(' ');
+    buf.append("baseCurveId").append('=').append(baseCurveId).append(',').append(' ');
+    buf.append("counterCurveId").append('=').append(counterCurveId).append(',').append(' ');
+    buf.append("numberOfSteps").append('=').append(numberOfSteps).append(',').append(' ');
+    buf.append("maxTime").append('=').append(JodaBeanUtils.toString(maxTime));
+    buf.append('}');
+    return buf.toString();
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * The meta-bean for {@code FxOptionLocalVolatilityDefinition}.
+   */
+  public static final class Meta extends DirectMetaBean {
+    /**
+     * The singleton instance of the meta-bean.
+     */
+    static final Meta INSTANCE = new Meta();
+
+    /**
+     * The meta-property for the {@code name} property.
+     */
+    private final MetaProperty<FxOptionVolatilitiesName> name = DirectMetaProperty.ofImmutable(
+        this, "name", FxOptionLocalVolatilityDefinition.class, FxOptionVolatilitiesName.class);
+    /**
+     * The meta-property for the {@code currencyPair} property.
+     */
+    private final MetaProperty<CurrencyPair> currencyPair = DirectMetaProperty.ofImmutable(
+        this, "currencyPair", FxOptionLocalVolatilityDefinition.class, CurrencyPair.class);
+    /**
+     * The meta-property for the {@code baseCurveId} property.
+     */
+    private final MetaProperty<CurveId> baseCurveId = DirectMetaProperty.ofImmutable(
+        this, "baseCurveId", FxOptionLocalVolatilityDefinition.class, CurveId.class);
+    /**
+     * The meta-property for the {@code counterCurveId} property.
+     */
+    private final MetaProperty<CurveId> counterCurveId = DirectMetaProperty.ofImmutable(
+        this, "counterCurveId", FxOptionLocalVolatilityDefinition.class, CurveId.class);
+    /**
+     * The meta-property for the {@code numberOfSteps} property.
+     */
+    private final MetaProperty<Integer> numberOfSteps = DirectMetaProperty.ofImmutable(
+        this, "numberOfSteps", FxOptionLocalVolatilityDefinition.class, Integer.TYPE);
+    /**
+     * The meta-property for the {@code maxTime} property.
+     */
+    private final MetaProperty<Double> maxTime = DirectMetaProperty.ofImmutable(
+        this, "maxTime", FxOptionLocalVolatilityDefinition.class, Double.TYPE);
+    /**
+     * The meta-properties.
+     */
+    private final Map<String, MetaProperty<?>> metaPropertyMap$ = new DirectMetaPropertyMap(
+        this, null,
+        "name",
+        "currencyPair",
+        "baseCurveId",
+        "counterCurveId",
+        "numberOfSteps",
+        "maxTime");
+
+    /**
+     * Restricted constructor.
+     */
+    private Meta() {
+    }
+
+    @Override
+    protected MetaProperty<?> metaPropertyGet(String propertyName) {
+      switch (propertyName.hashCode()) {
+        case 3373707:  // name
+          return name;
+        case 1005147787:  // currencyPair
+          return currencyPair;
+        case -866451879:  // baseCurveId
+          return baseCurveId;
+        case 1526552782:  // counterCurveId
+          return counterCurveId;
+        case -1323103225:  // numberOfSteps
+          return numberOfSteps;
+        case 844110417:  // maxTime
+          return maxTime;
+      }
+      return super.metaPropertyGet(propertyName);
+    }
+
+    @Override
+    public BeanBuilder<? extends FxOptionLocalVolatilityDefinition> builder() {
+      return new FxOptionLocalVolatilityDefinition.Builder();
+    }
+
+    @Override
+    public Class<? extends FxOptionLocalVolatilityDefinition> beanType() {
+      return FxOptionLocalVolatilityDefinition.class;
+    }
+
+    @Override
+    public Map<String, MetaProperty<?>> metaPropertyMap() {
+      return metaPropertyMap$;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * The meta-property for the {@code name} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<FxOptionVolatilitiesName> name() {
+      return name;
+    }
+
+    /**
+     * The meta-property for the {@code currencyPair} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<CurrencyPair> currencyPair() {
+      return currencyPair;
+    }
+
+    /**
+     * The meta-property for the {@code baseCurveId} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<CurveId> baseCurveId() {
+      return baseCurveId;
+    }
+
+    /**
+     * The meta-property for the {@code counterCurveId} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<CurveId> counterCurveId() {
+      return counterCurveId;
+    }
+
+    /**
+     * The meta-property for the {@code numberOfSteps} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<Integer> numberOfSteps() {
+      return numberOfSteps;
+    }
+
+    /**
+     * The meta-property for the {@code maxTime} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<Double> maxTime() {
+      return maxTime;
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    protected Object propertyGet(Bean bean, String propertyName, boolean quiet) {
+      switch (propertyName.hashCode()) {
+        case 3373707:  // name
+          return ((FxOptionLocalVolatilityDefinition) bean).getName();
+        case 1005147787:  // currencyPair
+          return ((FxOptionLocalVolatilityDefinition) bean).getCurrencyPair();
+        case -866451879:  // baseCurveId
+          return ((FxOptionLocalVolatilityDefinition) bean).getBaseCurveId();
+        case 1526552782:  // counterCurveId
+          return ((FxOptionLocalVolatilityDefinition) bean).getCounterCurveId();
+        case -1323103225:  // numberOfSteps
+          return ((FxOptionLocalVolatilityDefinition) bean).getNumberOfSteps();
+        case 844110417:  // maxTime
+          return ((FxOptionLocalVolatilityDefinition) bean).getMaxTime();
+      }
+      return super.propertyGet(bean, propertyName, quiet);
+    }
+
+    @Override
+    protected void propertySet(Bean bean, String propertyName, Object newValue, boolean quiet) {
+      metaProperty(propertyName);
+      if (quiet) {
+        return;
+      }
+      throw new UnsupportedOperationException("Property cannot be written: " + propertyName);
+    }
+
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * The bean-builder for {@code FxOptionLocalVolatilityDefinition}.
+   */
+  private static final class Builder extends DirectPrivateBeanBuilder<FxOptionLocalVolatilityDefinition> {
+
+    private FxOptionVolatilitiesName name;
+    private CurrencyPair currencyPair;
+    private CurveId baseCurveId;
+    private CurveId counterCurveId;
+    private int numberOfSteps;
+    private double maxTime;
+
+    /**
+     * Restricted constructor.
+     */
+    private Builder() {
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public Object get(String propertyName) {
+      switch (propertyName.hashCode()) {
+        case 3373707:  // name
+          return name;
+        case 1005147787:  // currencyPair
+          return currencyPair;
+        case -866451879:  // baseCurveId
+          return baseCurveId;
+        case 1526552782:  // counterCurveId
+          return counterCurveId;
+        case -1323103225:  // numberOfSteps
+          return numberOfSteps;
+        case 844110417:  // maxTime
+          return maxTime;
+        default:
+          throw new NoSuchElementException("Unknown property: " + propertyName);
+      }
+    }
+
+    @Override
+    public Builder set(String propertyName, Object newValue) {
+      switch (propertyName.hashCode()) {
+        case 3373707:  // name
+          this.name = (FxOptionVolatilitiesName) newValue;
+          break;
+        case 1005147787:  // currencyPair
+          this.currencyPair = (CurrencyPair) newValue;
+          break;
+        case -866451879:  // baseCurveId
+          this.baseCurveId = (CurveId) newValue;
+          break;
+        case 1526552782:  // counterCurveId
+          this.counterCurveId = (CurveId) newValue;
+          break;
+        case -1323103225:  // numberOfSteps
+          this.numberOfSteps = (Integer) newValue;
+          break;
+        case 844110417:  // maxTime
+          this.maxTime = (Double) newValue;
+          break;
+        default:
+          throw new NoSuchElementException("Unknown property: " + propertyName);
+      }
+      return this;
+    }
+
+    @Override
+    public FxOptionLocalVolatilityDefinition build() {
+      return new FxOptionLocalVolatilityDefinition(
+          name,
+          currencyPair,
+          baseCurveId,
+          counterCurveId,
+          numberOfSteps,
+          maxTime);
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public String toString() {
+      StringBuilder buf = new StringBuilder(224);
+      buf.append("FxOptionLocalVolatilityDefinition.Builder{");
+      buf.append("name").append('=').append(JodaBeanUtils.toString(name)).append(',').append(' ');
+      buf.append("currencyPair").append('=').append(JodaBeanUtils.toString(currencyPair)).append(',').append(' ');
+      buf.append("baseCurveId").append('=').append(JodaBeanUtils.toString(baseCurveId)).append(',').append(' ');
+      buf.append("counterCurveId").append('=').append(JodaBeanUtils.toString(counterCurveId)).append(',').append(' ');
+      buf.append("numberOfSteps").append('=').append(JodaBeanUtils.toString(numberOfSteps)).append(',').append(' ');
+      buf.append("maxTime").append('=').append(JodaBeanUtils.toString(maxTime));
+      buf.append('}');
+      return buf.toString();
+    }
+
+  }
+
+  //-------------------------- AUTOGENERATED END --------------------------
+}
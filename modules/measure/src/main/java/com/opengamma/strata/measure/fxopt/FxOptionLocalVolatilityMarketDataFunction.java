@@ -0,0 +1,112 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure.fxopt;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.time.LocalDate;
+import java.util.stream.IntStream;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.currency.CurrencyPair;
+import com.opengamma.strata.basics.currency.FxMatrix;
+import com.opengamma.strata.basics.currency.FxRate;
+import com.opengamma.strata.calc.marketdata.MarketDataConfig;
+import com.opengamma.strata.calc.marketdata.MarketDataFunction;
+import com.opengamma.strata.calc.marketdata.MarketDataRequirements;
+import com.opengamma.strata.data.FxRateId;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+import com.opengamma.strata.data.scenario.ScenarioMarketData;
+import com.opengamma.strata.market.curve.Curve;
+import com.opengamma.strata.market.surface.InterpolatedNodalSurface;
+import com.opengamma.strata.pricer.fxopt.BlackFxOptionVolatilities;
+import com.opengamma.strata.pricer.fxopt.FxOptionLocalVolatilityId;
+import com.opengamma.strata.pricer.fxopt.FxOptionVolatilities;
+import com.opengamma.strata.pricer.fxopt.ImpliedTrinomialTreeFxOptionCalibrator;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
+import com.opengamma.strata.pricer.rate.RatesProvider;
+
+/**
+ * Market data function that builds the local volatility surface implied by FX option volatilities.
+ * <p>
+ * This function creates local volatility surfaces, turning {@code FxOptionLocalVolatilityId}
+ * into {@code InterpolatedNodalSurface}.
+ * <p>
+ * The local volatility is calibrated by an implied trinomial tree to the Black volatilities,
+ * using the FX rate and discount curves specified by {@link FxOptionLocalVolatilityDefinition}.
+ * The calibration is performed once for each scenario, and the resulting surfaces are then shared by all
+ * the calculations of the run requiring them.
+ */
+public class FxOptionLocalVolatilityMarketDataFunction
+    implements MarketDataFunction<InterpolatedNodalSurface, FxOptionLocalVolatilityId> {
+
+  @Override
+  public MarketDataRequirements requirements(FxOptionLocalVolatilityId id, MarketDataConfig marketDataConfig) {
+    FxOptionLocalVolatilityDefinition definition =
+        marketDataConfig.get(FxOptionLocalVolatilityDefinition.class, id.getName().getName());
+    return MarketDataRequirements.builder()
+        .addValues(
+            id.getVolatilitiesId(),
+            FxRateId.of(definition.getCurrencyPair()),
+            definition.getBaseCurveId(),
+            definition.getCounterCurveId())
+        .build();
+  }
+
+  @Override
+  public MarketDataBox<InterpolatedNodalSurface> build(
+      FxOptionLocalVolatilityId id,
+      MarketDataConfig marketDataConfig,
+      ScenarioMarketData marketData,
+      ReferenceData refData) {
+
+    FxOptionLocalVolatilityDefinition definition =
+        marketDataConfig.get(FxOptionLocalVolatilityDefinition.class, id.getName().getName());
+    CurrencyPair currencyPair = definition.getCurrencyPair();
+    ImpliedTrinomialTreeFxOptionCalibrator calibrator =
+        new ImpliedTrinomialTreeFxOptionCalibrator(definition.getNumberOfSteps());
+    MarketDataBox<LocalDate> valuationDates = marketData.getValuationDate();
+    MarketDataBox<FxOptionVolatilities> volatilities = marketData.getValue(id.getVolatilitiesId());
+    MarketDataBox<FxRate> fxRates = marketData.getValue(FxRateId.of(currencyPair));
+    MarketDataBox<Curve> baseCurves = marketData.getValue(definition.getBaseCurveId());
+    MarketDataBox<Curve> counterCurves = marketData.getValue(definition.getCounterCurveId());
+
+    int nScenarios = marketData.getScenarioCount();
+    ImmutableList<InterpolatedNodalSurface> surfaces = IntStream.range(0, nScenarios)
+        .mapToObj(scenarioIndex -> {
+          RatesProvider ratesProvider = ImmutableRatesProvider.builder(valuationDates.getValue(scenarioIndex))
+              .fxRateProvider(FxMatrix.of(currencyPair, fxRates.getValue(scenarioIndex).fxRate(currencyPair)))
+              .discountCurve(currencyPair.getBase(), baseCurves.getValue(scenarioIndex))
+              .discountCurve(currencyPair.getCounter(), counterCurves.getValue(scenarioIndex))
+              .build();
+          return calibrator.calibrateLocalVolatility(
+              definition.getMaxTime(),
+              currencyPair,
+              ratesProvider,
+              blackVolatilities(volatilities.getValue(scenarioIndex)));
+        })
+        .collect(toImmutableList());
+
+    return nScenarios > 1 ? MarketDataBox.ofScenarioValues(surfaces) : MarketDataBox.ofSingleValue(surfaces.get(0));
+  }
+
+  // checks the volatilities are Black volatilities
+  private static BlackFxOptionVolatilities blackVolatilities(FxOptionVolatilities volatilities) {
+    if (volatilities instanceof BlackFxOptionVolatilities) {
+      return (BlackFxOptionVolatilities) volatilities;
+    }
+    throw new IllegalArgumentException(
+        "Local volatility calibration requires BlackFxOptionVolatilities, but was " +
+            volatilities.getClass().getSimpleName());
+  }
+
+  @Override
+  public Class<FxOptionLocalVolatilityId> getMarketDataIdType() {
+    return FxOptionLocalVolatilityId.class;
+  }
+
+}
@@ -5,8 +5,11 @@
  */
 package com.opengamma.strata.measure.fxopt;
 
+import static com.opengamma.strata.collect.Guavate.toImmutableSet;
+
 import java.time.LocalDate;
 
+import com.google.common.collect.ImmutableSet;
 import com.opengamma.strata.basics.currency.CurrencyAmount;
 import com.opengamma.strata.basics.currency.CurrencyPair;
 import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
@@ -17,9 +20,14 @@ import com.opengamma.strata.data.scenario.ScenarioArray;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
 import com.opengamma.strata.market.sensitivity.PointSensitivities;
 import com.opengamma.strata.measure.rate.RatesScenarioMarketData;
+import com.opengamma.strata.pricer.DiscountingPaymentPricer;
 import com.opengamma.strata.pricer.fxopt.BlackFxOptionVolatilities;
 import com.opengamma.strata.pricer.fxopt.BlackFxSingleBarrierOptionTradePricer;
+import com.opengamma.strata.pricer.fxopt.FxOptionLocalVolatilityId;
 import com.opengamma.strata.pricer.fxopt.FxOptionVolatilities;
+import com.opengamma.strata.pricer.fxopt.FxOptionVolatilitiesId;
+import com.opengamma.strata.pricer.fxopt.ImpliedTrinomialTreeFxOptionCalibrator;
+import com.opengamma.strata.pricer.fxopt.ImpliedTrinomialTreeFxSingleBarrierOptionProductPricer;
 import com.opengamma.strata.pricer.fxopt.ImpliedTrinomialTreeFxSingleBarrierOptionTradePricer;
 import com.opengamma.strata.pricer.rate.RatesProvider;
 import com.opengamma.strata.pricer.sensitivity.MarketQuoteSensitivityCalculator;
@@ -32,12 +40,30 @@ import com.opengamma.strata.product.fxopt.ResolvedFxSingleBarrierOptionTrade;
  */
 final class FxSingleBarrierOptionMeasureCalculations {
 
+  /**
+   * The number of time steps of the trinomial trees.
+   */
+  private static final int TREE_STEPS =
+      ImpliedTrinomialTreeFxSingleBarrierOptionProductPricer.DEFAULT.getCalibrator().getNumberOfSteps();
+  /**
+   * The maximum number of calibrated trinomial trees cached for each volatilities by the default implementation.
+   */
+  private static final int TREE_CACHE_SIZE = 200;
   /**
    * Default implementation.
+   * <p>
+   * The calibrated trinomial trees are cached, so that trades with the same currency pair and expiry
+   * are priced on a single tree calibrated to the market data of the scenario.
+   * The volatilities are weakly referenced by the cache, thus the trees are released with the market data.
+   * With {@link FxSingleBarrierOptionMethod#TRINOMIAL_TREE_LOCAL_VOLATILITY}, the trees are instead built
+   * on the local volatility surface identified by {@link FxOptionLocalVolatilityId}.
    */
   public static final FxSingleBarrierOptionMeasureCalculations DEFAULT = new FxSingleBarrierOptionMeasureCalculations(
       BlackFxSingleBarrierOptionTradePricer.DEFAULT,
-      ImpliedTrinomialTreeFxSingleBarrierOptionTradePricer.DEFAULT);
+      new ImpliedTrinomialTreeFxSingleBarrierOptionTradePricer(
+          new ImpliedTrinomialTreeFxSingleBarrierOptionProductPricer(
+              new ImpliedTrinomialTreeFxOptionCalibrator(TREE_STEPS, TREE_CACHE_SIZE)),
+          DiscountingPaymentPricer.DEFAULT));
   /**
    * The market quote sensitivity calculator.
    */
@@ -69,6 +95,39 @@ final class FxSingleBarrierOptionMeasureCalculations {
     this.trinomialTreePricer = ArgChecker.notNull(trinomialTreePricer, "trinomialTreePricer");
   }
 
+  //-------------------------------------------------------------------------
+  // the calculations for one scenario, with trees built on the local volatility surface if required by the method
+  private FxSingleBarrierOptionMeasureCalculations forScenario(
+      FxOptionMarketData optionMarketData,
+      CurrencyPair currencyPair,
+      FxSingleBarrierOptionMethod method) {
+
+    if (method != FxSingleBarrierOptionMethod.TRINOMIAL_TREE_LOCAL_VOLATILITY) {
+      return this;
+    }
+    FxOptionLocalVolatilityId id = localVolatilityIds(optionMarketData.getLookup(), currencyPair).stream()
+        .findFirst()
+        .orElseThrow(() -> new IllegalArgumentException(
+            "FX single barrier option local volatility pricing requires FxOptionVolatilitiesId"));
+    return new FxSingleBarrierOptionMeasureCalculations(
+        blackPricer,
+        new ImpliedTrinomialTreeFxSingleBarrierOptionTradePricer(
+            new ImpliedTrinomialTreeFxSingleBarrierOptionProductPricer(
+                new ImpliedTrinomialTreeFxOptionCalibrator(TREE_STEPS, optionMarketData.getMarketData().getValue(id))),
+            DiscountingPaymentPricer.DEFAULT));
+  }
+
+  // the identifiers of the local volatility surfaces implied by the volatilities of the currency pair
+  static ImmutableSet<FxOptionLocalVolatilityId> localVolatilityIds(
+      FxOptionMarketDataLookup lookup,
+      CurrencyPair currencyPair) {
+
+    return lookup.getVolatilityIds(currencyPair).stream()
+        .filter(FxOptionVolatilitiesId.class::isInstance)
+        .map(id -> FxOptionLocalVolatilityId.of(((FxOptionVolatilitiesId) id).getName()))
+        .collect(toImmutableSet());
+  }
+
   //-------------------------------------------------------------------------
   // calculates present value for all scenarios
   MultiCurrencyScenarioArray presentValue(
@@ -80,7 +139,7 @@ final class FxSingleBarrierOptionMeasureCalculations {
     CurrencyPair currencyPair = trade.getProduct().getCurrencyPair();
     return MultiCurrencyScenarioArray.of(
         ratesMarketData.getScenarioCount(),
-        i -> presentValue(
+        i -> forScenario(optionMarketData.scenario(i), currencyPair, method).presentValue(
             trade,
             ratesMarketData.scenario(i).ratesProvider(),
             optionMarketData.scenario(i).volatilities(currencyPair),
@@ -94,7 +153,7 @@ final class FxSingleBarrierOptionMeasureCalculations {
       FxOptionVolatilities volatilities,
       FxSingleBarrierOptionMethod method) {
 
-    if (method == FxSingleBarrierOptionMethod.TRINOMIAL_TREE) {
+    if (isTrinomialTree(method)) {
       return trinomialTreePricer.presentValue(trade, ratesProvider, checkTrinomialTreeVolatilities(volatilities));
     } else {
       return blackPricer.presentValue(trade, ratesProvider, checkBlackVolatilities(volatilities));
@@ -112,7 +171,7 @@ final class FxSingleBarrierOptionMeasureCalculations {
     CurrencyPair currencyPair = trade.getProduct().getCurrencyPair();
     return MultiCurrencyScenarioArray.of(
         ratesMarketData.getScenarioCount(),
-        i -> pv01RatesCalibratedSum(
+        i -> forScenario(optionMarketData.scenario(i), currencyPair, method).pv01RatesCalibratedSum(
             trade,
             ratesMarketData.scenario(i).ratesProvider(),
             optionMarketData.scenario(i).volatilities(currencyPair),
@@ -141,7 +200,7 @@ final class FxSingleBarrierOptionMeasureCalculations {
     CurrencyPair currencyPair = trade.getProduct().getCurrencyPair();
     return ScenarioArray.of(
         ratesMarketData.getScenarioCount(),
-        i -> pv01RatesCalibratedBucketed(
+        i -> forScenario(optionMarketData.scenario(i), currencyPair, method).pv01RatesCalibratedBucketed(
             trade,
             ratesMarketData.scenario(i).ratesProvider(),
             optionMarketData.scenario(i).volatilities(currencyPair),
@@ -170,7 +229,7 @@ final class FxSingleBarrierOptionMeasureCalculations {
     CurrencyPair currencyPair = trade.getProduct().getCurrencyPair();
     return MultiCurrencyScenarioArray.of(
         ratesMarketData.getScenarioCount(),
-        i -> pv01RatesMarketQuoteSum(
+        i -> forScenario(optionMarketData.scenario(i), currencyPair, method).pv01RatesMarketQuoteSum(
             trade,
             ratesMarketData.scenario(i).ratesProvider(),
             optionMarketData.scenario(i).volatilities(currencyPair),
@@ -199,7 +258,7 @@ final class FxSingleBarrierOptionMeasureCalculations {
     CurrencyPair currencyPair = trade.getProduct().getCurrencyPair();
     return ScenarioArray.of(
         ratesMarketData.getScenarioCount(),
-        i -> pv01RatesMarketQuoteBucketed(
+        i -> forScenario(optionMarketData.scenario(i), currencyPair, method).pv01RatesMarketQuoteBucketed(
             trade,
             ratesMarketData.scenario(i).ratesProvider(),
             optionMarketData.scenario(i).volatilities(currencyPair),
@@ -224,7 +283,7 @@ final class FxSingleBarrierOptionMeasureCalculations {
       FxOptionVolatilities volatilities,
       FxSingleBarrierOptionMethod method) {
 
-    if (method == FxSingleBarrierOptionMethod.TRINOMIAL_TREE) {
+    if (isTrinomialTree(method)) {
       return trinomialTreePricer.presentValueSensitivityRates(
           trade, ratesProvider, checkTrinomialTreeVolatilities(volatilities));
     } else {
@@ -245,7 +304,7 @@ final class FxSingleBarrierOptionMeasureCalculations {
     CurrencyPair currencyPair = trade.getProduct().getCurrencyPair();
     return MultiCurrencyScenarioArray.of(
         ratesMarketData.getScenarioCount(),
-        i -> currencyExposure(
+        i -> forScenario(optionMarketData.scenario(i), currencyPair, method).currencyExposure(
             trade,
             ratesMarketData.scenario(i).ratesProvider(),
             optionMarketData.scenario(i).volatilities(currencyPair),
@@ -259,7 +318,7 @@ final class FxSingleBarrierOptionMeasureCalculations {
       FxOptionVolatilities volatilities,
       FxSingleBarrierOptionMethod method) {
 
-    if (method == FxSingleBarrierOptionMethod.TRINOMIAL_TREE) {
+    if (isTrinomialTree(method)) {
       return trinomialTreePricer.currencyExposure(trade, ratesProvider, checkTrinomialTreeVolatilities(volatilities));
     } else {
       return blackPricer.currencyExposure(trade, ratesProvider, checkBlackVolatilities(volatilities));
@@ -288,7 +347,7 @@ final class FxSingleBarrierOptionMeasureCalculations {
       LocalDate valuationDate,
       FxSingleBarrierOptionMethod method) {
 
-    if (method == FxSingleBarrierOptionMethod.TRINOMIAL_TREE) {
+    if (isTrinomialTree(method)) {
       return trinomialTreePricer.currentCash(trade, valuationDate);
     } else {
       return blackPricer.currentCash(trade, valuationDate);
@@ -296,6 +355,12 @@ final class FxSingleBarrierOptionMeasureCalculations {
   }
 
   //-------------------------------------------------------------------------
+  // checks if the method prices on a trinomial tree
+  private static boolean isTrinomialTree(FxSingleBarrierOptionMethod method) {
+    return method == FxSingleBarrierOptionMethod.TRINOMIAL_TREE ||
+        method == FxSingleBarrierOptionMethod.TRINOMIAL_TREE_LOCAL_VOLATILITY;
+  }
+
   // ensures that the volatilities are correct
   private BlackFxOptionVolatilities checkBlackVolatilities(FxOptionVolatilities volatilities) {
     if (volatilities instanceof BlackFxOptionVolatilities) {
@@ -18,6 +18,7 @@ import com.opengamma.strata.collect.named.EnumNames;
 import com.opengamma.strata.collect.named.NamedEnum;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
 import com.opengamma.strata.pricer.fxopt.BlackFxOptionVolatilities;
+import com.opengamma.strata.pricer.fxopt.FxOptionLocalVolatilityId;
 import com.opengamma.strata.product.fxopt.FxSingleBarrierOptionTrade;
 
 /**
@@ -43,7 +44,16 @@ public enum FxSingleBarrierOptionMethod implements NamedEnum, CalculationParamet
    * The Trinomial-Tree model.
    * This uses Black volatilities based on a smile - {@link BlackFxOptionVolatilities}.
    */
-  TRINOMIAL_TREE;
+  TRINOMIAL_TREE,
+  /**
+   * The Trinomial-Tree model, with the trees built on a local volatility surface.
+   * This uses Black volatilities based on a smile - {@link BlackFxOptionVolatilities},
+   * and the local volatility surface identified by {@link FxOptionLocalVolatilityId}.
+   * <p>
+   * The surface is calibrated once and shared by all the trades on the currency pair,
+   * which is faster than calibrating a tree for each expiry, but less accurate.
+   */
+  TRINOMIAL_TREE_LOCAL_VOLATILITY;
 
   // helper for name conversions
   private static final EnumNames<FxSingleBarrierOptionMethod> NAMES = EnumNames.of(FxSingleBarrierOptionMethod.class);
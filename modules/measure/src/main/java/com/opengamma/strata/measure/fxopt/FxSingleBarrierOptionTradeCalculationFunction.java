@@ -5,6 +5,7 @@
  */
 package com.opengamma.strata.measure.fxopt;
 
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -39,6 +40,12 @@ import com.opengamma.strata.product.fxopt.ResolvedFxSingleBarrierOptionTrade;
  * By default, 'Black' will be used. To control the method, pass an instance of
  * {@link FxSingleBarrierOptionMethod} in the calculation parameters.
  * <p>
+ * With the 'TrinomialTree' method, the local volatility surface identified by {@code FxOptionLocalVolatilityId}
+ * is also requested. This surface is calibrated once for each scenario and shared by all the trades on
+ * the currency pair, the tree of each trade being built on it. If the surface cannot be built, typically because
+ * {@link FxOptionLocalVolatilityDefinition} is missing from the market data configuration, the tree of each
+ * trade is calibrated to the Black volatilities.
+ * <p>
  * The supported built-in measures are:
  * <ul>
  *   <li>{@linkplain Measures#PRESENT_VALUE Present value}
@@ -54,7 +61,12 @@ import com.opengamma.strata.product.fxopt.ResolvedFxSingleBarrierOptionTrade;
  * The "natural" currency is the market convention base currency of the underlying FX.
  */
 public class FxSingleBarrierOptionTradeCalculationFunction
-    implements CalculationFunction<FxSingleBarrierOptionTrade> {
+    implements CalculationFunction<FxSingleBarrierOptionTrade>, Serializable {
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
 
   /**
    * The calculations by measure.
@@ -119,7 +131,18 @@ public class FxSingleBarrierOptionTradeCalculationFunction
         ImmutableSet.of(currencyPair.getBase(), currencyPair.getCounter()));
     FxOptionMarketDataLookup optionLookup = parameters.getParameter(FxOptionMarketDataLookup.class);
     FunctionRequirements optionReqs = optionLookup.requirements(currencyPair);
-    return ratesReqs.combinedWith(optionReqs);
+    FunctionRequirements reqs = ratesReqs.combinedWith(optionReqs);
+
+    // the trinomial tree may be built on the local volatility surface shared by the trades on the currency pair
+    FxSingleBarrierOptionMethod method =
+        parameters.findParameter(FxSingleBarrierOptionMethod.class).orElse(FxSingleBarrierOptionMethod.BLACK);
+    if (method == FxSingleBarrierOptionMethod.TRINOMIAL_TREE_LOCAL_VOLATILITY) {
+      FunctionRequirements localVolReqs = FunctionRequirements.builder()
+          .valueRequirements(FxSingleBarrierOptionMeasureCalculations.localVolatilityIds(optionLookup, currencyPair))
+          .build();
+      return reqs.combinedWith(localVolReqs);
+    }
+    return reqs;
   }
 
   //-------------------------------------------------------------------------
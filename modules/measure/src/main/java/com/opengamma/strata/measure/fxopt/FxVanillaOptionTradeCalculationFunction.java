@@ -5,6 +5,7 @@
  */
 package com.opengamma.strata.measure.fxopt;
 
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -54,7 +55,12 @@ import com.opengamma.strata.product.fxopt.ResolvedFxVanillaOptionTrade;
  * The "natural" currency is the market convention base currency of the underlying FX.
  */
 public class FxVanillaOptionTradeCalculationFunction
-    implements CalculationFunction<FxVanillaOptionTrade> {
+    implements CalculationFunction<FxVanillaOptionTrade>, Serializable {
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
 
   /**
    * The calculations by measure.
@@ -5,6 +5,7 @@
  */
 package com.opengamma.strata.measure.index;
 
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -59,7 +60,12 @@ import com.opengamma.strata.product.index.ResolvedIborFutureOptionTrade;
  * represents the price of the option as 0.002.
  */
 public class IborFutureOptionTradeCalculationFunction
-    implements CalculationFunction<IborFutureOptionTrade> {
+    implements CalculationFunction<IborFutureOptionTrade>, Serializable {
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
 
   /**
    * The calculations by measure.
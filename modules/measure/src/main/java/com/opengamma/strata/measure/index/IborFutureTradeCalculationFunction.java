@@ -5,6 +5,7 @@
  */
 package com.opengamma.strata.measure.index;
 
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -58,7 +59,12 @@ import com.opengamma.strata.product.index.ResolvedIborFutureTrade;
  * For example, a price of 99.32 implies an interest rate of 0.68% which is represented in Strata by 0.9932.
  */
 public class IborFutureTradeCalculationFunction
-    implements CalculationFunction<IborFutureTrade> {
+    implements CalculationFunction<IborFutureTrade>, Serializable {
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
 
   /**
    * The calculations by measure.
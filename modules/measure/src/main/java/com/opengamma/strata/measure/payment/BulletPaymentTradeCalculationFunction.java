@@ -5,6 +5,7 @@
  */
 package com.opengamma.strata.measure.payment;
 
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -50,7 +51,12 @@ import com.opengamma.strata.product.payment.ResolvedBulletPaymentTrade;
  * </ul>
  */
 public class BulletPaymentTradeCalculationFunction
-    implements CalculationFunction<BulletPaymentTrade> {
+    implements CalculationFunction<BulletPaymentTrade>, Serializable {
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
 
   /**
    * The calculations by measure.
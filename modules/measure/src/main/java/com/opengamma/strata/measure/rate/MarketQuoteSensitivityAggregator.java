@@ -0,0 +1,310 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure.rate;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collector;
+
+import com.opengamma.strata.calc.ColumnName;
+import com.opengamma.strata.calc.runner.AggregatedResults;
+import com.opengamma.strata.calc.runner.PortfolioAggregationListener;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.scenario.ScenarioArray;
+import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
+import com.opengamma.strata.market.param.CurrencyParameterSensitivitiesBuilder;
+import com.opengamma.strata.pricer.rate.RatesProvider;
+import com.opengamma.strata.pricer.sensitivity.MarketQuoteSensitivityCalculator;
+
+/**
+ * Calculates the market quote sensitivity of groups of trades from their aggregated parameter sensitivity.
+ * <p>
+ * The market quote sensitivity of a trade is obtained by multiplying its parameter sensitivity
+ * by the Jacobian matrix of each calibrated curve. As this transformation is linear, the market quote
+ * sensitivity of a group of trades is the transformation of the sum of their parameter sensitivities.
+ * Aggregating the parameter sensitivities first means that the Jacobian matrices are applied
+ * once per group and scenario, rather than once per trade and scenario.
+ * <p>
+ * This is used with a {@link PortfolioAggregationListener} and a column calculating the
+ * calibrated bucketed PV01, {@code Measures.PV01_CALIBRATED_BUCKETED}.
+ * The listener is prepared using {@link #withCombiners(PortfolioAggregationListener)}, which allows
+ * the parameter sensitivities of each group to be summed. Once the calculations are complete,
+ * {@link #marketQuoteSensitivity(AggregatedResults, ColumnName, RatesScenarioMarketData)} projects
+ * the sum of each group onto the market quotes, producing the market quote bucketed PV01 of each group.
+ * <p>
+ * The Jacobian matrices are those of the curves in the market data used to calculate the parameter sensitivities.
+ * When the groups were calculated with different market data, the market data of each group must be provided.
+ */
+public final class MarketQuoteSensitivityAggregator {
+
+  /**
+   * Default implementation.
+   */
+  public static final MarketQuoteSensitivityAggregator DEFAULT =
+      new MarketQuoteSensitivityAggregator(MarketQuoteSensitivityCalculator.DEFAULT);
+
+  /**
+   * The market quote sensitivity calculator.
+   */
+  private final MarketQuoteSensitivityCalculator marketQuoteCalculator;
+
+  /**
+   * Creates an instance.
+   * 
+   * @param marketQuoteCalculator  the calculator used to convert parameter sensitivities to market quotes
+   */
+  public MarketQuoteSensitivityAggregator(MarketQuoteSensitivityCalculator marketQuoteCalculator) {
+    this.marketQuoteCalculator = ArgChecker.notNull(marketQuoteCalculator, "marketQuoteCalculator");
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Registers the combiners of parameter sensitivities with the listener.
+   * <p>
+   * The listener will sum parameter sensitivities, and scenario arrays of parameter sensitivities,
+   * by market data name and currency. Scenario arrays containing other types of value are not affected.
+   * The sensitivities of each group are accumulated into a single builder per scenario.
+   * 
+   * @param <K>  the type of the group keys
+   * @param listener  the listener
+   * @return the listener, for chaining
+   */
+  public static <K> PortfolioAggregationListener<K> withCombiners(PortfolioAggregationListener<K> listener) {
+    ArgChecker.notNull(listener, "listener");
+    return listener
+        .withCombiner(
+            CurrencyParameterSensitivities.class,
+            Collector.of(
+                CurrencyParameterSensitivities::builder,
+                CurrencyParameterSensitivitiesBuilder::add,
+                CurrencyParameterSensitivitiesBuilder::add,
+                CurrencyParameterSensitivitiesBuilder::build))
+        .withCombiner(
+            ScenarioArray.class,
+            MarketQuoteSensitivityAggregator::isSensitivities,
+            Collector.of(
+                ScenarioSensitivitiesAccumulator::new,
+                ScenarioSensitivitiesAccumulator::add,
+                ScenarioSensitivitiesAccumulator::add,
+                ScenarioSensitivitiesAccumulator::build));
+  }
+
+  // checks if the scenario array contains parameter sensitivities, tested on the first array of each group
+  private static boolean isSensitivities(ScenarioArray<?> array) {
+    return array.getScenarioCount() > 0 && array.get(0) instanceof CurrencyParameterSensitivities;
+  }
+
+  /**
+   * Combines two parameter sensitivities.
+   * 
+   * @param sensitivities1  the first sensitivities
+   * @param sensitivities2  the second sensitivities
+   * @return the sum of the sensitivities
+   */
+  public static CurrencyParameterSensitivities combine(
+      CurrencyParameterSensitivities sensitivities1,
+      CurrencyParameterSensitivities sensitivities2) {
+
+    return CurrencyParameterSensitivities.builder()
+        .add(sensitivities1)
+        .add(sensitivities2)
+        .build();
+  }
+
+  /**
+   * Combines two scenario arrays of parameter sensitivities, scenario by scenario.
+   * 
+   * @param array1  the first array of sensitivities
+   * @param array2  the second array of sensitivities
+   * @return the sum of the sensitivities in each scenario
+   * @throws IllegalArgumentException if the arrays do not contain sensitivities or their sizes differ
+   */
+  public static ScenarioArray<CurrencyParameterSensitivities> combine(
+      ScenarioArray<?> array1,
+      ScenarioArray<?> array2) {
+
+    int scenarioCount = array1.getScenarioCount();
+    if (array2.getScenarioCount() != scenarioCount) {
+      throw new IllegalArgumentException(Messages.format(
+          "Expected {} scenarios but received {}", scenarioCount, array2.getScenarioCount()));
+    }
+    return ScenarioArray.of(scenarioCount, i -> combine(sensitivities(array1, i), sensitivities(array2, i)));
+  }
+
+  // gets the sensitivities of a scenario
+  private static CurrencyParameterSensitivities sensitivities(ScenarioArray<?> array, int scenarioIndex) {
+    Object value = array.get(scenarioIndex);
+    if (!(value instanceof CurrencyParameterSensitivities)) {
+      throw new IllegalArgumentException(
+          "Scenario arrays of type " + value.getClass().getName() + " cannot be aggregated");
+    }
+    return (CurrencyParameterSensitivities) value;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the market quote sensitivity of each group from the aggregated results.
+   * <p>
+   * The column must contain the aggregated parameter sensitivity of each group, for example the
+   * calibrated bucketed PV01. The result of each group is either {@link CurrencyParameterSensitivities},
+   * for a single scenario, or a {@link ScenarioArray} of sensitivities, matching the aggregated result.
+   * If the aggregated result of a group is a failure, the failure is returned for that group.
+   * <p>
+   * The market data is used for every group, thus all the targets must have been calculated with it.
+   * 
+   * @param <K>  the type of the group keys
+   * @param results  the aggregated results
+   * @param columnName  the name of the column containing the parameter sensitivities
+   * @param marketData  the market data used in the calculations
+   * @return the market quote sensitivity of each group, keyed by group
+   */
+  public <K> Map<K, Result<?>> marketQuoteSensitivity(
+      AggregatedResults<K> results,
+      ColumnName columnName,
+      RatesScenarioMarketData marketData) {
+
+    ArgChecker.notNull(marketData, "marketData");
+    return marketQuoteSensitivity(results, columnName, group -> marketData);
+  }
+
+  /**
+   * Calculates the market quote sensitivity of each group from the aggregated results,
+   * using the market data of each group.
+   * <p>
+   * The column must contain the aggregated parameter sensitivity of each group, for example the
+   * calibrated bucketed PV01. The result of each group is either {@link CurrencyParameterSensitivities},
+   * for a single scenario, or a {@link ScenarioArray} of sensitivities, matching the aggregated result.
+   * If the aggregated result of a group is a failure, the failure is returned for that group.
+   * 
+   * @param <K>  the type of the group keys
+   * @param results  the aggregated results
+   * @param columnName  the name of the column containing the parameter sensitivities
+   * @param marketDataFn  the function providing the market data used in the calculations of each group
+   * @return the market quote sensitivity of each group, keyed by group
+   */
+  public <K> Map<K, Result<?>> marketQuoteSensitivity(
+      AggregatedResults<K> results,
+      ColumnName columnName,
+      Function<? super K, RatesScenarioMarketData> marketDataFn) {
+
+    ArgChecker.notNull(results, "results");
+    ArgChecker.notNull(columnName, "columnName");
+    ArgChecker.notNull(marketDataFn, "marketDataFn");
+    Map<K, Result<?>> marketQuoteSensitivities = new LinkedHashMap<>();
+    for (K group : results.getGroups()) {
+      Result<?> paramSensitivity = results.get(group, columnName);
+      marketQuoteSensitivities.put(
+          group,
+          paramSensitivity.flatMap(value -> Result.of(() -> marketQuoteSensitivity(value, marketDataFn.apply(group)))));
+    }
+    return marketQuoteSensitivities;
+  }
+
+  // calculates the market quote sensitivity of a single or scenario value
+  private Object marketQuoteSensitivity(Object paramSensitivity, RatesScenarioMarketData marketData) {
+    if (paramSensitivity instanceof CurrencyParameterSensitivities) {
+      return marketQuoteSensitivity(
+          (CurrencyParameterSensitivities) paramSensitivity, marketData.scenario(0).ratesProvider());
+    }
+    if (paramSensitivity instanceof ScenarioArray) {
+      ScenarioArray<?> array = (ScenarioArray<?>) paramSensitivity;
+      if (array.getScenarioCount() != marketData.getScenarioCount()) {
+        throw new IllegalArgumentException(Messages.format(
+            "Expected {} scenarios but received {}", marketData.getScenarioCount(), array.getScenarioCount()));
+      }
+      return marketQuoteSensitivity(
+          ScenarioArray.of(array.getScenarioCount(), i -> sensitivities(array, i)), marketData);
+    }
+    throw new IllegalArgumentException(
+        "Values of type " + paramSensitivity.getClass().getName() + " are not parameter sensitivities");
+  }
+
+  /**
+   * Calculates the market quote sensitivity in each scenario from the aggregated parameter sensitivity.
+   * 
+   * @param paramSensitivities  the aggregated parameter sensitivity of each scenario
+   * @param marketData  the market data
+   * @return the market quote sensitivity of each scenario
+   */
+  public ScenarioArray<CurrencyParameterSensitivities> marketQuoteSensitivity(
+      ScenarioArray<CurrencyParameterSensitivities> paramSensitivities,
+      RatesScenarioMarketData marketData) {
+
+    return ScenarioArray.of(
+        paramSensitivities.getScenarioCount(),
+        i -> marketQuoteSensitivity(paramSensitivities.get(i), marketData.scenario(i).ratesProvider()));
+  }
+
+  /**
+   * Calculates the market quote sensitivity from the aggregated parameter sensitivity.
+   * 
+   * @param paramSensitivity  the aggregated parameter sensitivity
+   * @param ratesProvider  the rates provider, containing Jacobian calibration information
+   * @return the market quote sensitivity
+   */
+  public CurrencyParameterSensitivities marketQuoteSensitivity(
+      CurrencyParameterSensitivities paramSensitivity,
+      RatesProvider ratesProvider) {
+
+    return marketQuoteCalculator.sensitivity(paramSensitivity, ratesProvider);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Mutable accumulator of scenario arrays of parameter sensitivities, with one builder per scenario.
+   */
+  private static final class ScenarioSensitivitiesAccumulator {
+
+    /** The builder of each scenario, null until the first array is added. */
+    private CurrencyParameterSensitivitiesBuilder[] builders;
+
+    // adds the sensitivities of each scenario of the array
+    private ScenarioSensitivitiesAccumulator add(ScenarioArray<?> array) {
+      int scenarioCount = array.getScenarioCount();
+      if (builders == null) {
+        builders = new CurrencyParameterSensitivitiesBuilder[scenarioCount];
+        for (int i = 0; i < scenarioCount; i++) {
+          builders[i] = CurrencyParameterSensitivities.builder();
+        }
+      } else if (scenarioCount != builders.length) {
+        throw new IllegalArgumentException(Messages.format(
+            "Expected {} scenarios but received {}", builders.length, scenarioCount));
+      }
+      for (int i = 0; i < scenarioCount; i++) {
+        builders[i].add(sensitivities(array, i));
+      }
+      return this;
+    }
+
+    // adds the sensitivities of another accumulator
+    private ScenarioSensitivitiesAccumulator add(ScenarioSensitivitiesAccumulator other) {
+      if (other.builders == null) {
+        return this;
+      }
+      if (builders == null) {
+        return other;
+      }
+      if (other.builders.length != builders.length) {
+        throw new IllegalArgumentException(Messages.format(
+            "Expected {} scenarios but received {}", builders.length, other.builders.length));
+      }
+      for (int i = 0; i < builders.length; i++) {
+        builders[i].add(other.builders[i]);
+      }
+      return this;
+    }
+
+    // builds the sum of the sensitivities in each scenario
+    private ScenarioArray<CurrencyParameterSensitivities> build() {
+      int scenarioCount = builders == null ? 0 : builders.length;
+      return ScenarioArray.of(scenarioCount, i -> builders[i].build());
+    }
+  }
+
+}
@@ -0,0 +1,235 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure.scenario;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.calc.marketdata.MarketDataFilter;
+import com.opengamma.strata.calc.marketdata.PerturbationMapping;
+import com.opengamma.strata.calc.marketdata.ScenarioDefinition;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Messages;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.data.ObservableId;
+import com.opengamma.strata.market.GenericDoubleShifts;
+import com.opengamma.strata.market.ShiftType;
+
+/**
+ * Generates historical scenarios from time-series of market quotes.
+ * <p>
+ * Each scenario applies the historical move of every quote over a fixed horizon, such as one day or ten days,
+ * observed over a rolling window of dates. Given {@code n} dates in the window and a horizon of {@code h},
+ * there are {@code n - h} overlapping scenarios, the scenario {@code i} containing the move from
+ * date {@code i} to date {@code i + h}. Each scenario is named after its end date.
+ * <p>
+ * The moves are computed using {@link ShiftType#computeShift(double, double)}, thus an absolute generator
+ * produces the differences between the values and a relative generator produces the returns.
+ * The result is a {@link ScenarioDefinition} containing one {@link GenericDoubleShifts} per quote,
+ * applied to the quote using {@link MarketDataFilter#ofId}.
+ * <p>
+ * All quotes are loaded into a single packed matrix of values before the shifts are computed,
+ * thus thousands of scenarios can be generated in one pass without creating market data for each date.
+ * If a quote has no value on a date in the window, the previous value is used.
+ * Before the first value of a quote, the first value is used, thus the quote is not moved by those scenarios.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class HistoricalScenarioGenerator {
+
+  /**
+   * The generator of absolute one-day moves.
+   */
+  public static final HistoricalScenarioGenerator ABSOLUTE = new HistoricalScenarioGenerator(ShiftType.ABSOLUTE, 1);
+  /**
+   * The generator of relative one-day moves.
+   */
+  public static final HistoricalScenarioGenerator RELATIVE = new HistoricalScenarioGenerator(ShiftType.RELATIVE, 1);
+
+  /**
+   * The type of the shifts, used to compute the moves between values.
+   */
+  private final ShiftType shiftType;
+  /**
+   * The horizon of the moves, expressed as a number of dates in the time-series.
+   */
+  private final int horizon;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains a generator of moves of the specified type over a horizon.
+   * <p>
+   * The horizon is expressed as a number of dates in the time-series, rather than a calendar period.
+   * For example, a horizon of 10 with daily time-series produces the ten business day moves.
+   *
+   * @param shiftType  the type of the shifts
+   * @param horizon  the horizon of the moves, expressed as a number of dates, one or greater
+   * @return the generator
+   */
+  public static HistoricalScenarioGenerator of(ShiftType shiftType, int horizon) {
+    return new HistoricalScenarioGenerator(shiftType, horizon);
+  }
+
+  // restricted constructor
+  private HistoricalScenarioGenerator(ShiftType shiftType, int horizon) {
+    this.shiftType = ArgChecker.notNull(shiftType, "shiftType");
+    this.horizon = ArgChecker.notNegativeOrZero(horizon, "horizon");
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the type of the shifts, used to compute the moves between values.
+   *
+   * @return the shift type
+   */
+  public ShiftType getShiftType() {
+    return shiftType;
+  }
+
+  /**
+   * Gets the horizon of the moves, expressed as a number of dates in the time-series.
+   *
+   * @return the horizon
+   */
+  public int getHorizon() {
+    return horizon;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Generates the historical scenarios from a time-series for each quote.
+   * <p>
+   * The dates of the window are all the dates between the start and end date, inclusive,
+   * on which at least one of the time-series has a value.
+   *
+   * @param <T>  the type of the identifiers
+   * @param timeSeries  the time-series of each quote
+   * @param startDate  the first date of the window, inclusive
+   * @param endDate  the last date of the window, inclusive
+   * @return the scenario definition
+   * @throws IllegalArgumentException if the window does not contain more dates than the horizon,
+   *   or if a quote has no value in the window
+   */
+  public <T extends ObservableId> ScenarioDefinition generate(
+      Map<T, LocalDateDoubleTimeSeries> timeSeries,
+      LocalDate startDate,
+      LocalDate endDate) {
+
+    ArgChecker.notEmpty(timeSeries, "timeSeries");
+    ArgChecker.inOrderOrEqual(startDate, endDate, "startDate", "endDate");
+    List<T> ids = new ArrayList<>(timeSeries.size());
+    List<LocalDateDoubleTimeSeries> windowSeries = new ArrayList<>(timeSeries.size());
+    TreeSet<LocalDate> dateSet = new TreeSet<>();
+    for (Map.Entry<T, LocalDateDoubleTimeSeries> entry : timeSeries.entrySet()) {
+      LocalDateDoubleTimeSeries series = entry.getValue().subSeries(startDate, endDate.plusDays(1));
+      series.dates().forEach(dateSet::add);
+      ids.add(entry.getKey());
+      windowSeries.add(series);
+    }
+    LocalDate[] dates = dateSet.toArray(new LocalDate[dateSet.size()]);
+    double[][] values = newValues(ids.size(), dates.length);
+    for (int i = 0; i < ids.size(); i++) {
+      double[] quoteValues = values[i];
+      windowSeries.get(i).forEach((date, value) -> quoteValues[Arrays.binarySearch(dates, date)] = value);
+    }
+    return generate(ids, dates, values);
+  }
+
+  /**
+   * Generates the historical scenarios from the values of the quotes on each date.
+   * <p>
+   * This accepts the quotes in the form returned by {@code QuotesCsvLoader.loadAllDates}.
+   * The dates of the window are all the dates of the map.
+   *
+   * @param <T>  the type of the identifiers
+   * @param quotesByDate  the values of the quotes, keyed by date
+   * @return the scenario definition
+   * @throws IllegalArgumentException if there are not more dates than the horizon
+   */
+  public <T extends ObservableId> ScenarioDefinition generate(Map<LocalDate, ? extends Map<T, Double>> quotesByDate) {
+    ArgChecker.notEmpty(quotesByDate, "quotesByDate");
+    LocalDate[] dates = new TreeSet<>(quotesByDate.keySet()).toArray(new LocalDate[quotesByDate.size()]);
+    Map<T, Integer> idIndices = new LinkedHashMap<>();
+    for (Map<T, Double> quotes : quotesByDate.values()) {
+      quotes.keySet().forEach(id -> idIndices.putIfAbsent(id, idIndices.size()));
+    }
+    double[][] values = newValues(idIndices.size(), dates.length);
+    for (int j = 0; j < dates.length; j++) {
+      for (Map.Entry<T, Double> entry : quotesByDate.get(dates[j]).entrySet()) {
+        values[idIndices.get(entry.getKey())][j] = entry.getValue();
+      }
+    }
+    return generate(ImmutableList.copyOf(idIndices.keySet()), dates, values);
+  }
+
+  // creates the matrix of values, missing values are NaN
+  private static double[][] newValues(int quoteCount, int dateCount) {
+    double[][] values = new double[quoteCount][dateCount];
+    for (double[] quoteValues : values) {
+      Arrays.fill(quoteValues, Double.NaN);
+    }
+    return values;
+  }
+
+  // generates the scenarios from the packed matrix of values, one row per quote and one column per date
+  private ScenarioDefinition generate(List<? extends ObservableId> ids, LocalDate[] dates, double[][] values) {
+    int scenarioCount = dates.length - horizon;
+    if (scenarioCount <= 0) {
+      throw new IllegalArgumentException(Messages.format(
+          "Historical scenarios with a horizon of {} require more than {} dates, but found {}",
+          horizon,
+          horizon,
+          dates.length));
+    }
+    List<PerturbationMapping<Double>> mappings = new ArrayList<>(ids.size());
+    for (int i = 0; i < ids.size(); i++) {
+      double[] quoteValues = fillMissing(ids.get(i), values[i]);
+      double[] shifts = new double[scenarioCount];
+      for (int s = 0; s < scenarioCount; s++) {
+        shifts[s] = shiftType.computeShift(quoteValues[s], quoteValues[s + horizon]);
+      }
+      GenericDoubleShifts perturbation = GenericDoubleShifts.of(shiftType, DoubleArray.ofUnsafe(shifts));
+      mappings.add(PerturbationMapping.of(MarketDataFilter.ofId(ids.get(i)), perturbation));
+    }
+    List<String> scenarioNames = new ArrayList<>(scenarioCount);
+    for (int s = 0; s < scenarioCount; s++) {
+      scenarioNames.add(dates[s + horizon].toString());
+    }
+    return ScenarioDefinition.ofMappings(mappings, scenarioNames);
+  }
+
+  // replaces missing values by the previous value, or the first value at the start of the window
+  private static double[] fillMissing(ObservableId id, double[] values) {
+    int first = 0;
+    while (first < values.length && Double.isNaN(values[first])) {
+      first++;
+    }
+    if (first == values.length) {
+      throw new IllegalArgumentException("No values found in the window for quote: " + id);
+    }
+    Arrays.fill(values, 0, first, values[first]);
+    for (int j = first + 1; j < values.length; j++) {
+      if (Double.isNaN(values[j])) {
+        values[j] = values[j - 1];
+      }
+    }
+    return values;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "HistoricalScenarioGenerator[shiftType=" + shiftType + ", horizon=" + horizon + "]";
+  }
+
+}
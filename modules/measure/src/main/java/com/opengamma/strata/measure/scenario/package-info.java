@@ -0,0 +1,10 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+
+/**
+ * Generation of scenarios for use in the calculation engine.
+ */
+package com.opengamma.strata.measure.scenario;
@@ -5,6 +5,7 @@
  */
 package com.opengamma.strata.measure.security;
 
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -36,7 +37,12 @@ import com.opengamma.strata.product.Security;
  * </ul>
  */
 public class GenericSecurityPositionCalculationFunction
-    implements CalculationFunction<GenericSecurityPosition> {
+    implements CalculationFunction<GenericSecurityPosition>, Serializable {
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
 
   /**
    * The calculations by measure.
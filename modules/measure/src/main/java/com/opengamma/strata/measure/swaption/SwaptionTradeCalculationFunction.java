@@ -5,6 +5,7 @@
  */
 package com.opengamma.strata.measure.swaption;
 
+import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
@@ -51,7 +52,12 @@ import com.opengamma.strata.product.swaption.SwaptionTrade;
  * The "natural" currency is determined from the first swap leg.
  */
 public class SwaptionTradeCalculationFunction
-    implements CalculationFunction<SwaptionTrade> {
+    implements CalculationFunction<SwaptionTrade>, Serializable {
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
 
   /**
    * The calculations by measure.
@@ -0,0 +1,96 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure;
+
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.market.curve.CurveName;
+import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
+import com.opengamma.strata.market.param.CurrencyParameterSensitivity;
+import com.opengamma.strata.market.sensitivity.PointSensitivities;
+
+/**
+ * Test {@link ScenarioSensitivityCache}.
+ */
+@Test
+public class ScenarioSensitivityCacheTest {
+
+  private static final CurveName NAME = CurveName.of("Test");
+
+  public void test_memoized() {
+    AtomicInteger providerCount = new AtomicInteger();
+    AtomicInteger pointCount = new AtomicInteger();
+    AtomicInteger paramCount = new AtomicInteger();
+    AtomicInteger quoteCount = new AtomicInteger();
+    ScenarioSensitivityCache<Integer> test = ScenarioSensitivityCache.of(
+        2,
+        i -> {
+          providerCount.incrementAndGet();
+          return i + 1;
+        },
+        p -> {
+          pointCount.incrementAndGet();
+          return PointSensitivities.empty();
+        },
+        (p, s) -> {
+          paramCount.incrementAndGet();
+          return CurrencyParameterSensitivities.of(sensitivity(p));
+        },
+        (s, p) -> {
+          quoteCount.incrementAndGet();
+          return s.multipliedBy(10d);
+        });
+    assertEquals(test.getScenarioCount(), 2);
+    CurrencyParameterSensitivities quote = test.marketQuoteSensitivity(1);
+    assertEquals(quote, CurrencyParameterSensitivities.of(sensitivity(2)).multipliedBy(10d));
+    assertSame(test.marketQuoteSensitivity(1), quote);
+    assertSame(test.parameterSensitivity(1), test.parameterSensitivity(1));
+    assertSame(test.pointSensitivity(1), test.pointSensitivity(1));
+    assertTrue(test.isMarketQuoteSupported());
+    assertEquals(providerCount.get(), 1);
+    assertEquals(pointCount.get(), 1);
+    assertEquals(paramCount.get(), 1);
+    assertEquals(quoteCount.get(), 1);
+    test.parameterSensitivity(0);
+    assertEquals(providerCount.get(), 2);
+    assertEquals(pointCount.get(), 2);
+    assertEquals(paramCount.get(), 2);
+    assertEquals(quoteCount.get(), 1);
+  }
+
+  public void test_marketQuoteNotSupported() {
+    ScenarioSensitivityCache<Integer> test = ScenarioSensitivityCache.of(
+        1, i -> i, p -> PointSensitivities.empty(), (p, s) -> CurrencyParameterSensitivities.empty());
+    assertEquals(test.parameterSensitivity(0), CurrencyParameterSensitivities.empty());
+    assertFalse(test.isMarketQuoteSupported());
+    assertThrows(() -> test.marketQuoteSensitivity(0), IllegalStateException.class);
+    assertThrows(() -> test.parameterSensitivity(1), IndexOutOfBoundsException.class);
+  }
+
+  public void test_invalid() {
+    assertThrowsIllegalArg(() -> ScenarioSensitivityCache.of(
+        -1, i -> i, p -> PointSensitivities.empty(), (p, s) -> CurrencyParameterSensitivities.empty()));
+    assertThrowsIllegalArg(() -> ScenarioSensitivityCache.of(
+        1, i -> i, p -> PointSensitivities.empty(), (p, s) -> CurrencyParameterSensitivities.empty(), null));
+  }
+
+  //-------------------------------------------------------------------------
+  private static CurrencyParameterSensitivity sensitivity(int value) {
+    return CurrencyParameterSensitivity.of(NAME, USD, DoubleArray.of(value));
+  }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static org.testng.Assert.assertEquals;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableSet;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
+import com.opengamma.strata.market.sensitivity.PointSensitivities;
+
+/**
+ * Test {@link SensitivityMeasureCalculations}.
+ */
+@Test
+public class SensitivityMeasureCalculationsTest {
+
+  private static final SensitivityMeasureCalculations<Integer> TEST = SensitivityMeasureCalculations.<Integer>builder()
+      .put(Measures.PV01_CALIBRATED_SUM, sensitivities -> sensitivities.getScenarioCount())
+      .putMarketQuote(Measures.PV01_MARKET_QUOTE_SUM, sensitivities -> sensitivities.marketQuoteSensitivity(0))
+      .put(Measures.PV01_CALIBRATED_BUCKETED, sensitivities -> {
+        throw new IllegalArgumentException("Failed");
+      })
+      .build();
+
+  public void test_getMeasures() {
+    assertEquals(
+        TEST.getMeasures(),
+        ImmutableSet.of(
+            Measures.PV01_CALIBRATED_SUM, Measures.PV01_MARKET_QUOTE_SUM, Measures.PV01_CALIBRATED_BUCKETED));
+  }
+
+  public void test_calculate() {
+    ScenarioSensitivityCache<Integer> sensitivities = ScenarioSensitivityCache.of(
+        2,
+        i -> i,
+        p -> PointSensitivities.empty(),
+        (p, s) -> CurrencyParameterSensitivities.empty(),
+        (s, p) -> s);
+    assertEquals(TEST.calculate(Measures.PV01_CALIBRATED_SUM, sensitivities), Result.success(2));
+    assertEquals(
+        TEST.calculate(Measures.PV01_MARKET_QUOTE_SUM, sensitivities),
+        Result.success(CurrencyParameterSensitivities.empty()));
+    assertEquals(
+        TEST.calculate(Measures.PV01_CALIBRATED_BUCKETED, sensitivities).getFailure().getReason(),
+        FailureReason.ERROR);
+    assertEquals(
+        TEST.calculate(Measures.PRESENT_VALUE, sensitivities).getFailure().getReason(),
+        FailureReason.UNSUPPORTED);
+  }
+
+  public void test_calculate_marketQuoteNotSupported() {
+    ScenarioSensitivityCache<Integer> sensitivities = ScenarioSensitivityCache.of(
+        1, i -> i, p -> PointSensitivities.empty(), (p, s) -> CurrencyParameterSensitivities.empty());
+    assertEquals(TEST.calculate(Measures.PV01_CALIBRATED_SUM, sensitivities), Result.success(1));
+    assertEquals(
+        TEST.calculate(Measures.PV01_MARKET_QUOTE_SUM, sensitivities).getFailure().getReason(),
+        FailureReason.UNSUPPORTED);
+  }
+
+  public void test_builder_invalid() {
+    assertThrowsIllegalArg(() -> SensitivityMeasureCalculations.<Integer>builder().put(null, s -> s));
+    assertThrowsIllegalArg(() -> SensitivityMeasureCalculations.<Integer>builder().put(Measures.PAR_RATE, null));
+  }
+
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure.fxopt;
+
+import static com.opengamma.strata.basics.currency.Currency.EUR;
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.collect.TestHelper.assertSerialization;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.coverBeanEquals;
+import static com.opengamma.strata.collect.TestHelper.coverImmutableBean;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.currency.CurrencyPair;
+import com.opengamma.strata.basics.currency.FxRate;
+import com.opengamma.strata.calc.marketdata.MarketDataConfig;
+import com.opengamma.strata.calc.marketdata.MarketDataRequirements;
+import com.opengamma.strata.data.FxRateId;
+import com.opengamma.strata.data.scenario.ImmutableScenarioMarketData;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+import com.opengamma.strata.market.curve.Curve;
+import com.opengamma.strata.market.curve.CurveId;
+import com.opengamma.strata.market.surface.InterpolatedNodalSurface;
+import com.opengamma.strata.pricer.fx.RatesProviderFxDataSets;
+import com.opengamma.strata.pricer.fxopt.BlackFxOptionSmileVolatilities;
+import com.opengamma.strata.pricer.fxopt.FxOptionLocalVolatilityId;
+import com.opengamma.strata.pricer.fxopt.FxOptionVolatilitiesName;
+import com.opengamma.strata.pricer.fxopt.FxVolatilitySmileDataSet;
+import com.opengamma.strata.pricer.fxopt.ImpliedTrinomialTreeFxOptionCalibrator;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
+
+/**
+ * Test {@link FxOptionLocalVolatilityMarketDataFunction} and {@link FxOptionLocalVolatilityDefinition}.
+ */
+@Test
+public class FxOptionLocalVolatilityMarketDataFunctionTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final LocalDate VAL_DATE = LocalDate.of(2011, 6, 13);
+  private static final ZonedDateTime VAL_DATETIME = VAL_DATE.atStartOfDay(ZoneId.of("Z"));
+  private static final CurrencyPair EUR_USD = CurrencyPair.of(EUR, USD);
+  private static final BlackFxOptionSmileVolatilities VOLS =
+      FxVolatilitySmileDataSet.createVolatilitySmileProvider5(VAL_DATETIME);
+  private static final BlackFxOptionSmileVolatilities VOLS_MRKT =
+      FxVolatilitySmileDataSet.createVolatilitySmileProvider5Market(VAL_DATETIME);
+  private static final FxOptionVolatilitiesName VOL_NAME = VOLS.getName();
+  private static final ImmutableRatesProvider RATES_PROVIDER = RatesProviderFxDataSets.createProviderEurUsdFlat(VAL_DATE);
+  private static final Curve EUR_CURVE = RATES_PROVIDER.getDiscountCurves().get(EUR);
+  private static final Curve USD_CURVE = RATES_PROVIDER.getDiscountCurves().get(USD);
+  private static final CurveId EUR_CURVE_ID = CurveId.of("Group", EUR_CURVE.getName().getName());
+  private static final CurveId USD_CURVE_ID = CurveId.of("Group", USD_CURVE.getName().getName());
+  private static final FxRate FX = FxRate.of(EUR_USD, RATES_PROVIDER.fxRate(EUR_USD));
+  private static final FxRate FX_1 = FxRate.of(EUR_USD, RATES_PROVIDER.fxRate(EUR_USD) * 1.05);
+  private static final int NB_STEPS = 29;
+  private static final double MAX_TIME = 1.25;
+  private static final FxOptionLocalVolatilityDefinition DEFINITION =
+      FxOptionLocalVolatilityDefinition.of(VOL_NAME, EUR_USD, EUR_CURVE_ID, USD_CURVE_ID, NB_STEPS, MAX_TIME);
+  private static final MarketDataConfig CONFIG = MarketDataConfig.builder().add(VOL_NAME.getName(), DEFINITION).build();
+  private static final FxOptionLocalVolatilityId ID = FxOptionLocalVolatilityId.of(VOL_NAME);
+  private static final ImpliedTrinomialTreeFxOptionCalibrator CALIBRATOR =
+      new ImpliedTrinomialTreeFxOptionCalibrator(NB_STEPS);
+  private static final FxOptionLocalVolatilityMarketDataFunction FUNCTION =
+      new FxOptionLocalVolatilityMarketDataFunction();
+
+  public void test_requirements() {
+    MarketDataRequirements reqs = FUNCTION.requirements(ID, CONFIG);
+    assertTrue(reqs.getNonObservables().contains(ID.getVolatilitiesId()));
+    assertTrue(reqs.getNonObservables().contains(FxRateId.of(EUR_USD)));
+    assertTrue(reqs.getNonObservables().contains(EUR_CURVE_ID));
+    assertTrue(reqs.getNonObservables().contains(USD_CURVE_ID));
+    assertEquals(FUNCTION.getMarketDataIdType(), FxOptionLocalVolatilityId.class);
+  }
+
+  public void test_build() {
+    ImmutableScenarioMarketData marketData = ImmutableScenarioMarketData.builder(VAL_DATE)
+        .addValue(ID.getVolatilitiesId(), VOLS)
+        .addValue(FxRateId.of(EUR_USD), FX)
+        .addValue(EUR_CURVE_ID, EUR_CURVE)
+        .addValue(USD_CURVE_ID, USD_CURVE)
+        .build();
+    MarketDataBox<InterpolatedNodalSurface> computed = FUNCTION.build(ID, CONFIG, marketData, REF_DATA);
+    assertFalse(computed.isScenarioValue());
+    InterpolatedNodalSurface expected = CALIBRATOR.calibrateLocalVolatility(MAX_TIME, EUR_USD, RATES_PROVIDER, VOLS);
+    assertEquals(computed.getSingleValue(), expected);
+  }
+
+  public void test_build_scenarios() {
+    ImmutableScenarioMarketData marketData = ImmutableScenarioMarketData.builder(VAL_DATE)
+        .addBox(ID.getVolatilitiesId(), MarketDataBox.ofScenarioValues(VOLS, VOLS_MRKT))
+        .addBox(FxRateId.of(EUR_USD), MarketDataBox.ofScenarioValues(FX, FX_1))
+        .addValue(EUR_CURVE_ID, EUR_CURVE)
+        .addValue(USD_CURVE_ID, USD_CURVE)
+        .build();
+    MarketDataBox<InterpolatedNodalSurface> computed = FUNCTION.build(ID, CONFIG, marketData, REF_DATA);
+    assertEquals(computed.getScenarioCount(), 2);
+    InterpolatedNodalSurface expected0 = CALIBRATOR.calibrateLocalVolatility(MAX_TIME, EUR_USD, RATES_PROVIDER, VOLS);
+    ImmutableRatesProvider provider1 = RATES_PROVIDER.toBuilder()
+        .fxRateProvider(FX_1)
+        .build();
+    InterpolatedNodalSurface expected1 = CALIBRATOR.calibrateLocalVolatility(MAX_TIME, EUR_USD, provider1, VOLS_MRKT);
+    assertEquals(computed.getValue(0), expected0);
+    assertEquals(computed.getValue(1), expected1);
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_definition() {
+    assertEquals(DEFINITION.getName(), VOL_NAME);
+    assertEquals(DEFINITION.getCurrencyPair(), EUR_USD);
+    assertEquals(DEFINITION.getBaseCurveId(), EUR_CURVE_ID);
+    assertEquals(DEFINITION.getCounterCurveId(), USD_CURVE_ID);
+    assertEquals(DEFINITION.getNumberOfSteps(), NB_STEPS);
+    assertEquals(DEFINITION.getMaxTime(), MAX_TIME);
+    assertThrowsIllegalArg(() -> FxOptionLocalVolatilityDefinition.of(
+        VOL_NAME, EUR_USD, EUR_CURVE_ID, USD_CURVE_ID, 1, MAX_TIME));
+    assertThrowsIllegalArg(() -> FxOptionLocalVolatilityDefinition.of(
+        VOL_NAME, EUR_USD, EUR_CURVE_ID, USD_CURVE_ID, NB_STEPS, 0d));
+    assertThrowsIllegalArg(() -> FxOptionLocalVolatilityDefinition.of(
+        VOL_NAME, CurrencyPair.of(EUR, EUR), EUR_CURVE_ID, USD_CURVE_ID, NB_STEPS, MAX_TIME));
+  }
+
+  public void coverage() {
+    coverImmutableBean(DEFINITION);
+    FxOptionLocalVolatilityDefinition test2 = FxOptionLocalVolatilityDefinition.of(
+        FxOptionVolatilitiesName.of("Other"), CurrencyPair.of(USD, EUR), USD_CURVE_ID, EUR_CURVE_ID, 10, 2d);
+    coverBeanEquals(DEFINITION, test2);
+  }
+
+  public void test_serialization() {
+    assertSerialization(DEFINITION);
+  }
+
+}
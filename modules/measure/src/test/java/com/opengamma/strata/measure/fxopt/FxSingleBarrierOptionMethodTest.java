@@ -36,6 +36,7 @@ public class FxSingleBarrierOptionMethodTest {
     return new Object[][] {
         {FxSingleBarrierOptionMethod.BLACK, "Black"},
         {FxSingleBarrierOptionMethod.TRINOMIAL_TREE, "TrinomialTree"},
+        {FxSingleBarrierOptionMethod.TRINOMIAL_TREE_LOCAL_VOLATILITY, "TrinomialTreeLocalVolatility"},
     };
   }
 
@@ -11,32 +11,48 @@ import static com.opengamma.strata.basics.date.DayCounts.ACT_360;
 import static com.opengamma.strata.basics.date.DayCounts.ACT_365F;
 import static com.opengamma.strata.product.common.LongShort.SHORT;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
 import java.time.ZoneId;
 import java.time.ZoneOffset;
+import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.testng.annotations.Test;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.basics.currency.AdjustablePayment;
 import com.opengamma.strata.basics.currency.CurrencyAmount;
 import com.opengamma.strata.basics.currency.CurrencyPair;
 import com.opengamma.strata.basics.currency.FxRate;
 import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
+import com.opengamma.strata.calc.CalculationRules;
+import com.opengamma.strata.calc.CalculationRunner;
+import com.opengamma.strata.calc.Column;
 import com.opengamma.strata.calc.Measure;
+import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.calc.marketdata.MarketDataConfig;
+import com.opengamma.strata.calc.marketdata.MarketDataFactory;
+import com.opengamma.strata.calc.marketdata.MarketDataRequirements;
+import com.opengamma.strata.calc.marketdata.ObservableDataProvider;
+import com.opengamma.strata.calc.marketdata.TimeSeriesProvider;
+import com.opengamma.strata.calc.runner.CalculationFunctions;
 import com.opengamma.strata.calc.runner.CalculationParameters;
 import com.opengamma.strata.calc.runner.FunctionRequirements;
 import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.collect.array.DoubleMatrix;
 import com.opengamma.strata.collect.result.Result;
 import com.opengamma.strata.data.FxRateId;
+import com.opengamma.strata.data.MarketData;
 import com.opengamma.strata.data.scenario.CurrencyScenarioArray;
+import com.opengamma.strata.data.scenario.MarketDataBox;
 import com.opengamma.strata.data.scenario.MultiCurrencyScenarioArray;
 import com.opengamma.strata.data.scenario.ScenarioArray;
 import com.opengamma.strata.data.scenario.ScenarioMarketData;
@@ -46,14 +62,20 @@ import com.opengamma.strata.market.curve.CurveId;
 import com.opengamma.strata.market.curve.Curves;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
 import com.opengamma.strata.market.sensitivity.PointSensitivities;
+import com.opengamma.strata.market.surface.InterpolatedNodalSurface;
 import com.opengamma.strata.measure.Measures;
 import com.opengamma.strata.measure.curve.TestMarketDataMap;
 import com.opengamma.strata.measure.rate.RatesMarketDataLookup;
+import com.opengamma.strata.pricer.DiscountingPaymentPricer;
 import com.opengamma.strata.pricer.datasets.RatesProviderDataSets;
 import com.opengamma.strata.pricer.fxopt.BlackFxOptionSmileVolatilities;
 import com.opengamma.strata.pricer.fxopt.BlackFxSingleBarrierOptionTradePricer;
+import com.opengamma.strata.pricer.fxopt.FxOptionLocalVolatilityId;
 import com.opengamma.strata.pricer.fxopt.FxOptionVolatilitiesId;
 import com.opengamma.strata.pricer.fxopt.FxOptionVolatilitiesName;
+import com.opengamma.strata.pricer.fxopt.ImpliedTrinomialTreeFxOptionCalibrator;
+import com.opengamma.strata.pricer.fxopt.ImpliedTrinomialTreeFxSingleBarrierOptionProductPricer;
+import com.opengamma.strata.pricer.fxopt.ImpliedTrinomialTreeFxSingleBarrierOptionTradePricer;
 import com.opengamma.strata.pricer.fxopt.InterpolatedStrikeSmileDeltaTermStructure;
 import com.opengamma.strata.pricer.rate.RatesProvider;
 import com.opengamma.strata.product.TradeInfo;
@@ -101,6 +123,17 @@ public class FxSingleBarrierOptionTradeCalculationFunctionTest {
       .info(TRADE_INFO)
       .build();
   public static final ResolvedFxSingleBarrierOptionTrade RTRADE = TRADE.resolve(REF_DATA);
+  private static final FxSingleBarrierOptionTrade TRADE2 = FxSingleBarrierOptionTrade.builder()
+      .premium(PREMIUM)
+      .product(FxSingleBarrierOption.builder()
+          .underlyingOption(VANILLA.toBuilder()
+              .expiryDate(LocalDate.of(2014, 8, 8))
+              .underlying(FxSingle.of(EUR_AMOUNT, USD_AMOUNT, LocalDate.of(2014, 8, 12)))
+              .build())
+          .barrier(SimpleConstantContinuousBarrier.of(BarrierType.UP, KnockType.KNOCK_OUT, 1.9))
+          .build())
+      .info(TRADE_INFO)
+      .build();
 
   private static final CurveId DISCOUNT_CURVE_EUR_ID = CurveId.of("Default", "Discount-EUR");
   private static final CurveId DISCOUNT_CURVE_USD_ID = CurveId.of("Default", "Discount-USD");
@@ -130,6 +163,10 @@ public class FxSingleBarrierOptionTradeCalculationFunctionTest {
   private static final FxOptionVolatilitiesId VOL_ID = FxOptionVolatilitiesId.of("EUR-USD");
   public static final FxOptionMarketDataLookup FX_OPTION_LOOKUP = FxOptionMarketDataLookup.of(CURRENCY_PAIR, VOL_ID);
   private static final CalculationParameters PARAMS = CalculationParameters.of(RATES_LOOKUP, FX_OPTION_LOOKUP);
+  private static final CalculationParameters TREE_PARAMS = PARAMS.with(FxSingleBarrierOptionMethod.TRINOMIAL_TREE);
+  private static final CalculationParameters LOCAL_VOL_PARAMS =
+      PARAMS.with(FxSingleBarrierOptionMethod.TRINOMIAL_TREE_LOCAL_VOLATILITY);
+  private static final FxOptionLocalVolatilityId LOCAL_VOL_ID = FxOptionLocalVolatilityId.of(VOL_ID.getName());
 
   //-------------------------------------------------------------------------
   public void test_requirementsAndCurrency() {
@@ -189,6 +226,63 @@ public class FxSingleBarrierOptionTradeCalculationFunctionTest {
             Measures.PV01_CALIBRATED_BUCKETED, Result.success(ScenarioArray.of(ImmutableList.of(expectedBucketedPv01))));
   }
 
+  //-------------------------------------------------------------------------
+  public void test_requirements_trinomialTree() {
+    FxSingleBarrierOptionTradeCalculationFunction function = new FxSingleBarrierOptionTradeCalculationFunction();
+    Set<Measure> measures = function.supportedMeasures();
+    FunctionRequirements reqs = function.requirements(TRADE, measures, TREE_PARAMS, REF_DATA);
+    assertThat(reqs.getValueRequirements()).isEqualTo(
+        ImmutableSet.of(DISCOUNT_CURVE_EUR_ID, DISCOUNT_CURVE_USD_ID, VOL_ID));
+  }
+
+  public void test_requirements_trinomialTreeLocalVolatility() {
+    FxSingleBarrierOptionTradeCalculationFunction function = new FxSingleBarrierOptionTradeCalculationFunction();
+    Set<Measure> measures = function.supportedMeasures();
+    FunctionRequirements reqs = function.requirements(TRADE, measures, LOCAL_VOL_PARAMS, REF_DATA);
+    assertThat(reqs.getValueRequirements()).isEqualTo(
+        ImmutableSet.of(DISCOUNT_CURVE_EUR_ID, DISCOUNT_CURVE_USD_ID, VOL_ID, LOCAL_VOL_ID));
+  }
+
+  public void test_trinomialTreeLocalVolatility_shared() {
+    // the local volatility is calibrated once, and both trades are priced on trees built on it
+    CountingLocalVolatilityFunction localVolFunction = new CountingLocalVolatilityFunction();
+    MarketDataFactory marketDataFactory =
+        MarketDataFactory.of(ObservableDataProvider.none(), TimeSeriesProvider.none(), localVolFunction);
+    CalculationRules rules = CalculationRules.of(
+        CalculationFunctions.of(new FxSingleBarrierOptionTradeCalculationFunction()), LOCAL_VOL_PARAMS);
+    List<FxSingleBarrierOptionTrade> trades = ImmutableList.of(TRADE, TRADE2);
+    List<Column> columns = ImmutableList.of(Column.of(Measures.PRESENT_VALUE));
+    MarketDataRequirements reqs = MarketDataRequirements.of(rules, trades, columns, REF_DATA);
+    MarketDataConfig config = MarketDataConfig.builder()
+        .add(VOL_ID.getName().getName(), FxOptionLocalVolatilityDefinition.of(
+            VOL_ID.getName(), CURRENCY_PAIR, DISCOUNT_CURVE_EUR_ID, DISCOUNT_CURVE_USD_ID, 20, 1d))
+        .build();
+    MarketData marketData = marketDataFactory.create(reqs, config, marketData().scenario(0), REF_DATA);
+    assertThat(localVolFunction.count.get()).isEqualTo(1);
+
+    Results results;
+    try (CalculationRunner runner = CalculationRunner.of(MoreExecutors.newDirectExecutorService())) {
+      results = runner.calculate(rules, trades, columns, marketData, REF_DATA);
+    }
+    RatesProvider provider = RATES_LOOKUP.ratesProvider(marketData);
+    InterpolatedNodalSurface localVol =
+        new ImpliedTrinomialTreeFxOptionCalibrator(20).calibrateLocalVolatility(1d, CURRENCY_PAIR, provider, VOLS);
+    assertThat(marketData.getValue(LOCAL_VOL_ID)).isEqualTo(localVol);
+    ImpliedTrinomialTreeFxSingleBarrierOptionTradePricer pricer =
+        new ImpliedTrinomialTreeFxSingleBarrierOptionTradePricer(
+            new ImpliedTrinomialTreeFxSingleBarrierOptionProductPricer(new ImpliedTrinomialTreeFxOptionCalibrator(
+                ImpliedTrinomialTreeFxSingleBarrierOptionProductPricer.DEFAULT.getCalibrator().getNumberOfSteps(),
+                localVol)),
+            DiscountingPaymentPricer.DEFAULT);
+    for (int i = 0; i < trades.size(); i++) {
+      CurrencyAmount expected = pricer.presentValue(trades.get(i).resolve(REF_DATA), provider, VOLS)
+          .convertedTo(EUR, provider);
+      CurrencyAmount computed = (CurrencyAmount) results.get(i, 0).getValue();
+      assertThat(computed.getCurrency()).isEqualTo(EUR);
+      assertThat(computed.getAmount()).isCloseTo(expected.getAmount(), offset(NOTIONAL * 1e-10));
+    }
+  }
+
   //-------------------------------------------------------------------------
   static ScenarioMarketData marketData() {
     Curve curve1 = ConstantCurve.of(Curves.discountFactors("Test", ACT_360), 0.992);
@@ -204,4 +298,21 @@ public class FxSingleBarrierOptionTradeCalculationFunctionTest {
     return md;
   }
 
+  //-------------------------------------------------------------------------
+  // counts the calibrations of the local volatility
+  private static final class CountingLocalVolatilityFunction extends FxOptionLocalVolatilityMarketDataFunction {
+    private final AtomicInteger count = new AtomicInteger();
+
+    @Override
+    public MarketDataBox<InterpolatedNodalSurface> build(
+        FxOptionLocalVolatilityId id,
+        MarketDataConfig marketDataConfig,
+        ScenarioMarketData marketData,
+        ReferenceData refData) {
+
+      count.incrementAndGet();
+      return super.build(id, marketDataConfig, marketData, refData);
+    }
+  }
+
 }
@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure.rate;
+
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.util.Map;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.date.DayCounts;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.ColumnHeader;
+import com.opengamma.strata.calc.ColumnName;
+import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.calc.runner.AggregatedResults;
+import com.opengamma.strata.calc.runner.CalculationResult;
+import com.opengamma.strata.calc.runner.PortfolioAggregationListener;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.scenario.ImmutableScenarioMarketData;
+import com.opengamma.strata.data.scenario.ScenarioArray;
+import com.opengamma.strata.market.curve.CurveId;
+import com.opengamma.strata.market.curve.CurveInfoType;
+import com.opengamma.strata.market.curve.CurveName;
+import com.opengamma.strata.market.curve.CurveParameterSize;
+import com.opengamma.strata.market.curve.Curves;
+import com.opengamma.strata.market.curve.InterpolatedNodalCurve;
+import com.opengamma.strata.market.curve.JacobianCalibrationMatrix;
+import com.opengamma.strata.market.curve.interpolator.CurveInterpolators;
+import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
+import com.opengamma.strata.market.param.CurrencyParameterSensitivity;
+import com.opengamma.strata.measure.Measures;
+import com.opengamma.strata.pricer.rate.RatesProvider;
+import com.opengamma.strata.pricer.sensitivity.MarketQuoteSensitivityCalculator;
+
+/**
+ * Test {@link MarketQuoteSensitivityAggregator}.
+ */
+@Test
+public class MarketQuoteSensitivityAggregatorTest {
+
+  private static final LocalDate VAL_DATE = date(2017, 6, 30);
+  private static final CurveName CURVE_NAME = CurveName.of("USD-Disc");
+  private static final CurveId CURVE_ID = CurveId.of("Default", "USD-Disc");
+  private static final JacobianCalibrationMatrix JACOBIAN = JacobianCalibrationMatrix.of(
+      ImmutableList.of(CurveParameterSize.of(CURVE_NAME, 3)),
+      DoubleMatrix.of(3, 3, 1d, 0.1d, 0d, 0.2d, 1d, 0.1d, 0d, 0.3d, 1d));
+  private static final InterpolatedNodalCurve CURVE1 = InterpolatedNodalCurve.of(
+      Curves.zeroRates(CURVE_NAME, DayCounts.ACT_365F).withInfo(CurveInfoType.JACOBIAN, JACOBIAN),
+      DoubleArray.of(1, 2, 5),
+      DoubleArray.of(0.01, 0.015, 0.02),
+      CurveInterpolators.LINEAR);
+  private static final InterpolatedNodalCurve CURVE2 = CURVE1.withYValues(DoubleArray.of(0.02, 0.025, 0.03));
+  private static final RatesMarketDataLookup LOOKUP =
+      RatesMarketDataLookup.of(ImmutableMap.of(USD, CURVE_ID), ImmutableMap.of());
+  private static final RatesScenarioMarketData MARKET_DATA = LOOKUP.marketDataView(
+      ImmutableScenarioMarketData.builder(VAL_DATE)
+          .addScenarioValue(CURVE_ID, ImmutableList.of(CURVE1, CURVE2))
+          .build());
+
+  private static final CurrencyParameterSensitivity SENS1 =
+      CURVE1.createParameterSensitivity(USD, DoubleArray.of(10, 20, 30));
+  private static final CurrencyParameterSensitivity SENS2 =
+      CURVE1.createParameterSensitivity(USD, DoubleArray.of(-1, 4, 2));
+  private static final CurrencyParameterSensitivities SENSITIVITIES1 = CurrencyParameterSensitivities.of(SENS1);
+  private static final CurrencyParameterSensitivities SENSITIVITIES2 = CurrencyParameterSensitivities.of(SENS2);
+  private static final ColumnName COLUMN = ColumnName.of(Measures.PV01_CALIBRATED_BUCKETED);
+  private static final double TOL = 1e-10;
+
+  private static final MarketQuoteSensitivityAggregator TEST = MarketQuoteSensitivityAggregator.DEFAULT;
+  private static final MarketQuoteSensitivityCalculator CALC = MarketQuoteSensitivityCalculator.DEFAULT;
+
+  //-------------------------------------------------------------------------
+  public void test_withCombiners() {
+    PortfolioAggregationListener<String> listener = PortfolioAggregationListener.of(target -> "A");
+    assertSame(MarketQuoteSensitivityAggregator.withCombiners(listener), listener);
+  }
+
+  public void test_withCombiners_otherScenarioArrays() {
+    CalculationTarget target = new CalculationTarget() {};
+    PortfolioAggregationListener<String> listener =
+        MarketQuoteSensitivityAggregator.withCombiners(PortfolioAggregationListener.of(t -> "A"));
+    listener.calculationsStarted(
+        ImmutableList.of(target, target),
+        ImmutableList.of(Column.of(Measures.PV01_CALIBRATED_BUCKETED), Column.of(Measures.PAR_RATE)));
+    listener.resultReceived(target, CalculationResult.of(0, 0, Result.success(ScenarioArray.of(SENSITIVITIES1))));
+    listener.resultReceived(target, CalculationResult.of(1, 0, Result.success(ScenarioArray.of(SENSITIVITIES2))));
+    listener.resultReceived(target, CalculationResult.of(0, 1, Result.success(ScenarioArray.of("x"))));
+    listener.resultReceived(target, CalculationResult.of(1, 1, Result.success(ScenarioArray.of("y"))));
+    listener.calculationsComplete();
+    AggregatedResults<String> results = listener.result();
+    assertEquals(results.get("A", 0).getValue(), ScenarioArray.of(SENSITIVITIES1.combinedWith(SENSITIVITIES2)));
+    assertTrue(results.get("A", 1).isFailure());
+  }
+
+  public void test_withCombiners_accumulate() {
+    CalculationTarget target = new CalculationTarget() {};
+    PortfolioAggregationListener<String> listener =
+        MarketQuoteSensitivityAggregator.withCombiners(PortfolioAggregationListener.of(t -> "A"));
+    listener.calculationsStarted(
+        ImmutableList.of(target, target, target),
+        ImmutableList.of(Column.of(Measures.PV01_CALIBRATED_BUCKETED), Column.of(Measures.PV01_CALIBRATED_SUM)));
+    listener.resultReceived(target, CalculationResult.of(0, 0, Result.success(SENSITIVITIES1)));
+    listener.resultReceived(target, CalculationResult.of(1, 0, Result.success(SENSITIVITIES2)));
+    listener.resultReceived(target, CalculationResult.of(2, 0, Result.success(SENSITIVITIES2)));
+    listener.resultReceived(target, CalculationResult.of(0, 1, Result.success(ScenarioArray.of(SENSITIVITIES1))));
+    listener.resultReceived(
+        target, CalculationResult.of(1, 1, Result.success(ScenarioArray.of(SENSITIVITIES1, SENSITIVITIES2))));
+    listener.resultReceived(target, CalculationResult.of(2, 1, Result.success(ScenarioArray.of(SENSITIVITIES1))));
+    listener.calculationsComplete();
+    AggregatedResults<String> results = listener.result();
+    assertEquals(results.get("A", 0).getValue(), SENSITIVITIES1.combinedWith(SENSITIVITIES2.multipliedBy(2)));
+    assertTrue(results.get("A", 1).isFailure());
+  }
+
+  public void test_combine() {
+    assertEquals(
+        MarketQuoteSensitivityAggregator.combine(SENSITIVITIES1, SENSITIVITIES2),
+        SENSITIVITIES1.combinedWith(SENSITIVITIES2));
+    ScenarioArray<CurrencyParameterSensitivities> combined = MarketQuoteSensitivityAggregator.combine(
+        ScenarioArray.of(SENSITIVITIES1, SENSITIVITIES2),
+        ScenarioArray.of(SENSITIVITIES2, SENSITIVITIES2));
+    assertEquals(combined.get(0), SENSITIVITIES1.combinedWith(SENSITIVITIES2));
+    assertEquals(combined.get(1), SENSITIVITIES2.multipliedBy(2));
+    assertThrowsIllegalArg(() -> MarketQuoteSensitivityAggregator.combine(
+        ScenarioArray.of(SENSITIVITIES1), ScenarioArray.of(SENSITIVITIES1, SENSITIVITIES2)));
+    assertThrowsIllegalArg(() -> MarketQuoteSensitivityAggregator.combine(
+        ScenarioArray.of(SENSITIVITIES1), ScenarioArray.of("A")));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_marketQuoteSensitivity_aggregatedResults() {
+    ScenarioArray<CurrencyParameterSensitivities> aggregated = MarketQuoteSensitivityAggregator.combine(
+        ScenarioArray.of(SENSITIVITIES1, SENSITIVITIES1),
+        ScenarioArray.of(SENSITIVITIES2, SENSITIVITIES2));
+    Result<?> failure = Result.failure(FailureReason.CALCULATION_FAILED, "Failed");
+    AggregatedResults<String> results = AggregatedResults.of(
+        ImmutableList.of("A", "B", "C"),
+        Results.of(
+            ImmutableList.of(ColumnHeader.of(COLUMN, Measures.PV01_CALIBRATED_BUCKETED)),
+            ImmutableList.of(
+                Result.success(aggregated),
+                failure,
+                Result.success(ScenarioArray.of(SENSITIVITIES1)))));
+    Map<String, Result<?>> test = TEST.marketQuoteSensitivity(results, COLUMN, MARKET_DATA);
+    assertEquals(ImmutableList.copyOf(test.keySet()), ImmutableList.of("A", "B", "C"));
+    ScenarioArray<?> computed = (ScenarioArray<?>) test.get("A").getValue();
+    for (int i = 0; i < 2; i++) {
+      RatesProvider provider = MARKET_DATA.scenario(i).ratesProvider();
+      CurrencyParameterSensitivities expected = CALC.sensitivity(SENSITIVITIES1, provider)
+          .combinedWith(CALC.sensitivity(SENSITIVITIES2, provider));
+      assertTrue(((CurrencyParameterSensitivities) computed.get(i)).equalWithTolerance(expected, TOL));
+    }
+    assertTrue(test.get("B").isFailure());
+    assertTrue(test.get("C").isFailure());
+  }
+
+  public void test_marketQuoteSensitivity_singleValue() {
+    Result<?> aggregated = Result.success(SENSITIVITIES1.combinedWith(SENSITIVITIES2));
+    AggregatedResults<String> results = AggregatedResults.of(
+        ImmutableList.of("A"),
+        Results.of(
+            ImmutableList.of(ColumnHeader.of(COLUMN, Measures.PV01_CALIBRATED_BUCKETED)),
+            ImmutableList.of(aggregated)));
+    Map<String, Result<?>> test = TEST.marketQuoteSensitivity(results, COLUMN, MARKET_DATA);
+    RatesProvider provider = MARKET_DATA.scenario(0).ratesProvider();
+    CurrencyParameterSensitivities expected = CALC.sensitivity(SENSITIVITIES1.combinedWith(SENSITIVITIES2), provider);
+    assertEquals(test.get("A").getValue(), expected);
+    assertEquals(TEST.marketQuoteSensitivity(SENSITIVITIES1.combinedWith(SENSITIVITIES2), provider), expected);
+  }
+
+  public void test_marketQuoteSensitivity_marketDataByGroup() {
+    RatesScenarioMarketData marketData2 = LOOKUP.marketDataView(
+        ImmutableScenarioMarketData.builder(VAL_DATE)
+            .addScenarioValue(CURVE_ID, ImmutableList.of(CURVE2))
+            .build());
+    AggregatedResults<String> results = AggregatedResults.of(
+        ImmutableList.of("A", "B"),
+        Results.of(
+            ImmutableList.of(ColumnHeader.of(COLUMN, Measures.PV01_CALIBRATED_BUCKETED)),
+            ImmutableList.of(
+                Result.success(ScenarioArray.of(SENSITIVITIES1, SENSITIVITIES2)),
+                Result.success(ScenarioArray.of(SENSITIVITIES1)))));
+    Map<String, Result<?>> test = TEST.marketQuoteSensitivity(
+        results, COLUMN, group -> group.equals("A") ? MARKET_DATA : marketData2);
+    ScenarioArray<?> computedA = (ScenarioArray<?>) test.get("A").getValue();
+    assertEquals(computedA.getScenarioCount(), 2);
+    ScenarioArray<?> computedB = (ScenarioArray<?>) test.get("B").getValue();
+    assertEquals(computedB.get(0), CALC.sensitivity(SENSITIVITIES1, marketData2.scenario(0).ratesProvider()));
+  }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.measure.scenario;
+
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.time.LocalDate;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.basics.StandardId;
+import com.opengamma.strata.calc.marketdata.MarketDataFilter;
+import com.opengamma.strata.calc.marketdata.PerturbationMapping;
+import com.opengamma.strata.calc.marketdata.ScenarioDefinition;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.data.scenario.MarketDataBox;
+import com.opengamma.strata.market.GenericDoubleShifts;
+import com.opengamma.strata.market.ShiftType;
+import com.opengamma.strata.market.observable.QuoteId;
+
+/**
+ * Test {@link HistoricalScenarioGenerator}.
+ */
+@Test
+public class HistoricalScenarioGeneratorTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final QuoteId ID1 = QuoteId.of(StandardId.of("OG", "1"));
+  private static final QuoteId ID2 = QuoteId.of(StandardId.of("OG", "2"));
+  private static final LocalDate DATE1 = date(2017, 1, 2);
+  private static final LocalDate DATE2 = date(2017, 1, 3);
+  private static final LocalDate DATE3 = date(2017, 1, 4);
+  private static final LocalDate DATE4 = date(2017, 1, 5);
+  private static final LocalDateDoubleTimeSeries TS1 = LocalDateDoubleTimeSeries.builder()
+      .put(date(2016, 12, 30), 99d)
+      .put(DATE1, 1d)
+      .put(DATE2, 2d)
+      .put(DATE3, 4d)
+      .put(DATE4, 8d)
+      .build();
+  private static final LocalDateDoubleTimeSeries TS2 = LocalDateDoubleTimeSeries.builder()
+      .put(DATE2, 10d)
+      .put(DATE4, 5d)
+      .build();
+
+  public void test_of() {
+    HistoricalScenarioGenerator test = HistoricalScenarioGenerator.of(ShiftType.SCALED, 10);
+    assertEquals(test.getShiftType(), ShiftType.SCALED);
+    assertEquals(test.getHorizon(), 10);
+    assertEquals(HistoricalScenarioGenerator.ABSOLUTE.getShiftType(), ShiftType.ABSOLUTE);
+    assertEquals(HistoricalScenarioGenerator.RELATIVE.getHorizon(), 1);
+    assertThrowsIllegalArg(() -> HistoricalScenarioGenerator.of(ShiftType.ABSOLUTE, 0));
+    assertThrowsIllegalArg(() -> HistoricalScenarioGenerator.of(null, 1));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_generate_timeSeries_absolute() {
+    ScenarioDefinition test = HistoricalScenarioGenerator.ABSOLUTE.generate(
+        ImmutableMap.of(ID1, TS1, ID2, TS2), DATE1, DATE4);
+    assertEquals(test.getScenarioCount(), 3);
+    assertEquals(test.getScenarioNames(), ImmutableList.of("2017-01-03", "2017-01-04", "2017-01-05"));
+    assertEquals(test.getMappings(), ImmutableList.of(
+        PerturbationMapping.of(
+            MarketDataFilter.ofId(ID1), GenericDoubleShifts.of(ShiftType.ABSOLUTE, DoubleArray.of(1, 2, 4))),
+        PerturbationMapping.of(
+            MarketDataFilter.ofId(ID2), GenericDoubleShifts.of(ShiftType.ABSOLUTE, DoubleArray.of(0, 0, -5)))));
+  }
+
+  public void test_generate_timeSeries_relativeHorizon() {
+    HistoricalScenarioGenerator generator = HistoricalScenarioGenerator.of(ShiftType.RELATIVE, 2);
+    ScenarioDefinition test = generator.generate(ImmutableMap.of(ID1, TS1, ID2, TS2), DATE1, DATE4);
+    assertEquals(test.getScenarioNames(), ImmutableList.of("2017-01-04", "2017-01-05"));
+    GenericDoubleShifts shifts1 = (GenericDoubleShifts) test.getMappings().get(0).getPerturbation();
+    assertTrue(shifts1.getShiftAmount().equalWithTolerance(DoubleArray.of(3, 3), 1e-12));
+    GenericDoubleShifts shifts2 = (GenericDoubleShifts) test.getMappings().get(1).getPerturbation();
+    assertTrue(shifts2.getShiftAmount().equalWithTolerance(DoubleArray.of(0, -0.5), 1e-12));
+    MarketDataBox<Double> shifted = shifts1.applyTo(MarketDataBox.ofSingleValue(100d), REF_DATA);
+    assertEquals(shifted.getValue(1), 400d, 1e-10);
+  }
+
+  public void test_generate_timeSeries_invalid() {
+    HistoricalScenarioGenerator test = HistoricalScenarioGenerator.ABSOLUTE;
+    assertThrowsIllegalArg(() -> test.generate(ImmutableMap.of(ID1, TS1), DATE1, DATE1));
+    assertThrowsIllegalArg(() -> test.generate(ImmutableMap.of(ID1, TS1, ID2, TS2), date(2016, 12, 30), DATE1));
+    assertThrowsIllegalArg(() -> test.generate(ImmutableMap.of(ID1, TS1), DATE4, DATE1));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_generate_quotesByDate() {
+    ImmutableMap<LocalDate, ImmutableMap<QuoteId, Double>> quotes = ImmutableMap.of(
+        DATE2, ImmutableMap.of(ID1, 2d, ID2, 10d),
+        DATE1, ImmutableMap.of(ID1, 1d),
+        DATE3, ImmutableMap.of(ID1, 4d),
+        DATE4, ImmutableMap.of(ID1, 8d, ID2, 5d));
+    ScenarioDefinition test = HistoricalScenarioGenerator.ABSOLUTE.generate(quotes);
+    ScenarioDefinition expected = HistoricalScenarioGenerator.ABSOLUTE.generate(
+        ImmutableMap.of(ID1, TS1, ID2, TS2), DATE1, DATE4);
+    assertEquals(test, expected);
+  }
+
+}
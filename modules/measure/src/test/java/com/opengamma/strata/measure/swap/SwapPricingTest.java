@@ -38,6 +38,8 @@ import com.opengamma.strata.calc.CalculationRunner;
 import com.opengamma.strata.calc.Column;
 import com.opengamma.strata.calc.Results;
 import com.opengamma.strata.calc.runner.CalculationFunctions;
+import com.opengamma.strata.calc.runner.CalculationTasks;
+import com.opengamma.strata.calc.runner.DistributedCalculationTaskRunner;
 import com.opengamma.strata.collect.result.Result;
 import com.opengamma.strata.data.ImmutableMarketData;
 import com.opengamma.strata.data.MarketData;
@@ -80,8 +82,61 @@ public class SwapPricingTest {
   // tolerance
   private static final double TOLERANCE_PV = 1.0E-4;
 
+  private static final CurveGroupName GROUP_NAME = CurveGroupName.of("Test");
+  private static final CurveId ID_USD_DSC = CurveId.of(GROUP_NAME, StandardDataSets.GROUP1_USD_DSC.getName());
+  private static final CurveId ID_USD_ON = CurveId.of(GROUP_NAME, StandardDataSets.GROUP1_USD_ON.getName());
+  private static final CurveId ID_USD_L1M = CurveId.of(GROUP_NAME, StandardDataSets.GROUP1_USD_L1M.getName());
+  private static final CurveId ID_USD_L3M = CurveId.of(GROUP_NAME, StandardDataSets.GROUP1_USD_L3M.getName());
+  private static final CurveId ID_USD_L6M = CurveId.of(GROUP_NAME, StandardDataSets.GROUP1_USD_L6M.getName());
+  private static final MarketData MARKET_DATA = ImmutableMarketData.builder(VAL_DATE)
+      .addValue(ID_USD_DSC, StandardDataSets.GROUP1_USD_DSC)
+      .addValue(ID_USD_ON, StandardDataSets.GROUP1_USD_ON)
+      .addValue(ID_USD_L1M, StandardDataSets.GROUP1_USD_L1M)
+      .addValue(ID_USD_L3M, StandardDataSets.GROUP1_USD_L3M)
+      .addValue(ID_USD_L6M, StandardDataSets.GROUP1_USD_L6M)
+      .build();
+  private static final RatesMarketDataLookup RATES_LOOKUP = RatesMarketDataLookup.of(
+      ImmutableMap.of(
+          USD, ID_USD_DSC),
+      ImmutableMap.of(
+          USD_FED_FUND, ID_USD_ON,
+          USD_LIBOR_1M, ID_USD_L1M,
+          USD_LIBOR_3M, ID_USD_L3M,
+          USD_LIBOR_6M, ID_USD_L6M));
+  private static final CalculationFunctions FUNCTIONS = StandardComponents.calculationFunctions();
+  private static final CalculationRules RULES = CalculationRules.of(FUNCTIONS, USD, RATES_LOOKUP);
+  private static final List<Column> COLUMNS = ImmutableList.of(Column.of(Measures.PRESENT_VALUE));
+
   //-------------------------------------------------------------------------
   public void presentValueVanillaFixedVsLibor1mSwap() {
+    // calculate results using the runner
+    // using the direct executor means there is no need to close/shutdown the runner
+    CalculationRunner runner = CalculationRunner.of(MoreExecutors.newDirectExecutorService());
+    Results results = runner.calculate(RULES, ImmutableList.of(fixedVsLibor1mSwap()), COLUMNS, MARKET_DATA, REF_DATA);
+
+    Result<?> result = results.get(0, 0);
+    assertThat(result).isSuccess();
+
+    CurrencyAmount pv = (CurrencyAmount) result.getValue();
+    assertThat(pv.getAmount()).isCloseTo(-1003684.8402, offset(TOLERANCE_PV));
+  }
+
+  public void presentValueVanillaFixedVsLibor1mSwap_workerProcess() {
+    // the standard functions are serialized and sent to a worker process
+    CalculationTasks tasks = CalculationTasks.of(RULES, ImmutableList.of(fixedVsLibor1mSwap()), COLUMNS);
+    try (DistributedCalculationTaskRunner runner = DistributedCalculationTaskRunner.ofLocalProcesses(1)) {
+      Results results = runner.calculate(tasks, MARKET_DATA, REF_DATA);
+
+      Result<?> result = results.get(0, 0);
+      assertThat(result).isSuccess();
+
+      CurrencyAmount pv = (CurrencyAmount) result.getValue();
+      assertThat(pv.getAmount()).isCloseTo(-1003684.8402, offset(TOLERANCE_PV));
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  private static SwapTrade fixedVsLibor1mSwap() {
     SwapLeg payLeg = fixedLeg(
         LocalDate.of(2014, 9, 12), LocalDate.of(2016, 9, 12), Frequency.P6M, PayReceive.PAY, NOTIONAL, 0.0125, null);
 
@@ -104,50 +159,9 @@ public class SwapPricingTest {
             .build())
         .build();
 
-    SwapTrade trade = SwapTrade.builder()
+    return SwapTrade.builder()
         .info(TradeInfo.builder().tradeDate(LocalDate.of(2014, 9, 10)).build())
         .product(Swap.of(payLeg, receiveLeg)).build();
-
-    CurveGroupName groupName = CurveGroupName.of("Test");
-    CurveId idUsdDsc = CurveId.of(groupName, StandardDataSets.GROUP1_USD_DSC.getName());
-    CurveId idUsdOn = CurveId.of(groupName, StandardDataSets.GROUP1_USD_ON.getName());
-    CurveId idUsdL1M = CurveId.of(groupName, StandardDataSets.GROUP1_USD_L1M.getName());
-    CurveId idUsdL3M = CurveId.of(groupName, StandardDataSets.GROUP1_USD_L3M.getName());
-    CurveId idUsdL6M = CurveId.of(groupName, StandardDataSets.GROUP1_USD_L6M.getName());
-    MarketData suppliedData = ImmutableMarketData.builder(VAL_DATE)
-        .addValue(idUsdDsc, StandardDataSets.GROUP1_USD_DSC)
-        .addValue(idUsdOn, StandardDataSets.GROUP1_USD_ON)
-        .addValue(idUsdL1M, StandardDataSets.GROUP1_USD_L1M)
-        .addValue(idUsdL3M, StandardDataSets.GROUP1_USD_L3M)
-        .addValue(idUsdL6M, StandardDataSets.GROUP1_USD_L6M)
-        .build();
-
-    CalculationFunctions functions = StandardComponents.calculationFunctions();
-
-    RatesMarketDataLookup ratesLookup = RatesMarketDataLookup.of(
-        ImmutableMap.of(
-            USD, idUsdDsc),
-        ImmutableMap.of(
-            USD_FED_FUND, idUsdOn,
-            USD_LIBOR_1M, idUsdL1M,
-            USD_LIBOR_3M, idUsdL3M,
-            USD_LIBOR_6M, idUsdL6M));
-
-    // create the calculation runner
-    List<SwapTrade> trades = ImmutableList.of(trade);
-    List<Column> columns = ImmutableList.of(Column.of(Measures.PRESENT_VALUE));
-    CalculationRules rules = CalculationRules.of(functions, USD, ratesLookup);
-
-    // calculate results using the runner
-    // using the direct executor means there is no need to close/shutdown the runner
-    CalculationRunner runner = CalculationRunner.of(MoreExecutors.newDirectExecutorService());
-    Results results = runner.calculate(rules, trades, columns, suppliedData, REF_DATA);
-
-    Result<?> result = results.get(0, 0);
-    assertThat(result).isSuccess();
-
-    CurrencyAmount pv = (CurrencyAmount) result.getValue();
-    assertThat(pv.getAmount()).isCloseTo(-1003684.8402, offset(TOLERANCE_PV));
   }
 
   private static SwapLeg fixedLeg(
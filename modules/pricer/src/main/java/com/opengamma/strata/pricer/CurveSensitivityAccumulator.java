@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.market.curve.Curve;
+import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
+import com.opengamma.strata.market.param.CurrencyParameterSensitivity;
+import com.opengamma.strata.market.param.UnitParameterSensitivity;
+
+/**
+ * Accumulates point sensitivities projected onto the parameters of a single curve.
+ * <p>
+ * The unit sensitivity of the curve at each point is scaled and added to one array per currency.
+ * This avoids creating and merging a parameter sensitivity object for each point.
+ * <p>
+ * This class is mutable and not thread-safe.
+ */
+final class CurveSensitivityAccumulator {
+
+  /**
+   * The curve.
+   */
+  private final Curve curve;
+  /**
+   * The unit sensitivity of the first point, used as the template for the result.
+   */
+  private UnitParameterSensitivity template;
+  /**
+   * The accumulated sensitivities, keyed by currency.
+   */
+  private final Map<Currency, double[]> sensitivities = new LinkedHashMap<>();
+
+  /**
+   * Creates an instance.
+   * 
+   * @param curve  the curve
+   */
+  CurveSensitivityAccumulator(Curve curve) {
+    this.curve = curve;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Adds the sensitivity at a point on the curve.
+   * <p>
+   * The unit sensitivity of the curve at the x-value is multiplied by the amount.
+   * 
+   * @param x  the x-value of the point
+   * @param currency  the currency of the sensitivity
+   * @param amount  the amount to multiply the unit sensitivity by
+   */
+  void add(double x, Currency currency, double amount) {
+    UnitParameterSensitivity unitSens = curve.yValueParameterSensitivity(x);
+    if (template == null) {
+      template = unitSens;
+    }
+    DoubleArray unitArray = unitSens.getSensitivity();
+    double[] total = sensitivities.computeIfAbsent(currency, ccy -> new double[unitArray.size()]);
+    for (int i = 0; i < total.length; i++) {
+      total[i] += unitArray.get(i) * amount;
+    }
+  }
+
+  /**
+   * Builds the parameter sensitivities.
+   * 
+   * @return the accumulated sensitivities
+   */
+  CurrencyParameterSensitivities build() {
+    List<CurrencyParameterSensitivity> result = new ArrayList<>(sensitivities.size());
+    for (Entry<Currency, double[]> entry : sensitivities.entrySet()) {
+      result.add(template.withSensitivity(DoubleArray.ofUnsafe(entry.getValue())).multipliedBy(entry.getKey(), 1d));
+    }
+    return CurrencyParameterSensitivities.of(result);
+  }
+
+}
@@ -8,6 +8,7 @@ package com.opengamma.strata.pricer;
 import static com.opengamma.strata.pricer.SimpleDiscountFactors.EFFECTIVE_ZERO;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 import com.opengamma.strata.basics.currency.Currency;
@@ -21,6 +22,7 @@ import com.opengamma.strata.market.curve.Curve;
 import com.opengamma.strata.market.curve.CurveInfoType;
 import com.opengamma.strata.market.curve.InterpolatedNodalCurve;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
+import com.opengamma.strata.market.param.CurrencyParameterSensitivitiesBuilder;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivity;
 import com.opengamma.strata.market.param.ParameterPerturbation;
 import com.opengamma.strata.market.param.ParameterizedData;
@@ -63,6 +65,39 @@ public interface DiscountFactors
         curve.getMetadata().getYValueType()));
   }
 
+  /**
+   * Obtains an instance from a curve, caching the year fractions.
+   * <p>
+   * This is the same as {@link #of(Currency, LocalDate, Curve)}, except that the relative year fractions
+   * are held in the cache, which is typically shared by the curves of a rates provider.
+   *
+   * @param currency  the currency
+   * @param valuationDate  the valuation date for which the curve is valid
+   * @param curve  the underlying curve
+   * @param yearFractions  the cache of year fractions, with the same valuation date
+   * @return the discount factors view
+   */
+  public static DiscountFactors of(
+      Currency currency,
+      LocalDate valuationDate,
+      Curve curve,
+      YearFractionCache yearFractions) {
+
+    if (curve.getMetadata().getYValueType().equals(ValueType.DISCOUNT_FACTOR)) {
+      return SimpleDiscountFactors.of(currency, valuationDate, curve, yearFractions);
+    }
+    if (curve.getMetadata().getYValueType().equals(ValueType.ZERO_RATE)) {
+      Optional<Integer> frequencyOpt = curve.getMetadata().findInfo(CurveInfoType.COMPOUNDING_PER_YEAR);
+      if (frequencyOpt.isPresent()) {
+        return ZeroRatePeriodicDiscountFactors.of(currency, valuationDate, curve, yearFractions);
+      }
+      return ZeroRateDiscountFactors.of(currency, valuationDate, curve, yearFractions);
+    }
+    throw new IllegalArgumentException(Messages.format(
+        "Unknown value type in discount curve, must be 'DiscountFactor' or 'ZeroRate' but was '{}'",
+        curve.getMetadata().getYValueType()));
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Gets the currency.
@@ -447,6 +482,26 @@ public interface DiscountFactors
    */
   public abstract CurrencyParameterSensitivities parameterSensitivity(ZeroRateSensitivity pointSensitivity);
 
+  /**
+   * Calculates the parameter sensitivity from a list of point sensitivities.
+   * <p>
+   * This is used to convert many point sensitivities to parameter sensitivity in one call.
+   * The result is the same as calling {@link #parameterSensitivity(ZeroRateSensitivity)}
+   * for each point and combining the results.
+   * Implementations may override this to project all the points onto the parameters in a single pass.
+   *
+   * @param pointSensitivities  the point sensitivities to convert
+   * @return the parameter sensitivity
+   * @throws RuntimeException if the result cannot be calculated
+   */
+  public default CurrencyParameterSensitivities parameterSensitivity(List<ZeroRateSensitivity> pointSensitivities) {
+    CurrencyParameterSensitivitiesBuilder builder = CurrencyParameterSensitivities.builder();
+    for (ZeroRateSensitivity pointSensitivity : pointSensitivities) {
+      builder.add(parameterSensitivity(pointSensitivity));
+    }
+    return builder.build();
+  }
+
   /**
    * Creates the parameter sensitivity when the sensitivity values are known.
    * <p>
@@ -7,6 +7,7 @@ package com.opengamma.strata.pricer;
 
 import java.io.Serializable;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
@@ -77,6 +78,10 @@ public final class SimpleDiscountFactors
    * The day count convention of the curve.
    */
   private final transient DayCount dayCount;  // cached, not a property
+  /**
+   * The cache of year fractions, null if the year fractions are not cached.
+   */
+  private final transient YearFractionCache yearFractions;  // cached, not a property
 
   //-------------------------------------------------------------------------
   /**
@@ -96,12 +101,43 @@ public final class SimpleDiscountFactors
     return new SimpleDiscountFactors(currency, valuationDate, underlyingCurve);
   }
 
+  /**
+   * Obtains an instance based on a discount factor curve, caching the year fractions.
+   * <p>
+   * This is the same as {@link #of(Currency, LocalDate, Curve)}, except that the relative year fractions
+   * are held in the cache, which is typically shared by the curves of a rates provider.
+   *
+   * @param currency  the currency
+   * @param valuationDate  the valuation date for which the curve is valid
+   * @param underlyingCurve  the underlying curve
+   * @param yearFractions  the cache of year fractions, with the same valuation date
+   * @return the curve
+   */
+  public static SimpleDiscountFactors of(
+      Currency currency,
+      LocalDate valuationDate,
+      Curve underlyingCurve,
+      YearFractionCache yearFractions) {
+
+    ArgChecker.notNull(yearFractions, "yearFractions");
+    return new SimpleDiscountFactors(currency, valuationDate, underlyingCurve, yearFractions);
+  }
+
   @ImmutableConstructor
   private SimpleDiscountFactors(
       Currency currency,
       LocalDate valuationDate,
       Curve curve) {
 
+    this(currency, valuationDate, curve, null);
+  }
+
+  private SimpleDiscountFactors(
+      Currency currency,
+      LocalDate valuationDate,
+      Curve curve,
+      YearFractionCache yearFractions) {
+
     ArgChecker.notNull(currency, "currency");
     ArgChecker.notNull(valuationDate, "valuationDate");
     ArgChecker.notNull(curve, "curve");
@@ -111,11 +147,14 @@ public final class SimpleDiscountFactors
         ValueType.DISCOUNT_FACTOR, "Incorrect y-value type for discount curve");
     DayCount dayCount = curve.getMetadata().findInfo(CurveInfoType.DAY_COUNT)
         .orElseThrow(() -> new IllegalArgumentException("Incorrect curve metadata, missing DayCount"));
+    ArgChecker.isTrue(yearFractions == null || yearFractions.getValuationDate().equals(valuationDate),
+        "Year fraction cache must have the same valuation date");
 
     this.currency = currency;
     this.valuationDate = valuationDate;
     this.curve = curve;
     this.dayCount = dayCount;
+    this.yearFractions = yearFractions;
   }
 
   // ensure standard constructor is invoked
@@ -160,6 +199,9 @@ public final class SimpleDiscountFactors
   //-------------------------------------------------------------------------
   @Override
   public double relativeYearFraction(LocalDate date) {
+    if (yearFractions != null) {
+      return yearFractions.relativeYearFraction(dayCount, date);
+    }
     return dayCount.relativeYearFraction(valuationDate, date);
   }
 
@@ -203,6 +245,20 @@ public final class SimpleDiscountFactors
     return CurrencyParameterSensitivities.of(curSens);
   }
 
+  @Override
+  public CurrencyParameterSensitivities parameterSensitivity(List<ZeroRateSensitivity> pointSensitivities) {
+    CurveSensitivityAccumulator accumulator = new CurveSensitivityAccumulator(curve);
+    for (ZeroRateSensitivity pointSens : pointSensitivities) {
+      double yearFraction = pointSens.getYearFraction();
+      if (Math.abs(yearFraction) >= EFFECTIVE_ZERO) {
+        double discountFactor = discountFactor(yearFraction);
+        double factor = -1d / (yearFraction * discountFactor);
+        accumulator.add(yearFraction, pointSens.getCurrency(), factor * pointSens.getSensitivity());
+      }
+    }
+    return accumulator.build();
+  }
+
   @Override
   public CurrencyParameterSensitivities createParameterSensitivity(Currency currency, DoubleArray sensitivities) {
     return CurrencyParameterSensitivities.of(curve.createParameterSensitivity(currency, sensitivities));
@@ -216,7 +272,7 @@ public final class SimpleDiscountFactors
    * @return the new instance
    */
   public SimpleDiscountFactors withCurve(Curve curve) {
-    return new SimpleDiscountFactors(currency, valuationDate, curve);
+    return new SimpleDiscountFactors(currency, valuationDate, curve, yearFractions);
   }
 
   //------------------------- AUTOGENERATED START -------------------------
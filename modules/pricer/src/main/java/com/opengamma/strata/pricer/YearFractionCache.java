@@ -0,0 +1,152 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer;
+
+import java.time.LocalDate;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.opengamma.strata.basics.date.DayCount;
+import com.opengamma.strata.collect.ArgChecker;
+
+/**
+ * A cache of the relative year fraction from a valuation date to each date.
+ * <p>
+ * Discount factors and index rates convert each date to a relative year fraction using
+ * the day count of the underlying curve. Across a book, the same payment dates are converted many times,
+ * and some day counts are relatively expensive to evaluate.
+ * <p>
+ * An instance is held by a rates provider and passed to the discount factors and index rates it creates,
+ * thus the year fractions are shared by all the curves of the provider with the same day count.
+ * The year fractions are held in blocks of consecutive days indexed by the offset in days from
+ * the valuation date, each date being calculated the first time it is queried.
+ * Dates more than about 100 years from the valuation date are not cached.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class YearFractionCache {
+
+  /**
+   * The number of bits of the offset in days indexing the day within a block.
+   */
+  private static final int BLOCK_SHIFT = 6;
+  /**
+   * The number of days in each block.
+   */
+  private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+  /**
+   * The number of blocks on each side of the valuation date.
+   */
+  private static final int BLOCK_COUNT = 600;
+  /**
+   * The offset in days of the first cached date.
+   */
+  private static final int MIN_OFFSET = -BLOCK_COUNT * BLOCK_SIZE;
+  /**
+   * The number of cached days.
+   */
+  private static final int CACHED_DAYS = 2 * BLOCK_COUNT * BLOCK_SIZE;
+  /**
+   * The bits of a year fraction that has not been calculated.
+   */
+  private static final long NOT_CALCULATED = Double.doubleToRawLongBits(Double.NaN);
+
+  /**
+   * The valuation date.
+   */
+  private final LocalDate valuationDate;
+  /**
+   * The epoch day of the valuation date.
+   */
+  private final long valuationEpochDay;
+  /**
+   * The blocks of year fractions, keyed by day count, each block being null until first queried.
+   */
+  private final ConcurrentHashMap<DayCount, AtomicReferenceArray<AtomicLongArray>> blocksByDayCount =
+      new ConcurrentHashMap<>();
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an empty cache for the valuation date.
+   *
+   * @param valuationDate  the valuation date
+   * @return the cache
+   */
+  public static YearFractionCache of(LocalDate valuationDate) {
+    return new YearFractionCache(valuationDate);
+  }
+
+  // restricted constructor
+  private YearFractionCache(LocalDate valuationDate) {
+    this.valuationDate = ArgChecker.notNull(valuationDate, "valuationDate");
+    this.valuationEpochDay = valuationDate.toEpochDay();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the valuation date.
+   *
+   * @return the valuation date
+   */
+  public LocalDate getValuationDate() {
+    return valuationDate;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the relative year fraction from the valuation date to the date.
+   * <p>
+   * The result is the same as {@link DayCount#relativeYearFraction(LocalDate, LocalDate)}
+   * with the valuation date as the first date.
+   * If the day count fails for the date, the failure is not cached and the exception is thrown on each query.
+   *
+   * @param dayCount  the day count
+   * @param date  the date
+   * @return the year fraction, negative if the date is before the valuation date
+   */
+  public double relativeYearFraction(DayCount dayCount, LocalDate date) {
+    long index = date.toEpochDay() - valuationEpochDay - MIN_OFFSET;
+    if (index < 0 || index >= CACHED_DAYS) {
+      return dayCount.relativeYearFraction(valuationDate, date);
+    }
+    AtomicLongArray block = block(dayCount, (int) (index >> BLOCK_SHIFT));
+    int dayIndex = (int) index & (BLOCK_SIZE - 1);
+    long bits = block.get(dayIndex);
+    if (bits != NOT_CALCULATED) {
+      return Double.longBitsToDouble(bits);
+    }
+    // concurrent callers may both calculate the year fraction, with identical results
+    double yearFraction = dayCount.relativeYearFraction(valuationDate, date);
+    block.lazySet(dayIndex, Double.doubleToRawLongBits(yearFraction));
+    return yearFraction;
+  }
+
+  // finds or creates the block of the day count
+  private AtomicLongArray block(DayCount dayCount, int blockIndex) {
+    AtomicReferenceArray<AtomicLongArray> blocks = blocksByDayCount.get(dayCount);
+    if (blocks == null) {
+      blocksByDayCount.putIfAbsent(dayCount, new AtomicReferenceArray<>(2 * BLOCK_COUNT));
+      blocks = blocksByDayCount.get(dayCount);
+    }
+    AtomicLongArray block = blocks.get(blockIndex);
+    if (block == null) {
+      AtomicLongArray newBlock = new AtomicLongArray(BLOCK_SIZE);
+      for (int i = 0; i < BLOCK_SIZE; i++) {
+        newBlock.lazySet(i, NOT_CALCULATED);
+      }
+      block = blocks.compareAndSet(blockIndex, null, newBlock) ? newBlock : blocks.get(blockIndex);
+    }
+    return block;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "YearFractionCache[" + valuationDate + "]";
+  }
+
+}
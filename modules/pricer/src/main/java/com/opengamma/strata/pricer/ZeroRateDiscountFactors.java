@@ -7,6 +7,7 @@ package com.opengamma.strata.pricer;
 
 import java.io.Serializable;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
@@ -73,6 +74,10 @@ public final class ZeroRateDiscountFactors
    * The day count convention of the curve.
    */
   private final transient DayCount dayCount;  // cached, not a property
+  /**
+   * The cache of year fractions, null if the year fractions are not cached.
+   */
+  private final transient YearFractionCache yearFractions;  // cached, not a property
 
   //-------------------------------------------------------------------------
   /**
@@ -92,12 +97,43 @@ public final class ZeroRateDiscountFactors
     return new ZeroRateDiscountFactors(currency, valuationDate, underlyingCurve);
   }
 
+  /**
+   * Obtains an instance based on a zero-rates curve, caching the year fractions.
+   * <p>
+   * This is the same as {@link #of(Currency, LocalDate, Curve)}, except that the relative year fractions
+   * are held in the cache, which is typically shared by the curves of a rates provider.
+   *
+   * @param currency  the currency
+   * @param valuationDate  the valuation date for which the curve is valid
+   * @param underlyingCurve  the underlying curve
+   * @param yearFractions  the cache of year fractions, with the same valuation date
+   * @return the curve
+   */
+  public static ZeroRateDiscountFactors of(
+      Currency currency,
+      LocalDate valuationDate,
+      Curve underlyingCurve,
+      YearFractionCache yearFractions) {
+
+    ArgChecker.notNull(yearFractions, "yearFractions");
+    return new ZeroRateDiscountFactors(currency, valuationDate, underlyingCurve, yearFractions);
+  }
+
   @ImmutableConstructor
   private ZeroRateDiscountFactors(
       Currency currency,
       LocalDate valuationDate,
       Curve curve) {
 
+    this(currency, valuationDate, curve, null);
+  }
+
+  private ZeroRateDiscountFactors(
+      Currency currency,
+      LocalDate valuationDate,
+      Curve curve,
+      YearFractionCache yearFractions) {
+
     ArgChecker.notNull(currency, "currency");
     ArgChecker.notNull(valuationDate, "valuationDate");
     ArgChecker.notNull(curve, "curve");
@@ -107,11 +143,14 @@ public final class ZeroRateDiscountFactors
         ValueType.ZERO_RATE, "Incorrect y-value type for zero-rate discount curve");
     DayCount dayCount = curve.getMetadata().findInfo(CurveInfoType.DAY_COUNT)
         .orElseThrow(() -> new IllegalArgumentException("Incorrect curve metadata, missing DayCount"));
+    ArgChecker.isTrue(yearFractions == null || yearFractions.getValuationDate().equals(valuationDate),
+        "Year fraction cache must have the same valuation date");
 
     this.currency = currency;
     this.valuationDate = valuationDate;
     this.curve = curve;
     this.dayCount = dayCount;
+    this.yearFractions = yearFractions;
   }
 
   // ensure standard constructor is invoked
@@ -156,6 +195,9 @@ public final class ZeroRateDiscountFactors
   //-------------------------------------------------------------------------
   @Override
   public double relativeYearFraction(LocalDate date) {
+    if (yearFractions != null) {
+      return yearFractions.relativeYearFraction(dayCount, date);
+    }
     return dayCount.relativeYearFraction(valuationDate, date);
   }
 
@@ -192,6 +234,15 @@ public final class ZeroRateDiscountFactors
     return CurrencyParameterSensitivities.of(curSens);
   }
 
+  @Override
+  public CurrencyParameterSensitivities parameterSensitivity(List<ZeroRateSensitivity> pointSensitivities) {
+    CurveSensitivityAccumulator accumulator = new CurveSensitivityAccumulator(curve);
+    for (ZeroRateSensitivity pointSens : pointSensitivities) {
+      accumulator.add(pointSens.getYearFraction(), pointSens.getCurrency(), pointSens.getSensitivity());
+    }
+    return accumulator.build();
+  }
+
   @Override
   public CurrencyParameterSensitivities createParameterSensitivity(Currency currency, DoubleArray sensitivities) {
     return CurrencyParameterSensitivities.of(curve.createParameterSensitivity(currency, sensitivities));
@@ -205,7 +256,7 @@ public final class ZeroRateDiscountFactors
    * @return the new instance
    */
   public ZeroRateDiscountFactors withCurve(Curve curve) {
-    return new ZeroRateDiscountFactors(currency, valuationDate, curve);
+    return new ZeroRateDiscountFactors(currency, valuationDate, curve, yearFractions);
   }
 
   //------------------------- AUTOGENERATED START -------------------------
@@ -5,9 +5,18 @@
  */
 package com.opengamma.strata.pricer.credit;
 
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.stream.IntStream;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.basics.StandardId;
@@ -18,6 +27,8 @@ import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.collect.tuple.Pair;
 import com.opengamma.strata.market.curve.CurveName;
 import com.opengamma.strata.market.curve.NodalCurve;
+import com.opengamma.strata.market.param.CurrencyParameterSensitivity;
+import com.opengamma.strata.market.param.ResolvedTradeParameterMetadata;
 import com.opengamma.strata.pricer.common.PriceType;
 import com.opengamma.strata.product.credit.ResolvedCds;
 import com.opengamma.strata.product.credit.ResolvedCdsTrade;
@@ -65,49 +76,19 @@ public class FiniteDifferenceSpreadSensitivityCalculator extends SpreadSensitivi
       ReferenceData refData) {
 
     checkCdsBucket(trade, bucketCds);
-    ResolvedCds product = trade.getProduct();
-    Currency currency = product.getCurrency();
-    StandardId legalEntityId = product.getLegalEntityId();
-    LocalDate valuationDate = ratesProvider.getValuationDate();
     ImmutableCreditRatesProvider immutableRatesProvider = ratesProvider.toImmutableCreditRatesProvider();
-
     int nBucket = bucketCds.size();
     DoubleArray impSp = impliedSpread(bucketCds, ratesProvider, refData);
-    NodalCurve creditCurveBase = getCalibrator().calibrate(
-        bucketCds,
-        impSp,
-        DoubleArray.filled(nBucket),
-        CurveName.of("baseImpliedCreditCurve"),
-        valuationDate,
-        ratesProvider.discountFactors(currency),
-        ratesProvider.recoveryRates(legalEntityId),
-        refData);
-    Pair<StandardId, Currency> lePair = Pair.of(legalEntityId, currency);
-
-    IsdaCreditDiscountFactors df = IsdaCreditDiscountFactors.of(currency, valuationDate, creditCurveBase);
-    CreditRatesProvider ratesProviderBase = immutableRatesProvider.toBuilder()
-        .creditCurves(ImmutableMap.of(lePair, LegalEntitySurvivalProbabilities.of(legalEntityId, df)))
-        .build();
+    CreditRatesProvider ratesProviderBase = calibratedProvider(
+        bucketCds, impSp, CurveName.of("baseImpliedCreditCurve"), immutableRatesProvider, refData);
     CurrencyAmount pvBase = getPricer().presentValueOnSettle(trade, ratesProviderBase, PriceType.DIRTY, refData);
 
     DoubleArray bumpedSp = DoubleArray.of(nBucket, i -> impSp.get(i) + bumpAmount);
-    NodalCurve creditCurveBump = getCalibrator().calibrate(
-        bucketCds,
-        bumpedSp,
-        DoubleArray.filled(nBucket),
-        CurveName.of("bumpedImpliedCreditCurve"),
-        valuationDate,
-        ratesProvider.discountFactors(currency),
-        ratesProvider.recoveryRates(legalEntityId),
-        refData);
-    IsdaCreditDiscountFactors dfBump = IsdaCreditDiscountFactors.of(currency, valuationDate, creditCurveBump);
-    CreditRatesProvider ratesProviderBump = immutableRatesProvider.toBuilder()
-        .creditCurves(
-            ImmutableMap.of(lePair, LegalEntitySurvivalProbabilities.of(legalEntityId, dfBump)))
-        .build();
+    CreditRatesProvider ratesProviderBump = calibratedProvider(
+        bucketCds, bumpedSp, CurveName.of("bumpedImpliedCreditCurve"), immutableRatesProvider, refData);
     CurrencyAmount pvBumped = getPricer().presentValueOnSettle(trade, ratesProviderBump, PriceType.DIRTY, refData);
 
-    return CurrencyAmount.of(currency, (pvBumped.getAmount() - pvBase.getAmount()) / bumpAmount);
+    return CurrencyAmount.of(pvBase.getCurrency(), (pvBumped.getAmount() - pvBase.getAmount()) / bumpAmount);
   }
 
   @Override
@@ -118,51 +99,219 @@ public class FiniteDifferenceSpreadSensitivityCalculator extends SpreadSensitivi
       ReferenceData refData) {
 
     checkCdsBucket(trade, bucketCds);
-    ResolvedCds product = trade.getProduct();
-    Currency currency = product.getCurrency();
-    StandardId legalEntityId = product.getLegalEntityId();
-    LocalDate valuationDate = ratesProvider.getValuationDate();
     ImmutableCreditRatesProvider immutableRatesProvider = ratesProvider.toImmutableCreditRatesProvider();
-
     int nBucket = bucketCds.size();
     double[] res = new double[nBucket];
     DoubleArray impSp = impliedSpread(bucketCds, ratesProvider, refData);
-    NodalCurve creditCurveBase = getCalibrator().calibrate(
+    CreditRatesProvider ratesProviderBase = calibratedProvider(
+        bucketCds, impSp, CurveName.of("baseImpliedCreditCurve"), immutableRatesProvider, refData);
+    double pvBase = getPricer().presentValueOnSettle(trade, ratesProviderBase, PriceType.DIRTY, refData).getAmount();
+    for (int i = 0; i < nBucket; ++i) {
+      CreditRatesProvider ratesProviderBump = calibratedProvider(
+          bucketCds, bumpedSpreads(impSp, i), CurveName.of("bumpedImpliedCreditCurve"),
+          immutableRatesProvider, refData);
+      double pvBumped = getPricer().presentValueOnSettle(
+          trade, ratesProviderBump, PriceType.DIRTY, refData).getAmount();
+      res[i] = (pvBumped - pvBase) / bumpAmount;
+    }
+    return DoubleArray.ofUnsafe(res);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Computes parallel CS01 for a portfolio of CDSs.
+   * <p>
+   * The relevant credit curves must be stored in {@code RatesProvider}.
+   * <p>
+   * The CDS trades used in the curve calibration are reused as bucket CDS by this method.
+   * Thus the credit curves must store {@link ResolvedTradeParameterMetadata}.
+   * <p>
+   * The base and bumped credit curves are calibrated once per legal entity and currency,
+   * and shared by all the trades referencing them. The calibrations and the valuations are computed in parallel.
+   * The result for each trade is the same as
+   * {@link #parallelCs01(ResolvedCdsTrade, CreditRatesProvider, ReferenceData)}.
+   *
+   * @param trades  the trades
+   * @param ratesProvider  the rates provider
+   * @param refData  the reference data
+   * @return the parallel CS01, in the order of the trades
+   */
+  public ImmutableList<CurrencyAmount> parallelCs01(
+      List<ResolvedCdsTrade> trades,
+      CreditRatesProvider ratesProvider,
+      ReferenceData refData) {
+
+    Map<Pair<StandardId, Currency>, BumpedCurves> curves = bumpedCurves(trades, ratesProvider, refData, false);
+    return IntStream.range(0, trades.size())
+        .parallel()
+        .mapToObj(i -> {
+          ResolvedCdsTrade trade = trades.get(i);
+          BumpedCurves bumpedCurves = curves.get(key(trade));
+          CurrencyAmount pvBase = getPricer().presentValueOnSettle(
+              trade, bumpedCurves.baseProvider, PriceType.DIRTY, refData);
+          CurrencyAmount pvBumped = getPricer().presentValueOnSettle(
+              trade, bumpedCurves.bumpedProviders.get(0), PriceType.DIRTY, refData);
+          return CurrencyAmount.of(pvBase.getCurrency(), (pvBumped.getAmount() - pvBase.getAmount()) / bumpAmount);
+        })
+        .collect(toImmutableList());
+  }
+
+  /**
+   * Computes bucketed CS01 for a portfolio of CDSs.
+   * <p>
+   * The relevant credit curves must be stored in {@code RatesProvider}.
+   * <p>
+   * The CDS trades used in the curve calibration are reused as bucket CDS by this method.
+   * Thus the credit curves must store {@link ResolvedTradeParameterMetadata}.
+   * <p>
+   * The base and bumped credit curves are calibrated once per legal entity, currency and bucket CDS,
+   * and shared by all the trades referencing them. The calibrations and the valuations are computed in parallel.
+   * The result for each trade is the same as
+   * {@link #bucketedCs01(ResolvedCdsTrade, CreditRatesProvider, ReferenceData)}.
+   *
+   * @param trades  the trades
+   * @param ratesProvider  the rates provider
+   * @param refData  the reference data
+   * @return the bucketed CS01, in the order of the trades
+   */
+  public ImmutableList<CurrencyParameterSensitivity> bucketedCs01(
+      List<ResolvedCdsTrade> trades,
+      CreditRatesProvider ratesProvider,
+      ReferenceData refData) {
+
+    Map<Pair<StandardId, Currency>, BumpedCurves> curves = bumpedCurves(trades, ratesProvider, refData, true);
+    return IntStream.range(0, trades.size())
+        .parallel()
+        .mapToObj(i -> {
+          ResolvedCdsTrade trade = trades.get(i);
+          BumpedCurves bumpedCurves = curves.get(key(trade));
+          double pvBase = getPricer().presentValueOnSettle(
+              trade, bumpedCurves.baseProvider, PriceType.DIRTY, refData).getAmount();
+          DoubleArray sensitivity = DoubleArray.of(bumpedCurves.bumpedProviders.size(), j -> {
+            double pvBumped = getPricer().presentValueOnSettle(
+                trade, bumpedCurves.bumpedProviders.get(j), PriceType.DIRTY, refData).getAmount();
+            return (pvBumped - pvBase) / bumpAmount;
+          });
+          List<ResolvedTradeParameterMetadata> metadata = bumpedCurves.bucketCds.stream()
+              .map(t -> ResolvedTradeParameterMetadata.of(t, t.getProduct().getProtectionEndDate().toString()))
+              .collect(toImmutableList());
+          return CurrencyParameterSensitivity.of(
+              CurveName.of("impliedSpreads"), metadata, trade.getProduct().getCurrency(), sensitivity);
+        })
+        .collect(toImmutableList());
+  }
+
+  //-------------------------------------------------------------------------
+  // calibrates the base and bumped curves of each legal entity and currency of the trades, in parallel
+  private Map<Pair<StandardId, Currency>, BumpedCurves> bumpedCurves(
+      List<ResolvedCdsTrade> trades,
+      CreditRatesProvider ratesProvider,
+      ReferenceData refData,
+      boolean bucketed) {
+
+    ImmutableCreditRatesProvider immutableRatesProvider = ratesProvider.toImmutableCreditRatesProvider();
+    Map<Pair<StandardId, Currency>, List<ResolvedCdsTrade>> buckets = new LinkedHashMap<>();
+    for (ResolvedCdsTrade trade : trades) {
+      buckets.computeIfAbsent(key(trade), k -> {
+        List<ResolvedCdsTrade> bucketCds = getBucketCds(trade.getProduct(), ratesProvider);
+        checkCdsBucket(trade, bucketCds);
+        return bucketCds;
+      });
+    }
+    // the calibrations, the base curve being the first of each bucket
+    List<Pair<Pair<StandardId, Currency>, Integer>> calibrations = new ArrayList<>();
+    Map<Pair<StandardId, Currency>, DoubleArray> spreads = new HashMap<>();
+    for (Entry<Pair<StandardId, Currency>, List<ResolvedCdsTrade>> entry : buckets.entrySet()) {
+      spreads.put(entry.getKey(), impliedSpread(entry.getValue(), ratesProvider, refData));
+      int nBumps = bucketed ? entry.getValue().size() : 1;
+      for (int i = -1; i < nBumps; i++) {
+        calibrations.add(Pair.of(entry.getKey(), i));
+      }
+    }
+    List<CreditRatesProvider> providers = calibrations.stream()
+        .parallel()
+        .map(calibration -> {
+          List<ResolvedCdsTrade> bucketCds = buckets.get(calibration.getFirst());
+          DoubleArray impSp = spreads.get(calibration.getFirst());
+          int index = calibration.getSecond();
+          if (index < 0) {
+            return calibratedProvider(
+                bucketCds, impSp, CurveName.of("baseImpliedCreditCurve"), immutableRatesProvider, refData);
+          }
+          DoubleArray bumpedSp = bucketed ? bumpedSpreads(impSp, index) : impSp.map(sp -> sp + bumpAmount);
+          return calibratedProvider(
+              bucketCds, bumpedSp, CurveName.of("bumpedImpliedCreditCurve"), immutableRatesProvider, refData);
+        })
+        .collect(toImmutableList());
+    Map<Pair<StandardId, Currency>, BumpedCurves> result = new HashMap<>();
+    int position = 0;
+    for (Entry<Pair<StandardId, Currency>, List<ResolvedCdsTrade>> entry : buckets.entrySet()) {
+      int nBumps = bucketed ? entry.getValue().size() : 1;
+      result.put(entry.getKey(), new BumpedCurves(
+          entry.getValue(), providers.get(position), providers.subList(position + 1, position + 1 + nBumps)));
+      position += nBumps + 1;
+    }
+    return result;
+  }
+
+  // calibrates the credit curve to the spreads, and returns the rates provider with the curve
+  private CreditRatesProvider calibratedProvider(
+      List<ResolvedCdsTrade> bucketCds,
+      DoubleArray spreads,
+      CurveName curveName,
+      ImmutableCreditRatesProvider ratesProvider,
+      ReferenceData refData) {
+
+    ResolvedCds product = bucketCds.get(0).getProduct();
+    Currency currency = product.getCurrency();
+    StandardId legalEntityId = product.getLegalEntityId();
+    LocalDate valuationDate = ratesProvider.getValuationDate();
+    NodalCurve creditCurve = getCalibrator().calibrate(
         bucketCds,
-        impSp,
-        DoubleArray.filled(nBucket),
-        CurveName.of("baseImpliedCreditCurve"),
+        spreads,
+        DoubleArray.filled(bucketCds.size()),
+        curveName,
         valuationDate,
         ratesProvider.discountFactors(currency),
         ratesProvider.recoveryRates(legalEntityId),
         refData);
-    Pair<StandardId, Currency> lePair = Pair.of(legalEntityId, currency);
-
-    IsdaCreditDiscountFactors df = IsdaCreditDiscountFactors.of(currency, valuationDate, creditCurveBase);
-    CreditRatesProvider ratesProviderBase = immutableRatesProvider.toBuilder()
-        .creditCurves(ImmutableMap.of(lePair, LegalEntitySurvivalProbabilities.of(legalEntityId, df)))
+    IsdaCreditDiscountFactors df = IsdaCreditDiscountFactors.of(currency, valuationDate, creditCurve);
+    return ratesProvider.toBuilder()
+        .creditCurves(ImmutableMap.of(
+            Pair.of(legalEntityId, currency), LegalEntitySurvivalProbabilities.of(legalEntityId, df)))
         .build();
-    double pvBase = getPricer().presentValueOnSettle(trade, ratesProviderBase, PriceType.DIRTY, refData).getAmount();
-    for (int i = 0; i < nBucket; ++i) {
-      double[] bumpedSp = impSp.toArray();
-      bumpedSp[i] += bumpAmount;
-      NodalCurve creditCurveBump = getCalibrator().calibrate(
-          bucketCds,
-          DoubleArray.ofUnsafe(bumpedSp),
-          DoubleArray.filled(nBucket),
-          CurveName.of("bumpedImpliedCreditCurve"),
-          valuationDate,
-          ratesProvider.discountFactors(currency),
-          ratesProvider.recoveryRates(legalEntityId),
-          refData);
-      IsdaCreditDiscountFactors dfBump = IsdaCreditDiscountFactors.of(currency, valuationDate, creditCurveBump);
-      CreditRatesProvider ratesProviderBump = immutableRatesProvider.toBuilder()
-          .creditCurves(ImmutableMap.of(lePair, LegalEntitySurvivalProbabilities.of(legalEntityId, dfBump)))
-          .build();
-      double pvBumped = getPricer().presentValueOnSettle(trade, ratesProviderBump, PriceType.DIRTY, refData).getAmount();
-      res[i] = (pvBumped - pvBase) / bumpAmount;
+  }
+
+  // bumps one of the spreads
+  private DoubleArray bumpedSpreads(DoubleArray spreads, int index) {
+    double[] bumpedSp = spreads.toArray();
+    bumpedSp[index] += bumpAmount;
+    return DoubleArray.ofUnsafe(bumpedSp);
+  }
+
+  // the legal entity and currency of the trade
+  private static Pair<StandardId, Currency> key(ResolvedCdsTrade trade) {
+    return Pair.of(trade.getProduct().getLegalEntityId(), trade.getProduct().getCurrency());
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The base and bumped rates providers of a legal entity and currency.
+   */
+  private static final class BumpedCurves {
+    private final List<ResolvedCdsTrade> bucketCds;
+    private final CreditRatesProvider baseProvider;
+    private final List<CreditRatesProvider> bumpedProviders;
+
+    private BumpedCurves(
+        List<ResolvedCdsTrade> bucketCds,
+        CreditRatesProvider baseProvider,
+        List<CreditRatesProvider> bumpedProviders) {
+
+      this.bucketCds = bucketCds;
+      this.baseProvider = baseProvider;
+      this.bumpedProviders = bumpedProviders;
     }
-    return DoubleArray.ofUnsafe(res);
   }
 
 }
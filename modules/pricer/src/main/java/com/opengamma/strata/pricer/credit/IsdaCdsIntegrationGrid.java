@@ -0,0 +1,255 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.credit;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.opengamma.strata.collect.array.DoubleArray;
+
+/**
+ * The integration grid of a discount curve and a credit curve in the ISDA model.
+ * <p>
+ * The protection leg and the accrual-on-default are integrated over the merged nodes of the two curves.
+ * This provides the integration schedules and the values of the curves used by {@link IsdaCdsProductPricer}.
+ * <p>
+ * A direct grid evaluates the curves on each call.
+ * A precomputed grid merges the curve nodes and evaluates the curves at the nodes once,
+ * and caches the values of the curves at dates. This is used to price many CDSs sharing the same curves,
+ * whose payment dates are typically standard IMM dates.
+ * <p>
+ * The results are identical in both cases. Instances are thread-safe.
+ */
+final class IsdaCdsIntegrationGrid {
+
+  /**
+   * The tolerance, see {@link DoublesScheduleGenerator}.
+   */
+  private static final double TOL = 1d / 730d;
+
+  /**
+   * The discount factors.
+   */
+  private final CreditDiscountFactors discountFactors;
+  /**
+   * The survival probabilities.
+   */
+  private final LegalEntitySurvivalProbabilities survivalProbabilities;
+  /**
+   * The merged and sorted nodes of the two curves, null if not precomputed.
+   */
+  private final double[] nodes;
+  /**
+   * The values of {@code r(t) * t} of the discount curve at the nodes, null if not precomputed.
+   */
+  private final double[] discountExponents;
+  /**
+   * The values of {@code h(t) * t} of the credit curve at the nodes, null if not precomputed.
+   */
+  private final double[] survivalExponents;
+  /**
+   * The cache of year fractions, null if not precomputed.
+   */
+  private final Map<LocalDate, Double> yearFractions;
+  /**
+   * The cache of discount factors, null if not precomputed.
+   */
+  private final Map<LocalDate, Double> discountFactorValues;
+  /**
+   * The cache of survival probabilities, null if not precomputed.
+   */
+  private final Map<LocalDate, Double> survivalProbabilityValues;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains a grid evaluating the curves on each call.
+   * 
+   * @param discountFactors  the discount factors
+   * @param survivalProbabilities  the survival probabilities
+   * @return the grid
+   */
+  static IsdaCdsIntegrationGrid of(
+      CreditDiscountFactors discountFactors,
+      LegalEntitySurvivalProbabilities survivalProbabilities) {
+
+    return new IsdaCdsIntegrationGrid(discountFactors, survivalProbabilities, false);
+  }
+
+  /**
+   * Obtains a grid with the curve values precomputed at the nodes and cached at dates.
+   * 
+   * @param discountFactors  the discount factors
+   * @param survivalProbabilities  the survival probabilities
+   * @return the grid
+   */
+  static IsdaCdsIntegrationGrid precomputed(
+      CreditDiscountFactors discountFactors,
+      LegalEntitySurvivalProbabilities survivalProbabilities) {
+
+    return new IsdaCdsIntegrationGrid(discountFactors, survivalProbabilities, true);
+  }
+
+  // creates an instance
+  private IsdaCdsIntegrationGrid(
+      CreditDiscountFactors discountFactors,
+      LegalEntitySurvivalProbabilities survivalProbabilities,
+      boolean precompute) {
+
+    this.discountFactors = discountFactors;
+    this.survivalProbabilities = survivalProbabilities;
+    if (precompute) {
+      double[] discountNodes = discountFactors.getParameterKeys().toArrayUnsafe();
+      double[] creditNodes = survivalProbabilities.getParameterKeys().toArrayUnsafe();
+      int n = discountNodes.length + creditNodes.length;
+      double[] merged = new double[n];
+      System.arraycopy(discountNodes, 0, merged, 0, discountNodes.length);
+      System.arraycopy(creditNodes, 0, merged, discountNodes.length, creditNodes.length);
+      Arrays.sort(merged);
+      this.nodes = merged;
+      this.discountExponents = new double[n];
+      this.survivalExponents = new double[n];
+      for (int i = 0; i < n; ++i) {
+        discountExponents[i] = discountFactors.zeroRate(merged[i]) * merged[i];
+        survivalExponents[i] = survivalProbabilities.zeroRate(merged[i]) * merged[i];
+      }
+      this.yearFractions = new ConcurrentHashMap<>();
+      this.discountFactorValues = new ConcurrentHashMap<>();
+      this.survivalProbabilityValues = new ConcurrentHashMap<>();
+    } else {
+      this.nodes = null;
+      this.discountExponents = null;
+      this.survivalExponents = null;
+      this.yearFractions = null;
+      this.discountFactorValues = null;
+      this.survivalProbabilityValues = null;
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the discount factors.
+   * 
+   * @return the discount factors
+   */
+  CreditDiscountFactors getDiscountFactors() {
+    return discountFactors;
+  }
+
+  /**
+   * Gets the survival probabilities.
+   * 
+   * @return the survival probabilities
+   */
+  LegalEntitySurvivalProbabilities getSurvivalProbabilities() {
+    return survivalProbabilities;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains the integration schedule between two times.
+   * <p>
+   * This is the same as {@link DoublesScheduleGenerator#getIntegrationsPoints(double, double, DoubleArray, DoubleArray)}
+   * applied to the nodes of the two curves.
+   * 
+   * @param start  the first time
+   * @param end  the last time
+   * @return the integration schedule
+   */
+  DoubleArray integrationSchedule(double start, double end) {
+    if (nodes == null) {
+      return DoublesScheduleGenerator.getIntegrationsPoints(
+          start, end, discountFactors.getParameterKeys(), survivalProbabilities.getParameterKeys());
+    }
+    double[] temp = new double[nodes.length + 2];
+    temp[0] = start;
+    int pos = 0;
+    for (int i = 0; i < nodes.length && nodes[i] < end; i++) {
+      if (nodes[i] > start && Math.abs(temp[pos] - nodes[i]) > TOL) {
+        temp[++pos] = nodes[i];
+      }
+    }
+    if (Math.abs(temp[pos] - end) > TOL) {
+      pos++;
+    }
+    temp[pos] = end;
+    return DoubleArray.copyOf(temp, 0, pos + 1);
+  }
+
+  /**
+   * Computes {@code r(t) * t} of the discount curve, where {@code r} is the zero rate.
+   * 
+   * @param yearFraction  the year fraction
+   * @return the discount exponent
+   */
+  double discountExponent(double yearFraction) {
+    if (nodes != null) {
+      int index = Arrays.binarySearch(nodes, yearFraction);
+      if (index >= 0) {
+        return discountExponents[index];
+      }
+    }
+    return discountFactors.zeroRate(yearFraction) * yearFraction;
+  }
+
+  /**
+   * Computes {@code h(t) * t} of the credit curve, where {@code h} is the zero hazard rate.
+   * 
+   * @param yearFraction  the year fraction
+   * @return the survival exponent
+   */
+  double survivalExponent(double yearFraction) {
+    if (nodes != null) {
+      int index = Arrays.binarySearch(nodes, yearFraction);
+      if (index >= 0) {
+        return survivalExponents[index];
+      }
+    }
+    return survivalProbabilities.zeroRate(yearFraction) * yearFraction;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Computes the year fraction of a date relative to the valuation date of the discount factors.
+   * 
+   * @param date  the date
+   * @return the year fraction
+   */
+  double relativeYearFraction(LocalDate date) {
+    if (yearFractions == null) {
+      return discountFactors.relativeYearFraction(date);
+    }
+    return yearFractions.computeIfAbsent(date, discountFactors::relativeYearFraction);
+  }
+
+  /**
+   * Computes the discount factor at a date.
+   * 
+   * @param date  the date
+   * @return the discount factor
+   */
+  double discountFactor(LocalDate date) {
+    if (discountFactorValues == null) {
+      return discountFactors.discountFactor(date);
+    }
+    return discountFactorValues.computeIfAbsent(date, discountFactors::discountFactor);
+  }
+
+  /**
+   * Computes the survival probability at a date.
+   * 
+   * @param date  the date
+   * @return the survival probability
+   */
+  double survivalProbability(LocalDate date) {
+    if (survivalProbabilityValues == null) {
+      return survivalProbabilities.survivalProbability(date);
+    }
+    return survivalProbabilityValues.computeIfAbsent(date, survivalProbabilities::survivalProbability);
+  }
+
+}
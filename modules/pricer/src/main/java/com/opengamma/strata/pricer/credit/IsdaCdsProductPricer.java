@@ -10,12 +10,17 @@ import static com.opengamma.strata.math.impl.util.Epsilon.epsilonP;
 import static com.opengamma.strata.math.impl.util.Epsilon.epsilonPP;
 
 import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.basics.StandardId;
 import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.date.DaysAdjustment;
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.collect.tuple.Pair;
@@ -189,6 +194,93 @@ public class IsdaCdsProductPricer {
     return CurrencyAmount.of(cds.getCurrency(), cds.getBuySell().normalize(cds.getNotional()) * price);
   }
 
+  /**
+   * Calculates the present value of several CDS products.
+   * <p>
+   * The result is the same as calling
+   * {@link #presentValue(ResolvedCds, CreditRatesProvider, LocalDate, PriceType, ReferenceData)} for each product,
+   * but the work common to the products is performed once.
+   * The nodes of the discount curve and credit curve are merged and the curves are evaluated at the nodes
+   * once for each legal entity and currency. The curve values at the payment dates, which are typically
+   * standard IMM dates, and the step-in dates are also shared.
+   * 
+   * @param cdsList  the products
+   * @param ratesProvider  the rates provider
+   * @param referenceDate  the reference date
+   * @param priceType  the price type
+   * @param refData  the reference data
+   * @return the present values, in the order of the products
+   */
+  public ImmutableList<CurrencyAmount> presentValue(
+      List<ResolvedCds> cdsList,
+      CreditRatesProvider ratesProvider,
+      LocalDate referenceDate,
+      PriceType priceType,
+      ReferenceData refData) {
+
+    double[] prices = prices(cdsList, ratesProvider, referenceDate, priceType, refData);
+    ImmutableList.Builder<CurrencyAmount> builder = ImmutableList.builder();
+    for (int i = 0; i < prices.length; ++i) {
+      ResolvedCds cds = cdsList.get(i);
+      builder.add(CurrencyAmount.of(cds.getCurrency(), cds.getBuySell().normalize(cds.getNotional()) * prices[i]));
+    }
+    return builder.build();
+  }
+
+  /**
+   * Calculates the price of several CDS products.
+   * <p>
+   * The result is the same as calling
+   * {@link #price(ResolvedCds, CreditRatesProvider, LocalDate, PriceType, ReferenceData)} for each product,
+   * but the work common to the products is performed once,
+   * see {@link #presentValue(List, CreditRatesProvider, LocalDate, PriceType, ReferenceData)}.
+   * 
+   * @param cdsList  the products
+   * @param ratesProvider  the rates provider
+   * @param referenceDate  the reference date
+   * @param priceType  the price type
+   * @param refData  the reference data
+   * @return the prices, in the order of the products
+   */
+  public DoubleArray price(
+      List<ResolvedCds> cdsList,
+      CreditRatesProvider ratesProvider,
+      LocalDate referenceDate,
+      PriceType priceType,
+      ReferenceData refData) {
+
+    return DoubleArray.ofUnsafe(prices(cdsList, ratesProvider, referenceDate, priceType, refData));
+  }
+
+  // computes the prices, sharing the integration grids and the step-in dates
+  private double[] prices(
+      List<ResolvedCds> cdsList,
+      CreditRatesProvider ratesProvider,
+      LocalDate referenceDate,
+      PriceType priceType,
+      ReferenceData refData) {
+
+    Map<Pair<StandardId, Currency>, IsdaCdsIntegrationGrid> grids = new HashMap<>();
+    Map<DaysAdjustment, LocalDate> stepinDates = new HashMap<>();
+    double[] prices = new double[cdsList.size()];
+    for (int i = 0; i < prices.length; ++i) {
+      ResolvedCds cds = cdsList.get(i);
+      if (isExpired(cds, ratesProvider)) {
+        continue;
+      }
+      LocalDate stepinDate = stepinDates.computeIfAbsent(
+          cds.getStepinDateOffset(), offset -> offset.adjust(ratesProvider.getValuationDate(), refData));
+      LocalDate effectiveStartDate = cds.calculateEffectiveStartDate(stepinDate);
+      double recoveryRate = recoveryRate(cds, ratesProvider);
+      IsdaCdsIntegrationGrid grid = grids.computeIfAbsent(
+          Pair.of(cds.getLegalEntityId(), cds.getCurrency()), key -> integrationGrid(cds, ratesProvider));
+      double protectionLeg = (1d - recoveryRate) * protectionFull(cds, grid, referenceDate, effectiveStartDate);
+      double rpv01 = riskyAnnuity(cds, grid, referenceDate, stepinDate, effectiveStartDate, priceType);
+      prices[i] = protectionLeg - rpv01 * cds.getFixedRate();
+    }
+    return prices;
+  }
+
   /**
    * Calculates the present value sensitivity of the product. 
    * <p>
@@ -484,20 +576,29 @@ public class IsdaCdsProductPricer {
       LocalDate referenceDate,
       LocalDate effectiveStartDate) {
 
-    DoubleArray integrationSchedule = DoublesScheduleGenerator.getIntegrationsPoints(
-        discountFactors.relativeYearFraction(effectiveStartDate),
-        discountFactors.relativeYearFraction(cds.getProtectionEndDate()),
-        discountFactors.getParameterKeys(),
-        survivalProbabilities.getParameterKeys());
+    IsdaCdsIntegrationGrid grid = IsdaCdsIntegrationGrid.of(discountFactors, survivalProbabilities);
+    return protectionFull(cds, grid, referenceDate, effectiveStartDate);
+  }
+
+  // computes protection leg pv per unit notional, without loss-given-default rate multiplied
+  double protectionFull(
+      ResolvedCds cds,
+      IsdaCdsIntegrationGrid grid,
+      LocalDate referenceDate,
+      LocalDate effectiveStartDate) {
+
+    DoubleArray integrationSchedule = grid.integrationSchedule(
+        grid.relativeYearFraction(effectiveStartDate),
+        grid.relativeYearFraction(cds.getProtectionEndDate()));
 
     double pv = 0d;
-    double ht0 = survivalProbabilities.zeroRate(integrationSchedule.get(0)) * integrationSchedule.get(0);
-    double rt0 = discountFactors.zeroRate(integrationSchedule.get(0)) * integrationSchedule.get(0);
+    double ht0 = grid.survivalExponent(integrationSchedule.get(0));
+    double rt0 = grid.discountExponent(integrationSchedule.get(0));
     double b0 = Math.exp(-ht0 - rt0);
     int n = integrationSchedule.size();
     for (int i = 1; i < n; ++i) {
-      double ht1 = survivalProbabilities.zeroRate(integrationSchedule.get(i)) * integrationSchedule.get(i);
-      double rt1 = discountFactors.zeroRate(integrationSchedule.get(i)) * integrationSchedule.get(i);
+      double ht1 = grid.survivalExponent(integrationSchedule.get(i));
+      double rt1 = grid.discountExponent(integrationSchedule.get(i));
       double b1 = Math.exp(-ht1 - rt1);
       double dht = ht1 - ht0;
       double drt = rt1 - rt0;
@@ -516,7 +617,7 @@ public class IsdaCdsProductPricer {
       b0 = b1;
     }
     // roll to the cash settle date
-    double df = discountFactors.discountFactor(referenceDate);
+    double df = grid.discountFactor(referenceDate);
 
     return pv / df;
   }
@@ -531,11 +632,24 @@ public class IsdaCdsProductPricer {
       LocalDate effectiveStartDate,
       PriceType priceType) {
 
+    IsdaCdsIntegrationGrid grid = IsdaCdsIntegrationGrid.of(discountFactors, survivalProbabilities);
+    return riskyAnnuity(cds, grid, referenceDate, stepinDate, effectiveStartDate, priceType);
+  }
+
+  // computes risky annuity
+  double riskyAnnuity(
+      ResolvedCds cds,
+      IsdaCdsIntegrationGrid grid,
+      LocalDate referenceDate,
+      LocalDate stepinDate,
+      LocalDate effectiveStartDate,
+      PriceType priceType) {
+
     double pv = 0d;
     for (CreditCouponPaymentPeriod coupon : cds.getPaymentPeriods()) {
       if (stepinDate.isBefore(coupon.getEndDate())) {
-        double q = survivalProbabilities.survivalProbability(coupon.getEffectiveEndDate());
-        double p = discountFactors.discountFactor(coupon.getPaymentDate());
+        double q = grid.survivalProbability(coupon.getEffectiveEndDate());
+        double p = grid.discountFactor(coupon.getPaymentDate());
         pv += coupon.getYearFraction() * p * q;
       }
     }
@@ -543,18 +657,15 @@ public class IsdaCdsProductPricer {
     if (cds.getPaymentOnDefault().isAccruedInterest()) {
       // This is needed so that the code is consistent with ISDA C when the Markit `fix' is used. 
       LocalDate start = cds.getPaymentPeriods().size() == 1 ? effectiveStartDate : cds.getAccrualStartDate();
-      DoubleArray integrationSchedule = DoublesScheduleGenerator.getIntegrationsPoints(
-          discountFactors.relativeYearFraction(start),
-          discountFactors.relativeYearFraction(cds.getProtectionEndDate()),
-          discountFactors.getParameterKeys(),
-          survivalProbabilities.getParameterKeys());
+      DoubleArray integrationSchedule = grid.integrationSchedule(
+          grid.relativeYearFraction(start),
+          grid.relativeYearFraction(cds.getProtectionEndDate()));
       for (CreditCouponPaymentPeriod coupon : cds.getPaymentPeriods()) {
-        pv += singlePeriodAccrualOnDefault(
-            coupon, effectiveStartDate, integrationSchedule, discountFactors, survivalProbabilities);
+        pv += singlePeriodAccrualOnDefault(coupon, effectiveStartDate, integrationSchedule, grid);
       }
     }
     // roll to the cash settle date
-    double df = discountFactors.discountFactor(referenceDate);
+    double df = grid.discountFactor(referenceDate);
     pv /= df;
 
     if (priceType.isCleanPrice()) {
@@ -569,8 +680,7 @@ public class IsdaCdsProductPricer {
       CreditCouponPaymentPeriod coupon,
       LocalDate effectiveStartDate,
       DoubleArray integrationSchedule,
-      CreditDiscountFactors discountFactors,
-      LegalEntitySurvivalProbabilities survivalProbabilities) {
+      IsdaCdsIntegrationGrid grid) {
 
     LocalDate start =
         coupon.getEffectiveStartDate().isBefore(effectiveStartDate) ? effectiveStartDate : coupon.getEffectiveStartDate();
@@ -578,22 +688,22 @@ public class IsdaCdsProductPricer {
       return 0d; // this coupon has already expired 
     }
 
-    DoubleArray knots = DoublesScheduleGenerator.truncateSetInclusive(discountFactors.relativeYearFraction(start),
-        discountFactors.relativeYearFraction(coupon.getEffectiveEndDate()), integrationSchedule);
+    DoubleArray knots = DoublesScheduleGenerator.truncateSetInclusive(grid.relativeYearFraction(start),
+        grid.relativeYearFraction(coupon.getEffectiveEndDate()), integrationSchedule);
 
     double t0Knot = knots.get(0);
-    double ht0 = survivalProbabilities.zeroRate(t0Knot) * t0Knot;
-    double rt0 = discountFactors.zeroRate(t0Knot) * t0Knot;
+    double ht0 = grid.survivalExponent(t0Knot);
+    double rt0 = grid.discountExponent(t0Knot);
     double b0 = Math.exp(-rt0 - ht0);
 
-    double effStart = discountFactors.relativeYearFraction(coupon.getEffectiveStartDate());
+    double effStart = grid.relativeYearFraction(coupon.getEffectiveStartDate());
     double t0 = t0Knot - effStart + omega;
     double pv = 0d;
     final int nItems = knots.size();
     for (int j = 1; j < nItems; ++j) {
       double t = knots.get(j);
-      double ht1 = survivalProbabilities.zeroRate(t) * t;
-      double rt1 = discountFactors.zeroRate(t) * t;
+      double ht1 = grid.survivalExponent(t);
+      double rt1 = grid.discountExponent(t);
       double b1 = Math.exp(-rt1 - ht1);
 
       double dt = knots.get(j) - knots.get(j - 1);
@@ -626,7 +736,7 @@ public class IsdaCdsProductPricer {
     }
 
     double yearFractionCurve =
-        discountFactors.getDayCount().relativeYearFraction(coupon.getStartDate(), coupon.getEndDate());
+        grid.getDiscountFactors().getDayCount().relativeYearFraction(coupon.getStartDate(), coupon.getEndDate());
     return coupon.getYearFraction() * pv / yearFractionCurve;
   }
 
@@ -898,4 +1008,10 @@ public class IsdaCdsProductPricer {
     return Pair.of(discountFactors, survivalProbabilities);
   }
 
+  // the precomputed integration grid for the curves of the CDS
+  IsdaCdsIntegrationGrid integrationGrid(ResolvedCds cds, CreditRatesProvider ratesProvider) {
+    Pair<CreditDiscountFactors, LegalEntitySurvivalProbabilities> rates = reduceDiscountFactors(cds, ratesProvider);
+    return IsdaCdsIntegrationGrid.precomputed(rates.getFirst(), rates.getSecond());
+  }
+
 }
@@ -5,14 +5,23 @@
  */
 package com.opengamma.strata.pricer.credit;
 
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
 import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.basics.StandardId;
 import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.date.DaysAdjustment;
 import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.tuple.Pair;
 import com.opengamma.strata.collect.tuple.Triple;
 import com.opengamma.strata.market.curve.CurveInfoType;
 import com.opengamma.strata.market.sensitivity.PointSensitivityBuilder;
@@ -150,6 +159,70 @@ public class IsdaHomogenousCdsIndexProductPricer {
     return CurrencyAmount.of(cds.getCurrency(), amount);
   }
 
+  /**
+   * Calculates the present value of several CDS index products.
+   * <p>
+   * The result is the same as calling
+   * {@link #presentValue(ResolvedCdsIndex, CreditRatesProvider, LocalDate, PriceType, ReferenceData)}
+   * for each product, but the work common to the products is performed once.
+   * The integration grid of the discount curve and index credit curve, and the step-in dates,
+   * are computed once and shared.
+   * The products are then priced in parallel.
+   * 
+   * @param cdsIndices  the products
+   * @param ratesProvider  the rates provider
+   * @param referenceDate  the reference date
+   * @param priceType  the price type
+   * @param refData  the reference data
+   * @return the present values, in the order of the products
+   */
+  public ImmutableList<CurrencyAmount> presentValue(
+      List<ResolvedCdsIndex> cdsIndices,
+      CreditRatesProvider ratesProvider,
+      LocalDate referenceDate,
+      PriceType priceType,
+      ReferenceData refData) {
+
+    // the shared data is built sequentially, so that the parallel pricing only reads it
+    List<ResolvedCds> cdsList = cdsIndices.stream()
+        .map(ResolvedCdsIndex::toSingleNameCds)
+        .collect(toImmutableList());
+    Map<Pair<StandardId, Currency>, Pair<IsdaCdsIntegrationGrid, Double>> grids = new HashMap<>();
+    Map<DaysAdjustment, LocalDate> stepinDates = new HashMap<>();
+    for (int i = 0; i < cdsList.size(); ++i) {
+      ResolvedCds cds = cdsList.get(i);
+      if (!isExpired(cdsIndices.get(i), ratesProvider)) {
+        stepinDates.computeIfAbsent(
+            cds.getStepinDateOffset(), offset -> offset.adjust(ratesProvider.getValuationDate(), refData));
+        grids.computeIfAbsent(Pair.of(cds.getLegalEntityId(), cds.getCurrency()), key -> {
+          Triple<CreditDiscountFactors, LegalEntitySurvivalProbabilities, Double> rates =
+              reduceDiscountFactors(cds, ratesProvider);
+          return Pair.of(IsdaCdsIntegrationGrid.precomputed(rates.getFirst(), rates.getSecond()), rates.getThird());
+        });
+      }
+    }
+    return IntStream.range(0, cdsList.size())
+        .parallel()
+        .mapToObj(i -> {
+          ResolvedCds cds = cdsList.get(i);
+          if (isExpired(cdsIndices.get(i), ratesProvider)) {
+            return CurrencyAmount.of(cds.getCurrency(), 0d);
+          }
+          LocalDate stepinDate = stepinDates.get(cds.getStepinDateOffset());
+          LocalDate effectiveStartDate = cds.calculateEffectiveStartDate(stepinDate);
+          double recoveryRate = underlyingPricer.recoveryRate(cds, ratesProvider);
+          Pair<IsdaCdsIntegrationGrid, Double> grid = grids.get(Pair.of(cds.getLegalEntityId(), cds.getCurrency()));
+          double protectionLeg = (1d - recoveryRate) *
+              underlyingPricer.protectionFull(cds, grid.getFirst(), referenceDate, effectiveStartDate);
+          double rpv01 = underlyingPricer.riskyAnnuity(
+              cds, grid.getFirst(), referenceDate, stepinDate, effectiveStartDate, priceType);
+          double amount = cds.getBuySell().normalize(cds.getNotional()) * grid.getSecond() *
+              (protectionLeg - rpv01 * cds.getFixedRate());
+          return CurrencyAmount.of(cds.getCurrency(), amount);
+        })
+        .collect(toImmutableList());
+  }
+
   /**
    * Calculates the present value sensitivity of the product. 
    * <p>
@@ -282,7 +282,7 @@ public abstract class SpreadSensitivityCalculator {
 
   //-------------------------------------------------------------------------
   // extract CDS trades from credit curve
-  private ImmutableList<ResolvedCdsTrade> getBucketCds(ResolvedCds product, CreditRatesProvider ratesProvider) {
+  ImmutableList<ResolvedCdsTrade> getBucketCds(ResolvedCds product, CreditRatesProvider ratesProvider) {
     CreditDiscountFactors creditCurve =
         ratesProvider.survivalProbabilities(product.getLegalEntityId(), product.getCurrency()).getSurvivalProbabilities();
     int nNodes = creditCurve.getParameterCount();
@@ -0,0 +1,298 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.fxopt;
+
+import java.io.Serializable;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.joda.beans.Bean;
+import org.joda.beans.BeanBuilder;
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.MetaProperty;
+import org.joda.beans.gen.BeanDefinition;
+import org.joda.beans.gen.PropertyDefinition;
+import org.joda.beans.impl.direct.DirectMetaBean;
+import org.joda.beans.impl.direct.DirectMetaProperty;
+import org.joda.beans.impl.direct.DirectMetaPropertyMap;
+import org.joda.beans.impl.direct.DirectPrivateBeanBuilder;
+
+import com.opengamma.strata.data.MarketDataId;
+import com.opengamma.strata.market.surface.InterpolatedNodalSurface;
+
+/**
+ * An identifier used to access the local volatility surface implied by FX option volatilities.
+ * <p>
+ * The local volatility surface is calibrated to the FX option volatilities of the same name.
+ * It is built once for each set of market data, typically by a market data function,
+ * so that all the exotic FX options priced in a calculation run share the same surface.
+ * <p>
+ * This is used when there is a need to obtain an instance of {@link InterpolatedNodalSurface}
+ * representing the local volatility as a function of time to expiry and strike.
+ */
+@BeanDefinition(builderScope = "private", cacheHashCode = true)
+public final class FxOptionLocalVolatilityId
+    implements MarketDataId<InterpolatedNodalSurface>, ImmutableBean, Serializable {
+
+  /**
+   * The name of the FX option volatilities from which the local volatility is calibrated.
+   */
+  @PropertyDefinition(validate = "notNull")
+  private final FxOptionVolatilitiesName name;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an identifier used to find the local volatility implied by FX option volatilities.
+   * 
+   * @param name  the name of the FX option volatilities
+   * @return an identifier for the local volatility
+   */
+  public static FxOptionLocalVolatilityId of(String name) {
+    return new FxOptionLocalVolatilityId(FxOptionVolatilitiesName.of(name));
+  }
+
+  /**
+   * Obtains an identifier used to find the local volatility implied by FX option volatilities.
+   * 
+   * @param name  the name of the FX option volatilities
+   * @return an identifier for the local volatility
+   */
+  public static FxOptionLocalVolatilityId of(FxOptionVolatilitiesName name) {
+    return new FxOptionLocalVolatilityId(name);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the identifier of the FX option volatilities from which the local volatility is calibrated.
+   * 
+   * @return the identifier of the FX option volatilities
+   */
+  public FxOptionVolatilitiesId getVolatilitiesId() {
+    return FxOptionVolatilitiesId.of(name);
+  }
+
+  @Override
+  public Class<InterpolatedNodalSurface> getMarketDataType() {
+    return InterpolatedNodalSurface.class;
+  }
+
+  //------------------------- AUTOGENERATED START -------------------------
+  /**
+   * The meta-bean for {@code FxOptionLocalVolatilityId}.
+   * @return the meta-bean, not null
+   */
+  public static FxOptionLocalVolatilityId.Meta meta() {
+    return FxOptionLocalVolatilityId.Meta.INSTANCE;
+  }
+
+  static {
+    MetaBean.register(FxOptionLocalVolatilityId.Meta.INSTANCE);
+  }
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * The cached hash code, using the racy single-check idiom.
+   */
+  private transient int cacheHashCode;
+
+  private FxOptionLocalVolatilityId(
+      FxOptionVolatilitiesName name) {
+    JodaBeanUtils.notNull(name, "name");
+    this.name = name;
+  }
+
+  @Override
+  public FxOptionLocalVolatilityId.Meta metaBean() {
+    return FxOptionLocalVolatilityId.Meta.INSTANCE;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the name of the FX option volatilities from which the local volatility is calibrated.
+   * @return the value of the property, not null
+   */
+  public FxOptionVolatilitiesName getName() {
+    return name;
+  }
+
+  //-----------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj != null && obj.getClass() == this.getClass()) {
+      FxOptionLocalVolatilityId other = (FxOptionLocalVolatilityId) obj;
+      return JodaBeanUtils.equal(name, other.name);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = cacheHashCode;
+    if (hash == 0) {
+      hash = getClass().hashCode();
+      hash = hash * 31 + JodaBeanUtils.hashCode(name);
+      cacheHashCode = hash;
+    }
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder buf = new StringBuilder(64);
+    buf.append("FxOptionLocalVolatilityId{");
+    buf.append("name").append('=').append(JodaBeanUtils.toString(name));
+    buf.append('}');
+    return buf.toString();
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * The meta-bean for {@code FxOptionLocalVolatilityId}.
+   */
+  public static final class Meta extends DirectMetaBean {
+    /**
+     * The singleton instance of the meta-bean.
+     */
+    static final Meta INSTANCE = new Meta();
+
+    /**
+     * The meta-property for the {@code name} property.
+     */
+    private final MetaProperty<FxOptionVolatilitiesName> name = DirectMetaProperty.ofImmutable(
+        this, "name", FxOptionLocalVolatilityId.class, FxOptionVolatilitiesName.class);
+    /**
+     * The meta-properties.
+     */
+    private final Map<String, MetaProperty<?>> metaPropertyMap$ = new DirectMetaPropertyMap(
+        this, null,
+        "name");
+
+    /**
+     * Restricted constructor.
+     */
+    private Meta() {
+    }
+
+    @Override
+    protected MetaProperty<?> metaPropertyGet(String propertyName) {
+      switch (propertyName.hashCode()) {
+        case 3373707:  // name
+          return name;
+      }
+      return super.metaPropertyGet(propertyName);
+    }
+
+    @Override
+    public BeanBuilder<? extends FxOptionLocalVolatilityId> builder() {
+      return new FxOptionLocalVolatilityId.Builder();
+    }
+
+    @Override
+    public Class<? extends FxOptionLocalVolatilityId> beanType() {
+      return FxOptionLocalVolatilityId.class;
+    }
+
+    @Override
+    public Map<String, MetaProperty<?>> metaPropertyMap() {
+      return metaPropertyMap$;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * The meta-property for the {@code name} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<FxOptionVolatilitiesName> name() {
+      return name;
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    protected Object propertyGet(Bean bean, String propertyName, boolean quiet) {
+      switch (propertyName.hashCode()) {
+        case 3373707:  // name
+          return ((FxOptionLocalVolatilityId) bean).getName();
+      }
+      return super.propertyGet(bean, propertyName, quiet);
+    }
+
+    @Override
+    protected void propertySet(Bean bean, String propertyName, Object newValue, boolean quiet) {
+      metaProperty(propertyName);
+      if (quiet) {
+        return;
+      }
+      throw new UnsupportedOperationException("Property cannot be written: " + propertyName);
+    }
+
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * The bean-builder for {@code FxOptionLocalVolatilityId}.
+   */
+  private static final class Builder extends DirectPrivateBeanBuilder<FxOptionLocalVolatilityId> {
+
+    private FxOptionVolatilitiesName name;
+
+    /**
+     * Restricted constructor.
+     */
+    private Builder() {
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public Object get(String propertyName) {
+      switch (propertyName.hashCode()) {
+        case 3373707:  // name
+          return name;
+        default:
+          throw new NoSuchElementException("Unknown property: " + propertyName);
+      }
+    }
+
+    @Override
+    public Builder set(String propertyName, Object newValue) {
+      switch (propertyName.hashCode()) {
+        case 3373707:  // name
+          this.name = (FxOptionVolatilitiesName) newValue;
+          break;
+        default:
+          throw new NoSuchElementException("Unknown property: " + propertyName);
+      }
+      return this;
+    }
+
+    @Override
+    public FxOptionLocalVolatilityId build() {
+      return new FxOptionLocalVolatilityId(
+          name);
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public String toString() {
+      StringBuilder buf = new StringBuilder(64);
+      buf.append("FxOptionLocalVolatilityId.Builder{");
+      buf.append("name").append('=').append(JodaBeanUtils.toString(name));
+      buf.append('}');
+      return buf.toString();
+    }
+
+  }
+
+  //-------------------------- AUTOGENERATED END --------------------------
+}
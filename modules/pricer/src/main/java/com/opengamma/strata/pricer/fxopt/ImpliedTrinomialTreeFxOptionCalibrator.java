@@ -5,12 +5,20 @@
  */
 package com.opengamma.strata.pricer.fxopt;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
 import java.util.function.Function;
 
-import com.opengamma.strata.basics.currency.Currency;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.opengamma.strata.basics.currency.CurrencyPair;
 import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
 import com.opengamma.strata.collect.tuple.DoublesPair;
+import com.opengamma.strata.market.surface.InterpolatedNodalSurface;
+import com.opengamma.strata.market.surface.SurfaceName;
 import com.opengamma.strata.pricer.DiscountFactors;
 import com.opengamma.strata.pricer.impl.volatility.local.ImpliedTrinomialTreeLocalVolatilityCalculator;
 import com.opengamma.strata.pricer.rate.RatesProvider;
@@ -18,13 +26,36 @@ import com.opengamma.strata.product.fxopt.ResolvedFxVanillaOption;
 
 /**
  * Utilities to calibrate implied trinomial tree to Black volatilities of FX options.
+ * <p>
+ * The calibrated trees can optionally be cached, so that the options of a book sharing the same
+ * market data and expiry are priced on a single calibrated tree.
+ * <p>
+ * Alternatively, the trees can be built on a local volatility surface that has already been calibrated,
+ * typically once for all the options on a currency pair using {@link #calibrateLocalVolatility}.
  */
 public class ImpliedTrinomialTreeFxOptionCalibrator {
 
+  /**
+   * The tolerance used when comparing the time to expiry to the times of the local volatility surface.
+   */
+  private static final double TIME_TOLERANCE = 1e-10;
+
   /**
    * Number of time steps.
    */
   private final int nSteps;
+  /**
+   * The maximum number of calibrated trees cached for each volatilities, zero if the trees are not cached.
+   */
+  private final int cacheSize;
+  /**
+   * The caches of calibrated trees, weakly keyed by volatilities, null if the trees are not cached.
+   */
+  private final Cache<BlackFxOptionVolatilities, Cache<TreeKey, RecombiningTrinomialTreeData>> cache;
+  /**
+   * The local volatility surface on which the trees are built, null if the trees are calibrated.
+   */
+  private final InterpolatedNodalSurface localVolatility;
 
   /**
    * Calibrator with the specified number of time steps.
@@ -34,6 +65,53 @@ public class ImpliedTrinomialTreeFxOptionCalibrator {
   public ImpliedTrinomialTreeFxOptionCalibrator(int nSteps) {
     ArgChecker.isTrue(nSteps > 1, "the number of steps should be greater than 1");
     this.nSteps = nSteps;
+    this.cacheSize = 0;
+    this.cache = null;
+    this.localVolatility = null;
+  }
+
+  /**
+   * Calibrator with the specified number of time steps, caching the calibrated trees.
+   * <p>
+   * The calibrated trees are cached for each instance of volatilities, which is weakly referenced,
+   * thus the trees are discarded once the market data of the calculations is no longer used.
+   * For each volatilities, the trees are cached by the other inputs of the calibration, which are the
+   * time to expiry, the currency pair, the FX rate and the discount factors of the two currencies.
+   * The rates are compared by value, thus a tree is reused by equal market data held in
+   * different rates providers, but not by bumped market data. When the cache of a volatilities is full,
+   * the least recently used trees are discarded.
+   * 
+   * @param nSteps  number of time steps
+   * @param cacheSize  the maximum number of calibrated trees cached for each volatilities
+   */
+  public ImpliedTrinomialTreeFxOptionCalibrator(int nSteps, int cacheSize) {
+    ArgChecker.isTrue(nSteps > 1, "the number of steps should be greater than 1");
+    ArgChecker.notNegativeOrZero(cacheSize, "cacheSize");
+    this.nSteps = nSteps;
+    this.cacheSize = cacheSize;
+    this.cache = CacheBuilder.newBuilder().weakKeys().build();
+    this.localVolatility = null;
+  }
+
+  /**
+   * Calibrator with the specified number of time steps, building the trees on a local volatility surface.
+   * <p>
+   * The trees are not calibrated to the Black volatilities. Instead, the nodes are uniformly spaced in log spot,
+   * and the transition probabilities match the forward and the local volatility at each node.
+   * The Black volatilities are then only used to compute the time to expiry.
+   * The time to expiry of the trees must be covered by the surface.
+   * Building a tree on the surface is much faster than calibrating it, thus the calibration of the surface
+   * is shared by all the options on the currency pair, whatever their expiry.
+   * 
+   * @param nSteps  number of time steps
+   * @param localVolatility  the local volatility surface, as a function of time and spot
+   */
+  public ImpliedTrinomialTreeFxOptionCalibrator(int nSteps, InterpolatedNodalSurface localVolatility) {
+    ArgChecker.isTrue(nSteps > 1, "the number of steps should be greater than 1");
+    this.nSteps = nSteps;
+    this.cacheSize = 0;
+    this.cache = null;
+    this.localVolatility = ArgChecker.notNull(localVolatility, "localVolatility");
   }
 
   //-------------------------------------------------------------------------
@@ -73,6 +151,8 @@ public class ImpliedTrinomialTreeFxOptionCalibrator {
    * <p>
    * {@code timeToExpiry} determines the coverage of the resulting trinomial tree.
    * Thus this should match the time to expiry of the target instrument to price using the calibrated tree.
+   * <p>
+   * If this calibrator was created with a local volatility surface, the tree is built on that surface instead.
    * 
    * @param timeToExpiry  the time to expiry
    * @param currencyPair  the currency pair
@@ -90,24 +170,139 @@ public class ImpliedTrinomialTreeFxOptionCalibrator {
     if (timeToExpiry <= 0d) {
       throw new IllegalArgumentException("option expired");
     }
-    Currency ccyBase = currencyPair.getBase();
-    Currency ccyCounter = currencyPair.getCounter();
     double todayFx = ratesProvider.fxRate(currencyPair);
-    DiscountFactors baseDiscountFactors = ratesProvider.discountFactors(ccyBase);
-    DiscountFactors counterDiscountFactors = ratesProvider.discountFactors(ccyCounter);
-    Function<Double, Double> interestRate = new Function<Double, Double>() {
-      @Override
-      public Double apply(Double t) {
-        return counterDiscountFactors.zeroRate(t);
+    DiscountFactors baseDiscountFactors = ratesProvider.discountFactors(currencyPair.getBase());
+    DiscountFactors counterDiscountFactors = ratesProvider.discountFactors(currencyPair.getCounter());
+    if (localVolatility != null) {
+      return localVolatilityTree(timeToExpiry, todayFx, baseDiscountFactors, counterDiscountFactors);
+    }
+    if (cache != null) {
+      TreeKey key = new TreeKey(timeToExpiry, currencyPair, todayFx, baseDiscountFactors, counterDiscountFactors);
+      Cache<TreeKey, RecombiningTrinomialTreeData> trees = cache.asMap().computeIfAbsent(
+          volatilities, vols -> CacheBuilder.newBuilder().maximumSize(cacheSize).build());
+      return trees.asMap().computeIfAbsent(key, k -> calibrate(
+          timeToExpiry, currencyPair, todayFx, baseDiscountFactors, counterDiscountFactors, volatilities));
+    }
+    return calibrate(timeToExpiry, currencyPair, todayFx, baseDiscountFactors, counterDiscountFactors, volatilities);
+  }
+
+  /**
+   * Calibrates local volatility surface to Black volatilities.
+   * <p>
+   * The local volatility surface is derived from the implied trinomial tree calibrated to the Black volatilities,
+   * and covers the times up to {@code maxTime}. The surface is typically computed once per set of market data
+   * and shared by the exotic options on the currency pair.
+   * 
+   * @param maxTime  the maximum time covered by the surface
+   * @param currencyPair  the currency pair
+   * @param ratesProvider  the rates provider
+   * @param volatilities  the Black volatility provider
+   * @return the local volatility surface
+   */
+  public InterpolatedNodalSurface calibrateLocalVolatility(
+      double maxTime,
+      CurrencyPair currencyPair,
+      RatesProvider ratesProvider,
+      BlackFxOptionVolatilities volatilities) {
+
+    validate(ratesProvider, volatilities);
+    ArgChecker.notNegativeOrZero(maxTime, "maxTime");
+    double todayFx = ratesProvider.fxRate(currencyPair);
+    DiscountFactors baseDiscountFactors = ratesProvider.discountFactors(currencyPair.getBase());
+    DiscountFactors counterDiscountFactors = ratesProvider.discountFactors(currencyPair.getCounter());
+    ImpliedTrinomialTreeLocalVolatilityCalculator localVol =
+        new ImpliedTrinomialTreeLocalVolatilityCalculator(nSteps, maxTime);
+    return localVol.localVolatilityFromImpliedVolatility(
+        impliedVolatility(currencyPair, todayFx, baseDiscountFactors, counterDiscountFactors, volatilities),
+        todayFx,
+        zeroRate(counterDiscountFactors),
+        zeroRate(baseDiscountFactors),
+        SurfaceName.of("localVol_" + volatilities.getName()));
+  }
+
+  // calibrates the tree
+  private RecombiningTrinomialTreeData calibrate(
+      double timeToExpiry,
+      CurrencyPair currencyPair,
+      double todayFx,
+      DiscountFactors baseDiscountFactors,
+      DiscountFactors counterDiscountFactors,
+      BlackFxOptionVolatilities volatilities) {
+
+    ImpliedTrinomialTreeLocalVolatilityCalculator localVol =
+        new ImpliedTrinomialTreeLocalVolatilityCalculator(nSteps, timeToExpiry);
+    return localVol.calibrateImpliedVolatility(
+        impliedVolatility(currencyPair, todayFx, baseDiscountFactors, counterDiscountFactors, volatilities),
+        todayFx,
+        zeroRate(counterDiscountFactors),
+        zeroRate(baseDiscountFactors));
+  }
+
+  // builds the tree on the local volatility surface, the log spot nodes being uniformly spaced
+  private RecombiningTrinomialTreeData localVolatilityTree(
+      double timeToExpiry,
+      double todayFx,
+      DiscountFactors baseDiscountFactors,
+      DiscountFactors counterDiscountFactors) {
+
+    double maxTime = localVolatility.getXValues().max();
+    ArgChecker.isTrue(timeToExpiry <= maxTime + TIME_TOLERANCE,
+        "Time to expiry {} is after the maximum time {} of the local volatility surface", timeToExpiry, maxTime);
+    double dt = timeToExpiry / nSteps;
+    double dx = localVolatility.getZValues().max() * Math.sqrt(3d * dt);
+    double[][] stateValue = new double[nSteps + 1][];
+    double[] time = new double[nSteps + 1];
+    for (int i = 0; i < nSteps + 1; ++i) {
+      int layer = i;
+      time[i] = dt * i;
+      stateValue[i] = DoubleArray.of(2 * i + 1, j -> todayFx * Math.exp(dx * (j - layer))).toArrayUnsafe();
+    }
+    double[] df = new double[nSteps];
+    List<DoubleMatrix> probability = new ArrayList<>(nSteps);
+    for (int i = 0; i < nSteps; ++i) {
+      df[i] = counterDiscountFactors.discountFactor(time[i + 1]) / counterDiscountFactors.discountFactor(time[i]);
+      double dfBase = baseDiscountFactors.discountFactor(time[i + 1]) / baseDiscountFactors.discountFactor(time[i]);
+      double logForwardRatio = Math.log(dfBase / df[i]);
+      double[][] probabilityAtLayer = new double[2 * i + 1][];
+      for (int j = 0; j < 2 * i + 1; ++j) {
+        double volatility = localVolatility.zValue(time[i], stateValue[i][j]);
+        double variance = volatility * volatility * dt;
+        double drift = logForwardRatio - 0.5 * variance;
+        double secondMoment = (variance + drift * drift) / (dx * dx);
+        double firstMoment = drift / dx;
+        probabilityAtLayer[j] = new double[] {
+            0.5 * (secondMoment - firstMoment), 1d - secondMoment, 0.5 * (secondMoment + firstMoment)};
+        // the moments can only be matched if the local volatility is large enough relative to the drift
+        ArgChecker.isTrue(DoubleArray.ofUnsafe(probabilityAtLayer[j]).min() >= 0d,
+            "Negative transition probability in the local volatility tree at time {} and spot {}, " +
+                "the number of steps must be increased",
+            time[i], stateValue[i][j]);
       }
-    };
-    Function<Double, Double> dividendRate = new Function<Double, Double>() {
+      probability.add(DoubleMatrix.ofUnsafe(probabilityAtLayer));
+    }
+    return RecombiningTrinomialTreeData.of(
+        DoubleMatrix.ofUnsafe(stateValue), probability, DoubleArray.ofUnsafe(df), DoubleArray.ofUnsafe(time));
+  }
+
+  // the zero rate as a function of time
+  private static Function<Double, Double> zeroRate(DiscountFactors discountFactors) {
+    return new Function<Double, Double>() {
       @Override
       public Double apply(Double t) {
-        return baseDiscountFactors.zeroRate(t);
+        return discountFactors.zeroRate(t);
       }
     };
-    Function<DoublesPair, Double> impliedVolSurface = new Function<DoublesPair, Double>() {
+  }
+
+  // the implied volatility as a function of time and strike
+  private static Function<DoublesPair, Double> impliedVolatility(
+      CurrencyPair currencyPair,
+      double todayFx,
+      DiscountFactors baseDiscountFactors,
+      DiscountFactors counterDiscountFactors,
+      BlackFxOptionVolatilities volatilities) {
+
+    return new Function<DoublesPair, Double>() {
       @Override
       public Double apply(DoublesPair tk) {
         double dfBase = baseDiscountFactors.discountFactor(tk.getFirst());
@@ -116,9 +311,6 @@ public class ImpliedTrinomialTreeFxOptionCalibrator {
         return volatilities.volatility(currencyPair, tk.getFirst(), tk.getSecond(), forward);
       }
     };
-    ImpliedTrinomialTreeLocalVolatilityCalculator localVol =
-        new ImpliedTrinomialTreeLocalVolatilityCalculator(nSteps, timeToExpiry);
-    return localVol.calibrateImpliedVolatility(impliedVolSurface, todayFx, interestRate, dividendRate);
   }
 
   //-------------------------------------------------------------------------
@@ -131,4 +323,53 @@ public class ImpliedTrinomialTreeFxOptionCalibrator {
         "Volatility and rate data must be for the same date");
   }
 
+  //-------------------------------------------------------------------------
+  // the key of the cache of a volatilities, the other inputs of the calibration compared by value
+  // the key must not refer to the volatilities, which would prevent them from being garbage collected
+  private static final class TreeKey {
+    private final double timeToExpiry;
+    private final CurrencyPair currencyPair;
+    private final double todayFx;
+    private final DiscountFactors baseDiscountFactors;
+    private final DiscountFactors counterDiscountFactors;
+    private final int hashCode;
+
+    private TreeKey(
+        double timeToExpiry,
+        CurrencyPair currencyPair,
+        double todayFx,
+        DiscountFactors baseDiscountFactors,
+        DiscountFactors counterDiscountFactors) {
+
+      this.timeToExpiry = timeToExpiry;
+      this.currencyPair = currencyPair;
+      this.todayFx = todayFx;
+      this.baseDiscountFactors = baseDiscountFactors;
+      this.counterDiscountFactors = counterDiscountFactors;
+      this.hashCode = Objects.hash(timeToExpiry, currencyPair, todayFx, baseDiscountFactors, counterDiscountFactors);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      if (obj == this) {
+        return true;
+      }
+      if (obj instanceof TreeKey) {
+        TreeKey other = (TreeKey) obj;
+        return hashCode == other.hashCode &&
+            Double.compare(timeToExpiry, other.timeToExpiry) == 0 &&
+            Double.compare(todayFx, other.todayFx) == 0 &&
+            currencyPair.equals(other.currencyPair) &&
+            baseDiscountFactors.equals(other.baseDiscountFactors) &&
+            counterDiscountFactors.equals(other.counterDiscountFactors);
+      }
+      return false;
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+
 }
@@ -82,6 +82,18 @@ public class ImpliedTrinomialTreeFxSingleBarrierOptionProductPricer {
     this.calibrator = new ImpliedTrinomialTreeFxOptionCalibrator(nSteps);
   }
 
+  /**
+   * Pricer with the specified calibrator.
+   * <p>
+   * This allows a calibrator caching the calibrated trees to be used,
+   * see {@link ImpliedTrinomialTreeFxOptionCalibrator#ImpliedTrinomialTreeFxOptionCalibrator(int, int)}.
+   * 
+   * @param calibrator  the calibrator
+   */
+  public ImpliedTrinomialTreeFxSingleBarrierOptionProductPricer(ImpliedTrinomialTreeFxOptionCalibrator calibrator) {
+    this.calibrator = ArgChecker.notNull(calibrator, "calibrator");
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Obtains the calibrator.
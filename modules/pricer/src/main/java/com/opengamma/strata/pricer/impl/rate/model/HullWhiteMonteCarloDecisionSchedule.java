@@ -0,0 +1,375 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.rate.model;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.joda.beans.Bean;
+import org.joda.beans.BeanBuilder;
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.JodaBeanUtils;
+import org.joda.beans.MetaBean;
+import org.joda.beans.MetaProperty;
+import org.joda.beans.gen.BeanDefinition;
+import org.joda.beans.gen.PropertyDefinition;
+import org.joda.beans.impl.direct.DirectMetaBean;
+import org.joda.beans.impl.direct.DirectMetaProperty;
+import org.joda.beans.impl.direct.DirectMetaPropertyMap;
+import org.joda.beans.impl.direct.DirectPrivateBeanBuilder;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+
+/**
+ * The decision schedule of a Monte Carlo simulation in the Hull-White one factor model.
+ * <p>
+ * The schedule contains the decision times, i.e., the times at which the product payoff depends on the market,
+ * and for each decision time the maturities of the zero-coupon bonds required to compute the payoff at that time.
+ * <p>
+ * All of the times are year fractions from the valuation date.
+ */
+@BeanDefinition(builderScope = "private")
+public final class HullWhiteMonteCarloDecisionSchedule implements ImmutableBean, Serializable {
+
+  /**
+   * The decision times.
+   * <p>
+   * The times must be positive and in increasing order.
+   */
+  @PropertyDefinition
+  private final DoubleArray decisionTimes;
+  /**
+   * The bond maturity times.
+   * <p>
+   * The {@code i}-th element of the list represents the bond maturities required at the {@code i}-th decision time.
+   * Each maturity must not be before the corresponding decision time.
+   */
+  @PropertyDefinition
+  private final ImmutableList<DoubleArray> bondTimes;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Creates an instance.
+   *
+   * @param decisionTimes  the decision times
+   * @param bondTimes  the bond maturity times for each decision time
+   * @return the instance
+   */
+  public static HullWhiteMonteCarloDecisionSchedule of(DoubleArray decisionTimes, List<DoubleArray> bondTimes) {
+    int nbDecisions = decisionTimes.size();
+    ArgChecker.isTrue(nbDecisions > 0, "the schedule must contain at least one decision time");
+    ArgChecker.isTrue(bondTimes.size() == nbDecisions, "the size of bondTimes list must be the number of decisions");
+    ArgChecker.isTrue(decisionTimes.get(0) > 0d, "the decision times must be positive");
+    for (int i = 0; i < nbDecisions; ++i) {
+      if (i > 0) {
+        ArgChecker.isTrue(decisionTimes.get(i) > decisionTimes.get(i - 1), "the decision times must be increasing");
+      }
+      DoubleArray bonds = bondTimes.get(i);
+      for (int j = 0; j < bonds.size(); ++j) {
+        ArgChecker.isTrue(bonds.get(j) >= decisionTimes.get(i),
+            "the bond maturities must not be before the decision time");
+      }
+    }
+    return new HullWhiteMonteCarloDecisionSchedule(decisionTimes, bondTimes);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains the number of decision times.
+   *
+   * @return the number of decision times
+   */
+  public int getNumberOfDecisions() {
+    return decisionTimes.size();
+  }
+
+  /**
+   * Obtains the total number of bonds over all of the decision times.
+   *
+   * @return the number of bonds
+   */
+  public int getNumberOfBonds() {
+    int nbBonds = 0;
+    for (DoubleArray bonds : bondTimes) {
+      nbBonds += bonds.size();
+    }
+    return nbBonds;
+  }
+
+  /**
+   * Obtains the numeraire time.
+   * <p>
+   * The simulation is performed in the measure associated with the zero-coupon bond maturing at this time.
+   * This is the latest time in the schedule.
+   *
+   * @return the numeraire time
+   */
+  public double getNumeraireTime() {
+    double numeraireTime = decisionTimes.get(decisionTimes.size() - 1);
+    for (DoubleArray bonds : bondTimes) {
+      if (!bonds.isEmpty()) {
+        numeraireTime = Math.max(numeraireTime, bonds.max());
+      }
+    }
+    return numeraireTime;
+  }
+
+  //------------------------- AUTOGENERATED START -------------------------
+  /**
+   * The meta-bean for {@code HullWhiteMonteCarloDecisionSchedule}.
+   * @return the meta-bean, not null
+   */
+  public static HullWhiteMonteCarloDecisionSchedule.Meta meta() {
+    return HullWhiteMonteCarloDecisionSchedule.Meta.INSTANCE;
+  }
+
+  static {
+    MetaBean.register(HullWhiteMonteCarloDecisionSchedule.Meta.INSTANCE);
+  }
+
+  /**
+   * The serialization version id.
+   */
+  private static final long serialVersionUID = 1L;
+
+  private HullWhiteMonteCarloDecisionSchedule(
+      DoubleArray decisionTimes,
+      List<DoubleArray> bondTimes) {
+    this.decisionTimes = decisionTimes;
+    this.bondTimes = (bondTimes != null ? ImmutableList.copyOf(bondTimes) : null);
+  }
+
+  @Override
+  public HullWhiteMonteCarloDecisionSchedule.Meta metaBean() {
+    return HullWhiteMonteCarloDecisionSchedule.Meta.INSTANCE;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the decision times.
+   * <p>
+   * The times must be positive and in increasing order.
+   * @return the value of the property
+   */
+  public DoubleArray getDecisionTimes() {
+    return decisionTimes;
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * Gets the bond maturity times.
+   * <p>
+   * The {@code i}-th element of the list represents the bond maturities required at the {@code i}-th decision time.
+   * Each maturity must not be before the corresponding decision time.
+   * @return the value of the property
+   */
+  public ImmutableList<DoubleArray> getBondTimes() {
+    return bondTimes;
+  }
+
+  //-----------------------------------------------------------------------
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) {
+      return true;
+    }
+    if (obj != null && obj.getClass() == this.getClass()) {
+      HullWhiteMonteCarloDecisionSchedule other = (HullWhiteMonteCarloDecisionSchedule) obj;
+      return JodaBeanUtils.equal(decisionTimes, other.decisionTimes) &&
+          JodaBeanUtils.equal(bondTimes, other.bondTimes);
+    }
+    return false;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = getClass().hashCode();
+    hash = hash * 31 + JodaBeanUtils.hashCode(decisionTimes);
+    hash = hash * 31 + JodaBeanUtils.hashCode(bondTimes);
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder buf = new StringBuilder(96);
+    buf.append("HullWhiteMonteCarloDecisionSchedule{");
+    buf.append("decisionTimes").append('=').append(decisionTimes).append(',').append(' ');
+    buf.append("bondTimes").append('=').append(JodaBeanUtils.toString(bondTimes));
+    buf.append('}');
+    return buf.toString();
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * The meta-bean for {@code HullWhiteMonteCarloDecisionSchedule}.
+   */
+  public static final class Meta extends DirectMetaBean {
+    /**
+     * The singleton instance of the meta-bean.
+     */
+    static final Meta INSTANCE = new Meta();
+
+    /**
+     * The meta-property for the {@code decisionTimes} property.
+     */
+    private final MetaProperty<DoubleArray> decisionTimes = DirectMetaProperty.ofImmutable(
+        this, "decisionTimes", HullWhiteMonteCarloDecisionSchedule.class, DoubleArray.class);
+    /**
+     * The meta-property for the {@code bondTimes} property.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes" })
+    private final MetaProperty<ImmutableList<DoubleArray>> bondTimes = DirectMetaProperty.ofImmutable(
+        this, "bondTimes", HullWhiteMonteCarloDecisionSchedule.class, (Class) ImmutableList.class);
+    /**
+     * The meta-properties.
+     */
+    private final Map<String, MetaProperty<?>> metaPropertyMap$ = new DirectMetaPropertyMap(
+        this, null,
+        "decisionTimes",
+        "bondTimes");
+
+    /**
+     * Restricted constructor.
+     */
+    private Meta() {
+    }
+
+    @Override
+    protected MetaProperty<?> metaPropertyGet(String propertyName) {
+      switch (propertyName.hashCode()) {
+        case -515346230:  // decisionTimes
+          return decisionTimes;
+        case 926424643:  // bondTimes
+          return bondTimes;
+      }
+      return super.metaPropertyGet(propertyName);
+    }
+
+    @Override
+    public BeanBuilder<? extends HullWhiteMonteCarloDecisionSchedule> builder() {
+      return new HullWhiteMonteCarloDecisionSchedule.Builder();
+    }
+
+    @Override
+    public Class<? extends HullWhiteMonteCarloDecisionSchedule> beanType() {
+      return HullWhiteMonteCarloDecisionSchedule.class;
+    }
+
+    @Override
+    public Map<String, MetaProperty<?>> metaPropertyMap() {
+      return metaPropertyMap$;
+    }
+
+    //-----------------------------------------------------------------------
+    /**
+     * The meta-property for the {@code decisionTimes} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<DoubleArray> decisionTimes() {
+      return decisionTimes;
+    }
+
+    /**
+     * The meta-property for the {@code bondTimes} property.
+     * @return the meta-property, not null
+     */
+    public MetaProperty<ImmutableList<DoubleArray>> bondTimes() {
+      return bondTimes;
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    protected Object propertyGet(Bean bean, String propertyName, boolean quiet) {
+      switch (propertyName.hashCode()) {
+        case -515346230:  // decisionTimes
+          return ((HullWhiteMonteCarloDecisionSchedule) bean).getDecisionTimes();
+        case 926424643:  // bondTimes
+          return ((HullWhiteMonteCarloDecisionSchedule) bean).getBondTimes();
+      }
+      return super.propertyGet(bean, propertyName, quiet);
+    }
+
+    @Override
+    protected void propertySet(Bean bean, String propertyName, Object newValue, boolean quiet) {
+      metaProperty(propertyName);
+      if (quiet) {
+        return;
+      }
+      throw new UnsupportedOperationException("Property cannot be written: " + propertyName);
+    }
+
+  }
+
+  //-----------------------------------------------------------------------
+  /**
+   * The bean-builder for {@code HullWhiteMonteCarloDecisionSchedule}.
+   */
+  private static final class Builder extends DirectPrivateBeanBuilder<HullWhiteMonteCarloDecisionSchedule> {
+
+    private DoubleArray decisionTimes;
+    private List<DoubleArray> bondTimes;
+
+    /**
+     * Restricted constructor.
+     */
+    private Builder() {
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public Object get(String propertyName) {
+      switch (propertyName.hashCode()) {
+        case -515346230:  // decisionTimes
+          return decisionTimes;
+        case 926424643:  // bondTimes
+          return bondTimes;
+        default:
+          throw new NoSuchElementException("Unknown property: " + propertyName);
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public Builder set(String propertyName, Object newValue) {
+      switch (propertyName.hashCode()) {
+        case -515346230:  // decisionTimes
+          this.decisionTimes = (DoubleArray) newValue;
+          break;
+        case 926424643:  // bondTimes
+          this.bondTimes = (List<DoubleArray>) newValue;
+          break;
+        default:
+          throw new NoSuchElementException("Unknown property: " + propertyName);
+      }
+      return this;
+    }
+
+    @Override
+    public HullWhiteMonteCarloDecisionSchedule build() {
+      return new HullWhiteMonteCarloDecisionSchedule(
+          decisionTimes,
+          bondTimes);
+    }
+
+    //-----------------------------------------------------------------------
+    @Override
+    public String toString() {
+      StringBuilder buf = new StringBuilder(96);
+      buf.append("HullWhiteMonteCarloDecisionSchedule.Builder{");
+      buf.append("decisionTimes").append('=').append(JodaBeanUtils.toString(decisionTimes)).append(',').append(' ');
+      buf.append("bondTimes").append('=').append(JodaBeanUtils.toString(bondTimes));
+      buf.append('}');
+      return buf.toString();
+    }
+
+  }
+
+  //-------------------------- AUTOGENERATED END --------------------------
+}
@@ -0,0 +1,369 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.rate.model;
+
+import java.util.List;
+import java.util.function.IntFunction;
+import java.util.stream.IntStream;
+
+import com.opengamma.strata.basics.value.ValueDerivatives;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.math.impl.random.CounterBasedRandomEngine;
+import com.opengamma.strata.math.impl.random.NormalRandomNumberGenerator;
+import com.opengamma.strata.math.impl.random.RandomNumberGenerator;
+import com.opengamma.strata.math.impl.random.SobolRandomNumberGenerator;
+import com.opengamma.strata.pricer.model.HullWhiteOneFactorPiecewiseConstantParameters;
+
+/**
+ * Monte Carlo simulation engine in the Hull-White one factor model with piecewise constant volatility.
+ * <p>
+ * The simulation is performed in the forward measure associated with the zero-coupon bond maturing
+ * at the numeraire time {@code theta} of the {@link HullWhiteMonteCarloDecisionSchedule}.
+ * In this measure, the bond to numeraire ratios at a decision time {@code t} are given by
+ * <pre>
+ *  P(t, u) / P(t, theta) = P(0, u) / P(0, theta) * exp(-H(u) * Z(t) - H(u)^2 * V(t) / 2)
+ * </pre>
+ * where {@code H(u) = (exp(-a * theta) - exp(-a * u)) / a}, {@code Z} is a Gaussian martingale
+ * and {@code V(t)} is the variance of {@code Z(t)}.
+ * Only the values of {@code Z} at the decision times are simulated; the increments between two consecutive
+ * decision times are independent and their standard deviation is given by
+ * {@link HullWhiteOneFactorPiecewiseConstantInterestRateModel#beta}. There is no discretization error.
+ * <p>
+ * The paths are generated and evaluated by batches. Each batch uses its own random number generator,
+ * provided by a function of the batch index, so that the result does not depend on the order in which the
+ * batches are evaluated. Batches can thus be evaluated in parallel and the result is reproducible.
+ * Antithetic variates can be used to reduce the variance.
+ * <p>
+ * The present value sensitivities to the initial discount factors are computed by the pathwise method,
+ * using the derivatives of the payoff provided by {@link HullWhiteMonteCarloPayoff#payoffAdjoint}.
+ */
+public final class HullWhiteMonteCarloEngine {
+
+  /**
+   * The default number of paths in a batch.
+   */
+  public static final int DEFAULT_BATCH_SIZE = 1000;
+  /**
+   * The model.
+   */
+  private static final HullWhiteOneFactorPiecewiseConstantInterestRateModel MODEL =
+      HullWhiteOneFactorPiecewiseConstantInterestRateModel.DEFAULT;
+
+  /**
+   * The number of paths.
+   */
+  private final int pathCount;
+  /**
+   * The number of paths in a batch.
+   */
+  private final int batchSize;
+  /**
+   * Whether antithetic variates are used.
+   */
+  private final boolean antithetic;
+  /**
+   * Whether the batches are evaluated in parallel.
+   */
+  private final boolean parallel;
+  /**
+   * The standard normal random number generator for each batch, indexed by the batch number.
+   */
+  private final IntFunction<RandomNumberGenerator> batchGenerator;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains an instance with the specified number of paths and seed.
+   * <p>
+   * The paths are evaluated in parallel, using batches of the default size and antithetic variates.
+   * The random numbers of each batch are generated by a separate stream of a {@link CounterBasedRandomEngine}.
+   *
+   * @param pathCount  the number of paths
+   * @param seed  the seed
+   * @return the engine
+   */
+  public static HullWhiteMonteCarloEngine of(int pathCount, long seed) {
+    return new HullWhiteMonteCarloEngine(
+        pathCount,
+        DEFAULT_BATCH_SIZE,
+        true,
+        true,
+        batch -> new NormalRandomNumberGenerator(0d, 1d, CounterBasedRandomEngine.of(seed, batch)));
+  }
+
+  /**
+   * Obtains an instance with the specified number of paths, using a Sobol sequence.
+   * <p>
+   * The paths are evaluated in parallel, using batches of the default size.
+   * Each batch uses a disjoint part of a {@link SobolRandomNumberGenerator} sequence, whose dimension is
+   * the number of decision times of the schedule, transformed by a Brownian bridge.
+   * Antithetic variates are not used as they would break the low-discrepancy property of the sequence.
+   * The number of decision times must not exceed {@link SobolRandomNumberGenerator#MAX_DIMENSION}.
+   * 
+   * @param pathCount  the number of paths
+   * @param dimension  the number of decision times of the schedules to be priced
+   * @return the engine
+   */
+  public static HullWhiteMonteCarloEngine ofSobol(int pathCount, int dimension) {
+    SobolRandomNumberGenerator sobol = SobolRandomNumberGenerator.ofBrownianBridge(dimension);
+    return new HullWhiteMonteCarloEngine(
+        pathCount,
+        DEFAULT_BATCH_SIZE,
+        false,
+        true,
+        batch -> sobol.startingAt(1L + (long) batch * DEFAULT_BATCH_SIZE));
+  }
+
+  /**
+   * Creates an instance.
+   * <p>
+   * The function providing the random number generators is called once per batch.
+   * It must return an independent generator of standard normal random numbers for each batch index,
+   * and must always return the same sequence for the same batch index for the results to be reproducible.
+   *
+   * @param pathCount  the number of paths
+   * @param batchSize  the number of paths in a batch
+   * @param antithetic  whether antithetic variates are used
+   * @param parallel  whether the batches are evaluated in parallel
+   * @param batchGenerator  the function providing the random number generator of each batch
+   */
+  public HullWhiteMonteCarloEngine(
+      int pathCount,
+      int batchSize,
+      boolean antithetic,
+      boolean parallel,
+      IntFunction<RandomNumberGenerator> batchGenerator) {
+
+    this.pathCount = ArgChecker.notNegativeOrZero(pathCount, "pathCount");
+    this.batchSize = ArgChecker.notNegativeOrZero(batchSize, "batchSize");
+    this.antithetic = antithetic;
+    this.parallel = parallel;
+    this.batchGenerator = ArgChecker.notNull(batchGenerator, "batchGenerator");
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the number of paths.
+   *
+   * @return the number of paths
+   */
+  public int getPathCount() {
+    return pathCount;
+  }
+
+  /**
+   * Gets the number of paths in a batch.
+   *
+   * @return the batch size
+   */
+  public int getBatchSize() {
+    return batchSize;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Computes the present value of a product by Monte Carlo simulation.
+   * <p>
+   * The discount factors are the initial discount factors {@code P(0, u)} for each of the bond maturities
+   * of the schedule, in the same order. The numeraire discount factor is the initial discount factor
+   * for the numeraire time of the schedule.
+   *
+   * @param schedule  the decision schedule
+   * @param payoff  the payoff
+   * @param discountFactors  the initial discount factors for the bond maturities
+   * @param numeraireDiscountFactor  the initial discount factor for the numeraire time
+   * @param parameters  the Hull-White model parameters
+   * @return the present value
+   */
+  public double presentValue(
+      HullWhiteMonteCarloDecisionSchedule schedule,
+      HullWhiteMonteCarloPayoff payoff,
+      List<DoubleArray> discountFactors,
+      double numeraireDiscountFactor,
+      HullWhiteOneFactorPiecewiseConstantParameters parameters) {
+
+    double[][] results = simulate(schedule, payoff, discountFactors, numeraireDiscountFactor, parameters, false);
+    double payoffSum = 0d;
+    for (double[] result : results) {
+      payoffSum += result[0];
+    }
+    return numeraireDiscountFactor * payoffSum / pathCount;
+  }
+
+  /**
+   * Computes the present value of a product by Monte Carlo simulation and its derivatives
+   * with respect to the initial discount factors.
+   * <p>
+   * The discount factors are the initial discount factors {@code P(0, u)} for each of the bond maturities
+   * of the schedule, in the same order. The numeraire discount factor is the initial discount factor
+   * for the numeraire time of the schedule.
+   * <p>
+   * The derivatives are computed by the pathwise method. They are with respect to the discount factors,
+   * flattened in the decision then bond order, followed by the derivative with respect to the
+   * numeraire discount factor.
+   *
+   * @param schedule  the decision schedule
+   * @param payoff  the payoff
+   * @param discountFactors  the initial discount factors for the bond maturities
+   * @param numeraireDiscountFactor  the initial discount factor for the numeraire time
+   * @param parameters  the Hull-White model parameters
+   * @return the present value and its derivatives
+   */
+  public ValueDerivatives presentValueAdjoint(
+      HullWhiteMonteCarloDecisionSchedule schedule,
+      HullWhiteMonteCarloPayoff payoff,
+      List<DoubleArray> discountFactors,
+      double numeraireDiscountFactor,
+      HullWhiteOneFactorPiecewiseConstantParameters parameters) {
+
+    double[][] results = simulate(schedule, payoff, discountFactors, numeraireDiscountFactor, parameters, true);
+    int nbBonds = schedule.getNumberOfBonds();
+    double payoffSum = 0d;
+    double[] ratioBarSum = new double[nbBonds];
+    for (double[] result : results) {
+      payoffSum += result[0];
+      for (int i = 0; i < nbBonds; i++) {
+        ratioBarSum[i] += result[i + 1];
+      }
+    }
+    // Backward sweep
+    double[] derivatives = new double[nbBonds + 1];
+    double numeraireBar = payoffSum / pathCount;
+    int index = 0;
+    for (DoubleArray dfs : discountFactors) {
+      for (int k = 0; k < dfs.size(); k++) {
+        derivatives[index] = numeraireDiscountFactor * ratioBarSum[index] / pathCount / dfs.get(k);
+        numeraireBar -= ratioBarSum[index] / pathCount;
+        index++;
+      }
+    }
+    derivatives[nbBonds] = numeraireBar;
+    return ValueDerivatives.of(numeraireDiscountFactor * payoffSum / pathCount, DoubleArray.ofUnsafe(derivatives));
+  }
+
+  //-------------------------------------------------------------------------
+  // simulates all the batches, returning for each batch the sum of payoffs and, if required,
+  // the sums of the products of the ratios by their derivatives
+  private double[][] simulate(
+      HullWhiteMonteCarloDecisionSchedule schedule,
+      HullWhiteMonteCarloPayoff payoff,
+      List<DoubleArray> discountFactors,
+      double numeraireDiscountFactor,
+      HullWhiteOneFactorPiecewiseConstantParameters parameters,
+      boolean adjoint) {
+
+    ArgChecker.notNull(schedule, "schedule");
+    ArgChecker.notNull(payoff, "payoff");
+    ArgChecker.notNull(parameters, "parameters");
+    int nbDecisions = schedule.getNumberOfDecisions();
+    ArgChecker.isTrue(discountFactors.size() == nbDecisions, "discountFactors must have one array per decision");
+    double a = parameters.getMeanReversion();
+    double expTheta = Math.exp(-a * schedule.getNumeraireTime());
+    double[] beta = new double[nbDecisions];
+    double[][] ratioFactor = new double[nbDecisions][];
+    double[][] ratioSlope = new double[nbDecisions][];
+    double previousTime = 0d;
+    double variance = 0d;
+    for (int j = 0; j < nbDecisions; j++) {
+      double decisionTime = schedule.getDecisionTimes().get(j);
+      beta[j] = MODEL.beta(parameters, previousTime, decisionTime);
+      variance += beta[j] * beta[j];
+      previousTime = decisionTime;
+      DoubleArray bondTimes = schedule.getBondTimes().get(j);
+      DoubleArray dfs = discountFactors.get(j);
+      ArgChecker.isTrue(dfs.size() == bondTimes.size(), "discountFactors must match the bond times of the schedule");
+      ratioFactor[j] = new double[bondTimes.size()];
+      ratioSlope[j] = new double[bondTimes.size()];
+      for (int k = 0; k < bondTimes.size(); k++) {
+        double h = (expTheta - Math.exp(-a * bondTimes.get(k))) / a;
+        ratioSlope[j][k] = h;
+        ratioFactor[j][k] = dfs.get(k) / numeraireDiscountFactor * Math.exp(-0.5 * h * h * variance);
+      }
+    }
+    int nbBatches = (pathCount + batchSize - 1) / batchSize;
+    double[][] results = new double[nbBatches][];
+    IntStream batches = IntStream.range(0, nbBatches);
+    (parallel ? batches.parallel() : batches).forEach(
+        batch -> results[batch] = simulateBatch(batch, beta, ratioFactor, ratioSlope, payoff, adjoint));
+    return results;
+  }
+
+  // simulates one batch of paths
+  private double[] simulateBatch(
+      int batch,
+      double[] beta,
+      double[][] ratioFactor,
+      double[][] ratioSlope,
+      HullWhiteMonteCarloPayoff payoff,
+      boolean adjoint) {
+
+    int nbDecisions = beta.length;
+    int nbPaths = Math.min(batchSize, pathCount - batch * batchSize);
+    int nbDraws = antithetic ? (nbPaths + 1) / 2 : nbPaths;
+    double[][] draws = new double[nbDraws][nbDecisions];
+    batchGenerator.apply(batch).fillVectors(draws);
+    // Forward sweep: ratios
+    double[] z = new double[nbPaths];
+    double[][][] ratios = new double[nbDecisions][][];
+    for (int j = 0; j < nbDecisions; j++) {
+      for (int p = 0; p < nbDraws; p++) {
+        double increment = beta[j] * draws[p][j];
+        z[p] += increment;
+        if (antithetic && p + nbDraws < nbPaths) {
+          z[p + nbDraws] -= increment;
+        }
+      }
+      int nbBonds = ratioFactor[j].length;
+      ratios[j] = new double[nbBonds][nbPaths];
+      for (int k = 0; k < nbBonds; k++) {
+        double[] ratiosJk = ratios[j][k];
+        double factor = ratioFactor[j][k];
+        double slope = ratioSlope[j][k];
+        for (int p = 0; p < nbPaths; p++) {
+          ratiosJk[p] = factor * Math.exp(-slope * z[p]);
+        }
+      }
+    }
+    // Payoff
+    double[] payoffs = new double[nbPaths];
+    if (!adjoint) {
+      payoff.payoff(ratios, nbPaths, payoffs);
+      return new double[] {sum(payoffs, nbPaths)};
+    }
+    double[][][] ratiosBar = new double[nbDecisions][][];
+    int nbBondsTotal = 0;
+    for (int j = 0; j < nbDecisions; j++) {
+      ratiosBar[j] = new double[ratios[j].length][nbPaths];
+      nbBondsTotal += ratios[j].length;
+    }
+    payoff.payoffAdjoint(ratios, nbPaths, payoffs, ratiosBar);
+    double[] result = new double[nbBondsTotal + 1];
+    result[0] = sum(payoffs, nbPaths);
+    int index = 1;
+    for (int j = 0; j < nbDecisions; j++) {
+      for (int k = 0; k < ratios[j].length; k++) {
+        double[] ratiosJk = ratios[j][k];
+        double[] ratiosBarJk = ratiosBar[j][k];
+        double ratioBarSum = 0d;
+        for (int p = 0; p < nbPaths; p++) {
+          ratioBarSum += ratiosJk[p] * ratiosBarJk[p];
+        }
+        result[index++] = ratioBarSum;
+      }
+    }
+    return result;
+  }
+
+  // sums the first values of an array
+  private static double sum(double[] values, int size) {
+    double sum = 0d;
+    for (int i = 0; i < size; i++) {
+      sum += values[i];
+    }
+    return sum;
+  }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.rate.model;
+
+/**
+ * The payoff of a product priced by Monte Carlo simulation in the Hull-White one factor model.
+ * <p>
+ * The payoff is evaluated on a batch of paths at once.
+ * The simulated market is provided as the ratios between the zero-coupon bond prices
+ * and the numeraire bond price, {@code P(t_i, u_ij) / P(t_i, theta)}, where {@code t_i} are the decision times,
+ * {@code u_ij} the bond maturities of the {@link HullWhiteMonteCarloDecisionSchedule} and {@code theta}
+ * the numeraire time.
+ * <p>
+ * The ratios are stored in primitive arrays indexed by decision, bond and path, in that order,
+ * so that the payoff can be computed in tight loops over the paths.
+ * The payoff is expressed in numeraire units, i.e., the value of all the cash flows of the path
+ * divided by the numeraire at the time they are determined.
+ * <p>
+ * Implementations must be thread-safe as batches may be evaluated concurrently.
+ */
+public interface HullWhiteMonteCarloPayoff {
+
+  /**
+   * Computes the payoff of a batch of paths.
+   *
+   * @param ratios  the bond to numeraire ratios, indexed by decision, bond and path
+   * @param pathCount  the number of paths in the batch
+   * @param payoffs  the array to be populated with the payoff of each path, in numeraire units
+   */
+  public abstract void payoff(double[][][] ratios, int pathCount, double[] payoffs);
+
+  /**
+   * Computes the payoff of a batch of paths and its pathwise derivatives.
+   * <p>
+   * The derivatives of the payoff of each path with respect to the bond to numeraire ratios
+   * of the same path are stored in {@code ratiosBar}, which has the same shape as {@code ratios}.
+   * <p>
+   * The default implementation computes the derivatives by central finite difference of {@link #payoff},
+   * bumping each ratio of all paths by a relative shift. This requires two payoff evaluations per ratio,
+   * and is not accurate for paths close to a discontinuity of the payoff.
+   * Products should override it with the analytic derivatives when available.
+   * The ratios are modified during the computation and restored before returning.
+   *
+   * @param ratios  the bond to numeraire ratios, indexed by decision, bond and path
+   * @param pathCount  the number of paths in the batch
+   * @param payoffs  the array to be populated with the payoff of each path, in numeraire units
+   * @param ratiosBar  the array to be populated with the derivatives of the payoffs with respect to the ratios
+   */
+  public default void payoffAdjoint(double[][][] ratios, int pathCount, double[] payoffs, double[][][] ratiosBar) {
+    double shift = 1.0e-6;
+    double[] payoffsUp = new double[pathCount];
+    double[] payoffsDown = new double[pathCount];
+    double[] saved = new double[pathCount];
+    for (int j = 0; j < ratios.length; j++) {
+      for (int k = 0; k < ratios[j].length; k++) {
+        double[] ratiosJk = ratios[j][k];
+        System.arraycopy(ratiosJk, 0, saved, 0, pathCount);
+        for (int p = 0; p < pathCount; p++) {
+          ratiosJk[p] = saved[p] * (1d + shift);
+        }
+        payoff(ratios, pathCount, payoffsUp);
+        for (int p = 0; p < pathCount; p++) {
+          ratiosJk[p] = saved[p] * (1d - shift);
+        }
+        payoff(ratios, pathCount, payoffsDown);
+        System.arraycopy(saved, 0, ratiosJk, 0, pathCount);
+        double[] ratiosBarJk = ratiosBar[j][k];
+        for (int p = 0; p < pathCount; p++) {
+          ratiosBarJk[p] = (payoffsUp[p] - payoffsDown[p]) / (2d * shift * saved[p]);
+        }
+      }
+    }
+    payoff(ratios, pathCount, payoffs);
+  }
+
+}
@@ -84,6 +84,36 @@ public final class EuropeanVanillaOptionFunction
     return DoubleArray.ofUnsafe(values);
   }
 
+  @Override
+  public boolean isBufferInductionSupported() {
+    return true;
+  }
+
+  @Override
+  public void fillPayoffAtExpiryTrinomial(double[] stateValue, double[] values) {
+    int nNodes = 2 * numberOfSteps + 1;
+    for (int i = 0; i < nNodes; ++i) {
+      values[i] = Math.max(sign * (stateValue[i] - strike), 0d);
+    }
+  }
+
+  @Override
+  public void fillNextOptionValues(
+      double discountFactor,
+      double[][] transitionProbability,
+      double[] stateValue,
+      double[] values,
+      double[] result,
+      int i) {
+
+    int nNodes = 2 * i + 1;
+    for (int j = 0; j < nNodes; ++j) {
+      double[] probability = transitionProbability[j];
+      result[j] = discountFactor *
+          (probability[2] * values[j + 2] + probability[1] * values[j + 1] + probability[0] * values[j]);
+    }
+  }
+
   //------------------------- AUTOGENERATED START -------------------------
   /**
    * The meta-bean for {@code EuropeanVanillaOptionFunction}.
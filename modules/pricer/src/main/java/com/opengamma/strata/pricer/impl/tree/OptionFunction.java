@@ -131,4 +131,80 @@ public interface OptionFunction {
         transitionProbability.get(j, 1) * value.get(j + 1) + transitionProbability.get(j, 0) * value.get(j)));
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * Checks if the backward induction on a uniform lattice can use the buffer methods.
+   * <p>
+   * If true, {@link TrinomialTree} prices the option on a uniform lattice using
+   * {@link #fillPayoffAtExpiryTrinomial(double[], double[])} and
+   * {@link #fillNextOptionValues(double, double[][], double[], double[], double[], int)},
+   * rather than {@link #getPayoffAtExpiryTrinomial(double, double, double)} and
+   * {@link #getNextOptionValues(double, double, double, double, DoubleArray, double, double, double, int)}.
+   * An implementation returning true must ensure that the methods produce the same values.
+   * <p>
+   * The default implementation returns false.
+   *
+   * @return true if the buffer methods can be used for a uniform lattice
+   */
+  public default boolean isBufferInductionSupported() {
+    return false;
+  }
+
+  /**
+   * Computes payoff at expiry for trinomial tree into a buffer.
+   * <p>
+   * This is equivalent to {@link #getPayoffAtExpiryTrinomial(DoubleArray)}, but writes the payoff values
+   * into the specified array so that the backward induction can be performed without allocation.
+   * Only the first {@code 2 * n + 1} elements of the arrays are used, where {@code n} is the number of steps.
+   * <p>
+   * The default implementation delegates to {@link #getPayoffAtExpiryTrinomial(DoubleArray)}.
+   * 
+   * @param stateValue  the state values at the final layer
+   * @param values  the array to be populated with the payoff at expiry
+   */
+  public default void fillPayoffAtExpiryTrinomial(double[] stateValue, double[] values) {
+    int nNodes = 2 * getNumberOfSteps() + 1;
+    DoubleArray stateValueArray = stateValue.length == nNodes ?
+        DoubleArray.ofUnsafe(stateValue) :
+        DoubleArray.copyOf(stateValue, 0, nNodes);
+    getPayoffAtExpiryTrinomial(stateValueArray).copyInto(values, 0);
+  }
+
+  /**
+   * Computes the option values in the intermediate nodes into a buffer.
+   * <p>
+   * This is equivalent to {@link #getNextOptionValues(double, DoubleMatrix, DoubleArray, DoubleArray, int)},
+   * but reads and writes primitive arrays so that the backward induction can be performed without allocation.
+   * Only the first {@code 2 * i + 1} elements of {@code stateValue}, {@code transitionProbability}
+   * and {@code result}, and the first {@code 2 * i + 3} elements of {@code values}, are used.
+   * The array {@code result} must not be the same as {@code values}.
+   * <p>
+   * The default implementation delegates to
+   * {@link #getNextOptionValues(double, DoubleMatrix, DoubleArray, DoubleArray, int)}.
+   * Implementations should override this method to avoid allocation.
+   * 
+   * @param discountFactor  the discount factor between the two layers
+   * @param transitionProbability  the transition probability, indexed by node and down, middle, up
+   * @param stateValue  the state value in the i-th layer
+   * @param values  the option values in the (i+1)-th layer
+   * @param result  the array to be populated with the option values in the i-th layer
+   * @param i  the step number for which the next option values are computed
+   */
+  public default void fillNextOptionValues(
+      double discountFactor,
+      double[][] transitionProbability,
+      double[] stateValue,
+      double[] values,
+      double[] result,
+      int i) {
+
+    int nNodes = 2 * i + 1;
+    DoubleMatrix probability = DoubleMatrix.ofUnsafe(transitionProbability.length == nNodes ?
+        transitionProbability :
+        Arrays.copyOf(transitionProbability, nNodes));
+    DoubleArray state = DoubleArray.copyOf(stateValue, 0, nNodes);
+    DoubleArray value = DoubleArray.copyOf(values, 0, nNodes + 2);
+    getNextOptionValues(discountFactor, probability, state, value, i).copyInto(result, 0);
+  }
+
 }
@@ -5,6 +5,8 @@
  */
 package com.opengamma.strata.pricer.impl.tree;
 
+import java.util.Arrays;
+
 import com.opengamma.strata.basics.value.ValueDerivatives;
 import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.array.DoubleArray;
@@ -17,6 +19,11 @@ import com.opengamma.strata.pricer.fxopt.RecombiningTrinomialTreeData;
  * and the option to price is specified by {@code OptionFunction}. 
  * <p>
  * Option pricing with non-uniform tree is realised by specifying {@code RecombiningTrinomialTreeData}.
+ * <p>
+ * The backward induction is performed on two primitive buffers, allocated once per pricing and used alternately
+ * for the option values of consecutive layers, so that no allocation is made at each time step.
+ * On a uniform lattice, a function overriding the methods taking the spot and lattice factors is instead
+ * priced using those methods.
  */
 public class TrinomialTree {
 
@@ -57,6 +64,10 @@ public class TrinomialTree {
     ArgChecker.isTrue(midProbability > 0d, "midProbability should be greater than 0");
     ArgChecker.isTrue(midProbability < 1d, "midProbability should be smaller than 1");
     ArgChecker.isTrue(downProbability > 0d, "downProbability should be greater than 0");
+    if (function.isBufferInductionSupported()) {
+      return optionPrice(function, discount, spot, downFactor, middleFactor,
+          new double[] {downProbability, midProbability, upProbability});
+    }
     DoubleArray values = function.getPayoffAtExpiryTrinomial(spot, downFactor, middleFactor);
     for (int i = nSteps - 1; i > -1; --i) {
       values = function.getNextOptionValues(discount, upProbability, midProbability, downProbability, values, spot,
@@ -65,6 +76,34 @@ public class TrinomialTree {
     return values.get(0);
   }
 
+  // prices an option on a uniform lattice using primitive buffers
+  private static double optionPrice(
+      OptionFunction function,
+      double discount,
+      double spot,
+      double downFactor,
+      double middleFactor,
+      double[] transitionProbability) {
+
+    int nSteps = function.getNumberOfSteps();
+    int nNodes = 2 * nSteps + 1;
+    double[][] probability = new double[nNodes][];
+    Arrays.fill(probability, transitionProbability);
+    double[] stateValue = new double[nNodes];
+    double[] values = new double[nNodes];
+    double[] nextValues = new double[nNodes];
+    fillStateValue(stateValue, spot, downFactor, middleFactor, nSteps);
+    function.fillPayoffAtExpiryTrinomial(stateValue, values);
+    for (int i = nSteps - 1; i > -1; --i) {
+      fillStateValue(stateValue, spot, downFactor, middleFactor, i);
+      function.fillNextOptionValues(discount, probability, stateValue, values, nextValues, i);
+      double[] swap = values;
+      values = nextValues;
+      nextValues = swap;
+    }
+    return values[0];
+  }
+
   /**
    * Price an option under the specified trinomial tree gird.
    * 
@@ -78,12 +117,18 @@ public class TrinomialTree {
 
     int nSteps = data.getNumberOfSteps();
     ArgChecker.isTrue(nSteps == function.getNumberOfSteps(), "mismatch in number of steps");
-    DoubleArray values = function.getPayoffAtExpiryTrinomial(data.getStateValueAtLayer(nSteps));
+    double[][] stateValue = data.getStateValue().toArrayUnsafe();
+    double[] values = new double[2 * nSteps + 1];
+    double[] nextValues = new double[2 * nSteps + 1];
+    function.fillPayoffAtExpiryTrinomial(stateValue[nSteps], values);
     for (int i = nSteps - 1; i > -1; --i) {
-      values = function.getNextOptionValues(
-          data.getDiscountFactorAtLayer(i), data.getProbabilityAtLayer(i), data.getStateValueAtLayer(i), values, i);
+      function.fillNextOptionValues(data.getDiscountFactorAtLayer(i),
+          data.getProbabilityAtLayer(i).toArrayUnsafe(), stateValue[i], values, nextValues, i);
+      double[] swap = values;
+      values = nextValues;
+      nextValues = swap;
     }
-    return values.get(0);
+    return values[0];
   }
 
   /**
@@ -102,19 +147,34 @@ public class TrinomialTree {
 
     int nSteps = data.getNumberOfSteps();
     ArgChecker.isTrue(nSteps == function.getNumberOfSteps(), "mismatch in number of steps");
-    DoubleArray values = function.getPayoffAtExpiryTrinomial(data.getStateValueAtLayer(nSteps));
+    double[][] stateValue = data.getStateValue().toArrayUnsafe();
+    double[] values = new double[2 * nSteps + 1];
+    double[] nextValues = new double[2 * nSteps + 1];
+    function.fillPayoffAtExpiryTrinomial(stateValue[nSteps], values);
     double delta = 0d;
     for (int i = nSteps - 1; i > -1; --i) {
-      values = function.getNextOptionValues(
-          data.getDiscountFactorAtLayer(i), data.getProbabilityAtLayer(i), data.getStateValueAtLayer(i), values, i);
+      function.fillNextOptionValues(data.getDiscountFactorAtLayer(i),
+          data.getProbabilityAtLayer(i).toArrayUnsafe(), stateValue[i], values, nextValues, i);
+      double[] swap = values;
+      values = nextValues;
+      nextValues = swap;
       if (i == 1) {
-        DoubleArray stateValue = data.getStateValueAtLayer(1);
-        double d1 = (values.get(2) - values.get(1)) / (stateValue.get(2) - stateValue.get(1));
-        double d2 = (values.get(1) - values.get(0)) / (stateValue.get(1) - stateValue.get(0));
+        double[] stateValueOne = stateValue[1];
+        double d1 = (values[2] - values[1]) / (stateValueOne[2] - stateValueOne[1]);
+        double d2 = (values[1] - values[0]) / (stateValueOne[1] - stateValueOne[0]);
         delta = 0.5 * (d1 + d2);
       }
     }
-    return ValueDerivatives.of(values.get(0), DoubleArray.of(delta));
+    return ValueDerivatives.of(values[0], DoubleArray.of(delta));
+  }
+
+  //-------------------------------------------------------------------------
+  // populates the state values of the i-th layer of a uniform lattice
+  private static void fillStateValue(double[] stateValue, double spot, double downFactor, double middleFactor, int i) {
+    int nNodes = 2 * i + 1;
+    for (int k = 0; k < nNodes; ++k) {
+      stateValue[k] = spot * Math.pow(downFactor, i - k) * Math.pow(middleFactor, k);
+    }
   }
 
 }
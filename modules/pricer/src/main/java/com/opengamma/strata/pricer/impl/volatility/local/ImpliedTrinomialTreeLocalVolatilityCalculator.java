@@ -111,12 +111,36 @@ public class ImpliedTrinomialTreeLocalVolatilityCalculator implements LocalVolat
         return impliedVolatilitySurface.zValue(tk);
       }
     };
-    ImmutableList<double[]> localVolData = calibrate(surface, spot, interestRate, dividendRate).getFirst();
+    return localVolatilityFromImpliedVolatility(
+        surface, spot, interestRate, dividendRate, SurfaceName.of("localVol_" + impliedVolatilitySurface.getName()));
+  }
+
+  /**
+   * Computes local volatility surface from implied volatility function.
+   * <p>
+   * This is the same as {@link #localVolatilityFromImpliedVolatility(Surface, double, Function, Function)},
+   * except that the implied volatility is any function of time to expiry and strike.
+   * 
+   * @param impliedVolatility  the implied volatility function of time to expiry and strike
+   * @param spot  the spot
+   * @param interestRate  the interest rate
+   * @param dividendRate  the dividend rate
+   * @param surfaceName  the name of the resulting surface
+   * @return the local volatility surface
+   */
+  public InterpolatedNodalSurface localVolatilityFromImpliedVolatility(
+      Function<DoublesPair, Double> impliedVolatility,
+      double spot,
+      Function<Double, Double> interestRate,
+      Function<Double, Double> dividendRate,
+      SurfaceName surfaceName) {
+
+    ImmutableList<double[]> localVolData = calibrate(impliedVolatility, spot, interestRate, dividendRate).getFirst();
     SurfaceMetadata metadata = DefaultSurfaceMetadata.builder()
         .xValueType(ValueType.YEAR_FRACTION)
         .yValueType(ValueType.STRIKE)
         .zValueType(ValueType.LOCAL_VOLATILITY)
-        .surfaceName(SurfaceName.of("localVol_" + impliedVolatilitySurface.getName()))
+        .surfaceName(surfaceName)
         .build();
     return InterpolatedNodalSurface.ofUnsorted(
         metadata,
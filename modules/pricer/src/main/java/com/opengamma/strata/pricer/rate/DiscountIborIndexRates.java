@@ -7,6 +7,8 @@ package com.opengamma.strata.pricer.rate;
 
 import java.io.Serializable;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
@@ -215,6 +217,37 @@ public final class DiscountIborIndexRates
     return psStart.combinedWith(psEnd);
   }
 
+  @Override
+  public CurrencyParameterSensitivities parameterSensitivity(List<IborRateSensitivity> pointSensitivities) {
+    List<ZeroRateSensitivity> zeroRateSensitivities = new ArrayList<>(pointSensitivities.size() * 2);
+    for (IborRateSensitivity pointSensitivity : pointSensitivities) {
+      LocalDate fixingStartDate = pointSensitivity.getObservation().getEffectiveDate();
+      LocalDate fixingEndDate = pointSensitivity.getObservation().getMaturityDate();
+      double accrualFactor = pointSensitivity.getObservation().getYearFraction();
+      addZeroRateSensitivities(
+          fixingStartDate, fixingEndDate, accrualFactor, pointSensitivity.getCurrency(),
+          pointSensitivity.getSensitivity(), zeroRateSensitivities);
+    }
+    return discountFactors.parameterSensitivity(zeroRateSensitivities);
+  }
+
+  // converts the sensitivity to the forward rate to sensitivities to the zero rates at the start and end dates
+  private void addZeroRateSensitivities(
+      LocalDate startDate,
+      LocalDate endDate,
+      double accrualFactor,
+      Currency currency,
+      double forwardBar,
+      List<ZeroRateSensitivity> zeroRateSensitivities) {
+
+    double dfForwardStart = discountFactors.discountFactor(startDate);
+    double dfForwardEnd = discountFactors.discountFactor(endDate);
+    double dfStartBar = forwardBar / (accrualFactor * dfForwardEnd);
+    double dfEndBar = -forwardBar * dfForwardStart / (accrualFactor * dfForwardEnd * dfForwardEnd);
+    zeroRateSensitivities.add(discountFactors.zeroRatePointSensitivity(startDate, currency).multipliedBy(dfStartBar));
+    zeroRateSensitivities.add(discountFactors.zeroRatePointSensitivity(endDate, currency).multipliedBy(dfEndBar));
+  }
+
   @Override
   public CurrencyParameterSensitivities createParameterSensitivity(Currency currency, DoubleArray sensitivities) {
     return discountFactors.createParameterSensitivity(currency, sensitivities);
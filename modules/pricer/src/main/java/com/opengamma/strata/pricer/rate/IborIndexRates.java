@@ -6,6 +6,7 @@
 package com.opengamma.strata.pricer.rate;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.function.Consumer;
 
 import com.opengamma.strata.basics.currency.Currency;
@@ -20,11 +21,13 @@ import com.opengamma.strata.market.curve.InterpolatedNodalCurve;
 import com.opengamma.strata.market.explain.ExplainKey;
 import com.opengamma.strata.market.explain.ExplainMapBuilder;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
+import com.opengamma.strata.market.param.CurrencyParameterSensitivitiesBuilder;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivity;
 import com.opengamma.strata.market.param.ParameterPerturbation;
 import com.opengamma.strata.market.param.ParameterizedData;
 import com.opengamma.strata.market.sensitivity.PointSensitivityBuilder;
 import com.opengamma.strata.pricer.DiscountFactors;
+import com.opengamma.strata.pricer.YearFractionCache;
 
 /**
  * Provides access to rates for an Ibor index.
@@ -81,6 +84,34 @@ public interface IborIndexRates
     return DiscountIborIndexRates.of(index, discountFactors, fixings);
   }
 
+  /**
+   * Obtains an instance from a curve and time-series of fixings, caching the year fractions.
+   * <p>
+   * This is the same as {@link #of(IborIndex, LocalDate, Curve, LocalDateDoubleTimeSeries)}, except that
+   * the relative year fractions are held in the cache, which is typically shared by the curves of a rates provider.
+   *
+   * @param index  the index
+   * @param valuationDate  the valuation date for which the curve is valid
+   * @param forwardCurve  the forward curve
+   * @param fixings  the time-series of fixings
+   * @param yearFractions  the cache of year fractions, with the same valuation date
+   * @return the rates view
+   */
+  public static IborIndexRates of(
+      IborIndex index,
+      LocalDate valuationDate,
+      Curve forwardCurve,
+      LocalDateDoubleTimeSeries fixings,
+      YearFractionCache yearFractions) {
+
+    if (forwardCurve.getMetadata().getYValueType().equals(ValueType.FORWARD_RATE)) {
+      return SimpleIborIndexRates.of(index, valuationDate, forwardCurve, fixings, yearFractions);
+    }
+    DiscountFactors discountFactors =
+        DiscountFactors.of(index.getCurrency(), valuationDate, forwardCurve, yearFractions);
+    return DiscountIborIndexRates.of(index, discountFactors, fixings);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Gets the Ibor index.
@@ -217,6 +248,26 @@ public interface IborIndexRates
    */
   public abstract CurrencyParameterSensitivities parameterSensitivity(IborRateSensitivity pointSensitivity);
 
+  /**
+   * Calculates the parameter sensitivity from a list of point sensitivities.
+   * <p>
+   * This is used to convert many point sensitivities to parameter sensitivity in one call.
+   * The result is the same as calling {@link #parameterSensitivity(IborRateSensitivity)}
+   * for each point and combining the results.
+   * Implementations may override this to project all the points onto the parameters in a single pass.
+   *
+   * @param pointSensitivities  the point sensitivities to convert
+   * @return the parameter sensitivity
+   * @throws RuntimeException if the result cannot be calculated
+   */
+  public default CurrencyParameterSensitivities parameterSensitivity(List<IborRateSensitivity> pointSensitivities) {
+    CurrencyParameterSensitivitiesBuilder builder = CurrencyParameterSensitivities.builder();
+    for (IborRateSensitivity pointSensitivity : pointSensitivities) {
+      builder.add(parameterSensitivity(pointSensitivity));
+    }
+    return builder.build();
+  }
+
   /**
    * Creates the parameter sensitivity when the sensitivity values are known.
    * <p>
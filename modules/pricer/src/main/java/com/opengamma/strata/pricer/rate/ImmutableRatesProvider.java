@@ -22,6 +22,7 @@ import org.joda.beans.JodaBeanUtils;
 import org.joda.beans.MetaBean;
 import org.joda.beans.MetaProperty;
 import org.joda.beans.gen.BeanDefinition;
+import org.joda.beans.gen.ImmutableConstructor;
 import org.joda.beans.gen.ImmutableDefaults;
 import org.joda.beans.gen.PropertyDefinition;
 import org.joda.beans.impl.direct.DirectMetaBean;
@@ -47,6 +48,7 @@ import com.opengamma.strata.data.MarketDataName;
 import com.opengamma.strata.market.curve.Curve;
 import com.opengamma.strata.market.curve.CurveName;
 import com.opengamma.strata.pricer.DiscountFactors;
+import com.opengamma.strata.pricer.YearFractionCache;
 import com.opengamma.strata.pricer.fx.DiscountFxForwardRates;
 import com.opengamma.strata.pricer.fx.ForwardFxIndexRates;
 import com.opengamma.strata.pricer.fx.FxForwardRates;
@@ -58,7 +60,7 @@ import com.opengamma.strata.pricer.fx.FxIndexRates;
  * This provides the environmental information against which pricing occurs.
  * This includes FX rates, discount factors and forward curves.
  */
-@BeanDefinition(builderScope = "private", constructorScope = "package")
+@BeanDefinition(builderScope = "private")
 public final class ImmutableRatesProvider
     implements RatesProvider, ImmutableBean, Serializable {
 
@@ -96,6 +98,10 @@ public final class ImmutableRatesProvider
    */
   @PropertyDefinition(validate = "notNull")
   private final ImmutableMap<Index, LocalDateDoubleTimeSeries> timeSeries;
+  /**
+   * The cache of year fractions, shared by the curves of this provider.
+   */
+  private final transient YearFractionCache yearFractionCache;  // not a property
 
   //-------------------------------------------------------------------------
   @ImmutableDefaults
@@ -103,6 +109,41 @@ public final class ImmutableRatesProvider
     builder.fxRateProvider = FxMatrix.empty();
   }
 
+  /**
+   * Package-private constructor used by the builder.
+   *
+   * @param valuationDate  the valuation date
+   * @param fxRateProvider  the provider of foreign exchange rates
+   * @param discountCurves  the discount curves
+   * @param indexCurves  the forward curves
+   * @param timeSeries  the time-series
+   */
+  @ImmutableConstructor
+  ImmutableRatesProvider(
+      LocalDate valuationDate,
+      FxRateProvider fxRateProvider,
+      Map<Currency, Curve> discountCurves,
+      Map<Index, Curve> indexCurves,
+      Map<Index, LocalDateDoubleTimeSeries> timeSeries) {
+
+    ArgChecker.notNull(valuationDate, "valuationDate");
+    ArgChecker.notNull(fxRateProvider, "fxRateProvider");
+    ArgChecker.notNull(discountCurves, "discountCurves");
+    ArgChecker.notNull(indexCurves, "indexCurves");
+    ArgChecker.notNull(timeSeries, "timeSeries");
+    this.valuationDate = valuationDate;
+    this.fxRateProvider = fxRateProvider;
+    this.discountCurves = ImmutableMap.copyOf(discountCurves);
+    this.indexCurves = ImmutableMap.copyOf(indexCurves);
+    this.timeSeries = ImmutableMap.copyOf(timeSeries);
+    this.yearFractionCache = YearFractionCache.of(valuationDate);
+  }
+
+  // ensure standard constructor is invoked
+  private Object readResolve() {
+    return new ImmutableRatesProvider(valuationDate, fxRateProvider, discountCurves, indexCurves, timeSeries);
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Combines a number of rates providers.
@@ -224,7 +265,7 @@ public final class ImmutableRatesProvider
     if (curve == null) {
       throw new IllegalArgumentException("Unable to find discount curve: " + currency);
     }
-    return DiscountFactors.of(currency, valuationDate, curve);
+    return DiscountFactors.of(currency, valuationDate, curve, yearFractionCache);
   }
 
   //-------------------------------------------------------------------------
@@ -248,14 +289,14 @@ public final class ImmutableRatesProvider
   public IborIndexRates iborIndexRates(IborIndex index) {
     LocalDateDoubleTimeSeries fixings = timeSeries(index);
     Curve curve = indexCurve(index);
-    return IborIndexRates.of(index, valuationDate, curve, fixings);
+    return IborIndexRates.of(index, valuationDate, curve, fixings, yearFractionCache);
   }
 
   @Override
   public OvernightIndexRates overnightIndexRates(OvernightIndex index) {
     LocalDateDoubleTimeSeries fixings = timeSeries(index);
     Curve curve = indexCurve(index);
-    return OvernightIndexRates.of(index, valuationDate, curve, fixings);
+    return OvernightIndexRates.of(index, valuationDate, curve, fixings, yearFractionCache);
   }
 
   @Override
@@ -326,32 +367,6 @@ public final class ImmutableRatesProvider
     MetaBean.register(ImmutableRatesProvider.Meta.INSTANCE);
   }
 
-  /**
-   * Creates an instance.
-   * @param valuationDate  the value of the property, not null
-   * @param fxRateProvider  the value of the property, not null
-   * @param discountCurves  the value of the property, not null
-   * @param indexCurves  the value of the property, not null
-   * @param timeSeries  the value of the property, not null
-   */
-  ImmutableRatesProvider(
-      LocalDate valuationDate,
-      FxRateProvider fxRateProvider,
-      Map<Currency, Curve> discountCurves,
-      Map<Index, Curve> indexCurves,
-      Map<Index, LocalDateDoubleTimeSeries> timeSeries) {
-    JodaBeanUtils.notNull(valuationDate, "valuationDate");
-    JodaBeanUtils.notNull(fxRateProvider, "fxRateProvider");
-    JodaBeanUtils.notNull(discountCurves, "discountCurves");
-    JodaBeanUtils.notNull(indexCurves, "indexCurves");
-    JodaBeanUtils.notNull(timeSeries, "timeSeries");
-    this.valuationDate = valuationDate;
-    this.fxRateProvider = fxRateProvider;
-    this.discountCurves = ImmutableMap.copyOf(discountCurves);
-    this.indexCurves = ImmutableMap.copyOf(indexCurves);
-    this.timeSeries = ImmutableMap.copyOf(timeSeries);
-  }
-
   @Override
   public ImmutableRatesProvider.Meta metaBean() {
     return ImmutableRatesProvider.Meta.INSTANCE;
@@ -5,9 +5,15 @@
  */
 package com.opengamma.strata.pricer.rate;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
 
+import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.basics.currency.CurrencyPair;
 import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
 import com.opengamma.strata.basics.index.FxIndex;
@@ -20,6 +26,7 @@ import com.opengamma.strata.data.MarketDataName;
 import com.opengamma.strata.market.curve.Curve;
 import com.opengamma.strata.market.curve.CurveName;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
+import com.opengamma.strata.market.param.CurrencyParameterSensitivitiesBuilder;
 import com.opengamma.strata.market.sensitivity.PointSensitivities;
 import com.opengamma.strata.market.sensitivity.PointSensitivity;
 import com.opengamma.strata.pricer.BaseProvider;
@@ -142,45 +149,61 @@ public interface RatesProvider
    * of each month in a year relative to a specific forward curve. This method converts to the point
    * sensitivities to be relative to each parameter on the underlying curve, such as the 1 day, 1 week,
    * 1 month, 3 month, 12 month and 5 year nodal points.
+   * <p>
+   * The zero rate, Ibor and overnight sensitivities are grouped by curve before being projected,
+   * so that the sensitivities to each curve are accumulated in a single pass.
    * 
    * @param pointSensitivities  the point sensitivities
    * @return the sensitivity to the curve parameters
    */
   public default CurrencyParameterSensitivities parameterSensitivity(PointSensitivities pointSensitivities) {
-    CurrencyParameterSensitivities sens = CurrencyParameterSensitivities.empty();
+    // group the sensitivities by curve, so that each curve is projected in a single pass
+    Map<Currency, List<ZeroRateSensitivity>> zeroRatePoints = new LinkedHashMap<>();
+    Map<IborIndex, List<IborRateSensitivity>> iborPoints = new LinkedHashMap<>();
+    Map<OvernightIndex, List<OvernightRateSensitivity>> overnightPoints = new LinkedHashMap<>();
+    CurrencyParameterSensitivitiesBuilder sens = CurrencyParameterSensitivities.builder();
     for (PointSensitivity point : pointSensitivities.getSensitivities()) {
       if (point instanceof ZeroRateSensitivity) {
         ZeroRateSensitivity pt = (ZeroRateSensitivity) point;
-        DiscountFactors factors = discountFactors(pt.getCurveCurrency());
-        sens = sens.combinedWith(factors.parameterSensitivity(pt));
+        zeroRatePoints.computeIfAbsent(pt.getCurveCurrency(), ccy -> new ArrayList<>()).add(pt);
 
       } else if (point instanceof IborRateSensitivity) {
         IborRateSensitivity pt = (IborRateSensitivity) point;
-        IborIndexRates rates = iborIndexRates(pt.getIndex());
-        sens = sens.combinedWith(rates.parameterSensitivity(pt));
+        iborPoints.computeIfAbsent(pt.getIndex(), index -> new ArrayList<>()).add(pt);
 
       } else if (point instanceof OvernightRateSensitivity) {
         OvernightRateSensitivity pt = (OvernightRateSensitivity) point;
-        OvernightIndexRates rates = overnightIndexRates(pt.getIndex());
-        sens = sens.combinedWith(rates.parameterSensitivity(pt));
+        overnightPoints.computeIfAbsent(pt.getIndex(), index -> new ArrayList<>()).add(pt);
 
       } else if (point instanceof FxIndexSensitivity) {
         FxIndexSensitivity pt = (FxIndexSensitivity) point;
         FxIndexRates rates = fxIndexRates(pt.getIndex());
-        sens = sens.combinedWith(rates.parameterSensitivity(pt));
+        sens.add(rates.parameterSensitivity(pt));
 
       } else if (point instanceof InflationRateSensitivity) {
         InflationRateSensitivity pt = (InflationRateSensitivity) point;
         PriceIndexValues rates = priceIndexValues(pt.getIndex());
-        sens = sens.combinedWith(rates.parameterSensitivity(pt));
+        sens.add(rates.parameterSensitivity(pt));
 
       } else if (point instanceof FxForwardSensitivity) {
         FxForwardSensitivity pt = (FxForwardSensitivity) point;
         FxForwardRates rates = fxForwardRates(pt.getCurrencyPair());
-        sens = sens.combinedWith(rates.parameterSensitivity(pt));
+        sens.add(rates.parameterSensitivity(pt));
       }
     }
-    return sens;
+    for (Entry<Currency, List<ZeroRateSensitivity>> entry : zeroRatePoints.entrySet()) {
+      DiscountFactors factors = discountFactors(entry.getKey());
+      sens.add(factors.parameterSensitivity(entry.getValue()));
+    }
+    for (Entry<IborIndex, List<IborRateSensitivity>> entry : iborPoints.entrySet()) {
+      IborIndexRates rates = iborIndexRates(entry.getKey());
+      sens.add(rates.parameterSensitivity(entry.getValue()));
+    }
+    for (Entry<OvernightIndex, List<OvernightRateSensitivity>> entry : overnightPoints.entrySet()) {
+      OvernightIndexRates rates = overnightIndexRates(entry.getKey());
+      sens.add(rates.parameterSensitivity(entry.getValue()));
+    }
+    return sens.build();
   }
 
   /**
@@ -46,6 +46,7 @@ import com.opengamma.strata.market.param.ParameterMetadata;
 import com.opengamma.strata.market.param.ParameterPerturbation;
 import com.opengamma.strata.market.param.UnitParameterSensitivity;
 import com.opengamma.strata.market.sensitivity.PointSensitivityBuilder;
+import com.opengamma.strata.pricer.YearFractionCache;
 
 /**
  * An Ibor index curve providing rates directly from a forward rates curve.
@@ -83,6 +84,10 @@ public final class SimpleIborIndexRates
    * The day count convention of the curve.
    */
   private final transient DayCount dayCount;  // cached, not a property
+  /**
+   * The cache of year fractions, null if the year fractions are not cached.
+   */
+  private final transient YearFractionCache yearFractions;  // cached, not a property
 
   /**
    * Obtains an instance from a curve, with an empty time-series of fixings.
@@ -127,6 +132,30 @@ public final class SimpleIborIndexRates
     return new SimpleIborIndexRates(index, valuationDate, curve, fixings);
   }
 
+  /**
+   * Obtains an instance from a curve and time-series of fixing, caching the year fractions.
+   * <p>
+   * This is the same as {@link #of(IborIndex, LocalDate, Curve, LocalDateDoubleTimeSeries)}, except that
+   * the relative year fractions are held in the cache, which is typically shared by the curves of a rates provider.
+   *
+   * @param index  the index
+   * @param valuationDate  the valuation date for which the curve is valid
+   * @param curve  the curve of forward rates
+   * @param fixings  the time-series of fixings
+   * @param yearFractions  the cache of year fractions, with the same valuation date
+   * @return the rates view
+   */
+  public static SimpleIborIndexRates of(
+      IborIndex index,
+      LocalDate valuationDate,
+      Curve curve,
+      LocalDateDoubleTimeSeries fixings,
+      YearFractionCache yearFractions) {
+
+    ArgChecker.notNull(yearFractions, "yearFractions");
+    return new SimpleIborIndexRates(index, valuationDate, curve, fixings, yearFractions);
+  }
+
   @ImmutableConstructor
   private SimpleIborIndexRates(
       IborIndex index,
@@ -134,6 +163,16 @@ public final class SimpleIborIndexRates
       Curve curve,
       LocalDateDoubleTimeSeries fixings) {
 
+    this(index, valuationDate, curve, fixings, null);
+  }
+
+  private SimpleIborIndexRates(
+      IborIndex index,
+      LocalDate valuationDate,
+      Curve curve,
+      LocalDateDoubleTimeSeries fixings,
+      YearFractionCache yearFractions) {
+
     ArgChecker.notNull(index, "index");
     ArgChecker.notNull(valuationDate, "valuationDate");
     ArgChecker.notNull(curve, "curve");
@@ -144,12 +183,15 @@ public final class SimpleIborIndexRates
         ValueType.FORWARD_RATE, "Incorrect y-value type for ibor curve");
     DayCount dayCount = curve.getMetadata().findInfo(CurveInfoType.DAY_COUNT)
         .orElseThrow(() -> new IllegalArgumentException("Incorrect curve metadata, missing DayCount"));
+    ArgChecker.isTrue(yearFractions == null || yearFractions.getValuationDate().equals(valuationDate),
+        "Year fraction cache must have the same valuation date");
 
     this.valuationDate = valuationDate;
     this.index = index;
     this.curve = curve;
     this.fixings = fixings;
     this.dayCount = dayCount;
+    this.yearFractions = yearFractions;
   }
 
   // ensure standard constructor is invoked
@@ -264,11 +306,14 @@ public final class SimpleIborIndexRates
    * @return the new instance
    */
   public SimpleIborIndexRates withCurve(Curve curve) {
-    return new SimpleIborIndexRates(index, valuationDate, curve, fixings);
+    return new SimpleIborIndexRates(index, valuationDate, curve, fixings, yearFractions);
   }
 
   // calculate the relative time between the valuation date and the specified date using the day count of the curve
   private double relativeYearFraction(LocalDate date) {
+    if (yearFractions != null) {
+      return yearFractions.relativeYearFraction(dayCount, date);
+    }
     return dayCount.relativeYearFraction(valuationDate, date);
   }
 
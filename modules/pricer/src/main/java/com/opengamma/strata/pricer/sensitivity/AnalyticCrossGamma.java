@@ -0,0 +1,390 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.sensitivity;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.index.Index;
+import com.opengamma.strata.basics.index.OvernightIndex;
+import com.opengamma.strata.basics.index.RateIndex;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.collect.tuple.DoublesPair;
+import com.opengamma.strata.market.curve.Curve;
+import com.opengamma.strata.market.curve.CurveName;
+import com.opengamma.strata.market.curve.NodalCurve;
+import com.opengamma.strata.market.param.CrossGammaParameterSensitivities;
+import com.opengamma.strata.market.param.CrossGammaParameterSensitivity;
+import com.opengamma.strata.market.param.ParameterMetadata;
+import com.opengamma.strata.market.sensitivity.PointSensitivities;
+import com.opengamma.strata.market.sensitivity.PointSensitivity;
+import com.opengamma.strata.pricer.DiscountFactors;
+import com.opengamma.strata.pricer.ZeroRateDiscountFactors;
+import com.opengamma.strata.pricer.ZeroRateSensitivity;
+import com.opengamma.strata.pricer.rate.DiscountIborIndexRates;
+import com.opengamma.strata.pricer.rate.DiscountOvernightIndexRates;
+import com.opengamma.strata.pricer.rate.IborIndexRates;
+import com.opengamma.strata.pricer.rate.IborRateSensitivity;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
+import com.opengamma.strata.pricer.rate.OvernightIndexRates;
+import com.opengamma.strata.pricer.rate.OvernightRateSensitivity;
+import com.opengamma.strata.product.rate.FixedRateComputation;
+import com.opengamma.strata.product.rate.IborInterpolatedRateComputation;
+import com.opengamma.strata.product.rate.IborRateComputation;
+import com.opengamma.strata.product.rate.OvernightCompoundedRateComputation;
+import com.opengamma.strata.product.rate.RateComputation;
+import com.opengamma.strata.product.swap.CompoundingMethod;
+import com.opengamma.strata.product.swap.KnownAmountSwapPaymentPeriod;
+import com.opengamma.strata.product.swap.NegativeRateMethod;
+import com.opengamma.strata.product.swap.NotionalExchange;
+import com.opengamma.strata.product.swap.RateAccrualPeriod;
+import com.opengamma.strata.product.swap.RatePaymentPeriod;
+import com.opengamma.strata.product.swap.ResolvedSwap;
+import com.opengamma.strata.product.swap.ResolvedSwapLeg;
+import com.opengamma.strata.product.swap.SwapPaymentEvent;
+import com.opengamma.strata.product.swap.SwapPaymentPeriod;
+
+/**
+ * Computes the intra-curve cross gamma from point sensitivities, without revaluation.
+ * <p>
+ * The value must be a linear combination of discount factors and of simply compounded forward rates,
+ * which is checked for the present value of a swap by {@link #isLinear(ResolvedSwap)}.
+ * The coefficients may depend on other curves, but not on the curve of the discount factor or forward rate.
+ * The second order derivatives of the value with respect to the zero rates of each curve are then
+ * known from the point sensitivities and the curves.
+ * <p>
+ * These derivatives are projected onto the curve parameters by the parameter sensitivity of the zero rates.
+ * The second order term of the interpolation, which is zero for interpolators linear in the node values,
+ * is obtained by central difference of the parameter sensitivity of the curve.
+ * This only rebuilds the curve, the value is not recomputed.
+ * <p>
+ * The computation applies to zero rate curves, with sensitivities to discount factors, Ibor rates and
+ * overnight period rates in the currency of the curve. A curve used both for discounting and forward rates
+ * is not supported, as the cross terms between the discount factors and the forward rates are then unknown.
+ */
+final class AnalyticCrossGamma {
+
+  /**
+   * The rates provider.
+   */
+  private final ImmutableRatesProvider provider;
+  /**
+   * The shift used to difference the parameter sensitivity of the curves.
+   */
+  private final double shift;
+  /**
+   * The derivatives with respect to the discount curves, by currency.
+   */
+  private final Map<Currency, CurveGamma> discountGammas = new HashMap<>();
+  /**
+   * The derivatives with respect to the forward curves, by index.
+   */
+  private final Map<Index, CurveGamma> forwardGammas = new HashMap<>();
+  /**
+   * The curves used for discounting.
+   */
+  private final Set<CurveName> discountCurves = new HashSet<>();
+  /**
+   * The curves used for forward rates.
+   */
+  private final Set<CurveName> forwardCurves = new HashSet<>();
+
+  // creates an instance
+  private AnalyticCrossGamma(ImmutableRatesProvider provider, double shift) {
+    this.provider = provider;
+    this.shift = shift;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Computes the intra-curve cross gamma.
+   * <p>
+   * The result is empty if the point sensitivities or the curves are not supported.
+   * 
+   * @param provider  the rates provider
+   * @param pointSensitivities  the point sensitivities of the value
+   * @param shift  the shift used to difference the parameter sensitivity of the curves
+   * @return the cross gamma, empty if not supported
+   */
+  static Optional<CrossGammaParameterSensitivities> intraCurve(
+      ImmutableRatesProvider provider,
+      PointSensitivities pointSensitivities,
+      double shift) {
+
+    AnalyticCrossGamma calculator = new AnalyticCrossGamma(provider, shift);
+    for (PointSensitivity point : pointSensitivities.getSensitivities()) {
+      if (!calculator.add(point)) {
+        return Optional.empty();
+      }
+    }
+    if (calculator.discountCurves.stream().anyMatch(calculator.forwardCurves::contains)) {
+      return Optional.empty();
+    }
+    return Optional.of(calculator.build());
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Checks if the present value of the swap is a linear combination of discount factors and forward rates.
+   * <p>
+   * This is the case if the payment periods are known amounts or rate periods without compounding,
+   * FX reset or floor on the rate, and the rates are fixed, Ibor or overnight compounded without cut-off.
+   * The only payment events allowed are notional exchanges of known amounts.
+   * 
+   * @param swap  the swap
+   * @return true if the present value is linear
+   */
+  static boolean isLinear(ResolvedSwap swap) {
+    for (ResolvedSwapLeg leg : swap.getLegs()) {
+      for (SwapPaymentPeriod period : leg.getPaymentPeriods()) {
+        if (!isLinear(period)) {
+          return false;
+        }
+      }
+      for (SwapPaymentEvent event : leg.getPaymentEvents()) {
+        if (!(event instanceof NotionalExchange)) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  // checks if the value of the payment period is linear
+  private static boolean isLinear(SwapPaymentPeriod period) {
+    if (period instanceof KnownAmountSwapPaymentPeriod) {
+      return true;
+    }
+    if (!(period instanceof RatePaymentPeriod)) {
+      return false;
+    }
+    RatePaymentPeriod ratePeriod = (RatePaymentPeriod) period;
+    if (ratePeriod.getFxReset().isPresent() ||
+        (ratePeriod.getAccrualPeriods().size() > 1 && ratePeriod.getCompoundingMethod() != CompoundingMethod.NONE)) {
+      return false;
+    }
+    for (RateAccrualPeriod accrualPeriod : ratePeriod.getAccrualPeriods()) {
+      if (accrualPeriod.getNegativeRateMethod() != NegativeRateMethod.ALLOW_NEGATIVE ||
+          !isLinear(accrualPeriod.getRateComputation())) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  // checks if the rate is linear in the forward rates
+  private static boolean isLinear(RateComputation computation) {
+    if (computation instanceof OvernightCompoundedRateComputation) {
+      return ((OvernightCompoundedRateComputation) computation).getRateCutOffDays() <= 1;
+    }
+    return computation instanceof FixedRateComputation ||
+        computation instanceof IborRateComputation ||
+        computation instanceof IborInterpolatedRateComputation;
+  }
+
+  //-------------------------------------------------------------------------
+  // adds a point sensitivity, returning false if not supported
+  private boolean add(PointSensitivity point) {
+    if (point instanceof ZeroRateSensitivity) {
+      ZeroRateSensitivity zeroRate = (ZeroRateSensitivity) point;
+      Currency currency = zeroRate.getCurveCurrency();
+      if (!currency.equals(zeroRate.getCurrency())) {
+        return false;
+      }
+      return curveGamma(provider.discountFactors(currency), discountGammas, currency, discountCurves)
+          .map(gamma -> gamma.addDiscountFactor(zeroRate.getYearFraction(), zeroRate.getSensitivity()))
+          .isPresent();
+    }
+    if (point instanceof IborRateSensitivity) {
+      IborRateSensitivity ibor = (IborRateSensitivity) point;
+      IborIndexRates rates = provider.iborIndexRates(ibor.getIndex());
+      if (!(rates instanceof DiscountIborIndexRates) || !ibor.getCurrency().equals(ibor.getIndex().getCurrency())) {
+        return false;
+      }
+      DiscountFactors discountFactors = ((DiscountIborIndexRates) rates).getDiscountFactors();
+      return curveGamma(discountFactors, forwardGammas, ibor.getIndex(), forwardCurves)
+          .map(gamma -> gamma.addForwardRate(
+              discountFactors,
+              ibor.getObservation().getEffectiveDate(),
+              ibor.getObservation().getMaturityDate(),
+              ibor.getObservation().getYearFraction(),
+              ibor.getSensitivity()))
+          .isPresent();
+    }
+    if (point instanceof OvernightRateSensitivity) {
+      OvernightRateSensitivity overnight = (OvernightRateSensitivity) point;
+      OvernightIndex index = overnight.getIndex();
+      OvernightIndexRates rates = provider.overnightIndexRates(index);
+      if (!(rates instanceof DiscountOvernightIndexRates) || !overnight.getCurrency().equals(index.getCurrency())) {
+        return false;
+      }
+      DiscountFactors discountFactors = ((DiscountOvernightIndexRates) rates).getDiscountFactors();
+      LocalDate startDate = overnight.getObservation().getEffectiveDate();
+      LocalDate endDate = overnight.getEndDate();
+      return curveGamma(discountFactors, forwardGammas, index, forwardCurves)
+          .map(gamma -> gamma.addForwardRate(
+              discountFactors,
+              startDate,
+              endDate,
+              index.getDayCount().yearFraction(startDate, endDate),
+              overnight.getSensitivity()))
+          .isPresent();
+    }
+    return false;
+  }
+
+  // finds the derivatives with respect to the curve underlying the discount factors
+  private <K> Optional<CurveGamma> curveGamma(
+      DiscountFactors discountFactors,
+      Map<K, CurveGamma> gammas,
+      K key,
+      Set<CurveName> role) {
+
+    if (!(discountFactors instanceof ZeroRateDiscountFactors)) {
+      return Optional.empty();
+    }
+    Curve curve = ((ZeroRateDiscountFactors) discountFactors).getCurve();
+    if (!(curve instanceof NodalCurve)) {
+      return Optional.empty();
+    }
+    role.add(curve.getName());
+    return Optional.of(gammas.computeIfAbsent(key, k -> new CurveGamma((NodalCurve) curve)));
+  }
+
+  //-------------------------------------------------------------------------
+  // builds the cross gamma, by curve of the provider as in the finite difference computation
+  private CrossGammaParameterSensitivities build() {
+    CrossGammaParameterSensitivities result = CrossGammaParameterSensitivities.empty();
+    for (Currency currency : provider.getDiscountCurves().keySet()) {
+      result = addCurve(result, discountGammas.get(currency), currency);
+    }
+    for (Index index : provider.getIndexCurves().keySet()) {
+      if (index instanceof RateIndex) {
+        result = addCurve(result, forwardGammas.get(index), ((RateIndex) index).getCurrency());
+      }
+    }
+    return result;
+  }
+
+  // adds the cross gamma with respect to a curve of the provider, if sensitive
+  private CrossGammaParameterSensitivities addCurve(
+      CrossGammaParameterSensitivities result,
+      CurveGamma gamma,
+      Currency currency) {
+
+    if (gamma == null) {
+      return result;
+    }
+    NodalCurve nodalCurve = gamma.curve;
+    DoubleMatrix matrix = gamma.parameterGamma(shift);
+    List<ParameterMetadata> metadata = IntStream.range(0, nodalCurve.getParameterCount())
+        .mapToObj(i -> nodalCurve.getParameterMetadata(i))
+        .collect(toImmutableList());
+    return result.combinedWith(CrossGammaParameterSensitivity.of(nodalCurve.getName(), metadata, currency, matrix));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * The first and second order derivatives of the value with respect to the zero rates of a curve.
+   */
+  private static final class CurveGamma {
+    /**
+     * The curve.
+     */
+    private final NodalCurve curve;
+    /**
+     * The first order derivatives, by year fraction.
+     */
+    private final Map<Double, Double> firstOrder = new HashMap<>();
+    /**
+     * The second order derivatives, by pair of year fractions.
+     */
+    private final Map<DoublesPair, Double> secondOrder = new HashMap<>();
+
+    private CurveGamma(NodalCurve curve) {
+      this.curve = curve;
+    }
+
+    // adds a value proportional to the discount factor exp(-z(t) t), with the sensitivity to z(t)
+    private CurveGamma addDiscountFactor(double yearFraction, double sensitivity) {
+      firstOrder.merge(yearFraction, sensitivity, Double::sum);
+      secondOrder.merge(DoublesPair.of(yearFraction, yearFraction), -yearFraction * sensitivity, Double::sum);
+      return this;
+    }
+
+    // adds a value proportional to the forward rate (P(s) / P(e) - 1) / accrual, with the sensitivity to the rate
+    private CurveGamma addForwardRate(
+        DiscountFactors discountFactors,
+        LocalDate startDate,
+        LocalDate endDate,
+        double accrualFactor,
+        double sensitivity) {
+
+      double start = discountFactors.relativeYearFraction(startDate);
+      double end = discountFactors.relativeYearFraction(endDate);
+      double ratio = discountFactors.discountFactor(startDate) / discountFactors.discountFactor(endDate);
+      double factor = sensitivity * ratio / accrualFactor;
+      firstOrder.merge(start, -start * factor, Double::sum);
+      firstOrder.merge(end, end * factor, Double::sum);
+      secondOrder.merge(DoublesPair.of(start, start), start * start * factor, Double::sum);
+      secondOrder.merge(DoublesPair.of(end, end), end * end * factor, Double::sum);
+      secondOrder.merge(DoublesPair.of(start, end), -start * end * factor, Double::sum);
+      secondOrder.merge(DoublesPair.of(end, start), -start * end * factor, Double::sum);
+      return this;
+    }
+
+    // computes the second order derivatives with respect to the curve parameters
+    private DoubleMatrix parameterGamma(double shift) {
+      int nbParameters = curve.getParameterCount();
+      double[][] gamma = new double[nbParameters][nbParameters];
+      // second order derivatives of the value with respect to the zero rates
+      Map<Double, double[]> jacobians = new HashMap<>();
+      for (Entry<DoublesPair, Double> entry : secondOrder.entrySet()) {
+        double[] jacobian1 = jacobians.computeIfAbsent(entry.getKey().getFirst(), this::jacobian);
+        double[] jacobian2 = jacobians.computeIfAbsent(entry.getKey().getSecond(), this::jacobian);
+        double value = entry.getValue();
+        for (int i = 0; i < nbParameters; i++) {
+          double valueI = value * jacobian1[i];
+          for (int j = 0; j < nbParameters; j++) {
+            gamma[i][j] += valueI * jacobian2[j];
+          }
+        }
+      }
+      // second order derivatives of the zero rates with respect to the parameters
+      for (int i = 0; i < nbParameters; i++) {
+        double parameter = curve.getParameter(i);
+        NodalCurve curveUp = curve.withParameter(i, parameter + shift);
+        NodalCurve curveDown = curve.withParameter(i, parameter - shift);
+        for (Entry<Double, Double> entry : firstOrder.entrySet()) {
+          double yearFraction = entry.getKey();
+          double[] jacobianUp = curveUp.yValueParameterSensitivity(yearFraction).getSensitivity().toArrayUnsafe();
+          double[] jacobianDown = curveDown.yValueParameterSensitivity(yearFraction).getSensitivity().toArrayUnsafe();
+          double factor = entry.getValue() / (2d * shift);
+          for (int j = 0; j < nbParameters; j++) {
+            gamma[i][j] += factor * (jacobianUp[j] - jacobianDown[j]);
+          }
+        }
+      }
+      return DoubleMatrix.ofUnsafe(gamma);
+    }
+
+    // the sensitivity of the zero rate to the parameters
+    private double[] jacobian(double yearFraction) {
+      return curve.yValueParameterSensitivity(yearFraction).getSensitivity().toArrayUnsafe();
+    }
+  }
+
+}
@@ -10,6 +10,10 @@ import static com.opengamma.strata.collect.Guavate.toImmutableList;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 import java.util.stream.IntStream;
 
@@ -31,10 +35,13 @@ import com.opengamma.strata.market.param.CrossGammaParameterSensitivity;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivity;
 import com.opengamma.strata.market.param.ParameterMetadata;
+import com.opengamma.strata.market.sensitivity.PointSensitivities;
 import com.opengamma.strata.math.impl.differentiation.FiniteDifferenceType;
 import com.opengamma.strata.math.impl.differentiation.VectorFieldFirstOrderDifferentiator;
 import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
 import com.opengamma.strata.pricer.rate.RatesProvider;
+import com.opengamma.strata.pricer.swap.DiscountingSwapProductPricer;
+import com.opengamma.strata.product.swap.ResolvedSwap;
 
 /**
  * Computes the gamma-related values for the rates curve parameters.
@@ -55,6 +62,18 @@ public final class CurveGammaCalculator {
    * The first order finite difference calculator.
    */
   private final VectorFieldFirstOrderDifferentiator fd;
+  /**
+   * The finite difference type.
+   */
+  private final FiniteDifferenceType fdType;
+  /**
+   * The shift to be applied to the curves.
+   */
+  private final double shift;
+  /**
+   * The executor used to compute the bumped sensitivities, null if computed in the calling thread.
+   */
+  private final Executor executor;
 
   //-------------------------------------------------------------------------
   /**
@@ -95,7 +114,29 @@ public final class CurveGammaCalculator {
    * @param shift  the shift to be applied to the curves
    */
   private CurveGammaCalculator(FiniteDifferenceType fdType, double shift) {
+    this(fdType, shift, null);
+  }
+
+  // creates an instance
+  private CurveGammaCalculator(FiniteDifferenceType fdType, double shift, Executor executor) {
     this.fd = new VectorFieldFirstOrderDifferentiator(fdType, shift);
+    this.fdType = fdType;
+    this.shift = shift;
+    this.executor = executor;
+  }
+
+  /**
+   * Returns a calculator computing the bumped sensitivities in parallel.
+   * <p>
+   * The finite difference of the sensitivities is computed by submitting each bumped computation
+   * of the sensitivities to the executor. The sensitivity function must thus be thread-safe.
+   * The results are the same as with this calculator.
+   * 
+   * @param executor  the executor used to compute the bumped sensitivities
+   * @return the calculator
+   */
+  public CurveGammaCalculator withExecutor(Executor executor) {
+    return new CurveGammaCalculator(fdType, shift, ArgChecker.notNull(executor, "executor"));
   }
 
   //-------------------------------------------------------------------------
@@ -147,6 +188,37 @@ public final class CurveGammaCalculator {
     return result;
   }
 
+  /**
+   * Computes intra-curve cross gamma of the present value of a swap analytically from the point sensitivities.
+   * <p>
+   * This computes the same intra-curve cross gamma as {@link #calculateCrossGammaIntraCurve(RatesProvider, Function)}
+   * from a single computation of the point sensitivities, instead of one computation per curve parameter.
+   * The present value and its point sensitivities are computed by {@link DiscountingSwapProductPricer}.
+   * <p>
+   * The analytic computation requires the present value to be a linear combination of discount factors and
+   * of simply compounded forward rates. This is the case for fixed, Ibor and overnight swap legs without
+   * compounding, FX reset or floor on the rates. The curves must be zero rate curves, and a curve must not
+   * be used both for discounting and forward rates. Otherwise, the cross gamma is computed by finite
+   * difference of the parameter sensitivities, in parallel if an executor is specified.
+   * 
+   * @param swap  the swap
+   * @param ratesProvider  the rates provider
+   * @return the cross gamma
+   */
+  public CrossGammaParameterSensitivities calculateCrossGammaIntraCurveAnalytic(
+      ResolvedSwap swap,
+      RatesProvider ratesProvider) {
+
+    ImmutableRatesProvider immProv = ratesProvider.toImmutableRatesProvider();
+    Function<ImmutableRatesProvider, PointSensitivities> pointSensitivitiesFn =
+        provider -> DiscountingSwapProductPricer.DEFAULT.presentValueSensitivity(swap, provider).build();
+    Optional<CrossGammaParameterSensitivities> analytic = AnalyticCrossGamma.isLinear(swap) ?
+        AnalyticCrossGamma.intraCurve(immProv, pointSensitivitiesFn.apply(immProv).normalized(), shift) :
+        Optional.empty();
+    return analytic.orElseGet(() -> calculateCrossGammaIntraCurve(
+        immProv, provider -> provider.parameterSensitivity(pointSensitivitiesFn.apply(provider))));
+  }
+
   //-------------------------------------------------------------------------
   /**
    * Computes cross-curve gamma by applying finite difference method to curve delta.
@@ -231,7 +303,7 @@ public final class CurveGammaCalculator {
         return sensiMulti.getSensitivity(newCurve.getName(), sensitivityCurrency).getSensitivity();
       }
     };
-    DoubleMatrix sensi = fd.differentiate(function).apply(nodalCurve.getYValues());
+    DoubleMatrix sensi = differentiate(function, nodalCurve.getYValues());
     List<ParameterMetadata> metadata = IntStream.range(0, nodalCurve.getParameterCount())
         .mapToObj(i -> nodalCurve.getParameterMetadata(i))
         .collect(toImmutableList());
@@ -254,7 +326,7 @@ public final class CurveGammaCalculator {
         return sensiMulti.getSensitivity(baseDeltaSingle.getMarketDataName(), baseDeltaSingle.getCurrency()).getSensitivity();
       }
     };
-    DoubleMatrix sensi = fd.differentiate(function).apply(nodalCurve.getYValues());
+    DoubleMatrix sensi = differentiate(function, nodalCurve.getYValues());
     List<ParameterMetadata> metadata = IntStream.range(0, nodalCurve.getParameterCount())
         .mapToObj(i -> nodalCurve.getParameterMetadata(i))
         .collect(toImmutableList());
@@ -267,6 +339,71 @@ public final class CurveGammaCalculator {
         sensi);
   }
 
+  // computes the first order derivative of the function, in parallel if the executor is specified
+  private DoubleMatrix differentiate(Function<DoubleArray, DoubleArray> function, DoubleArray x) {
+    if (executor == null) {
+      return fd.differentiate(function).apply(x);
+    }
+    int n = x.size();
+    CompletableFuture<DoubleArray> base = CompletableFuture.supplyAsync(() -> function.apply(x), executor);
+    List<CompletableFuture<DoubleArray>> up = new ArrayList<>(n);
+    List<CompletableFuture<DoubleArray>> down = new ArrayList<>(n);
+    for (int j = 0; j < n; j++) {
+      int index = j;
+      if (fdType != FiniteDifferenceType.BACKWARD) {
+        up.add(CompletableFuture.supplyAsync(() -> function.apply(x.with(index, x.get(index) + shift)), executor));
+      }
+      if (fdType != FiniteDifferenceType.FORWARD) {
+        down.add(CompletableFuture.supplyAsync(() -> function.apply(x.with(index, x.get(index) - shift)), executor));
+      }
+    }
+    DoubleArray y = join(base);
+    int m = y.size();
+    double[][] res = new double[m][n];
+    for (int j = 0; j < n; j++) {
+      switch (fdType) {
+        case FORWARD: {
+          DoubleArray yUp = join(up.get(j));
+          for (int i = 0; i < m; i++) {
+            res[i][j] = (yUp.get(i) - y.get(i)) / shift;
+          }
+          break;
+        }
+        case BACKWARD: {
+          DoubleArray yDown = join(down.get(j));
+          for (int i = 0; i < m; i++) {
+            res[i][j] = (y.get(i) - yDown.get(i)) / shift;
+          }
+          break;
+        }
+        default: {
+          DoubleArray yUp = join(up.get(j));
+          DoubleArray yDown = join(down.get(j));
+          for (int i = 0; i < m; i++) {
+            res[i][j] = (yUp.get(i) - yDown.get(i)) / (2d * shift);
+          }
+        }
+      }
+    }
+    return DoubleMatrix.copyOf(res);
+  }
+
+  // waits for the result, rethrowing the exception of the computation
+  private static <T> T join(CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException ex) {
+      Throwable cause = ex.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw ex;
+    }
+  }
+
   private CrossGammaParameterSensitivity combineSensitivities(
       CurrencyParameterSensitivity baseDeltaSingle,
       CrossGammaParameterSensitivities blockCrossGamma) {
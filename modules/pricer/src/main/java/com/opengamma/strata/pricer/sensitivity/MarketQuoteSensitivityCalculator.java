@@ -16,6 +16,7 @@ import com.opengamma.strata.market.curve.CurveInfoType;
 import com.opengamma.strata.market.curve.CurveName;
 import com.opengamma.strata.market.curve.JacobianCalibrationMatrix;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
+import com.opengamma.strata.market.param.CurrencyParameterSensitivitiesBuilder;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivity;
 import com.opengamma.strata.math.impl.matrix.MatrixAlgebra;
 import com.opengamma.strata.math.impl.matrix.OGMatrixAlgebra;
@@ -55,7 +56,7 @@ public class MarketQuoteSensitivityCalculator {
     ArgChecker.notNull(paramSensitivities, "paramSensitivities");
     ArgChecker.notNull(provider, "provider");
 
-    CurrencyParameterSensitivities result = CurrencyParameterSensitivities.empty();
+    CurrencyParameterSensitivitiesBuilder result = CurrencyParameterSensitivities.builder();
     for (CurrencyParameterSensitivity paramSens : paramSensitivities.getSensitivities()) {
       // find the matching calibration info
       Curve curve = provider.findData(paramSens.getMarketDataName())
@@ -80,10 +81,10 @@ public class MarketQuoteSensitivityCalculator {
         CurrencyParameterSensitivity maketQuoteSens = provider.findData(curveName)
             .map(c -> c.createParameterSensitivity(paramSens.getCurrency(), entry.getValue()))
             .orElse(CurrencyParameterSensitivity.of(curveName, paramSens.getCurrency(), entry.getValue()));
-        result = result.combinedWith(maketQuoteSens);
+        result.add(maketQuoteSens);
       }
     }
-    return result;
+    return result.build();
   }
 
   /**
@@ -100,7 +101,7 @@ public class MarketQuoteSensitivityCalculator {
       CurrencyParameterSensitivities paramSensitivities,
       CreditRatesProvider provider) {
 
-    CurrencyParameterSensitivities result = CurrencyParameterSensitivities.empty();
+    CurrencyParameterSensitivitiesBuilder result = CurrencyParameterSensitivities.builder();
     for (CurrencyParameterSensitivity paramSens : paramSensitivities.getSensitivities()) {
       // find the matching calibration info
       Curve curve = provider.findData(paramSens.getMarketDataName())
@@ -125,10 +126,10 @@ public class MarketQuoteSensitivityCalculator {
         CurrencyParameterSensitivity maketQuoteSens = provider.findData(curveName)
             .map(c -> c.createParameterSensitivity(paramSens.getCurrency(), entry.getValue()))
             .orElse(CurrencyParameterSensitivity.of(curveName, paramSens.getCurrency(), entry.getValue()));
-        result = result.combinedWith(maketQuoteSens);
+        result.add(maketQuoteSens);
       }
     }
-    return result;
+    return result.build();
   }
 
 }
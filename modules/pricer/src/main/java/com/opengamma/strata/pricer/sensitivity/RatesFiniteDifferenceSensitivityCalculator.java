@@ -5,10 +5,13 @@
  */
 package com.opengamma.strata.pricer.sensitivity;
 
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.function.BiFunction;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 import java.util.function.Function;
 
 import org.joda.beans.MetaProperty;
@@ -16,11 +19,14 @@ import org.joda.beans.MetaProperty;
 import com.google.common.collect.ImmutableMap;
 import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.index.Index;
+import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.collect.tuple.Pair;
 import com.opengamma.strata.market.curve.Curve;
 import com.opengamma.strata.market.curve.NodalCurve;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
+import com.opengamma.strata.math.impl.differentiation.FiniteDifferenceType;
 import com.opengamma.strata.pricer.DiscountFactors;
 import com.opengamma.strata.pricer.SimpleDiscountFactors;
 import com.opengamma.strata.pricer.ZeroRateDiscountFactors;
@@ -39,6 +45,11 @@ import com.opengamma.strata.pricer.rate.RatesProvider;
  * <p>
  * This is based on an {@link ImmutableRatesProvider}, {@link LegalEntityDiscountingProvider} or {@link CreditRatesProvider}.
  * The sensitivities are calculated by finite difference.
+ * <p>
+ * The base value is computed once and shared by all the curves.
+ * Each bumped provider shares all the data of the base provider, except the bumped curve.
+ * If an executor is specified, the bumped valuations are distributed across the executor,
+ * otherwise they are computed sequentially in the calling thread. The results are the same in both cases.
  */
 public class RatesFiniteDifferenceSensitivityCalculator {
 
@@ -52,21 +63,63 @@ public class RatesFiniteDifferenceSensitivityCalculator {
    * The shift used for finite difference.
    */
   private final double shift;
+  /**
+   * The finite difference type.
+   */
+  private final FiniteDifferenceType differenceType;
+  /**
+   * The executor used to compute the bumped valuations, null if computed in the calling thread.
+   */
+  private final Executor executor;
 
   /**
    * Create an instance of the finite difference calculator.
+   * <p>
+   * The finite difference is computed by forward type.
    * 
    * @param shift  the shift used in the finite difference computation
    */
   public RatesFiniteDifferenceSensitivityCalculator(double shift) {
+    this(shift, FiniteDifferenceType.FORWARD);
+  }
+
+  /**
+   * Create an instance of the finite difference calculator, specifying the finite difference type.
+   *
+   * @param shift  the shift used in the finite difference computation
+   * @param differenceType  the finite difference type
+   */
+  public RatesFiniteDifferenceSensitivityCalculator(double shift, FiniteDifferenceType differenceType) {
     this.shift = shift;
+    this.differenceType = ArgChecker.notNull(differenceType, "differenceType");
+    this.executor = null;
+  }
+
+  /**
+   * Create an instance of the finite difference calculator computing the bumped valuations in parallel.
+   * <p>
+   * Each bumped valuation is submitted to the executor as a separate task.
+   * The value function must thus be thread-safe.
+   *
+   * @param shift  the shift used in the finite difference computation
+   * @param differenceType  the finite difference type
+   * @param executor  the executor used to compute the bumped valuations
+   */
+  public RatesFiniteDifferenceSensitivityCalculator(
+      double shift,
+      FiniteDifferenceType differenceType,
+      Executor executor) {
+
+    this.shift = shift;
+    this.differenceType = ArgChecker.notNull(differenceType, "differenceType");
+    this.executor = ArgChecker.notNull(executor, "executor");
   }
 
   //-------------------------------------------------------------------------
   /**
    * Computes the first order sensitivities of a function of a RatesProvider to a double by finite difference.
    * <p>
-   * The finite difference is computed by forward type.
+   * The finite difference is computed by the type of this calculator, forward by default.
    * The function should return a value in the same currency for any rate provider.
    * 
    * @param provider  the rates provider
@@ -79,49 +132,27 @@ public class RatesFiniteDifferenceSensitivityCalculator {
 
     ImmutableRatesProvider immProv = provider.toImmutableRatesProvider();
     CurrencyAmount valueInit = valueFn.apply(immProv);
-    CurrencyParameterSensitivities discounting = sensitivity(
-        immProv,
-        immProv.getDiscountCurves(),
-        (base, bumped) -> base.toBuilder().discountCurves(bumped).build(),
-        valueFn,
-        valueInit);
-    CurrencyParameterSensitivities forward = sensitivity(
-        immProv,
-        immProv.getIndexCurves(),
-        (base, bumped) -> base.toBuilder().indexCurves(bumped).build(),
-        valueFn,
-        valueInit);
-    return discounting.combinedWith(forward);
-  }
-
-  // computes the sensitivity with respect to the curves
-  private <T> CurrencyParameterSensitivities sensitivity(
-      ImmutableRatesProvider provider,
-      Map<T, Curve> baseCurves,
-      BiFunction<ImmutableRatesProvider, Map<T, Curve>, ImmutableRatesProvider> storeBumpedFn,
-      Function<ImmutableRatesProvider, CurrencyAmount> valueFn,
-      CurrencyAmount valueInit) {
-
-    CurrencyParameterSensitivities result = CurrencyParameterSensitivities.empty();
-    for (Entry<T, Curve> entry : baseCurves.entrySet()) {
-      Curve curve = entry.getValue();
-      DoubleArray sensitivity = DoubleArray.of(curve.getParameterCount(), i -> {
-        Curve dscBumped = curve.withParameter(i, curve.getParameter(i) + shift);
-        Map<T, Curve> mapBumped = new HashMap<>(baseCurves);
-        mapBumped.put(entry.getKey(), dscBumped);
-        ImmutableRatesProvider providerDscBumped = storeBumpedFn.apply(provider, mapBumped);
-        return (valueFn.apply(providerDscBumped).getAmount() - valueInit.getAmount()) / shift;
-      });
-      result = result.combinedWith(curve.createParameterSensitivity(valueInit.getCurrency(), sensitivity));
+    List<BumpableCurve<ImmutableRatesProvider>> curves = new ArrayList<>();
+    ImmutableMap<Currency, Curve> discountCurves = immProv.getDiscountCurves();
+    for (Entry<Currency, Curve> entry : discountCurves.entrySet()) {
+      curves.add(new BumpableCurve<>(entry.getValue(), bumped -> immProv.toBuilder()
+          .discountCurves(replace(discountCurves, entry.getKey(), bumped))
+          .build()));
     }
-    return result;
+    ImmutableMap<Index, Curve> indexCurves = immProv.getIndexCurves();
+    for (Entry<Index, Curve> entry : indexCurves.entrySet()) {
+      curves.add(new BumpableCurve<>(entry.getValue(), bumped -> immProv.toBuilder()
+          .indexCurves(replace(indexCurves, entry.getKey(), bumped))
+          .build()));
+    }
+    return sensitivity(curves, valueFn, valueInit);
   }
 
   //-------------------------------------------------------------------------
   /**
    * Computes the first order sensitivities of a function of a LegalEntityDiscountingProvider to a double by finite difference.
    * <p>
-   * The finite difference is computed by forward type.
+   * The finite difference is computed by the type of this calculator, forward by default.
    * The function should return a value in the same currency for any rates provider of LegalEntityDiscountingProvider.
    * 
    * @param provider  the rates provider
@@ -134,44 +165,32 @@ public class RatesFiniteDifferenceSensitivityCalculator {
 
     ImmutableLegalEntityDiscountingProvider immProv = provider.toImmutableLegalEntityDiscountingProvider();
     CurrencyAmount valueInit = valueFn.apply(immProv);
-    CurrencyParameterSensitivities discounting = sensitivity(
-        immProv, valueFn, ImmutableLegalEntityDiscountingProvider.meta().repoCurves(), valueInit);
-    CurrencyParameterSensitivities forward = sensitivity(
-        immProv, valueFn, ImmutableLegalEntityDiscountingProvider.meta().issuerCurves(), valueInit);
-    return discounting.combinedWith(forward);
+    List<BumpableCurve<ImmutableLegalEntityDiscountingProvider>> curves = new ArrayList<>();
+    addCurves(curves, immProv, ImmutableLegalEntityDiscountingProvider.meta().repoCurves());
+    addCurves(curves, immProv, ImmutableLegalEntityDiscountingProvider.meta().issuerCurves());
+    return sensitivity(curves, valueFn, valueInit);
   }
 
-  private <T> CurrencyParameterSensitivities sensitivity(
+  // adds the curves of a property of the provider
+  private <T> void addCurves(
+      List<BumpableCurve<ImmutableLegalEntityDiscountingProvider>> curves,
       ImmutableLegalEntityDiscountingProvider provider,
-      Function<ImmutableLegalEntityDiscountingProvider, CurrencyAmount> valueFn,
-      MetaProperty<ImmutableMap<Pair<T, Currency>, DiscountFactors>> metaProperty,
-      CurrencyAmount valueInit) {
+      MetaProperty<ImmutableMap<Pair<T, Currency>, DiscountFactors>> metaProperty) {
 
     ImmutableMap<Pair<T, Currency>, DiscountFactors> baseCurves = metaProperty.get(provider);
-    CurrencyParameterSensitivities result = CurrencyParameterSensitivities.empty();
-    for (Pair<T, Currency> key : baseCurves.keySet()) {
-      DiscountFactors discountFactors = baseCurves.get(key);
-      Curve curve = checkDiscountFactors(discountFactors);
-      int paramCount = curve.getParameterCount();
-      double[] sensitivity = new double[paramCount];
-      for (int i = 0; i < paramCount; i++) {
-        Curve dscBumped = curve.withParameter(i, curve.getParameter(i) + shift);
-        Map<Pair<T, Currency>, DiscountFactors> mapBumped = new HashMap<>(baseCurves);
-        mapBumped.put(key, createDiscountFactors(discountFactors, dscBumped));
-        ImmutableLegalEntityDiscountingProvider providerDscBumped = provider.toBuilder().set(metaProperty, mapBumped).build();
-        sensitivity[i] = (valueFn.apply(providerDscBumped).getAmount() - valueInit.getAmount()) / shift;
-      }
-      result = result.combinedWith(
-          curve.createParameterSensitivity(valueInit.getCurrency(), DoubleArray.copyOf(sensitivity)));
+    for (Entry<Pair<T, Currency>, DiscountFactors> entry : baseCurves.entrySet()) {
+      DiscountFactors discountFactors = entry.getValue();
+      curves.add(new BumpableCurve<>(checkDiscountFactors(discountFactors), bumped -> provider.toBuilder()
+          .set(metaProperty, replace(baseCurves, entry.getKey(), createDiscountFactors(discountFactors, bumped)))
+          .build()));
     }
-    return result;
   }
 
   //-------------------------------------------------------------------------
   /**
    * Computes the first order sensitivities of a function of a {@code CreditRatesProvider} to a double by finite difference.
    * <p>
-   * The finite difference is computed by forward type.
+   * The finite difference is computed by the type of this calculator, forward by default.
    * The function should return a value in the same currency for any rates provider of {@code CreditRatesProvider}.
    * 
    * @param provider  the rates provider
@@ -184,69 +203,126 @@ public class RatesFiniteDifferenceSensitivityCalculator {
 
     ImmutableCreditRatesProvider immutableProvider = provider.toImmutableCreditRatesProvider();
     CurrencyAmount valueInit = valueFn.apply(immutableProvider);
-    CurrencyParameterSensitivities discounting = sensitivityDiscountCurve(
-        immutableProvider, valueFn, ImmutableCreditRatesProvider.meta().discountCurves(), valueInit);
-    CurrencyParameterSensitivities credit = sensitivityCreidtCurve(
-        immutableProvider, valueFn, ImmutableCreditRatesProvider.meta().creditCurves(), valueInit);
-    return discounting.combinedWith(credit);
+    List<BumpableCurve<ImmutableCreditRatesProvider>> curves = new ArrayList<>();
+    addDiscountCurves(curves, immutableProvider, ImmutableCreditRatesProvider.meta().discountCurves());
+    addCreditCurves(curves, immutableProvider, ImmutableCreditRatesProvider.meta().creditCurves());
+    return sensitivity(curves, valueFn, valueInit);
   }
 
-  private <T> CurrencyParameterSensitivities sensitivityDiscountCurve(
+  // adds the discount curves of the provider
+  private <T> void addDiscountCurves(
+      List<BumpableCurve<ImmutableCreditRatesProvider>> curves,
       ImmutableCreditRatesProvider provider,
-      Function<ImmutableCreditRatesProvider, CurrencyAmount> valueFn,
-      MetaProperty<ImmutableMap<T, CreditDiscountFactors>> metaProperty,
-      CurrencyAmount valueInit) {
+      MetaProperty<ImmutableMap<T, CreditDiscountFactors>> metaProperty) {
 
     ImmutableMap<T, CreditDiscountFactors> baseCurves = metaProperty.get(provider);
-    CurrencyParameterSensitivities result = CurrencyParameterSensitivities.empty();
-    for (T key : baseCurves.keySet()) {
-      CreditDiscountFactors creditDiscountFactors = baseCurves.get(key);
-      DiscountFactors discountFactors = creditDiscountFactors.toDiscountFactors();
-      Curve curve = checkDiscountFactors(discountFactors);
-      int paramCount = curve.getParameterCount();
-      double[] sensitivity = new double[paramCount];
-      for (int i = 0; i < paramCount; i++) {
-        Curve dscBumped = curve.withParameter(i, curve.getParameter(i) + shift);
-        Map<T, CreditDiscountFactors> mapBumped = new HashMap<>(baseCurves);
-        mapBumped.put(key, createCreditDiscountFactors(creditDiscountFactors, dscBumped));
-        ImmutableCreditRatesProvider providerDscBumped = provider.toBuilder().set(metaProperty, mapBumped).build();
-        sensitivity[i] = (valueFn.apply(providerDscBumped).getAmount() - valueInit.getAmount()) / shift;
-      }
-      result = result.combinedWith(
-          curve.createParameterSensitivity(valueInit.getCurrency(), DoubleArray.copyOf(sensitivity)));
+    for (Entry<T, CreditDiscountFactors> entry : baseCurves.entrySet()) {
+      CreditDiscountFactors creditDiscountFactors = entry.getValue();
+      Curve curve = checkDiscountFactors(creditDiscountFactors.toDiscountFactors());
+      curves.add(new BumpableCurve<>(curve, bumped -> provider.toBuilder()
+          .set(metaProperty, replace(
+              baseCurves, entry.getKey(), createCreditDiscountFactors(creditDiscountFactors, bumped)))
+          .build()));
     }
-    return result;
   }
 
-  private <T> CurrencyParameterSensitivities sensitivityCreidtCurve(
+  // adds the credit curves of the provider
+  private <T> void addCreditCurves(
+      List<BumpableCurve<ImmutableCreditRatesProvider>> curves,
       ImmutableCreditRatesProvider provider,
-      Function<ImmutableCreditRatesProvider, CurrencyAmount> valueFn,
-      MetaProperty<ImmutableMap<T, LegalEntitySurvivalProbabilities>> metaProperty,
-      CurrencyAmount valueInit) {
+      MetaProperty<ImmutableMap<T, LegalEntitySurvivalProbabilities>> metaProperty) {
 
     ImmutableMap<T, LegalEntitySurvivalProbabilities> baseCurves = metaProperty.get(provider);
-    CurrencyParameterSensitivities result = CurrencyParameterSensitivities.empty();
-    for (T key : baseCurves.keySet()) {
-      LegalEntitySurvivalProbabilities credit = baseCurves.get(key);
+    for (Entry<T, LegalEntitySurvivalProbabilities> entry : baseCurves.entrySet()) {
+      LegalEntitySurvivalProbabilities credit = entry.getValue();
       CreditDiscountFactors creditDiscountFactors = credit.getSurvivalProbabilities();
-      DiscountFactors discountFactors = creditDiscountFactors.toDiscountFactors();
-      Curve curve = checkDiscountFactors(discountFactors);
-      int paramCount = curve.getParameterCount();
-      double[] sensitivity = new double[paramCount];
-      for (int i = 0; i < paramCount; i++) {
-        Curve dscBumped = curve.withParameter(i, curve.getParameter(i) + shift);
-        Map<T, LegalEntitySurvivalProbabilities> mapBumped = new HashMap<>(baseCurves);
-        mapBumped.put(key, LegalEntitySurvivalProbabilities.of(
-            credit.getLegalEntityId(), createCreditDiscountFactors(creditDiscountFactors, dscBumped)));
-        ImmutableCreditRatesProvider providerDscBumped = provider.toBuilder().set(metaProperty, mapBumped).build();
-        sensitivity[i] = (valueFn.apply(providerDscBumped).getAmount() - valueInit.getAmount()) / shift;
+      Curve curve = checkDiscountFactors(creditDiscountFactors.toDiscountFactors());
+      curves.add(new BumpableCurve<>(curve, bumped -> provider.toBuilder()
+          .set(metaProperty, replace(baseCurves, entry.getKey(), LegalEntitySurvivalProbabilities.of(
+              credit.getLegalEntityId(), createCreditDiscountFactors(creditDiscountFactors, bumped))))
+          .build()));
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // computes the sensitivity with respect to the parameters of all the curves
+  private <P> CurrencyParameterSensitivities sensitivity(
+      List<BumpableCurve<P>> curves,
+      Function<P, CurrencyAmount> valueFn,
+      CurrencyAmount valueInit) {
+
+    // one bumped valuation per parameter, two for central difference
+    int sides = differenceType == FiniteDifferenceType.CENTRAL ? 2 : 1;
+    double bump = differenceType == FiniteDifferenceType.BACKWARD ? -shift : shift;
+    int[] offsets = new int[curves.size() + 1];
+    for (int j = 0; j < curves.size(); j++) {
+      offsets[j + 1] = offsets[j] + curves.get(j).curve.getParameterCount() * sides;
+    }
+    double[] values = new double[offsets[curves.size()]];
+    List<Runnable> tasks = new ArrayList<>(values.length);
+    for (int j = 0; j < curves.size(); j++) {
+      BumpableCurve<P> bumpable = curves.get(j);
+      for (int k = 0; k < offsets[j + 1] - offsets[j]; k++) {
+        int slot = offsets[j] + k;
+        int i = k / sides;
+        double signedBump = k % sides == 0 ? bump : -bump;
+        tasks.add(() -> values[slot] = valueFn.apply(bumpable.bumpedProvider(i, signedBump)).getAmount());
       }
-      result = result.combinedWith(
-          curve.createParameterSensitivity(valueInit.getCurrency(), DoubleArray.copyOf(sensitivity)));
+    }
+    run(tasks);
+    // finite differences
+    double valueBase = valueInit.getAmount();
+    CurrencyParameterSensitivities result = CurrencyParameterSensitivities.empty();
+    for (int j = 0; j < curves.size(); j++) {
+      Curve curve = curves.get(j).curve;
+      int offset = offsets[j];
+      DoubleArray sensitivity = DoubleArray.of(curve.getParameterCount(), i -> {
+        switch (differenceType) {
+          case FORWARD:
+            return (values[offset + i] - valueBase) / shift;
+          case BACKWARD:
+            return (valueBase - values[offset + i]) / shift;
+          default:
+            return (values[offset + 2 * i] - values[offset + 2 * i + 1]) / (2d * shift);
+        }
+      });
+      result = result.combinedWith(curve.createParameterSensitivity(valueInit.getCurrency(), sensitivity));
     }
     return result;
   }
 
+  // runs the tasks, in the calling thread or across the executor
+  private void run(List<Runnable> tasks) {
+    if (executor == null) {
+      tasks.forEach(Runnable::run);
+      return;
+    }
+    CompletableFuture<?>[] futures = tasks.stream()
+        .map(task -> CompletableFuture.runAsync(task, executor))
+        .toArray(CompletableFuture<?>[]::new);
+    try {
+      CompletableFuture.allOf(futures).join();
+    } catch (CompletionException ex) {
+      Throwable cause = ex.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw ex;
+    }
+  }
+
+  // replaces one entry of a map, sharing the other entries and preserving the order
+  private static <K, V> ImmutableMap<K, V> replace(Map<K, V> base, K key, V value) {
+    ImmutableMap.Builder<K, V> builder = ImmutableMap.builder();
+    for (Entry<K, V> entry : base.entrySet()) {
+      builder.put(entry.getKey(), entry.getKey().equals(key) ? value : entry.getValue());
+    }
+    return builder.build();
+  }
+
   //-------------------------------------------------------------------------
   // check that the discountFactors is ZeroRateDiscountFactors or SimpleDiscountFactors
   private Curve checkDiscountFactors(DiscountFactors discountFactors) {
@@ -277,4 +353,25 @@ public class RatesFiniteDifferenceSensitivityCalculator {
     throw new IllegalArgumentException("Not supported");
   }
 
+  //-------------------------------------------------------------------------
+  /**
+   * A curve of a provider, with the function creating the provider where the curve is replaced.
+   *
+   * @param <P>  the type of the provider
+   */
+  private static final class BumpableCurve<P> {
+    private final Curve curve;
+    private final Function<Curve, P> providerFn;
+
+    private BumpableCurve(Curve curve, Function<Curve, P> providerFn) {
+      this.curve = curve;
+      this.providerFn = providerFn;
+    }
+
+    // creates the provider with one parameter of the curve bumped
+    private P bumpedProvider(int parameterIndex, double bump) {
+      return providerFn.apply(curve.withParameter(parameterIndex, curve.getParameter(parameterIndex) + bump));
+    }
+  }
+
 }
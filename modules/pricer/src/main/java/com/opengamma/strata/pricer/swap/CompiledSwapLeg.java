@@ -0,0 +1,286 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.swap;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.primitives.Doubles;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.index.IborIndexObservation;
+import com.opengamma.strata.basics.index.OvernightIndexObservation;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.product.rate.FixedRateComputation;
+import com.opengamma.strata.product.rate.IborRateComputation;
+import com.opengamma.strata.product.rate.OvernightCompoundedRateComputation;
+import com.opengamma.strata.product.rate.RateComputation;
+import com.opengamma.strata.product.swap.NegativeRateMethod;
+import com.opengamma.strata.product.swap.RateAccrualPeriod;
+import com.opengamma.strata.product.swap.RatePaymentPeriod;
+import com.opengamma.strata.product.swap.ResolvedSwapLeg;
+import com.opengamma.strata.product.swap.SwapPaymentPeriod;
+
+/**
+ * A swap leg compiled into flat arrays for high-throughput pricing.
+ * <p>
+ * A {@link ResolvedSwapLeg} is an object graph of payment periods, accrual periods and rate computations.
+ * Pricing it requires the type of each period and computation to be examined every time the leg is priced.
+ * This class examines the leg once, storing the vanilla payment periods as primitive arrays,
+ * one set of arrays for fixed periods, one for Ibor periods and one for compounded overnight periods.
+ * These arrays are priced in tight loops by {@link CompiledSwapLegPricer}.
+ * <p>
+ * A payment period is vanilla if it is a {@link RatePaymentPeriod} without FX reset
+ * that has a single accrual period allowing negative rates.
+ * The rate computation of the accrual period must be {@link FixedRateComputation}, {@link IborRateComputation}
+ * or {@link OvernightCompoundedRateComputation} without rate cut-off.
+ * All other payment periods, and all payment events, are priced using the generic pricers.
+ * <p>
+ * The compiled leg is intended to be created once, after the leg is resolved, and then priced many times,
+ * for example against each scenario of a set of scenarios.
+ * <p>
+ * This class is immutable and thread-safe.
+ */
+public final class CompiledSwapLeg {
+
+  /**
+   * The underlying leg.
+   */
+  private final ResolvedSwapLeg leg;
+  /**
+   * The payment dates of the fixed periods.
+   */
+  final LocalDate[] fixedPaymentDates;
+  /**
+   * The amounts of the fixed periods, being the notional multiplied by the accrual of the period.
+   */
+  final double[] fixedAmounts;
+  /**
+   * The payment dates of the Ibor periods.
+   */
+  final LocalDate[] iborPaymentDates;
+  /**
+   * The observations of the Ibor periods.
+   */
+  final IborIndexObservation[] iborObservations;
+  /**
+   * The factors applied to the Ibor rates, being the notional multiplied by the year fraction and gearing.
+   */
+  final double[] iborRateFactors;
+  /**
+   * The fixed amounts of the Ibor periods, being the notional multiplied by the year fraction and spread.
+   */
+  final double[] iborSpreadAmounts;
+  /**
+   * The payment dates of the overnight periods.
+   */
+  final LocalDate[] overnightPaymentDates;
+  /**
+   * The observations on the first fixing date of the overnight periods.
+   */
+  final OvernightIndexObservation[] overnightObservations;
+  /**
+   * The maturity dates of the last fixing of the overnight periods.
+   */
+  final LocalDate[] overnightEndDates;
+  /**
+   * The publication dates of the first fixing of the overnight periods.
+   * <p>
+   * The compounded rate is only fully forward if the valuation date is before this date.
+   */
+  final LocalDate[] overnightPublicationDates;
+  /**
+   * The factors applied to the overnight rates, being the notional multiplied by the year fraction and gearing.
+   */
+  final double[] overnightRateFactors;
+  /**
+   * The fixed amounts of the overnight periods, being the notional multiplied by the year fraction and spread.
+   */
+  final double[] overnightSpreadAmounts;
+  /**
+   * The overnight periods, used when part of the compounded rate has already fixed.
+   */
+  final RatePaymentPeriod[] overnightPeriods;
+  /**
+   * The payment periods that could not be compiled.
+   */
+  private final ImmutableList<SwapPaymentPeriod> otherPeriods;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Compiles a resolved swap leg.
+   *
+   * @param leg  the leg to compile
+   * @return the compiled leg
+   */
+  public static CompiledSwapLeg of(ResolvedSwapLeg leg) {
+    ArgChecker.notNull(leg, "leg");
+    List<LocalDate> fixedPaymentDates = new ArrayList<>();
+    List<Double> fixedAmounts = new ArrayList<>();
+    List<LocalDate> iborPaymentDates = new ArrayList<>();
+    List<IborIndexObservation> iborObservations = new ArrayList<>();
+    List<Double> iborRateFactors = new ArrayList<>();
+    List<Double> iborSpreadAmounts = new ArrayList<>();
+    List<LocalDate> overnightPaymentDates = new ArrayList<>();
+    List<OvernightIndexObservation> overnightObservations = new ArrayList<>();
+    List<LocalDate> overnightEndDates = new ArrayList<>();
+    List<LocalDate> overnightPublicationDates = new ArrayList<>();
+    List<Double> overnightRateFactors = new ArrayList<>();
+    List<Double> overnightSpreadAmounts = new ArrayList<>();
+    List<RatePaymentPeriod> overnightPeriods = new ArrayList<>();
+    ImmutableList.Builder<SwapPaymentPeriod> otherPeriods = ImmutableList.builder();
+    for (SwapPaymentPeriod period : leg.getPaymentPeriods()) {
+      if (!isVanilla(period)) {
+        otherPeriods.add(period);
+        continue;
+      }
+      RatePaymentPeriod ratePeriod = (RatePaymentPeriod) period;
+      RateAccrualPeriod accrualPeriod = ratePeriod.getAccrualPeriods().get(0);
+      RateComputation computation = accrualPeriod.getRateComputation();
+      double notionalAccrual = ratePeriod.getNotional() * accrualPeriod.getYearFraction();
+      double rateFactor = notionalAccrual * accrualPeriod.getGearing();
+      double spreadAmount = notionalAccrual * accrualPeriod.getSpread();
+      if (computation instanceof FixedRateComputation) {
+        fixedPaymentDates.add(ratePeriod.getPaymentDate());
+        fixedAmounts.add(rateFactor * ((FixedRateComputation) computation).getRate() + spreadAmount);
+      } else if (computation instanceof IborRateComputation) {
+        iborPaymentDates.add(ratePeriod.getPaymentDate());
+        iborObservations.add(((IborRateComputation) computation).getObservation());
+        iborRateFactors.add(rateFactor);
+        iborSpreadAmounts.add(spreadAmount);
+      } else {
+        OvernightCompoundedRateComputation onComputation = (OvernightCompoundedRateComputation) computation;
+        LocalDate firstFixing = onComputation.getStartDate();
+        LocalDate lastFixing = onComputation.getFixingCalendar().previous(onComputation.getEndDate());
+        overnightPaymentDates.add(ratePeriod.getPaymentDate());
+        overnightObservations.add(onComputation.observeOn(firstFixing));
+        overnightEndDates.add(onComputation.calculateMaturityFromFixing(lastFixing));
+        overnightPublicationDates.add(onComputation.calculatePublicationFromFixing(firstFixing));
+        overnightRateFactors.add(rateFactor);
+        overnightSpreadAmounts.add(spreadAmount);
+        overnightPeriods.add(ratePeriod);
+      }
+    }
+    return new CompiledSwapLeg(
+        leg,
+        fixedPaymentDates.toArray(new LocalDate[0]),
+        Doubles.toArray(fixedAmounts),
+        iborPaymentDates.toArray(new LocalDate[0]),
+        iborObservations.toArray(new IborIndexObservation[0]),
+        Doubles.toArray(iborRateFactors),
+        Doubles.toArray(iborSpreadAmounts),
+        overnightPaymentDates.toArray(new LocalDate[0]),
+        overnightObservations.toArray(new OvernightIndexObservation[0]),
+        overnightEndDates.toArray(new LocalDate[0]),
+        overnightPublicationDates.toArray(new LocalDate[0]),
+        Doubles.toArray(overnightRateFactors),
+        Doubles.toArray(overnightSpreadAmounts),
+        overnightPeriods.toArray(new RatePaymentPeriod[0]),
+        otherPeriods.build());
+  }
+
+  // checks if the period can be compiled
+  private static boolean isVanilla(SwapPaymentPeriod period) {
+    if (!(period instanceof RatePaymentPeriod)) {
+      return false;
+    }
+    RatePaymentPeriod ratePeriod = (RatePaymentPeriod) period;
+    if (ratePeriod.getFxReset().isPresent() || ratePeriod.getAccrualPeriods().size() != 1) {
+      return false;
+    }
+    RateAccrualPeriod accrualPeriod = ratePeriod.getAccrualPeriods().get(0);
+    if (accrualPeriod.getNegativeRateMethod() != NegativeRateMethod.ALLOW_NEGATIVE) {
+      return false;
+    }
+    RateComputation computation = accrualPeriod.getRateComputation();
+    if (computation instanceof OvernightCompoundedRateComputation) {
+      return ((OvernightCompoundedRateComputation) computation).getRateCutOffDays() <= 1;
+    }
+    return computation instanceof FixedRateComputation || computation instanceof IborRateComputation;
+  }
+
+  // restricted constructor
+  private CompiledSwapLeg(
+      ResolvedSwapLeg leg,
+      LocalDate[] fixedPaymentDates,
+      double[] fixedAmounts,
+      LocalDate[] iborPaymentDates,
+      IborIndexObservation[] iborObservations,
+      double[] iborRateFactors,
+      double[] iborSpreadAmounts,
+      LocalDate[] overnightPaymentDates,
+      OvernightIndexObservation[] overnightObservations,
+      LocalDate[] overnightEndDates,
+      LocalDate[] overnightPublicationDates,
+      double[] overnightRateFactors,
+      double[] overnightSpreadAmounts,
+      RatePaymentPeriod[] overnightPeriods,
+      ImmutableList<SwapPaymentPeriod> otherPeriods) {
+
+    this.leg = leg;
+    this.fixedPaymentDates = fixedPaymentDates;
+    this.fixedAmounts = fixedAmounts;
+    this.iborPaymentDates = iborPaymentDates;
+    this.iborObservations = iborObservations;
+    this.iborRateFactors = iborRateFactors;
+    this.iborSpreadAmounts = iborSpreadAmounts;
+    this.overnightPaymentDates = overnightPaymentDates;
+    this.overnightObservations = overnightObservations;
+    this.overnightEndDates = overnightEndDates;
+    this.overnightPublicationDates = overnightPublicationDates;
+    this.overnightRateFactors = overnightRateFactors;
+    this.overnightSpreadAmounts = overnightSpreadAmounts;
+    this.overnightPeriods = overnightPeriods;
+    this.otherPeriods = otherPeriods;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the underlying leg.
+   *
+   * @return the leg
+   */
+  public ResolvedSwapLeg getLeg() {
+    return leg;
+  }
+
+  /**
+   * Gets the payment currency of the leg.
+   *
+   * @return the currency
+   */
+  public Currency getCurrency() {
+    return leg.getCurrency();
+  }
+
+  /**
+   * Gets the number of payment periods that were compiled.
+   *
+   * @return the number of compiled periods
+   */
+  public int getCompiledPeriodCount() {
+    return fixedPaymentDates.length + iborPaymentDates.length + overnightPaymentDates.length;
+  }
+
+  /**
+   * Gets the payment periods that could not be compiled.
+   * <p>
+   * These periods are priced using the generic pricer.
+   *
+   * @return the periods that were not compiled
+   */
+  public ImmutableList<SwapPaymentPeriod> getOtherPeriods() {
+    return otherPeriods;
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "CompiledSwapLeg[leg=" + leg + "]";
+  }
+
+}
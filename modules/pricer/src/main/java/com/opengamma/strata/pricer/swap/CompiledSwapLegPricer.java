@@ -0,0 +1,198 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.swap;
+
+import java.time.LocalDate;
+
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.index.IborIndexObservation;
+import com.opengamma.strata.basics.index.OvernightIndexObservation;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.market.sensitivity.MutablePointSensitivities;
+import com.opengamma.strata.market.sensitivity.PointSensitivityBuilder;
+import com.opengamma.strata.pricer.DiscountFactors;
+import com.opengamma.strata.pricer.rate.IborIndexRates;
+import com.opengamma.strata.pricer.rate.OvernightIndexRates;
+import com.opengamma.strata.pricer.rate.RatesProvider;
+import com.opengamma.strata.product.swap.SwapPaymentPeriod;
+
+/**
+ * Pricer for compiled swap legs.
+ * <p>
+ * This provides the ability to price a {@link CompiledSwapLeg}.
+ * The compiled periods are priced by looping over the arrays of the compiled leg,
+ * producing the same result as {@link DiscountingSwapLegPricer} with the standard rate computation functions.
+ * The other periods and the payment events are priced using the underlying {@link DiscountingSwapLegPricer}.
+ * <p>
+ * An overnight period is priced from the arrays only when no fixing of the period has been published
+ * on or before the valuation date. Otherwise, the period is priced using the underlying pricer,
+ * which takes into account the known fixings.
+ */
+public class CompiledSwapLegPricer {
+
+  /**
+   * Default implementation.
+   */
+  public static final CompiledSwapLegPricer DEFAULT = new CompiledSwapLegPricer(DiscountingSwapLegPricer.DEFAULT);
+
+  /**
+   * Pricer for the periods and events that are not compiled.
+   */
+  private final DiscountingSwapLegPricer legPricer;
+
+  /**
+   * Creates an instance.
+   *
+   * @param legPricer  the pricer for the periods and events that are not compiled
+   */
+  public CompiledSwapLegPricer(DiscountingSwapLegPricer legPricer) {
+    this.legPricer = ArgChecker.notNull(legPricer, "legPricer");
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the present value of the compiled swap leg.
+   * <p>
+   * The present value of the leg is the value on the valuation date.
+   * This is the discounted forecast value.
+   * The result is returned using the payment currency of the leg.
+   *
+   * @param leg  the compiled leg
+   * @param provider  the rates provider
+   * @return the present value of the swap leg
+   */
+  public CurrencyAmount presentValue(CompiledSwapLeg leg, RatesProvider provider) {
+    LocalDate valuationDate = provider.getValuationDate();
+    DiscountFactors discountFactors = provider.discountFactors(leg.getCurrency());
+    double total = 0d;
+    // fixed periods
+    for (int i = 0; i < leg.fixedPaymentDates.length; i++) {
+      LocalDate paymentDate = leg.fixedPaymentDates[i];
+      if (!paymentDate.isBefore(valuationDate)) {
+        total += leg.fixedAmounts[i] * discountFactors.discountFactor(paymentDate);
+      }
+    }
+    // Ibor periods
+    IborIndexRates iborRates = null;
+    for (int i = 0; i < leg.iborPaymentDates.length; i++) {
+      LocalDate paymentDate = leg.iborPaymentDates[i];
+      if (!paymentDate.isBefore(valuationDate)) {
+        IborIndexObservation observation = leg.iborObservations[i];
+        if (iborRates == null || !iborRates.getIndex().equals(observation.getIndex())) {
+          iborRates = provider.iborIndexRates(observation.getIndex());
+        }
+        double forecast = leg.iborRateFactors[i] * iborRates.rate(observation) + leg.iborSpreadAmounts[i];
+        total += forecast * discountFactors.discountFactor(paymentDate);
+      }
+    }
+    // overnight periods
+    OvernightIndexRates overnightRates = null;
+    for (int i = 0; i < leg.overnightPaymentDates.length; i++) {
+      LocalDate paymentDate = leg.overnightPaymentDates[i];
+      if (!paymentDate.isBefore(valuationDate)) {
+        if (!valuationDate.isBefore(leg.overnightPublicationDates[i])) {
+          total += legPricer.getPeriodPricer().presentValue(leg.overnightPeriods[i], provider);
+          continue;
+        }
+        OvernightIndexObservation observation = leg.overnightObservations[i];
+        if (overnightRates == null || !overnightRates.getIndex().equals(observation.getIndex())) {
+          overnightRates = provider.overnightIndexRates(observation.getIndex());
+        }
+        double rate = overnightRates.periodRate(observation, leg.overnightEndDates[i]);
+        double forecast = leg.overnightRateFactors[i] * rate + leg.overnightSpreadAmounts[i];
+        total += forecast * discountFactors.discountFactor(paymentDate);
+      }
+    }
+    // other periods and events
+    for (SwapPaymentPeriod period : leg.getOtherPeriods()) {
+      if (!period.getPaymentDate().isBefore(valuationDate)) {
+        total += legPricer.getPeriodPricer().presentValue(period, provider);
+      }
+    }
+    total += legPricer.presentValueEventsInternal(leg.getLeg(), provider);
+    return CurrencyAmount.of(leg.getCurrency(), total);
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Calculates the present value sensitivity of the compiled swap leg.
+   * <p>
+   * The present value sensitivity of the leg is the sensitivity of the present value to
+   * the underlying curves.
+   *
+   * @param leg  the compiled leg
+   * @param provider  the rates provider
+   * @return the present value curve sensitivity of the swap leg
+   */
+  public PointSensitivityBuilder presentValueSensitivity(CompiledSwapLeg leg, RatesProvider provider) {
+    LocalDate valuationDate = provider.getValuationDate();
+    DiscountFactors discountFactors = provider.discountFactors(leg.getCurrency());
+    MutablePointSensitivities sensitivities = new MutablePointSensitivities();
+    // fixed periods
+    for (int i = 0; i < leg.fixedPaymentDates.length; i++) {
+      LocalDate paymentDate = leg.fixedPaymentDates[i];
+      if (!paymentDate.isBefore(valuationDate)) {
+        discountFactors.zeroRatePointSensitivity(paymentDate)
+            .multipliedBy(leg.fixedAmounts[i])
+            .buildInto(sensitivities);
+      }
+    }
+    // Ibor periods
+    IborIndexRates iborRates = null;
+    for (int i = 0; i < leg.iborPaymentDates.length; i++) {
+      LocalDate paymentDate = leg.iborPaymentDates[i];
+      if (!paymentDate.isBefore(valuationDate)) {
+        IborIndexObservation observation = leg.iborObservations[i];
+        if (iborRates == null || !iborRates.getIndex().equals(observation.getIndex())) {
+          iborRates = provider.iborIndexRates(observation.getIndex());
+        }
+        double df = discountFactors.discountFactor(paymentDate);
+        double forecast = leg.iborRateFactors[i] * iborRates.rate(observation) + leg.iborSpreadAmounts[i];
+        iborRates.ratePointSensitivity(observation)
+            .multipliedBy(leg.iborRateFactors[i] * df)
+            .buildInto(sensitivities);
+        discountFactors.zeroRatePointSensitivity(paymentDate)
+            .multipliedBy(forecast)
+            .buildInto(sensitivities);
+      }
+    }
+    // overnight periods
+    OvernightIndexRates overnightRates = null;
+    for (int i = 0; i < leg.overnightPaymentDates.length; i++) {
+      LocalDate paymentDate = leg.overnightPaymentDates[i];
+      if (!paymentDate.isBefore(valuationDate)) {
+        if (!valuationDate.isBefore(leg.overnightPublicationDates[i])) {
+          legPricer.getPeriodPricer().presentValueSensitivity(leg.overnightPeriods[i], provider)
+              .buildInto(sensitivities);
+          continue;
+        }
+        OvernightIndexObservation observation = leg.overnightObservations[i];
+        if (overnightRates == null || !overnightRates.getIndex().equals(observation.getIndex())) {
+          overnightRates = provider.overnightIndexRates(observation.getIndex());
+        }
+        LocalDate endDate = leg.overnightEndDates[i];
+        double df = discountFactors.discountFactor(paymentDate);
+        double rate = overnightRates.periodRate(observation, endDate);
+        double forecast = leg.overnightRateFactors[i] * rate + leg.overnightSpreadAmounts[i];
+        overnightRates.periodRatePointSensitivity(observation, endDate)
+            .multipliedBy(leg.overnightRateFactors[i] * df)
+            .buildInto(sensitivities);
+        discountFactors.zeroRatePointSensitivity(paymentDate)
+            .multipliedBy(forecast)
+            .buildInto(sensitivities);
+      }
+    }
+    // other periods and events
+    for (SwapPaymentPeriod period : leg.getOtherPeriods()) {
+      if (!period.getPaymentDate().isBefore(valuationDate)) {
+        legPricer.getPeriodPricer().presentValueSensitivity(period, provider).buildInto(sensitivities);
+      }
+    }
+    legPricer.presentValueSensitivityEventsInternal(leg.getLeg(), provider).buildInto(sensitivities);
+    return sensitivities;
+  }
+
+}
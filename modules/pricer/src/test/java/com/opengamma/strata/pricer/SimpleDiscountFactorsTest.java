@@ -15,12 +15,14 @@ import static com.opengamma.strata.collect.TestHelper.date;
 import static com.opengamma.strata.pricer.CompoundedRateType.CONTINUOUS;
 import static com.opengamma.strata.pricer.CompoundedRateType.PERIODIC;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 import java.time.LocalDate;
 import java.util.Optional;
 
 import org.testng.annotations.Test;
 
+import com.google.common.collect.ImmutableList;
 import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.market.ValueType;
 import com.opengamma.strata.market.curve.CurveMetadata;
@@ -255,6 +257,18 @@ public class SimpleDiscountFactorsTest {
     assertEquals(test.parameterSensitivity(point).size(), 1);
   }
 
+  public void test_parameterSensitivity_list() {
+    SimpleDiscountFactors test = SimpleDiscountFactors.of(GBP, DATE_VAL, CURVE);
+    ZeroRateSensitivity point1 = ZeroRateSensitivity.of(GBP, 1d, 2d);
+    ZeroRateSensitivity point2 = ZeroRateSensitivity.of(GBP, 3d, 5d);
+    ZeroRateSensitivity point3 = ZeroRateSensitivity.of(GBP, 0d, 7d);
+    CurrencyParameterSensitivities expected = test.parameterSensitivity(point1)
+        .combinedWith(test.parameterSensitivity(point2));
+    CurrencyParameterSensitivities computed = test.parameterSensitivity(ImmutableList.of(point1, point2, point3));
+    assertTrue(computed.equalWithTolerance(expected, 1e-12));
+    assertEquals(test.parameterSensitivity(ImmutableList.of(point3)), CurrencyParameterSensitivities.empty());
+  }
+
   //-------------------------------------------------------------------------
   public void test_createParameterSensitivity() {
     SimpleDiscountFactors test = SimpleDiscountFactors.of(GBP, DATE_VAL, CURVE);
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer;
+
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.collect.TestHelper.assertThrows;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+
+import java.time.LocalDate;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.basics.date.DayCount;
+import com.opengamma.strata.basics.date.DayCounts;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.market.curve.CurveName;
+import com.opengamma.strata.market.curve.Curves;
+import com.opengamma.strata.market.curve.InterpolatedNodalCurve;
+import com.opengamma.strata.market.curve.interpolator.CurveInterpolators;
+
+/**
+ * Test {@link YearFractionCache}.
+ */
+@Test
+public class YearFractionCacheTest {
+
+  private static final LocalDate VAL_DATE = date(2015, 6, 4);
+  private static final DayCount DAY_COUNT = DayCounts.ACT_ACT_ISDA;
+
+  //-------------------------------------------------------------------------
+  public void test_of() {
+    YearFractionCache test = YearFractionCache.of(VAL_DATE);
+    assertEquals(test.getValuationDate(), VAL_DATE);
+    assertNotSame(YearFractionCache.of(VAL_DATE), test);
+    assertEquals(test.toString(), "YearFractionCache[2015-06-04]");
+    assertThrowsIllegalArg(() -> YearFractionCache.of(null));
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_relativeYearFraction() {
+    YearFractionCache test = YearFractionCache.of(VAL_DATE);
+    for (int i = -1000; i < 20000; i += 7) {
+      LocalDate date = VAL_DATE.plusDays(i);
+      assertEquals(test.relativeYearFraction(DAY_COUNT, date), DAY_COUNT.relativeYearFraction(VAL_DATE, date));
+      // second call uses the cached year fraction
+      assertEquals(test.relativeYearFraction(DAY_COUNT, date), DAY_COUNT.relativeYearFraction(VAL_DATE, date));
+      // other day counts are cached separately
+      assertEquals(
+          test.relativeYearFraction(DayCounts.ACT_365F, date), DayCounts.ACT_365F.relativeYearFraction(VAL_DATE, date));
+    }
+  }
+
+  public void test_relativeYearFraction_outsideCache() {
+    YearFractionCache test = YearFractionCache.of(VAL_DATE);
+    LocalDate farFuture = VAL_DATE.plusYears(200);
+    LocalDate farPast = VAL_DATE.minusYears(200);
+    assertEquals(test.relativeYearFraction(DAY_COUNT, farFuture), DAY_COUNT.relativeYearFraction(VAL_DATE, farFuture));
+    assertEquals(test.relativeYearFraction(DAY_COUNT, farPast), DAY_COUNT.relativeYearFraction(VAL_DATE, farPast));
+  }
+
+  public void test_relativeYearFraction_failingDate() {
+    // the end of February requires schedule information in 30E/360 ISDA
+    DayCount dayCount = DayCounts.THIRTY_E_360_ISDA;
+    LocalDate valuationDate = date(2024, 1, 2);
+    YearFractionCache test = YearFractionCache.of(valuationDate);
+    assertThrows(() -> test.relativeYearFraction(dayCount, date(2024, 2, 29)), UnsupportedOperationException.class);
+    // other dates of the same block are not affected
+    LocalDate date = date(2024, 2, 20);
+    assertEquals(test.relativeYearFraction(dayCount, date), dayCount.relativeYearFraction(valuationDate, date));
+    assertEquals(test.relativeYearFraction(dayCount, date), dayCount.relativeYearFraction(valuationDate, date));
+    assertThrows(() -> test.relativeYearFraction(dayCount, date(2024, 2, 29)), UnsupportedOperationException.class);
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_discountFactors() {
+    InterpolatedNodalCurve curve = InterpolatedNodalCurve.of(
+        Curves.zeroRates(CurveName.of("Test"), DAY_COUNT),
+        DoubleArray.of(0.5, 1, 2),
+        DoubleArray.of(0.01, 0.012, 0.015),
+        CurveInterpolators.LINEAR);
+    YearFractionCache cache = YearFractionCache.of(VAL_DATE);
+    DiscountFactors test = DiscountFactors.of(USD, VAL_DATE, curve, cache);
+    DiscountFactors expected = DiscountFactors.of(USD, VAL_DATE, curve);
+    assertEquals(test, expected);
+    LocalDate date = VAL_DATE.plusMonths(9);
+    assertEquals(test.relativeYearFraction(date), expected.relativeYearFraction(date));
+    assertEquals(test.discountFactor(date), expected.discountFactor(date));
+    assertThrowsIllegalArg(() -> DiscountFactors.of(USD, VAL_DATE.plusDays(1), curve, cache));
+  }
+
+  //-------------------------------------------------------------------------
+  @Test(enabled = false)
+  void performance() {
+    // discount factors of the payment dates of 1000 semi-annual swaps up to 30 years
+    InterpolatedNodalCurve curve = InterpolatedNodalCurve.of(
+        Curves.zeroRates(CurveName.of("Test"), DAY_COUNT),
+        DoubleArray.of(0.5, 1, 2, 5, 10, 20, 30),
+        DoubleArray.of(0.01, 0.012, 0.015, 0.02, 0.022, 0.025, 0.026),
+        CurveInterpolators.LINEAR);
+    ZeroRateDiscountFactors discountFactors =
+        ZeroRateDiscountFactors.of(USD, VAL_DATE, curve, YearFractionCache.of(VAL_DATE));
+    int nbSwaps = 1000;
+    int nbPayments = 60;
+    LocalDate[] dates = new LocalDate[nbSwaps * nbPayments];
+    for (int i = 0; i < nbSwaps; i++) {
+      LocalDate start = VAL_DATE.plusDays(i % 365);
+      for (int j = 0; j < nbPayments; j++) {
+        dates[i * nbPayments + j] = start.plusMonths(6 * (j + 1));
+      }
+    }
+    long startTime, endTime;
+    int nbRep = 5;
+    double hotspot = 0d;
+
+    for (int i = 0; i < nbRep; i++) {
+      startTime = System.currentTimeMillis();
+      for (LocalDate date : dates) {
+        hotspot += discountFactors.discountFactor(DAY_COUNT.relativeYearFraction(VAL_DATE, date));
+      }
+      endTime = System.currentTimeMillis();
+      System.out.println("Performance: " + dates.length + " discount factors without cache in "
+          + (endTime - startTime) + " ms.");
+
+      startTime = System.currentTimeMillis();
+      for (LocalDate date : dates) {
+        hotspot += discountFactors.discountFactor(date);
+      }
+      endTime = System.currentTimeMillis();
+      System.out.println("Performance: " + dates.length + " discount factors with cache in "
+          + (endTime - startTime) + " ms.");
+    }
+    System.out.println("Avoiding hotspot: " + hotspot);
+  }
+
+}
@@ -22,6 +22,7 @@ import java.util.Optional;
 
 import org.testng.annotations.Test;
 
+import com.google.common.collect.ImmutableList;
 import com.opengamma.strata.collect.array.DoubleArray;
 import com.opengamma.strata.market.ValueType;
 import com.opengamma.strata.market.curve.CurveInfoType;
@@ -286,6 +287,16 @@ public class ZeroRatePeriodicDiscountFactorsTest {
     assertEquals(sensi1.getCurrency(), GBP);
   }
 
+  public void test_parameterSensitivity_list() {
+    ZeroRatePeriodicDiscountFactors test = ZeroRatePeriodicDiscountFactors.of(GBP, DATE_VAL, CURVE);
+    ZeroRateSensitivity point1 = test.zeroRatePointSensitivity(DATE_AFTER).multipliedBy(25d);
+    ZeroRateSensitivity point2 = ZeroRateSensitivity.of(GBP, 3d, 5d);
+    CurrencyParameterSensitivities expected = test.parameterSensitivity(point1)
+        .combinedWith(test.parameterSensitivity(point2));
+    CurrencyParameterSensitivities computed = test.parameterSensitivity(ImmutableList.of(point1, point2));
+    assertTrue(computed.equalWithTolerance(expected, 1e-12));
+  }
+
   //-------------------------------------------------------------------------
   public void test_parameterSensitivity_full() {
     ZeroRatePeriodicDiscountFactors test = ZeroRatePeriodicDiscountFactors.of(GBP, DATE_VAL, CURVE);
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.credit;
+
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.basics.date.DayCounts.ACT_365F;
+import static org.testng.Assert.assertEquals;
+
+import java.time.LocalDate;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.basics.StandardId;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.market.ValueType;
+import com.opengamma.strata.market.curve.DefaultCurveMetadata;
+import com.opengamma.strata.market.curve.InterpolatedNodalCurve;
+import com.opengamma.strata.market.curve.interpolator.CurveExtrapolators;
+import com.opengamma.strata.market.curve.interpolator.CurveInterpolators;
+
+/**
+ * Test {@link IsdaCdsIntegrationGrid}.
+ */
+@Test
+public class IsdaCdsIntegrationGridTest {
+
+  private static final LocalDate VALUATION_DATE = LocalDate.of(2014, 1, 3);
+  private static final DoubleArray TIME_YC = DoubleArray.of(0.09, 0.25, 0.5, 1d, 2d, 3d, 5d, 7d, 10d);
+  private static final DoubleArray RATE_YC = DoubleArray.of(0.001, 0.0012, 0.0015, 0.002, 0.004, 0.006, 0.01, 0.013, 0.015);
+  private static final DoubleArray TIME_CC = DoubleArray.of(0.5, 1.2, 1.7, 2d, 3.7, 5d, 7.7);
+  private static final DoubleArray RATE_CC = DoubleArray.of(0.009, 0.011, 0.013, 0.014, 0.017, 0.02, 0.025);
+  private static final CreditDiscountFactors DISCOUNT_FACTORS = IsdaCreditDiscountFactors.of(
+      USD, VALUATION_DATE, curve("yield", TIME_YC, RATE_YC));
+  private static final LegalEntitySurvivalProbabilities SURVIVAL_PROBABILITIES = LegalEntitySurvivalProbabilities.of(
+      StandardId.of("OG", "ABC"),
+      IsdaCreditDiscountFactors.of(USD, VALUATION_DATE, curve("credit", TIME_CC, RATE_CC)));
+  private static final IsdaCdsIntegrationGrid DIRECT = IsdaCdsIntegrationGrid.of(DISCOUNT_FACTORS, SURVIVAL_PROBABILITIES);
+  private static final IsdaCdsIntegrationGrid PRECOMPUTED =
+      IsdaCdsIntegrationGrid.precomputed(DISCOUNT_FACTORS, SURVIVAL_PROBABILITIES);
+
+  private static InterpolatedNodalCurve curve(String name, DoubleArray times, DoubleArray rates) {
+    DefaultCurveMetadata metadata = DefaultCurveMetadata.builder()
+        .xValueType(ValueType.YEAR_FRACTION)
+        .yValueType(ValueType.ZERO_RATE)
+        .curveName(name)
+        .dayCount(ACT_365F)
+        .build();
+    return InterpolatedNodalCurve.of(metadata, times, rates,
+        CurveInterpolators.PRODUCT_LINEAR, CurveExtrapolators.FLAT, CurveExtrapolators.PRODUCT_LINEAR);
+  }
+
+  //-------------------------------------------------------------------------
+  public void test_integrationSchedule() {
+    double[] starts = {-0.1, 0d, 0.09, 0.0901, 0.5, 0.5005, 1.9995, 12d};
+    double[] ends = {0.09, 0.5, 0.5005, 2d, 2.001, 5d, 10d, 15d};
+    for (double start : starts) {
+      for (double end : ends) {
+        if (end > start) {
+          DoubleArray expected = DoublesScheduleGenerator.getIntegrationsPoints(start, end, TIME_YC, TIME_CC);
+          assertEquals(PRECOMPUTED.integrationSchedule(start, end), expected);
+          assertEquals(DIRECT.integrationSchedule(start, end), expected);
+        }
+      }
+    }
+  }
+
+  public void test_values() {
+    double[] times = {0.05, 0.09, 0.5, 1.2, 2d, 2.5, 7.7, 10d, 12d};
+    for (double time : times) {
+      assertEquals(PRECOMPUTED.discountExponent(time), DISCOUNT_FACTORS.zeroRate(time) * time);
+      assertEquals(PRECOMPUTED.survivalExponent(time), SURVIVAL_PROBABILITIES.zeroRate(time) * time);
+      assertEquals(DIRECT.discountExponent(time), DISCOUNT_FACTORS.zeroRate(time) * time);
+      assertEquals(DIRECT.survivalExponent(time), SURVIVAL_PROBABILITIES.zeroRate(time) * time);
+    }
+    for (int i = 0; i < 3; ++i) {
+      LocalDate date = LocalDate.of(2015 + i, 3, 20);
+      assertEquals(PRECOMPUTED.discountFactor(date), DISCOUNT_FACTORS.discountFactor(date));
+      assertEquals(PRECOMPUTED.survivalProbability(date), SURVIVAL_PROBABILITIES.survivalProbability(date));
+      assertEquals(PRECOMPUTED.relativeYearFraction(date), DISCOUNT_FACTORS.relativeYearFraction(date));
+      // cached values
+      assertEquals(PRECOMPUTED.discountFactor(date), DISCOUNT_FACTORS.discountFactor(date));
+      assertEquals(DIRECT.discountFactor(date), DISCOUNT_FACTORS.discountFactor(date));
+      assertEquals(DIRECT.survivalProbability(date), SURVIVAL_PROBABILITIES.survivalProbability(date));
+      assertEquals(DIRECT.relativeYearFraction(date), DISCOUNT_FACTORS.relativeYearFraction(date));
+    }
+    assertEquals(PRECOMPUTED.getDiscountFactors(), DISCOUNT_FACTORS);
+    assertEquals(PRECOMPUTED.getSurvivalProbabilities(), SURVIVAL_PROBABILITIES);
+  }
+
+}
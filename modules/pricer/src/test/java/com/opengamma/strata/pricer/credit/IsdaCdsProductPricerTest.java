@@ -23,6 +23,7 @@ import java.util.List;
 
 import org.testng.annotations.Test;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.basics.StandardId;
@@ -251,6 +252,29 @@ public class IsdaCdsProductPricerTest {
     assertEquals(expectedLoss, CurrencyAmount.zero(USD));
   }
 
+  public void bulkTest() {
+    List<ResolvedCds> products = ImmutableList.of(
+        PRODUCT_NEXTDAY, PRODUCT_BEFORE, PRODUCT_AFTER, PRODUCT_NS_TODAY, PRODUCT_NS_STEPIN, PRODUCT_NS_BTW);
+    LocalDate referenceDate = PRODUCT_NEXTDAY.getSettlementDateOffset().adjust(VALUATION_DATE, REF_DATA);
+    for (IsdaCdsProductPricer pricer : ImmutableList.of(PRICER, PRICER_FIX, PRICER_CORRECT)) {
+      for (PriceType priceType : PriceType.values()) {
+        List<CurrencyAmount> pvs = pricer.presentValue(products, RATES_PROVIDER, referenceDate, priceType, REF_DATA);
+        DoubleArray prices = pricer.price(products, RATES_PROVIDER, referenceDate, priceType, REF_DATA);
+        assertEquals(pvs.size(), products.size());
+        for (int i = 0; i < products.size(); ++i) {
+          ResolvedCds product = products.get(i);
+          assertEquals(pvs.get(i), pricer.presentValue(product, RATES_PROVIDER, referenceDate, priceType, REF_DATA));
+          assertEquals(prices.get(i), pricer.price(product, RATES_PROVIDER, referenceDate, priceType, REF_DATA));
+        }
+      }
+    }
+    LocalDate valuationDate = PRODUCT_NEXTDAY.getProtectionEndDate().plusDays(1);
+    CreditRatesProvider provider = createCreditRatesProvider(valuationDate);
+    List<CurrencyAmount> pvs = PRICER.presentValue(products, provider, valuationDate, CLEAN, REF_DATA);
+    assertEquals(pvs.get(0), CurrencyAmount.zero(USD));
+    assertEquals(pvs.get(1), PRICER.presentValue(PRODUCT_BEFORE, provider, valuationDate, CLEAN, REF_DATA));
+  }
+
   public void consistencyTest() {
     double price = PRICER.price(PRODUCT_NEXTDAY, RATES_PROVIDER,
         PRODUCT_NEXTDAY.getSettlementDateOffset().adjust(RATES_PROVIDER.getValuationDate(), REF_DATA), CLEAN, REF_DATA);
@@ -175,6 +175,28 @@ public class IsdaHomogenousCdsIndexProductPricerTest {
     assertEquals(expectedLoss, CurrencyAmount.zero(USD));
   }
 
+  public void bulkTest() {
+    ResolvedCdsIndex product2 = CdsIndex.of(
+        SELL, INDEX_ID, LEGAL_ENTITIES, USD, 2d * NOTIONAL, START_DATE, LocalDate.of(2021, 6, 20), P3M, SAT_SUN, 0.01)
+        .resolve(REF_DATA);
+    List<ResolvedCdsIndex> products = ImmutableList.of(PRODUCT, PRODUCT_SELL, product2);
+    for (IsdaHomogenousCdsIndexProductPricer pricer : ImmutableList.of(PRICER, PRICER_MARKIT, PRICER_OG)) {
+      for (PriceType priceType : PriceType.values()) {
+        List<CurrencyAmount> pvs = pricer.presentValue(products, RATES_PROVIDER, SETTLEMENT_STD, priceType, REF_DATA);
+        assertEquals(pvs.size(), products.size());
+        for (int i = 0; i < products.size(); ++i) {
+          assertEquals(
+              pvs.get(i), pricer.presentValue(products.get(i), RATES_PROVIDER, SETTLEMENT_STD, priceType, REF_DATA));
+        }
+      }
+    }
+    LocalDate valuationDate = PRODUCT.getProtectionEndDate().plusDays(1);
+    CreditRatesProvider provider = createCreditRatesProviderSingle(valuationDate, false);
+    List<CurrencyAmount> pvs = PRICER.presentValue(products, provider, SETTLEMENT_STD, CLEAN, REF_DATA);
+    assertEquals(pvs.get(0), CurrencyAmount.zero(USD));
+    assertEquals(pvs.get(2), PRICER.presentValue(product2, provider, SETTLEMENT_STD, CLEAN, REF_DATA));
+  }
+
   public void consistencyTest() {
     CurrencyAmount pv = PRICER.presentValue(PRODUCT, RATES_PROVIDER, SETTLEMENT_STD, CLEAN, REF_DATA);
     CurrencyAmount pvSell = PRICER.presentValue(PRODUCT_SELL, RATES_PROVIDER, SETTLEMENT_STD, CLEAN, REF_DATA);
@@ -16,6 +16,7 @@ import static org.testng.Assert.assertEquals;
 import static org.testng.Assert.assertTrue;
 
 import java.time.LocalDate;
+import java.util.List;
 
 import org.testng.annotations.Test;
 
@@ -250,6 +251,24 @@ public class SpreadSensitivityCalculatorTest {
         quoteSensi.getSensitivities().get(0).getSensitivity().toArray(), analytic.getSensitivity().toArray(), NOTIONAL * TOL));
   }
 
+  public void parellelCs01PortfolioTest() {
+    List<ResolvedCdsTrade> trades = ImmutableList.of(CDS1, CDS2, CDS1);
+    List<CurrencyAmount> computed = CS01_FD.parallelCs01(trades, RATES_PROVIDER, REF_DATA);
+    assertEquals(computed.size(), trades.size());
+    for (int i = 0; i < trades.size(); ++i) {
+      assertEquals(computed.get(i), CS01_FD.parallelCs01(trades.get(i), RATES_PROVIDER, REF_DATA));
+    }
+  }
+
+  public void bucketedCs01PortfolioTest() {
+    List<ResolvedCdsTrade> trades = ImmutableList.of(CDS1, CDS2, CDS1);
+    List<CurrencyParameterSensitivity> computed = CS01_FD.bucketedCs01(trades, RATES_PROVIDER, REF_DATA);
+    assertEquals(computed.size(), trades.size());
+    for (int i = 0; i < trades.size(); ++i) {
+      assertEquals(computed.get(i), CS01_FD.bucketedCs01(trades.get(i), RATES_PROVIDER, REF_DATA));
+    }
+  }
+
   public void bucketedCs01SingleNodeCurveTest() {
     ImmutableCreditRatesProvider ratesProviderNoCredit = ImmutableCreditRatesProvider.builder()
         .valuationDate(VALUATION_DATE)
@@ -0,0 +1,51 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.fxopt;
+
+import static com.opengamma.strata.collect.TestHelper.assertSerialization;
+import static com.opengamma.strata.collect.TestHelper.coverBeanEquals;
+import static com.opengamma.strata.collect.TestHelper.coverImmutableBean;
+import static org.testng.Assert.assertEquals;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.market.surface.InterpolatedNodalSurface;
+
+/**
+ * Test {@link FxOptionLocalVolatilityId}.
+ */
+@Test
+public class FxOptionLocalVolatilityIdTest {
+
+  //-------------------------------------------------------------------------
+  public void test_of() {
+    FxOptionLocalVolatilityId test = FxOptionLocalVolatilityId.of("Foo");
+    assertEquals(test.getName(), FxOptionVolatilitiesName.of("Foo"));
+    assertEquals(test.getMarketDataType(), InterpolatedNodalSurface.class);
+    assertEquals(test.getVolatilitiesId(), FxOptionVolatilitiesId.of("Foo"));
+  }
+
+  public void test_of_object() {
+    FxOptionLocalVolatilityId test = FxOptionLocalVolatilityId.of(FxOptionVolatilitiesName.of("Foo"));
+    assertEquals(test.getName(), FxOptionVolatilitiesName.of("Foo"));
+    assertEquals(test.getMarketDataType(), InterpolatedNodalSurface.class);
+    assertEquals(test.getVolatilitiesId(), FxOptionVolatilitiesId.of("Foo"));
+  }
+
+  //-------------------------------------------------------------------------
+  public void coverage() {
+    FxOptionLocalVolatilityId test = FxOptionLocalVolatilityId.of("Foo");
+    coverImmutableBean(test);
+    FxOptionLocalVolatilityId test2 = FxOptionLocalVolatilityId.of("Bar");
+    coverBeanEquals(test, test2);
+  }
+
+  public void test_serialization() {
+    FxOptionLocalVolatilityId test = FxOptionLocalVolatilityId.of("Foo");
+    assertSerialization(test);
+  }
+
+}
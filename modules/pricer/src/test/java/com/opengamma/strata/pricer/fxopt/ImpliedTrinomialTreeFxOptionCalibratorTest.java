@@ -7,7 +7,12 @@ package com.opengamma.strata.pricer.fxopt;
 
 import static com.opengamma.strata.basics.currency.Currency.EUR;
 import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.basics.date.DayCounts.ACT_365F;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotSame;
+import static org.testng.Assert.assertSame;
+import static org.testng.Assert.assertTrue;
 
 import java.time.LocalDate;
 import java.time.ZoneId;
@@ -16,6 +21,18 @@ import java.time.ZonedDateTime;
 import org.testng.annotations.Test;
 
 import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.currency.FxMatrix;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.array.DoubleMatrix;
+import com.opengamma.strata.market.ValueType;
+import com.opengamma.strata.market.curve.ConstantCurve;
+import com.opengamma.strata.market.curve.CurveMetadata;
+import com.opengamma.strata.market.curve.DefaultCurveMetadata;
+import com.opengamma.strata.market.curve.interpolator.CurveInterpolators;
+import com.opengamma.strata.market.surface.DefaultSurfaceMetadata;
+import com.opengamma.strata.market.surface.InterpolatedNodalSurface;
+import com.opengamma.strata.market.surface.SurfaceName;
+import com.opengamma.strata.market.surface.interpolator.GridSurfaceInterpolator;
 import com.opengamma.strata.pricer.fx.RatesProviderFxDataSets;
 import com.opengamma.strata.pricer.impl.option.BlackFormulaRepository;
 import com.opengamma.strata.pricer.impl.tree.EuropeanVanillaOptionFunction;
@@ -65,6 +82,13 @@ public class ImpliedTrinomialTreeFxOptionCalibratorTest {
   private static final RecombiningTrinomialTreeData TREE_DATA_MRKT =
       CALIB.calibrateTrinomialTree(CALL, RATE_PROVIDER, VOLS_MRKT);
   private static final TrinomialTree TREE = new TrinomialTree();
+  private static final CurveMetadata FLAT_METADATA = DefaultCurveMetadata.builder()
+      .curveName("Flat")
+      .xValueType(ValueType.YEAR_FRACTION)
+      .yValueType(ValueType.BLACK_VOLATILITY)
+      .dayCount(ACT_365F)
+      .build();
+  private static final double TOL = 5e-4;
 
   public void test_recoverVolatility() {
     int nSteps = TREE_DATA.getNumberOfSteps();
@@ -88,4 +112,121 @@ public class ImpliedTrinomialTreeFxOptionCalibratorTest {
     }
   }
 
+  public void test_cache() {
+    ImpliedTrinomialTreeFxOptionCalibrator cached = new ImpliedTrinomialTreeFxOptionCalibrator(39, 10);
+    RecombiningTrinomialTreeData first = cached.calibrateTrinomialTree(CALL, RATE_PROVIDER, VOLS);
+    assertEquals(first, TREE_DATA);
+    assertSame(cached.calibrateTrinomialTree(CALL, RATE_PROVIDER, VOLS), first);
+    RecombiningTrinomialTreeData otherVols = cached.calibrateTrinomialTree(CALL, RATE_PROVIDER, VOLS_MRKT);
+    assertEquals(otherVols, TREE_DATA_MRKT);
+    assertNotSame(otherVols, first);
+    // equal market data in another provider reuses the tree
+    ImmutableRatesProvider equalProvider = RATE_PROVIDER.toBuilder().build();
+    assertSame(cached.calibrateTrinomialTree(CALL, equalProvider, VOLS), first);
+    ImmutableRatesProvider bumpedProvider = RATE_PROVIDER.toBuilder()
+        .fxRateProvider(FxMatrix.of(EUR, USD, RATE_PROVIDER.fxRate(EUR, USD) + 0.01))
+        .build();
+    assertNotSame(cached.calibrateTrinomialTree(CALL, bumpedProvider, VOLS), first);
+    assertThrowsIllegalArg(() -> new ImpliedTrinomialTreeFxOptionCalibrator(39, 0));
+  }
+
+  public void test_localVolatility() {
+    double maxTime = VOLS.relativeTime(EXPIRY_DATETIME);
+    InterpolatedNodalSurface surface =
+        CALIB.calibrateLocalVolatility(maxTime, FX_PRODUCT.getCurrencyPair(), RATE_PROVIDER, VOLS);
+    assertEquals(surface.getName(), SurfaceName.of("localVol_" + VOLS.getName()));
+    assertEquals(surface.getXValues().max(), maxTime, 1e-12);
+    double spot = TREE_DATA.getSpot();
+    for (int i = 1; i < 5; ++i) {
+      double time = 0.2 * i * maxTime;
+      double dfDom = RATE_PROVIDER.discountFactors(USD).discountFactor(time);
+      double dfFor = RATE_PROVIDER.discountFactors(EUR).discountFactor(time);
+      double forward = spot * dfFor / dfDom;
+      double impliedVol = VOLS.volatility(FX_PRODUCT.getCurrencyPair(), time, forward, forward);
+      assertEquals(surface.zValue(time, forward), impliedVol, impliedVol * 0.1); // large tol
+    }
+    assertThrowsIllegalArg(() -> CALIB.calibrateLocalVolatility(0d, FX_PRODUCT.getCurrencyPair(), RATE_PROVIDER, VOLS));
+  }
+
+  public void test_localVolatilityTree() {
+    double maxTime = VOLS.relativeTime(EXPIRY_DATETIME);
+    InterpolatedNodalSurface surface =
+        CALIB.calibrateLocalVolatility(maxTime, FX_PRODUCT.getCurrencyPair(), RATE_PROVIDER, VOLS);
+    ImpliedTrinomialTreeFxOptionCalibrator test = new ImpliedTrinomialTreeFxOptionCalibrator(39, surface);
+    RecombiningTrinomialTreeData treeData = test.calibrateTrinomialTree(CALL, RATE_PROVIDER, VOLS);
+    int nSteps = treeData.getNumberOfSteps();
+    assertEquals(nSteps, 39);
+    double spot = treeData.getSpot();
+    double timeToExpiry = treeData.getTime(nSteps);
+    assertEquals(spot, RATE_PROVIDER.fxRate(FX_PRODUCT.getCurrencyPair()), 1e-12);
+    assertEquals(timeToExpiry, maxTime, 1e-12);
+    for (int i = 0; i < nSteps; ++i) {
+      DoubleMatrix probability = treeData.getProbabilityAtLayer(i);
+      for (int j = 0; j < 2 * i + 1; ++j) {
+        assertEquals(probability.row(j).sum(), 1d, 1e-12);
+        assertTrue(probability.row(j).min() > 0d);
+      }
+    }
+    // the local volatility surface is approximate, thus the Black volatilities are only roughly recovered
+    double dfDom = RATE_PROVIDER.discountFactors(USD).discountFactor(timeToExpiry);
+    double dfFor = RATE_PROVIDER.discountFactors(EUR).discountFactor(timeToExpiry);
+    double forward = spot * dfFor / dfDom;
+    for (int i = 0; i < 5; ++i) {
+      double strike = forward * (0.96 + 0.02 * i);
+      OptionFunction func = EuropeanVanillaOptionFunction.of(strike, timeToExpiry, PutCall.CALL, nSteps);
+      double price = TREE.optionPrice(func, treeData);
+      double impliedVol = BlackFormulaRepository.impliedVolatility(price / dfDom, forward, strike, timeToExpiry, true);
+      double orgVol = VOLS.volatility(FX_PRODUCT.getCurrencyPair(), timeToExpiry, strike, forward);
+      assertEquals(impliedVol, orgVol, orgVol * 0.15); // large tol
+    }
+    assertThrowsIllegalArg(() -> new ImpliedTrinomialTreeFxOptionCalibrator(1, surface));
+  }
+
+  public void test_localVolatilityTree_flat() {
+    // on a flat surface, the local volatility tree and the tree calibrated to flat Black volatilities agree
+    double volatility = 0.1;
+    double spot = RATE_PROVIDER.fxRate(FX_PRODUCT.getCurrencyPair());
+    BlackFxOptionFlatVolatilities flatVols = BlackFxOptionFlatVolatilities.of(
+        FX_PRODUCT.getCurrencyPair(), VAL_DATETIME, ConstantCurve.of(FLAT_METADATA, volatility));
+    double timeToExpiry = flatVols.relativeTime(EXPIRY_DATETIME);
+    InterpolatedNodalSurface surface = flatSurface(volatility, timeToExpiry, spot);
+    RecombiningTrinomialTreeData treeData = CALIB.calibrateTrinomialTree(CALL, RATE_PROVIDER, flatVols);
+    RecombiningTrinomialTreeData localVolTreeData = new ImpliedTrinomialTreeFxOptionCalibrator(39, surface)
+        .calibrateTrinomialTree(CALL, RATE_PROVIDER, flatVols);
+    double dfDom = RATE_PROVIDER.discountFactors(USD).discountFactor(timeToExpiry);
+    double dfFor = RATE_PROVIDER.discountFactors(EUR).discountFactor(timeToExpiry);
+    double forward = spot * dfFor / dfDom;
+    for (int i = 0; i < 5; ++i) {
+      double strike = forward * (0.9 + 0.05 * i);
+      OptionFunction func = EuropeanVanillaOptionFunction.of(strike, timeToExpiry, PutCall.CALL, 39);
+      double price = TREE.optionPrice(func, treeData);
+      double localVolPrice = TREE.optionPrice(func, localVolTreeData);
+      double blackPrice = dfDom * BlackFormulaRepository.price(forward, strike, timeToExpiry, volatility, true);
+      assertEquals(localVolPrice, price, spot * TOL);
+      assertEquals(localVolPrice, blackPrice, spot * TOL);
+    }
+  }
+
+  public void test_localVolatilityTree_invalid() {
+    double timeToExpiry = VOLS.relativeTime(EXPIRY_DATETIME);
+    double spot = RATE_PROVIDER.fxRate(FX_PRODUCT.getCurrencyPair());
+    // expiry after the surface
+    InterpolatedNodalSurface shortSurface = flatSurface(0.1, 0.5 * timeToExpiry, spot);
+    assertThrowsIllegalArg(() -> new ImpliedTrinomialTreeFxOptionCalibrator(39, shortSurface)
+        .calibrateTrinomialTree(CALL, RATE_PROVIDER, VOLS));
+    // drift too large relative to the volatility
+    InterpolatedNodalSurface lowSurface = flatSurface(1e-4, timeToExpiry, spot);
+    assertThrowsIllegalArg(() -> new ImpliedTrinomialTreeFxOptionCalibrator(2, lowSurface)
+        .calibrateTrinomialTree(CALL, RATE_PROVIDER, VOLS));
+  }
+
+  private static InterpolatedNodalSurface flatSurface(double volatility, double maxTime, double spot) {
+    return InterpolatedNodalSurface.of(
+        DefaultSurfaceMetadata.of("Flat"),
+        DoubleArray.of(0d, 0d, maxTime, maxTime),
+        DoubleArray.of(0.5 * spot, 2d * spot, 0.5 * spot, 2d * spot),
+        DoubleArray.filled(4, volatility),
+        GridSurfaceInterpolator.of(CurveInterpolators.LINEAR, CurveInterpolators.LINEAR));
+  }
+
 }
@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.impl.model;
+
+import static com.opengamma.strata.collect.TestHelper.assertSerialization;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
+import static com.opengamma.strata.collect.TestHelper.coverBeanEquals;
+import static com.opengamma.strata.collect.TestHelper.coverImmutableBean;
+import static org.testng.Assert.assertEquals;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.value.ValueDerivatives;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.math.impl.cern.MersenneTwister64;
+import com.opengamma.strata.math.impl.random.NormalRandomNumberGenerator;
+import com.opengamma.strata.math.impl.random.RandomNumberGenerator;
+import com.opengamma.strata.math.impl.statistics.distribution.NormalDistribution;
+import com.opengamma.strata.math.impl.statistics.distribution.ProbabilityDistribution;
+import com.opengamma.strata.pricer.impl.rate.model.HullWhiteMonteCarloDecisionSchedule;
+import com.opengamma.strata.pricer.impl.rate.model.HullWhiteMonteCarloEngine;
+import com.opengamma.strata.pricer.impl.rate.model.HullWhiteMonteCarloPayoff;
+import com.opengamma.strata.pricer.impl.rate.model.HullWhiteOneFactorPiecewiseConstantInterestRateModel;
+import com.opengamma.strata.pricer.model.HullWhiteOneFactorPiecewiseConstantParameters;
+
+/**
+ * Test {@link HullWhiteMonteCarloEngine}.
+ */
+@Test
+public class HullWhiteMonteCarloEngineTest {
+
+  private static final ProbabilityDistribution<Double> NORMAL = new NormalDistribution(0, 1);
+  private static final double MEAN_REVERSION = 0.01;
+  private static final DoubleArray VOLATILITY = DoubleArray.of(0.01, 0.011, 0.012, 0.013, 0.014);
+  private static final DoubleArray VOLATILITY_TIME = DoubleArray.of(0.5, 1.0, 2.0, 5.0);
+  private static final HullWhiteOneFactorPiecewiseConstantParameters MODEL_PARAMETERS =
+      HullWhiteOneFactorPiecewiseConstantParameters.of(MEAN_REVERSION, VOLATILITY, VOLATILITY_TIME);
+  private static final HullWhiteOneFactorPiecewiseConstantInterestRateModel MODEL =
+      HullWhiteOneFactorPiecewiseConstantInterestRateModel.DEFAULT;
+  private static final double RATE = 0.02;
+
+  private static final double EXPIRY = 1.5;
+  private static final DoubleArray SWAP_TIMES = DoubleArray.of(1.5, 2.5, 3.5, 4.5, 5.5);
+  private static final double COUPON = 0.021;
+  private static final DoubleArray CASH_FLOWS = DoubleArray.of(-1d, COUPON, COUPON, COUPON, 1d + COUPON);
+  private static final HullWhiteMonteCarloDecisionSchedule SCHEDULE =
+      HullWhiteMonteCarloDecisionSchedule.of(DoubleArray.of(EXPIRY), ImmutableList.of(SWAP_TIMES));
+  private static final List<DoubleArray> DISCOUNT_FACTORS =
+      ImmutableList.of(SWAP_TIMES.map(t -> Math.exp(-RATE * t)));
+  private static final double NUMERAIRE_DISCOUNT_FACTOR = Math.exp(-RATE * SCHEDULE.getNumeraireTime());
+  private static final HullWhiteMonteCarloPayoff RECEIVER_SWAPTION = new ReceiverSwaptionPayoff(CASH_FLOWS);
+
+  private static final int NB_PATHS = 100_000;
+  private static final HullWhiteMonteCarloEngine ENGINE = HullWhiteMonteCarloEngine.of(NB_PATHS, 12345L);
+  private static final IntFunction<RandomNumberGenerator> BATCH_GENERATOR =
+      batch -> new NormalRandomNumberGenerator(0d, 1d, new MersenneTwister64(batch + 1));
+  private static final double TOL = 1.0e-12;
+  private static final double TOL_DELTA = 1.0e-5;
+
+  //-------------------------------------------------------------------------
+  public void test_schedule() {
+    assertEquals(SCHEDULE.getNumberOfDecisions(), 1);
+    assertEquals(SCHEDULE.getNumberOfBonds(), 5);
+    assertEquals(SCHEDULE.getNumeraireTime(), 5.5);
+    assertThrowsIllegalArg(() -> HullWhiteMonteCarloDecisionSchedule.of(
+        DoubleArray.of(1d, 2d), ImmutableList.of(DoubleArray.of(1d))));
+    assertThrowsIllegalArg(() -> HullWhiteMonteCarloDecisionSchedule.of(
+        DoubleArray.of(2d, 1d), ImmutableList.of(DoubleArray.of(2d), DoubleArray.of(2d))));
+    assertThrowsIllegalArg(() -> HullWhiteMonteCarloDecisionSchedule.of(
+        DoubleArray.of(2d), ImmutableList.of(DoubleArray.of(1d))));
+  }
+
+  public void test_zeroCouponBond() {
+    // the ratios are martingales, the bond price is recovered
+    DoubleArray decisionTimes = DoubleArray.of(0.5, 1d, 2d, 3d);
+    List<DoubleArray> bondTimes = ImmutableList.of(
+        DoubleArray.of(0.5, 4d), DoubleArray.of(1d, 4d), DoubleArray.of(2d, 4d), DoubleArray.of(7d));
+    HullWhiteMonteCarloDecisionSchedule schedule = HullWhiteMonteCarloDecisionSchedule.of(decisionTimes, bondTimes);
+    List<DoubleArray> dfs = new ArrayList<>();
+    for (DoubleArray times : bondTimes) {
+      dfs.add(times.map(t -> Math.exp(-RATE * t)));
+    }
+    double dfNumeraire = Math.exp(-RATE * schedule.getNumeraireTime());
+    HullWhiteMonteCarloPayoff bond = (ratios, pathCount, payoffs) -> {
+      for (int p = 0; p < pathCount; p++) {
+        payoffs[p] = ratios[2][1][p];
+      }
+    };
+    double pv = ENGINE.presentValue(schedule, bond, dfs, dfNumeraire, MODEL_PARAMETERS);
+    assertEquals(pv, Math.exp(-RATE * 4d), 1.0e-4);
+  }
+
+  public void test_europeanSwaption() {
+    double pvMc = ENGINE.presentValue(
+        SCHEDULE, RECEIVER_SWAPTION, DISCOUNT_FACTORS, NUMERAIRE_DISCOUNT_FACTOR, MODEL_PARAMETERS);
+    assertEquals(pvMc, swaptionAnalyticPrice(), 2.0e-4);
+  }
+
+  public void test_europeanSwaptionSobol() {
+    HullWhiteMonteCarloEngine sobol = HullWhiteMonteCarloEngine.ofSobol(NB_PATHS, 1);
+    double pvSobol = sobol.presentValue(
+        SCHEDULE, RECEIVER_SWAPTION, DISCOUNT_FACTORS, NUMERAIRE_DISCOUNT_FACTOR, MODEL_PARAMETERS);
+    assertEquals(pvSobol, swaptionAnalyticPrice(), 2.0e-5);
+  }
+
+  private double swaptionAnalyticPrice() {
+    int nbCf = SWAP_TIMES.size();
+    double[] alpha = new double[nbCf];
+    double[] dcf = new double[nbCf];
+    for (int i = 0; i < nbCf; i++) {
+      alpha[i] = MODEL.alpha(MODEL_PARAMETERS, 0d, EXPIRY, EXPIRY, SWAP_TIMES.get(i));
+      dcf[i] = CASH_FLOWS.get(i) * DISCOUNT_FACTORS.get(0).get(i);
+    }
+    double kappa = MODEL.kappa(DoubleArray.ofUnsafe(dcf), DoubleArray.ofUnsafe(alpha));
+    double pvExpected = 0d;
+    for (int i = 0; i < nbCf; i++) {
+      pvExpected += dcf[i] * NORMAL.getCDF(kappa + alpha[i]);
+    }
+    return pvExpected;
+  }
+
+  public void test_reproducible() {
+    HullWhiteMonteCarloEngine sequential = new HullWhiteMonteCarloEngine(
+        NB_PATHS, HullWhiteMonteCarloEngine.DEFAULT_BATCH_SIZE, true, false, BATCH_GENERATOR);
+    HullWhiteMonteCarloEngine parallel = new HullWhiteMonteCarloEngine(
+        NB_PATHS, HullWhiteMonteCarloEngine.DEFAULT_BATCH_SIZE, true, true, BATCH_GENERATOR);
+    double pvSequential = sequential.presentValue(
+        SCHEDULE, RECEIVER_SWAPTION, DISCOUNT_FACTORS, NUMERAIRE_DISCOUNT_FACTOR, MODEL_PARAMETERS);
+    double pvParallel = parallel.presentValue(
+        SCHEDULE, RECEIVER_SWAPTION, DISCOUNT_FACTORS, NUMERAIRE_DISCOUNT_FACTOR, MODEL_PARAMETERS);
+    assertEquals(pvParallel, pvSequential, 0d);
+  }
+
+  public void test_presentValueAdjoint() {
+    ValueDerivatives computed = ENGINE.presentValueAdjoint(
+        SCHEDULE, RECEIVER_SWAPTION, DISCOUNT_FACTORS, NUMERAIRE_DISCOUNT_FACTOR, MODEL_PARAMETERS);
+    double pv = ENGINE.presentValue(
+        SCHEDULE, RECEIVER_SWAPTION, DISCOUNT_FACTORS, NUMERAIRE_DISCOUNT_FACTOR, MODEL_PARAMETERS);
+    assertEquals(computed.getValue(), pv, TOL);
+    double shift = 1.0e-6;
+    int nbCf = SWAP_TIMES.size();
+    DoubleArray dfs = DISCOUNT_FACTORS.get(0);
+    for (int i = 0; i < nbCf; i++) {
+      List<DoubleArray> dfsUp = ImmutableList.of(dfs.with(i, dfs.get(i) + shift));
+      List<DoubleArray> dfsDw = ImmutableList.of(dfs.with(i, dfs.get(i) - shift));
+      double pvUp = ENGINE.presentValue(
+          SCHEDULE, RECEIVER_SWAPTION, dfsUp, NUMERAIRE_DISCOUNT_FACTOR, MODEL_PARAMETERS);
+      double pvDw = ENGINE.presentValue(
+          SCHEDULE, RECEIVER_SWAPTION, dfsDw, NUMERAIRE_DISCOUNT_FACTOR, MODEL_PARAMETERS);
+      assertEquals(computed.getDerivative(i), (pvUp - pvDw) / (2 * shift), TOL_DELTA);
+    }
+    double pvUp = ENGINE.presentValue(
+        SCHEDULE, RECEIVER_SWAPTION, DISCOUNT_FACTORS, NUMERAIRE_DISCOUNT_FACTOR + shift, MODEL_PARAMETERS);
+    double pvDw = ENGINE.presentValue(
+        SCHEDULE, RECEIVER_SWAPTION, DISCOUNT_FACTORS, NUMERAIRE_DISCOUNT_FACTOR - shift, MODEL_PARAMETERS);
+    assertEquals(computed.getDerivative(nbCf), (pvUp - pvDw) / (2 * shift), TOL_DELTA);
+  }
+
+  public void test_presentValueAdjoint_finiteDifferenceDefault() {
+    // the default pathwise derivatives by finite difference match the analytic ones
+    HullWhiteMonteCarloPayoff payoff = RECEIVER_SWAPTION::payoff;
+    ValueDerivatives computed = ENGINE.presentValueAdjoint(
+        SCHEDULE, payoff, DISCOUNT_FACTORS, NUMERAIRE_DISCOUNT_FACTOR, MODEL_PARAMETERS);
+    ValueDerivatives expected = ENGINE.presentValueAdjoint(
+        SCHEDULE, RECEIVER_SWAPTION, DISCOUNT_FACTORS, NUMERAIRE_DISCOUNT_FACTOR, MODEL_PARAMETERS);
+    assertEquals(computed.getValue(), expected.getValue(), TOL);
+    for (int i = 0; i < expected.getDerivatives().size(); i++) {
+      assertEquals(computed.getDerivative(i), expected.getDerivative(i), TOL_DELTA);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  public void coverage() {
+    coverImmutableBean(SCHEDULE);
+    HullWhiteMonteCarloDecisionSchedule other = HullWhiteMonteCarloDecisionSchedule.of(
+        DoubleArray.of(1d, 2d), ImmutableList.of(DoubleArray.of(1d, 3d), DoubleArray.of(3d)));
+    coverBeanEquals(SCHEDULE, other);
+  }
+
+  public void test_serialization() {
+    assertSerialization(SCHEDULE);
+  }
+
+  //-------------------------------------------------------------------------
+  // receiver swaption paying the positive part of the swap at expiry, represented by its cash flow equivalents
+  private static final class ReceiverSwaptionPayoff implements HullWhiteMonteCarloPayoff {
+    private final DoubleArray cashFlows;
+
+    private ReceiverSwaptionPayoff(DoubleArray cashFlows) {
+      this.cashFlows = cashFlows;
+    }
+
+    @Override
+    public void payoff(double[][][] ratios, int pathCount, double[] payoffs) {
+      Arrays.fill(payoffs, 0, pathCount, 0d);
+      for (int i = 0; i < cashFlows.size(); i++) {
+        double cf = cashFlows.get(i);
+        double[] ratiosI = ratios[0][i];
+        for (int p = 0; p < pathCount; p++) {
+          payoffs[p] += cf * ratiosI[p];
+        }
+      }
+      for (int p = 0; p < pathCount; p++) {
+        payoffs[p] = Math.max(payoffs[p], 0d);
+      }
+    }
+
+    @Override
+    public void payoffAdjoint(double[][][] ratios, int pathCount, double[] payoffs, double[][][] ratiosBar) {
+      payoff(ratios, pathCount, payoffs);
+      for (int i = 0; i < cashFlows.size(); i++) {
+        double cf = cashFlows.get(i);
+        for (int p = 0; p < pathCount; p++) {
+          ratiosBar[0][i][p] = payoffs[p] > 0d ? cf : 0d;
+        }
+      }
+    }
+  }
+
+}
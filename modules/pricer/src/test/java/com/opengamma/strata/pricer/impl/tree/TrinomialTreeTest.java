@@ -6,6 +6,8 @@
 package com.opengamma.strata.pricer.impl.tree;
 
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -82,4 +84,87 @@ public class TrinomialTreeTest {
     }
   }
 
+  public void test_defaultBuffers() {
+    // function relying on the default buffer methods of OptionFunction
+    int nSteps = 52;
+    LatticeSpecification lattice = new CoxRossRubinsteinLatticeSpecification();
+    EuropeanVanillaOptionFunction base = EuropeanVanillaOptionFunction.of(STRIKES[1], TIME, PutCall.CALL, nSteps);
+    OptionFunction function = new OptionFunction() {
+      @Override
+      public double getTimeToExpiry() {
+        return base.getTimeToExpiry();
+      }
+
+      @Override
+      public int getNumberOfSteps() {
+        return base.getNumberOfSteps();
+      }
+
+      @Override
+      public DoubleArray getPayoffAtExpiryTrinomial(DoubleArray stateValue) {
+        return base.getPayoffAtExpiryTrinomial(stateValue);
+      }
+    };
+    double expected = TRINOMIAL_TREE.optionPrice(base, lattice, SPOT, VOLS[1], INTERESTS[2], DIVIDENDS[1]);
+    double computed = TRINOMIAL_TREE.optionPrice(function, lattice, SPOT, VOLS[1], INTERESTS[2], DIVIDENDS[1]);
+    assertEquals(computed, expected, 1.0e-14);
+    assertTrue(base.isBufferInductionSupported());
+    assertFalse(function.isBufferInductionSupported());
+  }
+
+  public void test_uniformLatticeOverride() {
+    // American put, the early exercise is applied in the methods taking the spot and lattice factors
+    int nSteps = 52;
+    double strike = STRIKES[4];
+    LatticeSpecification lattice = new CoxRossRubinsteinLatticeSpecification();
+    EuropeanVanillaOptionFunction base = EuropeanVanillaOptionFunction.of(strike, TIME, PutCall.PUT, nSteps);
+    OptionFunction function = new OptionFunction() {
+      @Override
+      public double getTimeToExpiry() {
+        return base.getTimeToExpiry();
+      }
+
+      @Override
+      public int getNumberOfSteps() {
+        return base.getNumberOfSteps();
+      }
+
+      @Override
+      public DoubleArray getPayoffAtExpiryTrinomial(DoubleArray stateValue) {
+        return base.getPayoffAtExpiryTrinomial(stateValue);
+      }
+
+      @Override
+      public DoubleArray getNextOptionValues(
+          double discountFactor,
+          double upProbability,
+          double middleProbability,
+          double downProbability,
+          DoubleArray value,
+          double spot,
+          double downFactor,
+          double middleFactor,
+          int i) {
+
+        DoubleArray continuation = OptionFunction.super.getNextOptionValues(discountFactor,
+            upProbability, middleProbability, downProbability, value, spot, downFactor, middleFactor, i);
+        return DoubleArray.of(2 * i + 1, k -> Math.max(
+            continuation.get(k), strike - spot * Math.pow(downFactor, i - k) * Math.pow(middleFactor, k)));
+      }
+    };
+    double dt = TIME / nSteps;
+    DoubleArray params = lattice.getParametersTrinomial(VOLS[1], INTERESTS[2] - DIVIDENDS[1], dt);
+    double discount = Math.exp(-INTERESTS[2] * dt);
+    DoubleArray values = function.getPayoffAtExpiryTrinomial(SPOT, params.get(2), params.get(1));
+    for (int i = nSteps - 1; i > -1; --i) {
+      values = function.getNextOptionValues(discount, params.get(3), params.get(4), params.get(5), values, SPOT,
+          params.get(2), params.get(1), i);
+    }
+    double computed = TRINOMIAL_TREE.optionPrice(function, lattice, SPOT, VOLS[1], INTERESTS[2], DIVIDENDS[1]);
+    double european = TRINOMIAL_TREE.optionPrice(base, lattice, SPOT, VOLS[1], INTERESTS[2], DIVIDENDS[1]);
+    assertEquals(computed, values.get(0), 1.0e-14);
+    assertTrue(computed > european);
+    assertTrue(computed >= strike - SPOT);
+  }
+
 }
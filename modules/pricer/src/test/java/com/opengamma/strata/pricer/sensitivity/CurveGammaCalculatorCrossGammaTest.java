@@ -15,6 +15,8 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.BiFunction;
 import java.util.function.Function;
 
@@ -24,6 +26,7 @@ import com.google.common.collect.ImmutableMap;
 import com.opengamma.strata.basics.ReferenceData;
 import com.opengamma.strata.basics.currency.Currency;
 import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.schedule.Frequency;
 import com.opengamma.strata.basics.index.IborIndex;
 import com.opengamma.strata.basics.index.Index;
 import com.opengamma.strata.collect.ArgChecker;
@@ -42,8 +45,13 @@ import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
 import com.opengamma.strata.pricer.rate.RatesProvider;
 import com.opengamma.strata.pricer.swap.DiscountingSwapProductPricer;
 import com.opengamma.strata.product.common.BuySell;
+import com.opengamma.strata.product.swap.CompoundingMethod;
+import com.opengamma.strata.product.swap.RateCalculationSwapLeg;
 import com.opengamma.strata.product.swap.ResolvedSwap;
+import com.opengamma.strata.product.swap.Swap;
+import com.opengamma.strata.product.swap.SwapLegType;
 import com.opengamma.strata.product.swap.type.FixedIborSwapConventions;
+import com.opengamma.strata.product.swap.type.FixedOvernightSwapConventions;
 
 /**
  * Test {@link CurveGammaCalculator} cross-gamma.
@@ -54,6 +62,7 @@ public class CurveGammaCalculatorCrossGammaTest {
   private static final ReferenceData REF_DATA = ReferenceData.standard();
   private static final double EPS = 1.0e-6;
   private static final double TOL = 1.0e-14;
+  private static final double REL_TOL_ANALYTIC = 1.0e-6;
   private static final CurveGammaCalculator FORWARD =
       CurveGammaCalculator.ofForwardDifference(EPS * 0.1);
   private static final CurveGammaCalculator CENTRAL =
@@ -274,7 +283,103 @@ public class CurveGammaCalculatorCrossGammaTest {
     assertTrue(computed.equalWithTolerance(computedFromCross, TOL));
   }
 
+  public void swap_analytic() {
+    ResolvedSwap swap = FixedIborSwapConventions.USD_FIXED_6M_LIBOR_3M
+        .toTrade(RatesProviderDataSets.VAL_DATE_2014_01_22, LocalDate.of(2014, 3, 10), LocalDate.of(2021, 3, 10),
+            BuySell.BUY, 1.0e6, 0.005)
+        .getProduct()
+        .resolve(REF_DATA);
+    assertTrue(AnalyticCrossGamma.isLinear(swap));
+    CrossGammaParameterSensitivities computed =
+        CENTRAL.calculateCrossGammaIntraCurveAnalytic(swap, RatesProviderDataSets.MULTI_CPI_USD);
+    CrossGammaParameterSensitivities expected = CENTRAL.calculateCrossGammaIntraCurve(
+        RatesProviderDataSets.MULTI_CPI_USD, p -> p.parameterSensitivity(swapSensitivity(swap, p)));
+    assertEquals(computed.size(), 2);
+    for (CrossGammaParameterSensitivity sensi : expected.getSensitivities()) {
+      DoubleMatrix expectedMatrix = sensi.getSensitivity();
+      DoubleMatrix computedMatrix =
+          computed.getSensitivity(sensi.getMarketDataName(), sensi.getCurrency()).getSensitivity();
+      double scale = maxAbs(expectedMatrix);
+      assertTrue(scale > 0d);
+      for (int i = 0; i < expectedMatrix.rowCount(); i++) {
+        for (int j = 0; j < expectedMatrix.columnCount(); j++) {
+          assertEquals(computedMatrix.get(i, j), expectedMatrix.get(i, j), scale * REL_TOL_ANALYTIC);
+        }
+      }
+    }
+  }
+
+  public void swap_analytic_fallback() {
+    // the overnight index and the discounting share the same curve
+    ResolvedSwap swap = FixedOvernightSwapConventions.USD_FIXED_1Y_FED_FUND_OIS
+        .toTrade(RatesProviderDataSets.VAL_DATE_2014_01_22, LocalDate.of(2014, 3, 10), LocalDate.of(2019, 3, 10),
+            BuySell.BUY, 1.0e6, 0.005)
+        .getProduct()
+        .resolve(REF_DATA);
+    assertTrue(AnalyticCrossGamma.isLinear(swap));
+    CrossGammaParameterSensitivities computed =
+        CENTRAL.calculateCrossGammaIntraCurveAnalytic(swap, RatesProviderDataSets.MULTI_CPI_USD);
+    CrossGammaParameterSensitivities expected = CENTRAL.calculateCrossGammaIntraCurve(
+        RatesProviderDataSets.MULTI_CPI_USD, p -> p.parameterSensitivity(swapSensitivity(swap, p)));
+    assertEquals(computed, expected);
+  }
+
+  public void swap_analytic_compounding() {
+    // the value is not linear in the forward rates, thus computed by finite difference
+    Swap product = FixedIborSwapConventions.USD_FIXED_6M_LIBOR_3M
+        .toTrade(RatesProviderDataSets.VAL_DATE_2014_01_22, LocalDate.of(2014, 3, 10), LocalDate.of(2021, 3, 10),
+            BuySell.BUY, 1.0e6, 0.005)
+        .getProduct();
+    RateCalculationSwapLeg iborLeg = (RateCalculationSwapLeg) product.getLegs(SwapLegType.IBOR).get(0);
+    RateCalculationSwapLeg compoundingLeg = iborLeg.toBuilder()
+        .paymentSchedule(iborLeg.getPaymentSchedule().toBuilder()
+            .paymentFrequency(Frequency.P6M)
+            .compoundingMethod(CompoundingMethod.STRAIGHT)
+            .build())
+        .build();
+    ResolvedSwap swap = Swap.of(product.getLegs(SwapLegType.FIXED).get(0), compoundingLeg).resolve(REF_DATA);
+    assertFalse(AnalyticCrossGamma.isLinear(swap));
+    CrossGammaParameterSensitivities computed =
+        CENTRAL.calculateCrossGammaIntraCurveAnalytic(swap, RatesProviderDataSets.MULTI_CPI_USD);
+    CrossGammaParameterSensitivities expected = CENTRAL.calculateCrossGammaIntraCurve(
+        RatesProviderDataSets.MULTI_CPI_USD, p -> p.parameterSensitivity(swapSensitivity(swap, p)));
+    assertEquals(computed, expected);
+  }
+
+  public void sensitivity_parallel() {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      for (CurveGammaCalculator calculator : new CurveGammaCalculator[] {FORWARD, CENTRAL, BACKWARD}) {
+        CurveGammaCalculator parallel = calculator.withExecutor(executor);
+        assertEquals(
+            parallel.calculateCrossGammaIntraCurve(RatesProviderDataSets.MULTI_CPI_USD, this::sensiFn),
+            calculator.calculateCrossGammaIntraCurve(RatesProviderDataSets.MULTI_CPI_USD, this::sensiFn));
+        assertEquals(
+            parallel.calculateCrossGammaCrossCurve(RatesProviderDataSets.MULTI_CPI_USD, this::sensiFn),
+            calculator.calculateCrossGammaCrossCurve(RatesProviderDataSets.MULTI_CPI_USD, this::sensiFn));
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
   //-------------------------------------------------------------------------
+  // the point sensitivities of the present value of the swap
+  private static PointSensitivities swapSensitivity(ResolvedSwap swap, RatesProvider provider) {
+    return DiscountingSwapProductPricer.DEFAULT.presentValueSensitivity(swap, provider).build();
+  }
+
+  // the largest absolute value of the matrix
+  private static double maxAbs(DoubleMatrix matrix) {
+    double max = 0d;
+    for (int i = 0; i < matrix.rowCount(); i++) {
+      for (int j = 0; j < matrix.columnCount(); j++) {
+        max = Math.max(max, Math.abs(matrix.get(i, j)));
+      }
+    }
+    return max;
+  }
+
   private CurrencyParameterSensitivities sensiFn(ImmutableRatesProvider provider) {
     CurrencyParameterSensitivities sensi = CurrencyParameterSensitivities.empty();
     // Currency
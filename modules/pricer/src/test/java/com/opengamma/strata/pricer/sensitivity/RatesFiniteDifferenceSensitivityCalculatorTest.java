@@ -6,11 +6,15 @@
 package com.opengamma.strata.pricer.sensitivity;
 
 import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.collect.TestHelper.assertThrowsIllegalArg;
 import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
 
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Map.Entry;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import org.testng.annotations.Test;
 
@@ -28,6 +32,7 @@ import com.opengamma.strata.market.curve.LegalEntityGroup;
 import com.opengamma.strata.market.curve.NodalCurve;
 import com.opengamma.strata.market.curve.RepoGroup;
 import com.opengamma.strata.market.param.CurrencyParameterSensitivities;
+import com.opengamma.strata.math.impl.differentiation.FiniteDifferenceType;
 import com.opengamma.strata.pricer.DiscountFactors;
 import com.opengamma.strata.pricer.SimpleDiscountFactors;
 import com.opengamma.strata.pricer.ZeroRateDiscountFactors;
@@ -94,6 +99,49 @@ public class RatesFiniteDifferenceSensitivityCalculatorTest {
     }
   }
 
+  @Test
+  public void sensitivity_multi_curve_central() {
+    RatesFiniteDifferenceSensitivityCalculator calculator =
+        new RatesFiniteDifferenceSensitivityCalculator(1.0E-4, FiniteDifferenceType.CENTRAL);
+    CurrencyParameterSensitivities sensiComputed = calculator.sensitivity(RatesProviderDataSets.MULTI_CPI_USD, this::fn);
+    CurrencyParameterSensitivities sensiForward = FD_CALCULATOR.sensitivity(RatesProviderDataSets.MULTI_CPI_USD, this::fn);
+    assertTrue(sensiComputed.equalWithTolerance(sensiForward, TOLERANCE_DELTA));
+  }
+
+  @Test
+  public void sensitivity_multi_curve_parallel() {
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      for (FiniteDifferenceType type : FiniteDifferenceType.values()) {
+        RatesFiniteDifferenceSensitivityCalculator sequential =
+            new RatesFiniteDifferenceSensitivityCalculator(1.0E-4, type);
+        RatesFiniteDifferenceSensitivityCalculator parallel =
+            new RatesFiniteDifferenceSensitivityCalculator(1.0E-4, type, executor);
+        assertEquals(
+            parallel.sensitivity(RatesProviderDataSets.MULTI_CPI_USD, this::fn),
+            sequential.sensitivity(RatesProviderDataSets.MULTI_CPI_USD, this::fn));
+      }
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  public void sensitivity_parallel_exception() {
+    ImmutableRatesProvider base = RatesProviderDataSets.MULTI_CPI_USD;
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      RatesFiniteDifferenceSensitivityCalculator parallel =
+          new RatesFiniteDifferenceSensitivityCalculator(1.0E-4, FiniteDifferenceType.FORWARD, executor);
+      assertThrowsIllegalArg(() -> parallel.sensitivity(base, provider -> {
+        ArgChecker.isTrue(provider == base, "Bumped provider");
+        return fn(provider);
+      }));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
   // private function for testing. Returns the sum of rates multiplied by time
   private CurrencyAmount fn(ImmutableRatesProvider provider) {
     double result = 0.0;
@@ -220,6 +268,22 @@ public class RatesFiniteDifferenceSensitivityCalculatorTest {
     }
   }
 
+  @Test
+  public void sensitivity_credit_isda_parallel() {
+    LocalDate valuationDate = LocalDate.of(2014, 1, 3);
+    CreditRatesProvider rates = CreditRatesProviderDataSets.createCreditRatesProvider(valuationDate);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      RatesFiniteDifferenceSensitivityCalculator parallel =
+          new RatesFiniteDifferenceSensitivityCalculator(1.0E-4, FiniteDifferenceType.CENTRAL, executor);
+      CurrencyParameterSensitivities sensiComputed = parallel.sensitivity(rates, this::creditFunction);
+      CurrencyParameterSensitivities sensiExpected = FD_CALCULATOR.sensitivity(rates, this::creditFunction);
+      assertTrue(sensiComputed.equalWithTolerance(sensiExpected, TOLERANCE_DELTA));
+    } finally {
+      executor.shutdown();
+    }
+  }
+
   // private function for testing. Returns the sum of rates multiplied by time
   private CurrencyAmount creditFunction(ImmutableCreditRatesProvider provider) {
     double result = 0.0;
@@ -0,0 +1,123 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.pricer.swap;
+
+import static com.opengamma.strata.basics.date.Tenor.TENOR_10Y;
+import static com.opengamma.strata.basics.date.Tenor.TENOR_2Y;
+import static com.opengamma.strata.basics.index.IborIndices.USD_LIBOR_3M;
+import static com.opengamma.strata.basics.index.IborIndices.USD_LIBOR_6M;
+import static com.opengamma.strata.basics.index.OvernightIndices.USD_FED_FUND;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static com.opengamma.strata.product.common.BuySell.BUY;
+import static com.opengamma.strata.product.swap.type.FixedIborSwapConventions.USD_FIXED_6M_LIBOR_3M;
+import static com.opengamma.strata.product.swap.type.FixedOvernightSwapConventions.USD_FIXED_1Y_FED_FUND_OIS;
+import static com.opengamma.strata.product.swap.type.IborIborSwapConventions.USD_LIBOR_3M_LIBOR_6M;
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.time.LocalDate;
+import java.time.Period;
+
+import org.testng.annotations.Test;
+
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeries;
+import com.opengamma.strata.collect.timeseries.LocalDateDoubleTimeSeriesBuilder;
+import com.opengamma.strata.market.sensitivity.PointSensitivities;
+import com.opengamma.strata.pricer.datasets.StandardDataSets;
+import com.opengamma.strata.pricer.rate.ImmutableRatesProvider;
+import com.opengamma.strata.product.swap.ResolvedSwap;
+import com.opengamma.strata.product.swap.ResolvedSwapLeg;
+
+/**
+ * Test {@link CompiledSwapLegPricer}.
+ */
+@Test
+public class CompiledSwapLegPricerTest {
+
+  private static final ReferenceData REF_DATA = ReferenceData.standard();
+  private static final LocalDateDoubleTimeSeries FIXINGS = fixings(date(2013, 10, 1), date(2014, 1, 22));
+  private static final ImmutableRatesProvider PROVIDER = StandardDataSets.providerUsdDscOnL1L3L6().toBuilder()
+      .timeSeries(USD_LIBOR_3M, FIXINGS)
+      .timeSeries(USD_LIBOR_6M, FIXINGS)
+      .timeSeries(USD_FED_FUND, FIXINGS)
+      .build();
+  private static final LocalDate VAL_DATE = PROVIDER.getValuationDate();
+  private static final double NOTIONAL = 1_000_000d;
+  private static final double TOL = 1e-8;
+
+  private static final DiscountingSwapLegPricer LEG_PRICER = DiscountingSwapLegPricer.DEFAULT;
+  private static final CompiledSwapLegPricer PRICER = CompiledSwapLegPricer.DEFAULT;
+
+  //-------------------------------------------------------------------------
+  public void test_fixedIbor() {
+    ResolvedSwap swap = USD_FIXED_6M_LIBOR_3M
+        .createTrade(date(2013, 10, 18), TENOR_10Y, BUY, NOTIONAL, 0.02, REF_DATA)
+        .getProduct()
+        .resolve(REF_DATA);
+    for (ResolvedSwapLeg leg : swap.getLegs()) {
+      CompiledSwapLeg compiled = CompiledSwapLeg.of(leg);
+      assertEquals(compiled.getLeg(), leg);
+      assertEquals(compiled.getCurrency(), leg.getCurrency());
+      assertEquals(compiled.getCompiledPeriodCount(), leg.getPaymentPeriods().size());
+      assertTrue(compiled.getOtherPeriods().isEmpty());
+      assertMatchesGeneric(compiled);
+    }
+  }
+
+  public void test_overnight() {
+    ResolvedSwap spotSwap = USD_FIXED_1Y_FED_FUND_OIS
+        .createTrade(VAL_DATE, TENOR_10Y, BUY, NOTIONAL, 0.01, REF_DATA)
+        .getProduct()
+        .resolve(REF_DATA);
+    ResolvedSwap seasonedSwap = USD_FIXED_1Y_FED_FUND_OIS
+        .createTrade(date(2013, 10, 18), Period.ZERO, TENOR_2Y, BUY, NOTIONAL, 0.01, REF_DATA)
+        .getProduct()
+        .resolve(REF_DATA);
+    for (ResolvedSwap swap : new ResolvedSwap[] {spotSwap, seasonedSwap}) {
+      for (ResolvedSwapLeg leg : swap.getLegs()) {
+        CompiledSwapLeg compiled = CompiledSwapLeg.of(leg);
+        assertEquals(compiled.getCompiledPeriodCount(), leg.getPaymentPeriods().size());
+        assertMatchesGeneric(compiled);
+      }
+    }
+  }
+
+  public void test_otherPeriods() {
+    ResolvedSwap swap = USD_LIBOR_3M_LIBOR_6M
+        .createTrade(date(2013, 10, 18), TENOR_10Y, BUY, NOTIONAL, 0.001, REF_DATA)
+        .getProduct()
+        .resolve(REF_DATA);
+    ResolvedSwapLeg compoundedLeg = swap.getLegs().get(0);
+    CompiledSwapLeg compiled = CompiledSwapLeg.of(compoundedLeg);
+    assertEquals(compiled.getCompiledPeriodCount(), 0);
+    assertEquals(compiled.getOtherPeriods(), compoundedLeg.getPaymentPeriods());
+    assertMatchesGeneric(compiled);
+    assertMatchesGeneric(CompiledSwapLeg.of(swap.getLegs().get(1)));
+  }
+
+  //-------------------------------------------------------------------------
+  private static void assertMatchesGeneric(CompiledSwapLeg compiled) {
+    ResolvedSwapLeg leg = compiled.getLeg();
+    assertEquals(PRICER.presentValue(compiled, PROVIDER).getCurrency(), leg.getCurrency());
+    assertEquals(
+        PRICER.presentValue(compiled, PROVIDER).getAmount(),
+        LEG_PRICER.presentValue(leg, PROVIDER).getAmount(),
+        TOL);
+    PointSensitivities computed = PRICER.presentValueSensitivity(compiled, PROVIDER).build().normalized();
+    PointSensitivities expected = LEG_PRICER.presentValueSensitivity(leg, PROVIDER).build().normalized();
+    assertTrue(computed.equalWithTolerance(expected, TOL));
+  }
+
+  private static LocalDateDoubleTimeSeries fixings(LocalDate startDate, LocalDate endDate) {
+    LocalDateDoubleTimeSeriesBuilder builder = LocalDateDoubleTimeSeries.builder();
+    for (LocalDate date = startDate; !date.isAfter(endDate); date = date.plusDays(1)) {
+      builder.put(date, 0.0025);
+    }
+    return builder.build();
+  }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.report.binary;
+
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
+import com.opengamma.strata.data.scenario.CurrencyScenarioArray;
+import com.opengamma.strata.data.scenario.DoubleScenarioArray;
+
+/**
+ * The type of the values of a column in the binary results format.
+ * <p>
+ * The values of a column are stored as primitive blocks, one block per currency.
+ * Each block contains the values of all the rows, and for each row the values of all the scenarios.
+ */
+public enum BinaryColumnType {
+
+  /**
+   * The values are instances of {@link CurrencyAmount}.
+   * Each row has a value in the block of the currency of the amount.
+   */
+  CURRENCY_AMOUNT(CurrencyAmount.class),
+  /**
+   * The values are instances of {@link MultiCurrencyAmount}.
+   * Each row has a value in the block of each currency of the amount.
+   */
+  MULTI_CURRENCY_AMOUNT(MultiCurrencyAmount.class),
+  /**
+   * The values are instances of {@link DoubleScenarioArray}.
+   * There is a single block, without currency.
+   */
+  DOUBLE_SCENARIO_ARRAY(DoubleScenarioArray.class),
+  /**
+   * The values are instances of {@link CurrencyScenarioArray}.
+   * Each row has values in the block of the currency of the array.
+   */
+  CURRENCY_SCENARIO_ARRAY(CurrencyScenarioArray.class),
+  /**
+   * The values are not supported by the binary format.
+   * There is no block, and the rows are recorded in the failures.
+   */
+  UNSUPPORTED(Object.class);
+
+  /**
+   * The type of the values.
+   */
+  private final Class<?> valueType;
+
+  // restricted constructor
+  private BinaryColumnType(Class<?> valueType) {
+    this.valueType = valueType;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains the column type of a value.
+   * 
+   * @param value  the value
+   * @return the column type, {@code UNSUPPORTED} if the type of the value is not supported
+   */
+  public static BinaryColumnType of(Object value) {
+    for (BinaryColumnType type : values()) {
+      if (type.valueType.isInstance(value)) {
+        return type;
+      }
+    }
+    return UNSUPPORTED;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the type of the values.
+   * 
+   * @return the type of the values
+   */
+  public Class<?> getValueType() {
+    return valueType;
+  }
+
+  /**
+   * Obtains the number of scenarios of a value of this type.
+   * 
+   * @param value  the value
+   * @return the number of scenarios, one if the value is not a scenario array
+   */
+  int scenarioCount(Object value) {
+    switch (this) {
+      case DOUBLE_SCENARIO_ARRAY:
+        return ((DoubleScenarioArray) value).getScenarioCount();
+      case CURRENCY_SCENARIO_ARRAY:
+        return ((CurrencyScenarioArray) value).getScenarioCount();
+      default:
+        return 1;
+    }
+  }
+
+}
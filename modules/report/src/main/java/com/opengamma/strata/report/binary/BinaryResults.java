@@ -0,0 +1,497 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.report.binary;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableTable;
+import com.opengamma.strata.basics.StandardId;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Unchecked;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.scenario.CurrencyScenarioArray;
+import com.opengamma.strata.data.scenario.DoubleScenarioArray;
+
+/**
+ * Calculation results read from the binary columnar format written by {@link BinaryResultsWriter}.
+ * <p>
+ * The values are not copied when read. Each block of values is a view on the underlying buffer,
+ * which is typically a memory-mapped file. The results of individual cells can be rebuilt
+ * using {@link #get(int, int)}.
+ * <p>
+ * Missing values are stored as NaN. As such, an amount whose value is NaN is read as missing.
+ * <p>
+ * This class is immutable and thread-safe, provided the underlying buffer is not modified.
+ */
+public final class BinaryResults {
+
+  /**
+   * The number of rows.
+   */
+  private final int rowCount;
+  /**
+   * The identifiers, by dictionary index.
+   */
+  private final ImmutableList<StandardId> identifiers;
+  /**
+   * The dictionary index of the identifier of each row, -1 if there is no identifier.
+   */
+  private final IntBuffer idIndices;
+  /**
+   * The columns.
+   */
+  private final ImmutableList<BinaryColumn> columns;
+  /**
+   * The failures, keyed by row and column.
+   */
+  private final ImmutableTable<Integer, Integer, Result<?>> failures;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Reads the results from a file, mapping the blocks of values in memory.
+   * <p>
+   * Each block of values is mapped separately, thus the file may be larger than 2GB.
+   * 
+   * @param file  the file
+   * @return the results
+   * @throws java.io.UncheckedIOException if an IO exception occurs
+   * @throws IllegalArgumentException if the file is not in the binary results format
+   */
+  public static BinaryResults map(Path file) {
+    return Unchecked.wrap(() -> {
+      try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+        return new BinaryResults(new ChannelInput(channel));
+      }
+    });
+  }
+
+  /**
+   * Reads the results from a buffer.
+   * <p>
+   * The values are views on the buffer, which must not be modified afterwards.
+   * 
+   * @param buffer  the buffer, read from its position
+   * @return the results
+   * @throws IllegalArgumentException if the buffer is not in the binary results format
+   */
+  public static BinaryResults of(ByteBuffer buffer) {
+    return Unchecked.wrap(() -> new BinaryResults(new BufferInput(buffer.duplicate())));
+  }
+
+  // reads the results from the input
+  private BinaryResults(Input input) throws IOException {
+    ArgChecker.isTrue(input.readInt() == BinaryResultsWriter.MAGIC, "Input is not in binary results format");
+    int version = input.readInt();
+    ArgChecker.isTrue(version == BinaryResultsWriter.VERSION, "Unsupported binary results version: {}", version);
+    this.rowCount = input.readInt();
+    int columnCount = input.readInt();
+    // identifiers
+    int idCount = input.readInt();
+    ImmutableList.Builder<StandardId> identifiersBuilder = ImmutableList.builder();
+    for (int i = 0; i < idCount; i++) {
+      identifiersBuilder.add(StandardId.parse(input.readString()));
+    }
+    this.identifiers = identifiersBuilder.build();
+    this.idIndices = input.readBlock((long) rowCount * Integer.BYTES).asIntBuffer();
+    // columns
+    ImmutableList.Builder<BinaryColumn> columnsBuilder = ImmutableList.builder();
+    for (int colIdx = 0; colIdx < columnCount; colIdx++) {
+      String name = input.readString();
+      String measureName = input.readString();
+      BinaryColumnType type = BinaryColumnType.values()[input.readByte()];
+      int scenarioCount = input.readInt();
+      int blockCount = input.readInt();
+      Map<String, DoubleBuffer> blocks = new LinkedHashMap<>();
+      for (int i = 0; i < blockCount; i++) {
+        String currencyCode = input.readString();
+        blocks.put(currencyCode, input.readBlock((long) rowCount * scenarioCount * Double.BYTES).asDoubleBuffer());
+      }
+      columnsBuilder.add(new BinaryColumn(name, measureName, type, scenarioCount, ImmutableMap.copyOf(blocks)));
+    }
+    this.columns = columnsBuilder.build();
+    // failures
+    int failureCount = input.readInt();
+    ImmutableTable.Builder<Integer, Integer, Result<?>> failuresBuilder = ImmutableTable.builder();
+    for (int i = 0; i < failureCount; i++) {
+      int rowIdx = input.readInt();
+      int colIdx = input.readInt();
+      FailureReason reason = FailureReason.valueOf(input.readString());
+      String message = input.readString();
+      failuresBuilder.put(rowIdx, colIdx, Result.failure(reason, "{}", message));
+    }
+    this.failures = failuresBuilder.build();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the number of rows.
+   * 
+   * @return the number of rows
+   */
+  public int getRowCount() {
+    return rowCount;
+  }
+
+  /**
+   * Gets the number of columns.
+   * 
+   * @return the number of columns
+   */
+  public int getColumnCount() {
+    return columns.size();
+  }
+
+  /**
+   * Gets the identifier of the trade or position of a row.
+   * 
+   * @param rowIndex  the index of the row
+   * @return the identifier, empty if the target of the row has no identifier
+   */
+  public Optional<StandardId> getId(int rowIndex) {
+    ArgChecker.inRange(rowIndex, 0, rowCount, "rowIndex");
+    int idIndex = idIndices.get(rowIndex);
+    return idIndex < 0 ? Optional.empty() : Optional.of(identifiers.get(idIndex));
+  }
+
+  /**
+   * Gets the name of a column.
+   * 
+   * @param columnIndex  the index of the column
+   * @return the column name
+   */
+  public String getColumnName(int columnIndex) {
+    return columns.get(columnIndex).name;
+  }
+
+  /**
+   * Gets the name of the measure of a column.
+   * 
+   * @param columnIndex  the index of the column
+   * @return the measure name
+   */
+  public String getMeasureName(int columnIndex) {
+    return columns.get(columnIndex).measureName;
+  }
+
+  /**
+   * Gets the type of the values of a column.
+   * 
+   * @param columnIndex  the index of the column
+   * @return the column type
+   */
+  public BinaryColumnType getColumnType(int columnIndex) {
+    return columns.get(columnIndex).type;
+  }
+
+  /**
+   * Gets the number of scenarios of a column.
+   * <p>
+   * This is one if the values of the column are not scenario arrays.
+   * 
+   * @param columnIndex  the index of the column
+   * @return the number of scenarios
+   */
+  public int getScenarioCount(int columnIndex) {
+    return columns.get(columnIndex).scenarioCount;
+  }
+
+  /**
+   * Gets the currencies of a column.
+   * <p>
+   * There is a block of values for each currency.
+   * 
+   * @param columnIndex  the index of the column
+   * @return the currencies, empty if the values have no currency
+   */
+  public ImmutableList<Currency> getCurrencies(int columnIndex) {
+    return columns.get(columnIndex).blocks.keySet().stream()
+        .filter(code -> !code.isEmpty())
+        .map(Currency::of)
+        .collect(toImmutableList());
+  }
+
+  /**
+   * Gets the block of values of a column in a currency.
+   * <p>
+   * The values are ordered by row and then by scenario, the value of row {@code r} and scenario {@code s}
+   * being at index {@code r * scenarioCount + s}. Missing values are NaN.
+   * The buffer is a read-only view, and is not copied.
+   * 
+   * @param columnIndex  the index of the column
+   * @param currency  the currency
+   * @return the values
+   * @throws IllegalArgumentException if the column has no values in the currency
+   */
+  public DoubleBuffer getValues(int columnIndex, Currency currency) {
+    return getValues(columnIndex, currency.getCode());
+  }
+
+  /**
+   * Gets the block of values of a column whose values have no currency.
+   * <p>
+   * This is used for columns of type {@link BinaryColumnType#DOUBLE_SCENARIO_ARRAY}.
+   * The values are ordered by row and then by scenario, the value of row {@code r} and scenario {@code s}
+   * being at index {@code r * scenarioCount + s}. Missing values are NaN.
+   * The buffer is a read-only view, and is not copied.
+   * 
+   * @param columnIndex  the index of the column
+   * @return the values
+   * @throws IllegalArgumentException if the column has no values without currency
+   */
+  public DoubleBuffer getValues(int columnIndex) {
+    return getValues(columnIndex, "");
+  }
+
+  // gets the block of values
+  private DoubleBuffer getValues(int columnIndex, String currencyCode) {
+    DoubleBuffer block = columns.get(columnIndex).blocks.get(currencyCode);
+    ArgChecker.isTrue(block != null, "No values in column {} for currency '{}'", columnIndex, currencyCode);
+    return block.asReadOnlyBuffer();
+  }
+
+  /**
+   * Gets the failures, keyed by row index and column index.
+   * <p>
+   * This includes the values whose type is not supported by the binary format.
+   * 
+   * @return the failures
+   */
+  public ImmutableTable<Integer, Integer, Result<?>> getFailures() {
+    return failures;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the result of a cell, rebuilding the value.
+   * 
+   * @param rowIndex  the index of the row
+   * @param columnIndex  the index of the column
+   * @return the result
+   */
+  public Result<?> get(int rowIndex, int columnIndex) {
+    ArgChecker.inRange(rowIndex, 0, rowCount, "rowIndex");
+    Result<?> failure = failures.get(rowIndex, columnIndex);
+    if (failure != null) {
+      return failure;
+    }
+    BinaryColumn column = columns.get(columnIndex);
+    int scenarioCount = column.scenarioCount;
+    int offset = rowIndex * scenarioCount;
+    switch (column.type) {
+      case CURRENCY_AMOUNT:
+        for (Entry<String, DoubleBuffer> entry : column.blocks.entrySet()) {
+          double value = entry.getValue().get(offset);
+          if (!Double.isNaN(value)) {
+            return Result.success(CurrencyAmount.of(Currency.of(entry.getKey()), value));
+          }
+        }
+        break;
+      case MULTI_CURRENCY_AMOUNT: {
+        Map<Currency, Double> amounts = new LinkedHashMap<>();
+        for (Entry<String, DoubleBuffer> entry : column.blocks.entrySet()) {
+          double value = entry.getValue().get(offset);
+          if (!Double.isNaN(value)) {
+            amounts.put(Currency.of(entry.getKey()), value);
+          }
+        }
+        return Result.success(MultiCurrencyAmount.of(amounts));
+      }
+      case DOUBLE_SCENARIO_ARRAY: {
+        DoubleBuffer block = column.blocks.get("");
+        if (block != null) {
+          return Result.success(DoubleScenarioArray.of(DoubleArray.of(scenarioCount, i -> block.get(offset + i))));
+        }
+        break;
+      }
+      case CURRENCY_SCENARIO_ARRAY:
+        for (Entry<String, DoubleBuffer> entry : column.blocks.entrySet()) {
+          DoubleBuffer block = entry.getValue();
+          DoubleArray values = DoubleArray.of(scenarioCount, i -> block.get(offset + i));
+          if (values.stream().anyMatch(v -> !Double.isNaN(v))) {
+            return Result.success(CurrencyScenarioArray.of(Currency.of(entry.getKey()), values));
+          }
+        }
+        break;
+      default:
+        break;
+    }
+    return Result.failure(
+        FailureReason.MISSING_DATA, "No value in row {} for column '{}'", rowIndex, column.name);
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return "BinaryResults[rows=" + rowCount + ", columns=" + columns.size() + "]";
+  }
+
+  //-------------------------------------------------------------------------
+  // the input of the format, read sequentially
+  private interface Input {
+
+    // reads an int
+    public abstract int readInt() throws IOException;
+
+    // reads a byte
+    public abstract byte readByte() throws IOException;
+
+    // reads a string
+    public abstract String readString() throws IOException;
+
+    // returns a view of the next bytes, which must fit in a single buffer, and moves past them
+    public abstract ByteBuffer readBlock(long length) throws IOException;
+  }
+
+  // the input from a buffer
+  private static final class BufferInput implements Input {
+    private final ByteBuffer buffer;
+
+    private BufferInput(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    public int readInt() {
+      return buffer.getInt();
+    }
+
+    @Override
+    public byte readByte() {
+      return buffer.get();
+    }
+
+    @Override
+    public String readString() {
+      byte[] bytes = new byte[buffer.getInt()];
+      buffer.get(bytes);
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public ByteBuffer readBlock(long length) {
+      ArgChecker.isTrue(length <= buffer.remaining(), "Buffer is truncated");
+      ByteBuffer view = buffer.slice();
+      view.limit((int) length);
+      buffer.position(buffer.position() + (int) length);
+      return view;
+    }
+  }
+
+  // the input from a file, each block being mapped separately
+  private static final class ChannelInput implements Input {
+    private final FileChannel channel;
+    // the buffer of the bytes before the next block, in read mode
+    private final ByteBuffer buffer = ByteBuffer.allocate(8192);
+    // the position in the file of the end of the buffer
+    private long bufferEnd;
+
+    private ChannelInput(FileChannel channel) {
+      this.channel = channel;
+      buffer.limit(0);
+    }
+
+    @Override
+    public int readInt() throws IOException {
+      fill(Integer.BYTES);
+      return buffer.getInt();
+    }
+
+    @Override
+    public byte readByte() throws IOException {
+      fill(1);
+      return buffer.get();
+    }
+
+    @Override
+    public String readString() throws IOException {
+      byte[] bytes = new byte[readInt()];
+      for (int offset = 0; offset < bytes.length;) {
+        fill(1);
+        int length = Math.min(buffer.remaining(), bytes.length - offset);
+        buffer.get(bytes, offset, length);
+        offset += length;
+      }
+      return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public ByteBuffer readBlock(long length) throws IOException {
+      ArgChecker.isTrue(length <= Integer.MAX_VALUE, "Block of {} bytes is too large to be mapped", length);
+      long position = bufferEnd - buffer.remaining();
+      ArgChecker.isTrue(position + length <= channel.size(), "File is truncated");
+      ByteBuffer block = channel.map(MapMode.READ_ONLY, position, length);
+      if (length <= buffer.remaining()) {
+        buffer.position(buffer.position() + (int) length);
+      } else {
+        buffer.limit(0);
+        bufferEnd = position + length;
+      }
+      return block;
+    }
+
+    // ensures the buffer has at least the specified number of bytes
+    private void fill(int length) throws IOException {
+      if (buffer.remaining() >= length) {
+        return;
+      }
+      buffer.compact();
+      while (buffer.position() < length) {
+        int read = channel.read(buffer, bufferEnd);
+        if (read < 0) {
+          throw new IllegalArgumentException("File is truncated");
+        }
+        bufferEnd += read;
+      }
+      buffer.flip();
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // a column of the results
+  private static final class BinaryColumn {
+    private final String name;
+    private final String measureName;
+    private final BinaryColumnType type;
+    private final int scenarioCount;
+    private final ImmutableMap<String, DoubleBuffer> blocks;
+
+    private BinaryColumn(
+        String name,
+        String measureName,
+        BinaryColumnType type,
+        int scenarioCount,
+        ImmutableMap<String, DoubleBuffer> blocks) {
+
+      this.name = name;
+      this.measureName = measureName;
+      this.type = type;
+      this.scenarioCount = scenarioCount;
+      this.blocks = blocks;
+    }
+  }
+
+}
@@ -0,0 +1,357 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.report.binary;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.StandardId;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
+import com.opengamma.strata.calc.ColumnHeader;
+import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Unchecked;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.result.Failure;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.scenario.CurrencyScenarioArray;
+import com.opengamma.strata.data.scenario.DoubleScenarioArray;
+import com.opengamma.strata.product.Position;
+import com.opengamma.strata.product.Trade;
+import com.opengamma.strata.report.ReportCalculationResults;
+
+/**
+ * Writer of calculation results in a compact binary columnar format.
+ * <p>
+ * The numeric values are stored as primitive columns, one column per measure and currency,
+ * see {@link BinaryColumnType}. The identifiers of the trades and positions are dictionary-encoded,
+ * and the failures are stored in a side-table. The results can be read by {@link BinaryResults},
+ * which can memory-map the file.
+ * <p>
+ * The format is as follows, all numbers being big-endian and all strings being UTF-8 prefixed by their length:
+ * <ul>
+ * <li>the magic number and version, as two ints
+ * <li>the number of rows and columns, as two ints
+ * <li>the number of distinct identifiers as an int, then the identifiers as strings
+ * <li>for each row, the index of the identifier as an int, -1 if there is no identifier
+ * <li>for each column, the column name and measure name as strings, the column type ordinal as a byte,
+ *  the number of scenarios and the number of blocks as two ints, then for each block the currency code
+ *  as a string, empty if there is no currency, followed by the values as doubles, by row and then by scenario,
+ *  a missing value being NaN
+ * <li>the number of failures as an int, then for each failure the row and column as two ints,
+ *  the reason and message as strings
+ * </ul>
+ */
+public final class BinaryResultsWriter {
+
+  /**
+   * The single shared instance of this writer.
+   */
+  public static final BinaryResultsWriter INSTANCE = new BinaryResultsWriter();
+
+  /**
+   * The magic number at the start of the format, 'STRB'.
+   */
+  static final int MAGIC = 0x53545242;
+  /**
+   * The version of the format.
+   */
+  static final int VERSION = 1;
+  /**
+   * The maximum number of values in a block, which must fit in a memory-mapped buffer when read.
+   */
+  static final long MAX_BLOCK_SIZE = Integer.MAX_VALUE / Double.BYTES;
+  /**
+   * The size in bytes of the chunks in which the values are written.
+   */
+  private static final int CHUNK_SIZE = 8192;
+
+  // restricted constructor
+  private BinaryResultsWriter() {
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Writes the results to a file.
+   * 
+   * @param results  the calculation results
+   * @param file  the file to write to
+   * @throws java.io.UncheckedIOException if an IO exception occurs
+   */
+  public void write(ReportCalculationResults results, Path file) {
+    Unchecked.wrap(() -> {
+      try (OutputStream out = Files.newOutputStream(file)) {
+        write(results, out);
+      }
+    });
+  }
+
+  /**
+   * Writes the results to an output stream.
+   * <p>
+   * The output stream is flushed but not closed.
+   * 
+   * @param results  the calculation results
+   * @param out  the output stream to write to
+   * @throws java.io.UncheckedIOException if an IO exception occurs
+   */
+  public void write(ReportCalculationResults results, OutputStream out) {
+    Unchecked.wrap(() -> write(results, new DataOutputStream(new BufferedOutputStream(out))));
+  }
+
+  // writes the results
+  private void write(ReportCalculationResults results, DataOutputStream out) throws IOException {
+    Results calculationResults = results.getCalculationResults();
+    int rowCount = calculationResults.getRowCount();
+    int columnCount = calculationResults.getColumnCount();
+    out.writeInt(MAGIC);
+    out.writeInt(VERSION);
+    out.writeInt(rowCount);
+    out.writeInt(columnCount);
+    // identifiers
+    Map<StandardId, Integer> dictionary = new LinkedHashMap<>();
+    int[] idIndices = new int[rowCount];
+    for (int rowIdx = 0; rowIdx < rowCount; rowIdx++) {
+      Optional<StandardId> id = targetId(results.getTargets().get(rowIdx));
+      idIndices[rowIdx] = id.isPresent() ? dictionary.computeIfAbsent(id.get(), k -> dictionary.size()) : -1;
+    }
+    out.writeInt(dictionary.size());
+    for (StandardId id : dictionary.keySet()) {
+      writeString(out, id.toString());
+    }
+    for (int idIndex : idIndices) {
+      out.writeInt(idIndex);
+    }
+    // columns
+    List<FailureEntry> failures = new ArrayList<>();
+    for (int colIdx = 0; colIdx < columnCount; colIdx++) {
+      writeColumn(out, calculationResults, colIdx, failures);
+    }
+    // failures
+    out.writeInt(failures.size());
+    for (FailureEntry failure : failures) {
+      out.writeInt(failure.rowIndex);
+      out.writeInt(failure.columnIndex);
+      writeString(out, failure.reason.name());
+      writeString(out, failure.message);
+    }
+    out.flush();
+  }
+
+  // writes a column, adding the failures to the list
+  private void writeColumn(
+      DataOutputStream out,
+      Results calculationResults,
+      int colIdx,
+      List<FailureEntry> failures) throws IOException {
+
+    int rowCount = calculationResults.getRowCount();
+    Object firstValue = null;
+    for (int rowIdx = 0; rowIdx < rowCount && firstValue == null; rowIdx++) {
+      Result<?> result = calculationResults.get(rowIdx, colIdx);
+      firstValue = result.isSuccess() ? result.getValue() : null;
+    }
+    BinaryColumnType type = firstValue != null ? BinaryColumnType.of(firstValue) : BinaryColumnType.UNSUPPORTED;
+    int scenarioCount = firstValue != null ? type.scenarioCount(firstValue) : 1;
+    // the values are streamed block by block, thus the failures and currencies are found first
+    Set<String> currencyCodes = new LinkedHashSet<>();
+    for (int rowIdx = 0; rowIdx < rowCount; rowIdx++) {
+      Result<?> result = calculationResults.get(rowIdx, colIdx);
+      if (result.isFailure()) {
+        Failure failure = result.getFailure();
+        failures.add(new FailureEntry(rowIdx, colIdx, failure.getReason(), failure.getMessage()));
+        continue;
+      }
+      Object value = result.getValue();
+      if (type == BinaryColumnType.UNSUPPORTED) {
+        String message = "Value of type " + value.getClass().getName() + " not supported in binary format";
+        failures.add(new FailureEntry(rowIdx, colIdx, FailureReason.UNSUPPORTED, message));
+      } else if (!isSupported(value, type, scenarioCount)) {
+        String message = "Value of type " + value.getClass().getName() + " not supported in column of type " + type;
+        failures.add(new FailureEntry(rowIdx, colIdx, FailureReason.UNSUPPORTED, message));
+      } else {
+        currencyCodes.addAll(currencyCodes(value, type));
+      }
+    }
+    ColumnHeader header = calculationResults.getColumns().get(colIdx);
+    long blockSize = (long) rowCount * scenarioCount;
+    ArgChecker.isTrue(currencyCodes.isEmpty() || blockSize <= MAX_BLOCK_SIZE,
+        "Column '{}' has {} values in each block, more than the maximum of {}",
+        header.getName(), blockSize, MAX_BLOCK_SIZE);
+    writeString(out, header.getName().getName());
+    writeString(out, header.getMeasure().getName());
+    out.writeByte(type.ordinal());
+    out.writeInt(scenarioCount);
+    out.writeInt(currencyCodes.size());
+    DoublesOutput doublesOut = new DoublesOutput(out);
+    for (String currencyCode : currencyCodes) {
+      writeString(out, currencyCode);
+      for (int rowIdx = 0; rowIdx < rowCount; rowIdx++) {
+        Result<?> result = calculationResults.get(rowIdx, colIdx);
+        Object value = result.isSuccess() && isSupported(result.getValue(), type, scenarioCount) ?
+            result.getValue() :
+            null;
+        writeValues(doublesOut, value, type, currencyCode, scenarioCount);
+      }
+      doublesOut.flush();
+    }
+  }
+
+  // checks if the value can be stored in the column
+  private static boolean isSupported(Object value, BinaryColumnType type, int scenarioCount) {
+    return BinaryColumnType.of(value) == type && type.scenarioCount(value) == scenarioCount;
+  }
+
+  // obtains the currency codes of a value, empty for values without currency
+  private static List<String> currencyCodes(Object value, BinaryColumnType type) {
+    switch (type) {
+      case CURRENCY_AMOUNT:
+        return ImmutableList.of(((CurrencyAmount) value).getCurrency().getCode());
+      case MULTI_CURRENCY_AMOUNT:
+        return ((MultiCurrencyAmount) value).getAmounts().stream()
+            .map(amount -> amount.getCurrency().getCode())
+            .collect(toImmutableList());
+      case DOUBLE_SCENARIO_ARRAY:
+        return ImmutableList.of("");
+      case CURRENCY_SCENARIO_ARRAY:
+        return ImmutableList.of(((CurrencyScenarioArray) value).getCurrency().getCode());
+      default:
+        return ImmutableList.of();
+    }
+  }
+
+  // writes the values of a cell in a currency, NaN if there are none
+  private static void writeValues(
+      DoublesOutput out,
+      Object value,
+      BinaryColumnType type,
+      String currencyCode,
+      int scenarioCount) throws IOException {
+
+    if (value != null) {
+      switch (type) {
+        case CURRENCY_AMOUNT: {
+          CurrencyAmount amount = (CurrencyAmount) value;
+          if (amount.getCurrency().getCode().equals(currencyCode)) {
+            out.write(amount.getAmount());
+            return;
+          }
+          break;
+        }
+        case MULTI_CURRENCY_AMOUNT: {
+          for (CurrencyAmount amount : ((MultiCurrencyAmount) value).getAmounts()) {
+            if (amount.getCurrency().getCode().equals(currencyCode)) {
+              out.write(amount.getAmount());
+              return;
+            }
+          }
+          break;
+        }
+        case DOUBLE_SCENARIO_ARRAY: {
+          out.write(((DoubleScenarioArray) value).getValues());
+          return;
+        }
+        case CURRENCY_SCENARIO_ARRAY: {
+          CurrencyScenarioArray array = (CurrencyScenarioArray) value;
+          if (array.getCurrency().getCode().equals(currencyCode)) {
+            out.write(array.getAmounts().getValues());
+            return;
+          }
+          break;
+        }
+        default:
+          break;
+      }
+    }
+    for (int i = 0; i < scenarioCount; i++) {
+      out.write(Double.NaN);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // obtains the identifier of a target
+  private static Optional<StandardId> targetId(CalculationTarget target) {
+    if (target instanceof Trade) {
+      return ((Trade) target).getInfo().getId();
+    }
+    if (target instanceof Position) {
+      return ((Position) target).getInfo().getId();
+    }
+    return Optional.empty();
+  }
+
+  // writes a string
+  private static void writeString(DataOutputStream out, String str) throws IOException {
+    byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+    out.writeInt(bytes.length);
+    out.write(bytes);
+  }
+
+  //-------------------------------------------------------------------------
+  // writes doubles to the output in chunks, avoiding a copy of the whole block
+  private static final class DoublesOutput {
+    private final DataOutputStream out;
+    private final ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+
+    private DoublesOutput(DataOutputStream out) {
+      this.out = out;
+    }
+
+    private void write(double value) throws IOException {
+      if (!buffer.hasRemaining()) {
+        flush();
+      }
+      buffer.putDouble(value);
+    }
+
+    private void write(DoubleArray values) throws IOException {
+      for (int i = 0; i < values.size(); i++) {
+        write(values.get(i));
+      }
+    }
+
+    private void flush() throws IOException {
+      out.write(buffer.array(), 0, buffer.position());
+      buffer.clear();
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  // a failure in the side-table
+  private static final class FailureEntry {
+    private final int rowIndex;
+    private final int columnIndex;
+    private final FailureReason reason;
+    private final String message;
+
+    private FailureEntry(int rowIndex, int columnIndex, FailureReason reason, String message) {
+      this.rowIndex = rowIndex;
+      this.columnIndex = columnIndex;
+      this.reason = reason;
+      this.message = message;
+    }
+  }
+
+}
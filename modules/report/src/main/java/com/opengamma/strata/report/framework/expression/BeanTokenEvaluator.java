@@ -5,13 +5,20 @@
  */
 package com.opengamma.strata.report.framework.expression;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 
 import org.joda.beans.Bean;
+import org.joda.beans.ImmutableBean;
+import org.joda.beans.MetaBean;
+import org.joda.beans.MetaProperty;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.opengamma.strata.calc.runner.CalculationFunctions;
@@ -41,6 +48,19 @@ import com.opengamma.strata.market.amount.LegAmounts;
  */
 public class BeanTokenEvaluator extends TokenEvaluator<Bean> {
 
+  /**
+   * The properties of immutable beans, keyed by lower case property name, computed once per bean type.
+   * <p>
+   * The properties are associated with the bean type, thus they do not prevent the type from being unloaded.
+   */
+  private static final ClassValue<Map<String, MetaProperty<?>>> PROPERTIES =
+      new ClassValue<Map<String, MetaProperty<?>>>() {
+        @Override
+        protected Map<String, MetaProperty<?>> computeValue(Class<?> type) {
+          return properties(MetaBean.of(type));
+        }
+      };
+
   @Override
   public Class<Bean> getTargetType() {
     return Bean.class;
@@ -69,12 +89,10 @@ public class BeanTokenEvaluator extends TokenEvaluator<Bean> {
       String firstToken,
       List<String> remainingTokens) {
 
-    Optional<String> propertyName = bean.propertyNames().stream()
-        .filter(p -> p.equalsIgnoreCase(firstToken))
-        .findFirst();
+    Optional<MetaProperty<?>> property = findProperty(bean, firstToken);
 
-    if (propertyName.isPresent()) {
-      Object propertyValue = bean.property(propertyName.get()).get();
+    if (property.isPresent()) {
+      Object propertyValue = property.get().get(bean);
 
       return propertyValue != null ?
           EvaluationResult.success(propertyValue, remainingTokens) :
@@ -95,4 +113,27 @@ public class BeanTokenEvaluator extends TokenEvaluator<Bean> {
     return invalidTokenFailure(bean, firstToken);
   }
 
+  //-------------------------------------------------------------------------
+  // finds the property matching the token, ignoring case
+  // the properties of immutable beans are resolved once per bean type
+  private static Optional<MetaProperty<?>> findProperty(Bean bean, String token) {
+    if (bean instanceof ImmutableBean) {
+      Map<String, MetaProperty<?>> properties = PROPERTIES.get(bean.getClass());
+      return Optional.ofNullable(properties.get(token.toLowerCase(Locale.ENGLISH)));
+    }
+    return bean.propertyNames().stream()
+        .filter(p -> p.equalsIgnoreCase(token))
+        .findFirst()
+        .map(p -> bean.property(p).metaProperty());
+  }
+
+  // the properties of the meta-bean, keyed by lower case name, the first matching property taking precedence
+  private static Map<String, MetaProperty<?>> properties(MetaBean metaBean) {
+    Map<String, MetaProperty<?>> properties = new HashMap<>();
+    for (MetaProperty<?> metaProperty : metaBean.metaPropertyIterable()) {
+      properties.putIfAbsent(metaProperty.name().toLowerCase(Locale.ENGLISH), metaProperty);
+    }
+    return ImmutableMap.copyOf(properties);
+  }
+
 }
@@ -0,0 +1,131 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.report.framework.expression;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
+
+import com.google.common.base.Joiner;
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.calc.runner.CalculationFunctions;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.report.ReportCalculationResults;
+
+/**
+ * A value path compiled for repeated evaluation.
+ * <p>
+ * The value path is split into tokens once, when compiled by {@link ValuePathEvaluator#compile(String)}.
+ * When evaluated, the token evaluator of each intermediate value is obtained from a cache keyed by the type
+ * of the value, and bean properties are resolved once per bean type.
+ * The chain of evaluators for a given row thus only involves lookups, rather than parsing and searching.
+ * <p>
+ * This class is immutable and thread-safe. Rows may be evaluated concurrently.
+ */
+public final class ValuePath {
+
+  /**
+   * The value path.
+   */
+  private final String valuePath;
+  /**
+   * The tokens of the value path.
+   */
+  private final ImmutableList<String> tokens;
+
+  //-------------------------------------------------------------------------
+  // creates an instance
+  ValuePath(String valuePath, ImmutableList<String> tokens) {
+    this.valuePath = ArgChecker.notNull(valuePath, "valuePath");
+    this.tokens = tokens;
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Gets the value path that was compiled.
+   * 
+   * @return the value path
+   */
+  public String getValuePath() {
+    return valuePath;
+  }
+
+  /**
+   * Evaluates the value path against a set of results, returning the resolved result for each trade.
+   * 
+   * @param results  the calculation results
+   * @return the list of resolved results for each trade
+   */
+  public List<Result<?>> evaluate(ReportCalculationResults results) {
+    if (tokens.isEmpty()) {
+      return Collections.nCopies(results.getTargets().size(), emptyResult());
+    }
+    int rowCount = results.getCalculationResults().getRowCount();
+    return IntStream.range(0, rowCount)
+        .mapToObj(rowIndex -> evaluate(results, rowIndex))
+        .collect(toImmutableList());
+  }
+
+  /**
+   * Evaluates the value path against a single row of a set of results.
+   * 
+   * @param results  the calculation results
+   * @param rowIndex  the index of the row
+   * @return the resolved result for the row
+   */
+  public Result<?> evaluate(ReportCalculationResults results, int rowIndex) {
+    if (tokens.isEmpty()) {
+      return emptyResult();
+    }
+    return evaluate(
+        results.getCalculationFunctions(), tokens, RootEvaluator.INSTANCE, new ResultsRow(results, rowIndex));
+  }
+
+  // tokens always has at least one token
+  private static <T> Result<?> evaluate(
+      CalculationFunctions functions,
+      List<String> tokens,
+      TokenEvaluator<T> evaluator,
+      T target) {
+
+    List<String> remaining = tokens.subList(1, tokens.size());
+    EvaluationResult evaluationResult = evaluator.evaluate(target, functions, tokens.get(0), remaining);
+
+    if (evaluationResult.isComplete()) {
+      return evaluationResult.getResult();
+    }
+    Object value = evaluationResult.getResult().getValue();
+    Optional<TokenEvaluator<Object>> nextEvaluator = ValuePathEvaluator.getEvaluator(value.getClass());
+
+    return nextEvaluator.isPresent() ?
+        evaluate(functions, evaluationResult.getRemainingTokens(), nextEvaluator.get(), value) :
+        noEvaluatorResult(remaining, value);
+  }
+
+  private static Result<?> noEvaluatorResult(List<String> remaining, Object value) {
+    return Result.failure(
+        FailureReason.INVALID,
+        "Expression '{}' cannot be invoked on type {}",
+        Joiner.on('.').join(remaining),
+        value.getClass().getName());
+  }
+
+  private static Result<?> emptyResult() {
+    return Result.failure(FailureReason.INVALID, "Column expressions must not be empty");
+  }
+
+  //-------------------------------------------------------------------------
+  @Override
+  public String toString() {
+    return valuePath;
+  }
+
+}
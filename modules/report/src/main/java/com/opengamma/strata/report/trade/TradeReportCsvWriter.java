@@ -0,0 +1,309 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.report.trade;
+
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.CalculationTarget;
+import com.opengamma.strata.basics.ReferenceData;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.ColumnHeader;
+import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.calc.runner.CalculationFunctions;
+import com.opengamma.strata.calc.runner.CalculationListener;
+import com.opengamma.strata.calc.runner.CalculationResult;
+import com.opengamma.strata.collect.ArgChecker;
+import com.opengamma.strata.collect.Unchecked;
+import com.opengamma.strata.collect.io.CsvOutput;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.report.ReportCalculationResults;
+import com.opengamma.strata.report.framework.expression.ValuePath;
+import com.opengamma.strata.report.framework.format.ReportOutputFormat;
+
+/**
+ * Writer of trade reports in CSV format, streaming the rows to the output.
+ * <p>
+ * This produces the same output as {@link TradeReportFormatter#writeCsv(TradeReport, OutputStream)}
+ * applied to the report of {@link TradeReportRunner}, without building the report in memory.
+ * <p>
+ * The rows can be written from a complete set of results, in which case the rows are evaluated in blocks
+ * of bounded size, and the memory used by the writer is independent of the number of rows.
+ * The rows of each block are evaluated in parallel if an executor is specified using {@link #withExecutor(Executor)}.
+ * Alternatively, a {@linkplain #listener listener} writes each row as soon as its calculations are complete,
+ * so that writing the report overlaps the calculations. The listener holds the rows that complete ahead of
+ * an incomplete row, thus its memory depends on how far the calculations run out of order.
+ */
+public final class TradeReportCsvWriter {
+
+  /**
+   * The single shared instance of this writer.
+   */
+  public static final TradeReportCsvWriter INSTANCE = new TradeReportCsvWriter(1024, null);
+
+  /**
+   * The number of rows evaluated before being written.
+   */
+  private final int blockSize;
+  /**
+   * The executor used to evaluate the rows, null if evaluated in the calling thread.
+   */
+  private final Executor executor;
+
+  //-------------------------------------------------------------------------
+  /**
+   * Obtains a writer evaluating rows in blocks of the specified size.
+   * <p>
+   * The block size bounds the number of rows held in memory before being written.
+   * 
+   * @param blockSize  the number of rows evaluated before being written
+   * @return the writer
+   */
+  public static TradeReportCsvWriter ofBlockSize(int blockSize) {
+    return new TradeReportCsvWriter(blockSize, null);
+  }
+
+  // restricted constructor
+  private TradeReportCsvWriter(int blockSize, Executor executor) {
+    this.blockSize = ArgChecker.notNegativeOrZero(blockSize, "blockSize");
+    this.executor = executor;
+  }
+
+  /**
+   * Returns a writer evaluating the rows of each block in parallel.
+   * <p>
+   * The rows of each block are evaluated by tasks submitted to the executor,
+   * as for {@link TradeReportRunner#withExecutor(Executor)}. The output is the same as with this writer.
+   * The listener does not use the executor, as its rows are written as the calculations complete.
+   *
+   * @param executor  the executor used to evaluate the rows
+   * @return the writer
+   */
+  public TradeReportCsvWriter withExecutor(Executor executor) {
+    return new TradeReportCsvWriter(blockSize, ArgChecker.notNull(executor, "executor"));
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Writes the trade report of a set of results in CSV format.
+   * 
+   * @param results  the calculation results
+   * @param reportTemplate  the report template
+   * @param out  the output stream to write to
+   */
+  @SuppressWarnings("resource")
+  public void writeCsv(ReportCalculationResults results, TradeReportTemplate reportTemplate, OutputStream out) {
+    Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+    writeCsv(results, reportTemplate, writer);
+    Unchecked.wrap(writer::flush);
+  }
+
+  /**
+   * Writes the trade report of a set of results in CSV format.
+   * <p>
+   * The writer is not flushed.
+   * 
+   * @param results  the calculation results
+   * @param reportTemplate  the report template
+   * @param writer  the writer to write to
+   */
+  public void writeCsv(ReportCalculationResults results, TradeReportTemplate reportTemplate, Writer writer) {
+    List<Optional<ValuePath>> valuePaths = TradeReportRunner.INSTANCE.compile(reportTemplate);
+    CsvOutput csvOut = new CsvOutput(writer);
+    csvOut.writeLine(headers(reportTemplate));
+    int rowCount = results.getCalculationResults().getRowCount();
+    for (int blockStart = 0; blockStart < rowCount; blockStart += blockSize) {
+      TradeReportRunner.mapRows(
+          blockStart,
+          Math.min(blockStart + blockSize, rowCount),
+          rowIdx -> formatRow(reportTemplate, valuePaths, results, rowIdx),
+          executor)
+          .forEach(csvOut::writeLine);
+    }
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Returns a calculation listener writing the trade report in CSV format as the calculations complete.
+   * <p>
+   * The rows are written in order, each row being written once the calculations of the row
+   * and all the previous rows are complete. The output stream is flushed when the calculations complete.
+   * <p>
+   * A row whose calculations are complete is formatted immediately, releasing its results.
+   * The formatted rows are held until all the previous rows are complete.
+   * The calculation runner typically completes the rows roughly in order, which keeps the held rows few,
+   * but a single slow row holds all the rows completed after it.
+   * <p>
+   * As with all listeners, the result must not be used for more than one set of calculations.
+   * 
+   * @param reportTemplate  the report template
+   * @param valuationDate  the valuation date used in the calculations
+   * @param calculationFunctions  the calculation functions
+   * @param refData  the reference data
+   * @param out  the output stream to write to
+   * @return the listener
+   */
+  public CalculationListener listener(
+      TradeReportTemplate reportTemplate,
+      LocalDate valuationDate,
+      CalculationFunctions calculationFunctions,
+      ReferenceData refData,
+      OutputStream out) {
+
+    Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+    return new CsvListener(reportTemplate, valuationDate, calculationFunctions, refData, writer);
+  }
+
+  //-------------------------------------------------------------------------
+  // the headers of the report
+  private static List<String> headers(TradeReportTemplate reportTemplate) {
+    return reportTemplate.getColumns().stream()
+        .map(TradeReportColumn::getHeader)
+        .collect(toImmutableList());
+  }
+
+  // evaluates and formats a row of the report
+  private static List<String> formatRow(
+      TradeReportTemplate reportTemplate,
+      List<Optional<ValuePath>> valuePaths,
+      ReportCalculationResults results,
+      int rowIdx) {
+
+    ImmutableList.Builder<String> row = ImmutableList.builder();
+    for (int colIdx = 0; colIdx < valuePaths.size(); colIdx++) {
+      Result<?> result = TradeReportRunner.evaluate(valuePaths.get(colIdx), results, rowIdx);
+      row.add(TradeReportFormatter.INSTANCE.formatResult(
+          reportTemplate.getColumns().get(colIdx), result, ReportOutputFormat.CSV));
+    }
+    return row.build();
+  }
+
+  //-------------------------------------------------------------------------
+  /**
+   * Listener writing the rows of the report as the calculations complete.
+   * <p>
+   * The results of the incomplete rows are buffered, and the complete rows that cannot be written yet
+   * are buffered once formatted.
+   */
+  private static final class CsvListener implements CalculationListener {
+
+    /** The report template. */
+    private final TradeReportTemplate reportTemplate;
+    /** The valuation date. */
+    private final LocalDate valuationDate;
+    /** The calculation functions. */
+    private final CalculationFunctions calculationFunctions;
+    /** The reference data. */
+    private final ReferenceData refData;
+    /** The writer. */
+    private final Writer writer;
+    /** The CSV output. */
+    private final CsvOutput csvOut;
+    /** The compiled value paths of the columns of the template. */
+    private final List<Optional<ValuePath>> valuePaths;
+    /** The rows whose calculations are not complete, keyed by row index. */
+    private final Map<Integer, IncompleteRow> incompleteRows = new HashMap<>();
+    /** The formatted rows whose calculations are complete but which are not written yet, keyed by row index. */
+    private final Map<Integer, List<String>> completeRows = new HashMap<>();
+    /** The targets of the calculations. */
+    private List<CalculationTarget> targets;
+    /** The columns of the calculations. */
+    private List<Column> columns;
+    /** The headers of the columns of the calculations. */
+    private List<ColumnHeader> columnHeaders;
+    /** The index of the next row to be written. */
+    private int nextRow;
+
+    private CsvListener(
+        TradeReportTemplate reportTemplate,
+        LocalDate valuationDate,
+        CalculationFunctions calculationFunctions,
+        ReferenceData refData,
+        Writer writer) {
+
+      this.reportTemplate = reportTemplate;
+      this.valuationDate = valuationDate;
+      this.calculationFunctions = calculationFunctions;
+      this.refData = refData;
+      this.writer = writer;
+      this.csvOut = new CsvOutput(writer);
+      this.valuePaths = TradeReportRunner.INSTANCE.compile(reportTemplate);
+    }
+
+    @Override
+    public void calculationsStarted(List<CalculationTarget> targets, List<Column> columns) {
+      this.targets = ImmutableList.copyOf(targets);
+      this.columns = ImmutableList.copyOf(columns);
+      this.columnHeaders = columns.stream().map(Column::toHeader).collect(toImmutableList());
+      csvOut.writeLine(headers(reportTemplate));
+      if (columns.isEmpty()) {
+        // no results will be received
+        for (int rowIdx = 0; rowIdx < targets.size(); rowIdx++) {
+          completeRows.put(rowIdx, formatRow(rowIdx, new Result<?>[0]));
+        }
+      }
+      writeCompleteRows();
+    }
+
+    @Override
+    public void resultReceived(CalculationTarget target, CalculationResult result) {
+      int rowIdx = result.getRowIndex();
+      IncompleteRow row = incompleteRows.computeIfAbsent(rowIdx, i -> new IncompleteRow(columns.size()));
+      row.results[result.getColumnIndex()] = result.getResult();
+      row.receivedCount++;
+      if (row.receivedCount == columns.size()) {
+        incompleteRows.remove(rowIdx);
+        completeRows.put(rowIdx, formatRow(rowIdx, row.results));
+        writeCompleteRows();
+      }
+    }
+
+    @Override
+    public void calculationsComplete() {
+      writeCompleteRows();
+      Unchecked.wrap(writer::flush);
+    }
+
+    // formats a row whose calculations are complete
+    private List<String> formatRow(int rowIdx, Result<?>[] rowResults) {
+      Results results = Results.of(columnHeaders, ImmutableList.copyOf(rowResults));
+      ReportCalculationResults rowCalculationResults = ReportCalculationResults.of(
+          valuationDate, ImmutableList.of(targets.get(rowIdx)), columns, results, calculationFunctions, refData);
+      return TradeReportCsvWriter.formatRow(reportTemplate, valuePaths, rowCalculationResults, 0);
+    }
+
+    // writes the complete rows whose previous rows have all been written
+    private void writeCompleteRows() {
+      List<String> row;
+      while ((row = completeRows.remove(nextRow)) != null) {
+        csvOut.writeLine(row);
+        nextRow++;
+      }
+    }
+  }
+
+  // the results received for a row whose calculations are not complete
+  private static final class IncompleteRow {
+    private final Result<?>[] results;
+    private int receivedCount;
+
+    private IncompleteRow(int columnCount) {
+      this.results = new Result<?>[columnCount];
+    }
+  }
+
+}
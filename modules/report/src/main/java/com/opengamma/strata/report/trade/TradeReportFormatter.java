@@ -68,7 +68,18 @@ public final class TradeReportFormatter
   protected String formatData(TradeReport report, int rowIdx, int colIdx, ReportOutputFormat format) {
     TradeReportColumn templateColumn = report.getColumns().get(colIdx);
     Result<?> result = report.getData().get(rowIdx, colIdx);
+    return formatResult(templateColumn, result, format);
+  }
 
+  /**
+   * Formats the result of a column for display.
+   * 
+   * @param templateColumn  the column of the report template
+   * @param result  the result
+   * @param format  the report output format
+   * @return the formatted result
+   */
+  String formatResult(TradeReportColumn templateColumn, Result<?> result, ReportOutputFormat format) {
     if (result.isFailure()) {
       return templateColumn.isIgnoreFailures() ? "" : Messages.format("FAIL: {}", result.getFailure().getMessage());
     }
@@ -8,17 +8,27 @@ package com.opengamma.strata.report.trade;
 import static com.opengamma.strata.collect.Guavate.toImmutableList;
 
 import java.time.Instant;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.IntFunction;
 import java.util.stream.IntStream;
 
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableTable;
 import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.collect.ArgChecker;
 import com.opengamma.strata.collect.Guavate;
 import com.opengamma.strata.collect.result.FailureReason;
 import com.opengamma.strata.collect.result.Result;
 import com.opengamma.strata.report.ReportCalculationResults;
 import com.opengamma.strata.report.ReportRequirements;
 import com.opengamma.strata.report.ReportRunner;
+import com.opengamma.strata.report.framework.expression.ValuePath;
 import com.opengamma.strata.report.framework.expression.ValuePathEvaluator;
 
 /**
@@ -27,6 +37,8 @@ import com.opengamma.strata.report.framework.expression.ValuePathEvaluator;
  * Trade reports are driven by a {@linkplain TradeReportTemplate trade report template}.
  * The resulting report is a table containing one row per trade, and the requested columns each
  * showing a value for that trade.
+ * <p>
+ * The rows are evaluated in the calling thread, unless an executor is specified using {@link #withExecutor(Executor)}.
  */
 public final class TradeReportRunner
     implements ReportRunner<TradeReportTemplate> {
@@ -34,10 +46,46 @@ public final class TradeReportRunner
   /**
    * The single shared instance of this report runner.
    */
-  public static final TradeReportRunner INSTANCE = new TradeReportRunner();
+  public static final TradeReportRunner INSTANCE =
+      new TradeReportRunner(CacheBuilder.newBuilder().weakKeys().build(), null);
+
+  /**
+   * The number of rows evaluated by each task submitted to the executor.
+   */
+  private static final int ROWS_PER_TASK = 64;
+
+  /**
+   * The compiled value paths of the columns, keyed by template.
+   * <p>
+   * The templates are compared by identity, and are weakly referenced so that they are not retained beyond their use.
+   */
+  private final Cache<TradeReportTemplate, List<Optional<ValuePath>>> compiledTemplates;
+  /**
+   * The executor used to evaluate the rows, null if evaluated in the calling thread.
+   */
+  private final Executor executor;
 
   // restricted constructor
-  private TradeReportRunner() {
+  private TradeReportRunner(
+      Cache<TradeReportTemplate, List<Optional<ValuePath>>> compiledTemplates,
+      Executor executor) {
+
+    this.compiledTemplates = compiledTemplates;
+    this.executor = executor;
+  }
+
+  /**
+   * Returns a report runner evaluating the rows in parallel.
+   * <p>
+   * The rows are split into blocks, and each block is evaluated by a task submitted to the executor.
+   * This allows the caller to choose the threads used, for example those of the calculation runner.
+   * The reports are the same as with this runner.
+   *
+   * @param executor  the executor used to evaluate the rows
+   * @return the report runner
+   */
+  public TradeReportRunner withExecutor(Executor executor) {
+    return new TradeReportRunner(compiledTemplates, ArgChecker.notNull(executor, "executor"));
   }
 
   //-------------------------------------------------------------------------
@@ -56,23 +104,21 @@ public final class TradeReportRunner
 
   @Override
   public TradeReport runReport(ReportCalculationResults results, TradeReportTemplate reportTemplate) {
+    List<Optional<ValuePath>> valuePaths = compile(reportTemplate);
+    int columnCount = valuePaths.size();
+    int rowCount = results.getCalculationResults().getRowCount();
+    List<List<Result<?>>> rows = mapRows(
+        0,
+        rowCount,
+        rowIdx -> valuePaths.stream()
+            .<Result<?>>map(valuePath -> evaluate(valuePath, results, rowIdx))
+            .collect(toImmutableList()),
+        executor);
     ImmutableTable.Builder<Integer, Integer, Result<?>> resultTable = ImmutableTable.builder();
 
-    for (int reportColumnIdx = 0; reportColumnIdx < reportTemplate.getColumns().size(); reportColumnIdx++) {
-      TradeReportColumn reportColumn = reportTemplate.getColumns().get(reportColumnIdx);
-      List<Result<?>> columnResults;
-
-      if (reportColumn.getValue().isPresent()) {
-        columnResults = ValuePathEvaluator.evaluate(reportColumn.getValue().get(), results);
-      } else {
-        columnResults = IntStream.range(0, results.getTargets().size())
-            .mapToObj(i -> Result.failure(FailureReason.INVALID, "No value specified in report template"))
-            .collect(toImmutableList());
-      }
-      int rowCount = results.getCalculationResults().getRowCount();
-
+    for (int reportColumnIdx = 0; reportColumnIdx < columnCount; reportColumnIdx++) {
       for (int rowIdx = 0; rowIdx < rowCount; rowIdx++) {
-        resultTable.put(rowIdx, reportColumnIdx, columnResults.get(rowIdx));
+        resultTable.put(rowIdx, reportColumnIdx, rows.get(rowIdx).get(reportColumnIdx));
       }
     }
 
@@ -84,4 +130,54 @@ public final class TradeReportRunner
         .build();
   }
 
+  //-------------------------------------------------------------------------
+  // compiles the value paths of the columns of the template, caching the result
+  List<Optional<ValuePath>> compile(TradeReportTemplate reportTemplate) {
+    return compiledTemplates.asMap().computeIfAbsent(reportTemplate, template -> template.getColumns().stream()
+        .map(column -> column.getValue().map(ValuePathEvaluator::compile))
+        .collect(toImmutableList()));
+  }
+
+  // applies the function to each row in the range, in blocks submitted to the executor if it is specified
+  static <T> List<T> mapRows(int startRow, int endRow, IntFunction<T> rowFn, Executor executor) {
+    if (executor == null) {
+      return IntStream.range(startRow, endRow).mapToObj(rowFn).collect(toImmutableList());
+    }
+    List<CompletableFuture<List<T>>> blocks = new ArrayList<>();
+    for (int blockStart = startRow; blockStart < endRow; blockStart += ROWS_PER_TASK) {
+      int start = blockStart;
+      int end = Math.min(blockStart + ROWS_PER_TASK, endRow);
+      blocks.add(CompletableFuture.supplyAsync(
+          () -> IntStream.range(start, end).mapToObj(rowFn).collect(toImmutableList()), executor));
+    }
+    List<T> rows = new ArrayList<>(endRow - startRow);
+    for (CompletableFuture<List<T>> block : blocks) {
+      rows.addAll(join(block));
+    }
+    return rows;
+  }
+
+  // waits for the result of the future, throwing the exception of the task if it failed
+  private static <T> T join(CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (CompletionException ex) {
+      Throwable cause = ex.getCause();
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      if (cause instanceof Error) {
+        throw (Error) cause;
+      }
+      throw ex;
+    }
+  }
+
+  // evaluates the value path of a column for a row
+  static Result<?> evaluate(Optional<ValuePath> valuePath, ReportCalculationResults results, int rowIdx) {
+    return valuePath.isPresent() ?
+        valuePath.get().evaluate(results, rowIdx) :
+        Result.failure(FailureReason.INVALID, "No value specified in report template");
+  }
+
 }
@@ -0,0 +1,217 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.report.binary;
+
+import static com.opengamma.strata.basics.currency.Currency.EUR;
+import static com.opengamma.strata.basics.currency.Currency.GBP;
+import static com.opengamma.strata.basics.currency.Currency.USD;
+import static com.opengamma.strata.basics.index.IborIndices.GBP_LIBOR_3M;
+import static com.opengamma.strata.collect.Guavate.toImmutableList;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static com.opengamma.strata.product.common.BuySell.BUY;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.annotations.Test;
+
+import com.google.common.base.Strings;
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.StandardId;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.currency.MultiCurrencyAmount;
+import com.opengamma.strata.basics.date.AdjustableDate;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.Measure;
+import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.collect.array.DoubleArray;
+import com.opengamma.strata.collect.result.FailureReason;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.data.scenario.CurrencyScenarioArray;
+import com.opengamma.strata.data.scenario.DoubleScenarioArray;
+import com.opengamma.strata.product.Trade;
+import com.opengamma.strata.product.TradeInfo;
+import com.opengamma.strata.product.fra.Fra;
+import com.opengamma.strata.product.fra.FraTrade;
+import com.opengamma.strata.report.ReportCalculationResults;
+
+/**
+ * Test {@link BinaryResultsWriter} and {@link BinaryResults}.
+ */
+@Test
+public class BinaryResultsWriterTest {
+
+  private static final List<Column> COLUMNS = ImmutableList.of(
+      Column.of(Measure.of("PresentValue")),
+      Column.of(Measure.of("CurrencyExposure")),
+      Column.of(Measure.of("ParRate")),
+      Column.of(Measure.of("ParSpread")),
+      Column.of(Measure.of("CashFlows")));
+  private static final List<Result<?>> VALUES = ImmutableList.of(
+      // row 0
+      Result.success(CurrencyAmount.of(GBP, 1d)),
+      Result.success(MultiCurrencyAmount.of(CurrencyAmount.of(GBP, 2d), CurrencyAmount.of(USD, 3d))),
+      Result.success(DoubleScenarioArray.of(DoubleArray.of(0.01d, 0.02d))),
+      Result.success(CurrencyScenarioArray.of(EUR, DoubleArray.of(4d, 5d))),
+      Result.success("text"),
+      // row 1
+      Result.success(CurrencyAmount.of(USD, 6d)),
+      Result.success(MultiCurrencyAmount.of(CurrencyAmount.of(EUR, 7d))),
+      Result.failure(FailureReason.MISSING_DATA, "No curve {}", "{GBP}"),
+      Result.success(CurrencyScenarioArray.of(GBP, DoubleArray.of(8d, 9d))),
+      Result.success("more text"),
+      // row 2
+      Result.failure(FailureReason.CALCULATION_FAILED, "Failed"),
+      Result.success(MultiCurrencyAmount.empty()),
+      Result.success(DoubleScenarioArray.of(DoubleArray.of(0.03d, 0.04d))),
+      Result.success(CurrencyScenarioArray.of(EUR, DoubleArray.of(10d, 11d, 12d))),
+      Result.failure(FailureReason.ERROR, "Error"));
+
+  public void roundTrip() {
+    ReportCalculationResults results = reportResults();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryResultsWriter.INSTANCE.write(results, out);
+    BinaryResults test = BinaryResults.of(ByteBuffer.wrap(out.toByteArray()));
+    assertResults(test, results);
+  }
+
+  public void roundTrip_mapped() throws Exception {
+    ReportCalculationResults results = reportResults();
+    Path file = Files.createTempFile("results", ".bin");
+    try {
+      BinaryResultsWriter.INSTANCE.write(results, file);
+      BinaryResults test = BinaryResults.map(file);
+      assertResults(test, results);
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  public void roundTrip_mappedManyRows() throws Exception {
+    // the blocks and strings span several chunks of the writer and reader
+    int rowCount = 5000;
+    List<Trade> trades = new ArrayList<>();
+    List<Result<?>> values = new ArrayList<>();
+    for (int i = 0; i < rowCount; i++) {
+      trades.add(trade(Strings.repeat("x", i % 300) + i));
+      values.add(Result.success(CurrencyAmount.of(i % 2 == 0 ? GBP : USD, i)));
+      values.add(i % 7 == 0 ?
+          Result.failure(FailureReason.CALCULATION_FAILED, "Failed {}", i) :
+          Result.success(DoubleScenarioArray.of(DoubleArray.of(i, -i, 2d * i))));
+    }
+    List<Column> columns = COLUMNS.subList(0, 2);
+    Results calculationResults = Results.of(
+        columns.stream().map(Column::toHeader).collect(toImmutableList()), values);
+    ReportCalculationResults results =
+        ReportCalculationResults.of(date(2015, 8, 3), trades, columns, calculationResults);
+    Path file = Files.createTempFile("results", ".bin");
+    try {
+      BinaryResultsWriter.INSTANCE.write(results, file);
+      BinaryResults test = BinaryResults.map(file);
+      assertThat(test.getRowCount()).isEqualTo(rowCount);
+      assertThat(test.getValues(1).remaining()).isEqualTo(3 * rowCount);
+      for (int rowIdx = 0; rowIdx < rowCount; rowIdx++) {
+        assertThat(test.getId(rowIdx)).hasValue(StandardId.of("OG", Strings.repeat("x", rowIdx % 300) + rowIdx));
+        assertThat(test.get(rowIdx, 0)).isEqualTo(calculationResults.get(rowIdx, 0));
+        if (rowIdx % 7 == 0) {
+          assertThat(test.get(rowIdx, 1).getFailure().getMessage()).isEqualTo("Failed " + rowIdx);
+        } else {
+          assertThat(test.get(rowIdx, 1)).isEqualTo(calculationResults.get(rowIdx, 1));
+        }
+      }
+    } finally {
+      Files.deleteIfExists(file);
+    }
+  }
+
+  public void columns() {
+    ReportCalculationResults results = reportResults();
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    BinaryResultsWriter.INSTANCE.write(results, out);
+    BinaryResults test = BinaryResults.of(ByteBuffer.wrap(out.toByteArray()));
+
+    assertThat(test.getRowCount()).isEqualTo(3);
+    assertThat(test.getColumnCount()).isEqualTo(5);
+    assertThat(test.getId(0)).hasValue(StandardId.of("OG", "1"));
+    assertThat(test.getId(1)).hasValue(StandardId.of("OG", "2"));
+    assertThat(test.getId(2)).hasValue(StandardId.of("OG", "1"));
+    assertThat(test.getColumnName(0)).isEqualTo("PresentValue");
+    assertThat(test.getMeasureName(1)).isEqualTo("CurrencyExposure");
+    assertThat(test.getColumnType(0)).isEqualTo(BinaryColumnType.CURRENCY_AMOUNT);
+    assertThat(test.getColumnType(1)).isEqualTo(BinaryColumnType.MULTI_CURRENCY_AMOUNT);
+    assertThat(test.getColumnType(2)).isEqualTo(BinaryColumnType.DOUBLE_SCENARIO_ARRAY);
+    assertThat(test.getColumnType(3)).isEqualTo(BinaryColumnType.CURRENCY_SCENARIO_ARRAY);
+    assertThat(test.getColumnType(4)).isEqualTo(BinaryColumnType.UNSUPPORTED);
+    assertThat(test.getScenarioCount(0)).isEqualTo(1);
+    assertThat(test.getScenarioCount(2)).isEqualTo(2);
+    assertThat(test.getCurrencies(0)).containsExactly(GBP, USD);
+    assertThat(test.getCurrencies(1)).containsExactly(GBP, USD, EUR);
+    assertThat(test.getCurrencies(2)).isEmpty();
+    assertThat(test.getCurrencies(4)).isEmpty();
+
+    DoubleBuffer gbp = test.getValues(0, GBP);
+    assertThat(gbp.remaining()).isEqualTo(3);
+    assertThat(gbp.get(0)).isEqualTo(1d);
+    assertThat(gbp.get(1)).isNaN();
+    DoubleBuffer parRates = test.getValues(2);
+    assertThat(parRates.remaining()).isEqualTo(6);
+    assertThat(parRates.get(5)).isEqualTo(0.04d);
+    assertThat(test.getFailures().size()).isEqualTo(6);
+    // scenario count differing from the first value of the column
+    assertThat(test.get(2, 3).getFailure().getReason()).isEqualTo(FailureReason.UNSUPPORTED);
+    assertThat(test.get(0, 4).getFailure().getReason()).isEqualTo(FailureReason.UNSUPPORTED);
+  }
+
+  //-------------------------------------------------------------------------
+  private static void assertResults(BinaryResults test, ReportCalculationResults results) {
+    Results calculationResults = results.getCalculationResults();
+    for (int rowIdx = 0; rowIdx < calculationResults.getRowCount(); rowIdx++) {
+      for (int colIdx = 0; colIdx < 4; colIdx++) {
+        if (rowIdx == 2 && colIdx == 3) {
+          continue;  // scenario count differs from the first value of the column
+        }
+        Result<?> expected = calculationResults.get(rowIdx, colIdx);
+        Result<?> computed = test.get(rowIdx, colIdx);
+        if (expected.isSuccess()) {
+          assertThat(computed).isEqualTo(expected);
+        } else {
+          assertThat(computed.getFailure().getReason()).isEqualTo(expected.getFailure().getReason());
+          assertThat(computed.getFailure().getMessage()).isEqualTo(expected.getFailure().getMessage());
+        }
+      }
+    }
+  }
+
+  private static ReportCalculationResults reportResults() {
+    List<Trade> trades = ImmutableList.of(trade("1"), trade("2"), trade("1"));
+    Results results = Results.of(
+        COLUMNS.stream().map(Column::toHeader).collect(toImmutableList()), VALUES);
+    return ReportCalculationResults.of(date(2015, 8, 3), trades, COLUMNS, results);
+  }
+
+  private static Trade trade(String id) {
+    Fra fra = Fra.builder()
+        .buySell(BUY)
+        .notional(1_000_000d)
+        .startDate(date(2015, 8, 5))
+        .endDate(date(2015, 11, 5))
+        .paymentDate(AdjustableDate.of(date(2015, 8, 7)))
+        .fixedRate(0.25d)
+        .index(GBP_LIBOR_3M)
+        .build();
+    return FraTrade.builder()
+        .info(TradeInfo.builder().id(StandardId.of("OG", id)).build())
+        .product(fra)
+        .build();
+  }
+
+}
@@ -122,6 +122,31 @@ public class ValuePathEvaluatorTest {
     assertThat(counterpartyResults).isEqualTo(expectedCounterparties);
   }
 
+  public void compiledPath() {
+    ReportCalculationResults reportResults = reportResults();
+
+    ValuePath valuePath = ValuePathEvaluator.compile("Trade.product.NOTIONAL");
+    assertThat(valuePath.getValuePath()).isEqualTo("Trade.product.NOTIONAL");
+    assertThat(valuePath.toString()).isEqualTo("Trade.product.NOTIONAL");
+    List<Result<?>> expectedNotionals = ImmutableList.of(
+        Result.success(1_000_000d),
+        Result.success(10_000_000d),
+        Result.success(100_000_000d));
+    assertThat(valuePath.evaluate(reportResults)).isEqualTo(expectedNotionals);
+    assertThat(valuePath.evaluate(reportResults, 1)).isEqualTo(expectedNotionals.get(1));
+    assertThat(ValuePathEvaluator.evaluate("Trade.product.NOTIONAL", reportResults)).isEqualTo(expectedNotionals);
+  }
+
+  public void compiledPath_failure() {
+    ReportCalculationResults reportResults = reportResults();
+
+    ValuePath valuePath = ValuePathEvaluator.compile("Trade.Product.Wibble");
+    Result<?> result = valuePath.evaluate(reportResults, 0);
+    assertThat(result.isFailure()).isTrue();
+    assertThat(result.getFailure().getMessage()).contains("Wibble");
+    assertThat(result.getFailure().getMessage()).contains("notional");
+  }
+
   //--------------------------------------------------------------------------------------------------
 
   private static ReportCalculationResults reportResults() {
@@ -0,0 +1,153 @@
+/*
+ * Copyright (C) 2017 - present by OpenGamma Inc. and the OpenGamma group of companies
+ *
+ * Please see distribution for license.
+ */
+package com.opengamma.strata.report.trade;
+
+import static com.opengamma.strata.basics.index.IborIndices.GBP_LIBOR_3M;
+import static com.opengamma.strata.collect.TestHelper.date;
+import static com.opengamma.strata.product.common.BuySell.BUY;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.testng.annotations.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.opengamma.strata.basics.StandardId;
+import com.opengamma.strata.basics.currency.Currency;
+import com.opengamma.strata.basics.currency.CurrencyAmount;
+import com.opengamma.strata.basics.date.AdjustableDate;
+import com.opengamma.strata.calc.Column;
+import com.opengamma.strata.calc.Measure;
+import com.opengamma.strata.calc.Results;
+import com.opengamma.strata.calc.runner.CalculationListener;
+import com.opengamma.strata.calc.runner.CalculationResult;
+import com.opengamma.strata.collect.result.Result;
+import com.opengamma.strata.product.Trade;
+import com.opengamma.strata.product.TradeInfo;
+import com.opengamma.strata.product.fra.Fra;
+import com.opengamma.strata.product.fra.FraTrade;
+import com.opengamma.strata.report.ReportCalculationResults;
+
+/**
+ * Test {@link TradeReportCsvWriter}.
+ */
+@Test
+public class TradeReportCsvWriterTest {
+
+  private static final int ROW_COUNT = 20;
+  private static final List<Column> COLUMNS =
+      ImmutableList.of(Column.of(Measure.of("PresentValue")), Column.of(Measure.of("ParRate")));
+  private static final TradeReportTemplate TEMPLATE = TradeReportTemplate.builder()
+      .columns(
+          TradeReportColumn.builder().header("Counterparty").value("Trade.Counterparty.Value").build(),
+          TradeReportColumn.builder().header("PV").value("Measures.PresentValue").build(),
+          TradeReportColumn.builder().header("Par Rate").value("Measures.ParRate").build(),
+          TradeReportColumn.builder().header("Notional").value("Product.notional").build(),
+          TradeReportColumn.builder().header("Invalid").value("Product.wibble").build(),
+          TradeReportColumn.builder().header("Empty").build())
+      .build();
+
+  public void writeCsv() {
+    ReportCalculationResults results = reportResults();
+    String expected = expectedCsv(results);
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    TradeReportCsvWriter.INSTANCE.writeCsv(results, TEMPLATE, out);
+    assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8)).isEqualTo(expected);
+
+    ByteArrayOutputStream outBlocks = new ByteArrayOutputStream();
+    TradeReportCsvWriter.ofBlockSize(3).writeCsv(results, TEMPLATE, outBlocks);
+    assertThat(new String(outBlocks.toByteArray(), StandardCharsets.UTF_8)).isEqualTo(expected);
+  }
+
+  public void writeCsv_executor() {
+    ReportCalculationResults results = reportResults();
+    String expected = expectedCsv(results);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      ByteArrayOutputStream outRunner = new ByteArrayOutputStream();
+      TradeReportFormatter.INSTANCE.writeCsv(
+          TradeReportRunner.INSTANCE.withExecutor(executor).runReport(results, TEMPLATE), outRunner);
+      assertThat(new String(outRunner.toByteArray(), StandardCharsets.UTF_8)).isEqualTo(expected);
+
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      TradeReportCsvWriter.ofBlockSize(3).withExecutor(executor).writeCsv(results, TEMPLATE, out);
+      assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8)).isEqualTo(expected);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  public void listener() {
+    ReportCalculationResults results = reportResults();
+    String expected = expectedCsv(results);
+    List<CalculationResult> calculationResults = new ArrayList<>();
+    for (int rowIdx = 0; rowIdx < ROW_COUNT; rowIdx++) {
+      for (int colIdx = 0; colIdx < COLUMNS.size(); colIdx++) {
+        calculationResults.add(
+            CalculationResult.of(rowIdx, colIdx, results.getCalculationResults().get(rowIdx, colIdx)));
+      }
+    }
+    Collections.shuffle(calculationResults, new Random(1));
+
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    CalculationListener listener = TradeReportCsvWriter.INSTANCE.listener(
+        TEMPLATE, results.getValuationDate(), results.getCalculationFunctions(), results.getReferenceData(), out);
+    listener.calculationsStarted(results.getTargets(), COLUMNS);
+    for (CalculationResult calculationResult : calculationResults) {
+      listener.resultReceived(results.getTargets().get(calculationResult.getRowIndex()), calculationResult);
+    }
+    listener.calculationsComplete();
+    assertThat(new String(out.toByteArray(), StandardCharsets.UTF_8)).isEqualTo(expected);
+  }
+
+  //-------------------------------------------------------------------------
+  private static String expectedCsv(ReportCalculationResults results) {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    TradeReportFormatter.INSTANCE.writeCsv(TradeReportRunner.INSTANCE.runReport(results, TEMPLATE), out);
+    return new String(out.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  private static ReportCalculationResults reportResults() {
+    List<Result<?>> resultValues = new ArrayList<>();
+    List<Trade> trades = new ArrayList<>();
+    for (int i = 0; i < ROW_COUNT; i++) {
+      resultValues.add(Result.success(CurrencyAmount.of(Currency.GBP, i)));
+      resultValues.add(Result.success(0.001d * i));
+      trades.add(trade("cpty" + i, 1_000_000d * i));
+    }
+    Results results = Results.of(
+        ImmutableList.of(COLUMNS.get(0).toHeader(), COLUMNS.get(1).toHeader()), resultValues);
+    return ReportCalculationResults.of(date(2015, 8, 3), trades, COLUMNS, results);
+  }
+
+  private static Trade trade(String counterparty, double notional) {
+    TradeInfo tradeInfo = TradeInfo.builder()
+        .counterparty(StandardId.of("cpty", counterparty))
+        .build();
+    Fra fra = Fra.builder()
+        .buySell(BUY)
+        .notional(notional)
+        .startDate(date(2015, 8, 5))
+        .endDate(date(2015, 11, 5))
+        .paymentDate(AdjustableDate.of(date(2015, 8, 7)))
+        .fixedRate(0.25d)
+        .index(GBP_LIBOR_3M)
+        .build();
+    return FraTrade.builder()
+        .info(tradeInfo)
+        .product(fra)
+        .build();
+  }
+
+}